@@ -1,5 +1,6 @@
 package de.metas.acct.aggregation;
 
+import java.util.List;
 import java.util.Properties;
 
 import org.adempiere.ad.dao.IQueryBuilder;
@@ -51,6 +52,13 @@ public interface IFactAcctLogDAO extends ISingletonService
 	 */
 	IFactAcctLogIterable tagAndRetrieve(Properties ctx, final int limit);
 
+	/**
+	 * Aggregates all {@link I_Fact_Acct_Log}s which are tagged with given tag by their {@link IFactAcctSummaryKey}.
+	 *
+	 * @return one aggregate for each summary key, ordered by key
+	 */
+	List<FactAcctLogAggregate> retrieveAggregatedForTag(Properties ctx, String processingTag);
+
 	/**
 	 * Retrieves the {@link I_Fact_Acct_Summary} in which the given {@link IFactAcctSummaryKey} shall be aggregated.
 	 * 
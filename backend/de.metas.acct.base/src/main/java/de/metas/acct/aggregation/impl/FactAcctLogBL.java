@@ -9,22 +9,21 @@ import org.adempiere.ad.dao.IQueryFilter;
 import org.adempiere.ad.dao.impl.EqualsQueryFilter;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.model.InterfaceWrapperHelper;
-import org.adempiere.util.agg.key.IAggregationKeyBuilder;
+import org.adempiere.model.PlainContextAware;
 import org.compiere.util.TimeUtil;
 import org.compiere.util.TrxRunnableAdapter;
 
+import de.metas.acct.aggregation.FactAcctLogAggregate;
 import de.metas.acct.aggregation.IFactAcctLogBL;
 import de.metas.acct.aggregation.IFactAcctLogDAO;
 import de.metas.acct.aggregation.IFactAcctLogIterable;
 import de.metas.acct.aggregation.IFactAcctSummaryKey;
 import de.metas.acct.model.I_Fact_Acct_Log;
 import de.metas.acct.model.I_Fact_Acct_Summary;
-import de.metas.acct.model.X_Fact_Acct_Log;
 import de.metas.util.Check;
 import de.metas.util.ILoggable;
 import de.metas.util.Loggables;
 import de.metas.util.Services;
-import de.metas.util.collections.MapReduceAggregator;
 
 /*
  * #%L
@@ -73,81 +72,56 @@ public class FactAcctLogBL implements IFactAcctLogBL
 	public void process(final IFactAcctLogIterable logs)
 	{
 		final ILoggable loggable = Loggables.get();
+		final IFactAcctLogDAO factAcctLogDAO = Services.get(IFactAcctLogDAO.class);
 
 		//
 		// Update Fact_Acct_Summary
-		final FactAcctSummaryUpdater factAcctSummaryUpdater = new FactAcctSummaryUpdater();
-		for (final I_Fact_Acct_Log log : logs)
+		// NOTE: the logs are aggregated by summary key in the database, so we only need to deal with one aggregate per key
+		final List<FactAcctLogAggregate> aggregates = factAcctLogDAO.retrieveAggregatedForTag(logs.getCtx(), logs.getProcessingTag());
+		int countLogs = 0;
+		for (final FactAcctLogAggregate aggregate : aggregates)
 		{
-			factAcctSummaryUpdater.add(log);
+			FactAcctGroup.of(logs.getCtx(), aggregate).close();
+			countLogs += aggregate.getCountLogs();
 		}
-		factAcctSummaryUpdater.closeAllGroups();
 
 		//
 		// Update Fact_Acct_EndingBalance
-		Services.get(IFactAcctLogDAO.class).updateFactAcctEndingBalanceForTag(logs.getProcessingTag());
+		factAcctLogDAO.updateFactAcctEndingBalanceForTag(logs.getProcessingTag());
 
 		//
 		// Delete all processed logs
 		logs.deleteAll();
 
-		loggable.addLog("Processed {0} {1} records", factAcctSummaryUpdater.getItemsCount(), I_Fact_Acct_Log.Table_Name);
-		loggable.addLog("Created/Updated {0} {1} records", factAcctSummaryUpdater.getGroupsCount(), I_Fact_Acct_Summary.Table_Name);
-	}
-
-	private static class FactAcctSummaryUpdater extends MapReduceAggregator<FactAcctGroup, I_Fact_Acct_Log>
-	{
-		public FactAcctSummaryUpdater()
-		{
-			super();
-			setGroupsBufferSize(1); // IMPORTANT: keep only one group in memory because we are also updating next groups when a current group is updated
-			setItemAggregationKeyBuilder(FactAcctSummaryKeyBuilder.instance);
-		}
-
-		@Override
-		protected FactAcctGroup createGroup(final Object itemHashKey, final I_Fact_Acct_Log log)
-		{
-			return FactAcctGroup.getCreatedForLog(log);
-		}
-
-		@Override
-		protected void closeGroup(final FactAcctGroup group)
-		{
-			group.close();
-		}
-
-		@Override
-		protected void addItemToGroup(final FactAcctGroup group, final I_Fact_Acct_Log log)
-		{
-			group.add(log);
-		}
+		loggable.addLog("Processed {0} {1} records", countLogs, I_Fact_Acct_Log.Table_Name);
+		loggable.addLog("Created/Updated {0} {1} records", aggregates.size(), I_Fact_Acct_Summary.Table_Name);
 	}
 
 	private static final class FactAcctGroup
 	{
 		private final transient IFactAcctLogDAO factAcctLogDAO = Services.get(IFactAcctLogDAO.class);
 
-		public static final FactAcctGroup getCreatedForLog(final I_Fact_Acct_Log log)
+		public static final FactAcctGroup of(final Properties ctx, final FactAcctLogAggregate aggregate)
 		{
-			return new FactAcctGroup(log);
+			return new FactAcctGroup(ctx, aggregate);
 		}
 
-		private final Object contextProvider;
 		private final Properties ctx;
 		private final IFactAcctSummaryKey key;
-		private BigDecimal amtAcctDr_ToAdd;
-		private BigDecimal amtAcctCr_ToAdd;
-		private BigDecimal qty_ToAdd;
+		private final BigDecimal amtAcctDr_ToAdd;
+		private final BigDecimal amtAcctCr_ToAdd;
+		private final BigDecimal qty_ToAdd;
 
-		private FactAcctGroup(final I_Fact_Acct_Log log)
+		private FactAcctGroup(final Properties ctx, final FactAcctLogAggregate aggregate)
 		{
 			super();
 
-			contextProvider = log;
-			ctx = InterfaceWrapperHelper.getCtx(log);
-			key = FactAcctSummaryKey.of(log);
+			this.ctx = ctx;
+			key = aggregate.getKey();
 
-			resetAmounts();
+			amtAcctDr_ToAdd = aggregate.getAmtAcctDr();
+			amtAcctCr_ToAdd = aggregate.getAmtAcctCr();
+			qty_ToAdd = aggregate.getQty();
 		}
 
 		private final I_Fact_Acct_Summary getCreateFactAcctSummary()
@@ -168,7 +142,7 @@ public class FactAcctLogBL implements IFactAcctLogBL
 			// Create new
 			else
 			{
-				final I_Fact_Acct_Summary factAcctSummary = InterfaceWrapperHelper.newInstance(I_Fact_Acct_Summary.class, contextProvider);
+				final I_Fact_Acct_Summary factAcctSummary = InterfaceWrapperHelper.newInstance(I_Fact_Acct_Summary.class, PlainContextAware.newWithThreadInheritedTrx(ctx));
 
 				// Copy the values from last matching summary
 				if (factAcctSummaryExisting != null)
@@ -208,43 +182,6 @@ public class FactAcctLogBL implements IFactAcctLogBL
 			}
 		}
 
-		private final void resetAmounts()
-		{
-			amtAcctDr_ToAdd = BigDecimal.ZERO;
-			amtAcctCr_ToAdd = BigDecimal.ZERO;
-			qty_ToAdd = BigDecimal.ZERO;
-		}
-
-		public void add(final I_Fact_Acct_Log log)
-		{
-			final String logAction = log.getAction();
-			final BigDecimal amtAcctDr_Diff;
-			final BigDecimal amtAcctCr_Diff;
-			final BigDecimal qty_Diff;
-			if (X_Fact_Acct_Log.ACTION_Insert.equals(logAction))
-			{
-				amtAcctDr_Diff = log.getAmtAcctDr();
-				amtAcctCr_Diff = log.getAmtAcctCr();
-				qty_Diff = log.getQty();
-			}
-			else if (X_Fact_Acct_Log.ACTION_Delete.equals(logAction))
-			{
-				amtAcctDr_Diff = log.getAmtAcctDr().negate();
-				amtAcctCr_Diff = log.getAmtAcctCr().negate();
-				qty_Diff = log.getQty().negate();
-			}
-			else
-			{
-				throw new IllegalStateException("Log action not supported: " + logAction + " (" + log + ")");
-			}
-
-			//
-			// Update the summary record
-			amtAcctDr_ToAdd = amtAcctDr_ToAdd.add(amtAcctDr_Diff);
-			amtAcctCr_ToAdd = amtAcctCr_ToAdd.add(amtAcctCr_Diff);
-			qty_ToAdd = qty_ToAdd.add(qty_Diff);
-		}
-
 		private final boolean hasChanges()
 		{
 			return amtAcctDr_ToAdd.signum() != 0 || amtAcctCr_ToAdd.signum() != 0 || qty_ToAdd.signum() != 0;
@@ -278,39 +215,7 @@ public class FactAcctLogBL implements IFactAcctLogBL
 					.addAddValueToColumn(I_Fact_Acct_Summary.COLUMNNAME_AmtAcctCr_YTD, amtAcctCr_ToAdd, currentYearFilter)
 					//
 					.execute();
-
-			//
-			// Reset the amounts because we processed them
-			resetAmounts();
-		}
-
-	}
-
-	private static final class FactAcctSummaryKeyBuilder implements IAggregationKeyBuilder<I_Fact_Acct_Log>
-	{
-		public static final transient FactAcctSummaryKeyBuilder instance = new FactAcctSummaryKeyBuilder();
-
-		private FactAcctSummaryKeyBuilder()
-		{
-			super();
-		}
-
-		@Override
-		public String buildKey(final I_Fact_Acct_Log item)
-		{
-			return FactAcctSummaryKey.of(item).asString();
-		}
-
-		@Override
-		public List<String> getDependsOnColumnNames()
-		{
-			throw new UnsupportedOperationException();
 		}
 
-		@Override
-		public boolean isSame(final I_Fact_Acct_Log item1, final I_Fact_Acct_Log item2)
-		{
-			throw new UnsupportedOperationException();
-		}
 	}
 }
@@ -3,7 +3,9 @@ package de.metas.acct.aggregation.impl;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -21,6 +23,7 @@ import org.compiere.util.DB;
 import org.slf4j.Logger;
 
 import ch.qos.logback.classic.Level;
+import de.metas.acct.aggregation.FactAcctLogAggregate;
 import de.metas.acct.aggregation.IFactAcctLogDAO;
 import de.metas.acct.aggregation.IFactAcctLogIterable;
 import de.metas.acct.aggregation.IFactAcctSummaryKey;
@@ -28,6 +31,7 @@ import de.metas.acct.api.IFactAcctDAO;
 import de.metas.acct.model.I_Fact_Acct_EndingBalance;
 import de.metas.acct.model.I_Fact_Acct_Log;
 import de.metas.acct.model.I_Fact_Acct_Summary;
+import de.metas.acct.model.X_Fact_Acct_Log;
 import de.metas.logging.LogManager;
 import de.metas.util.Loggables;
 import de.metas.util.Services;
@@ -102,7 +106,7 @@ public class FactAcctLogDAO implements IFactAcctLogDAO
 				.addEqualsFilter(I_Fact_Acct_Log.COLUMN_ProcessingTag, processingTag);
 	}
 
-	private final Iterator<I_Fact_Acct_Log> retrieveForTag(final Properties ctx, final String processingTag)
+	protected final Iterator<I_Fact_Acct_Log> retrieveForTag(final Properties ctx, final String processingTag)
 	{
 		return retrieveForTagQuery(ctx, processingTag)
 				//
@@ -129,6 +133,88 @@ public class FactAcctLogDAO implements IFactAcctLogDAO
 				.deleteDirectly();
 	}
 
+	@Override
+	public List<FactAcctLogAggregate> retrieveAggregatedForTag(final Properties ctx, final String processingTag)
+	{
+		final String sql = "SELECT "
+				+ " " + I_Fact_Acct_Log.COLUMNNAME_AD_Client_ID
+				+ ", " + I_Fact_Acct_Log.COLUMNNAME_AD_Org_ID
+				+ ", " + I_Fact_Acct_Log.COLUMNNAME_C_ElementValue_ID
+				+ ", " + I_Fact_Acct_Log.COLUMNNAME_C_AcctSchema_ID
+				+ ", " + I_Fact_Acct_Log.COLUMNNAME_PostingType
+				+ ", " + I_Fact_Acct_Log.COLUMNNAME_C_Period_ID
+				+ ", date_trunc('day', " + I_Fact_Acct_Log.COLUMNNAME_DateAcct + ") AS " + I_Fact_Acct_Log.COLUMNNAME_DateAcct
+				+ ", " + sqlSumSigned(I_Fact_Acct_Log.COLUMNNAME_AmtAcctDr)
+				+ ", " + sqlSumSigned(I_Fact_Acct_Log.COLUMNNAME_AmtAcctCr)
+				+ ", " + sqlSumSigned(I_Fact_Acct_Log.COLUMNNAME_Qty)
+				+ ", COUNT(1) AS CountLogs"
+				+ ", MIN(CASE WHEN " + I_Fact_Acct_Log.COLUMNNAME_Action + " IN ('" + X_Fact_Acct_Log.ACTION_Insert + "', '" + X_Fact_Acct_Log.ACTION_Delete + "') THEN NULL"
+				+ " ELSE COALESCE(" + I_Fact_Acct_Log.COLUMNNAME_Action + ", '<null>') END) AS UnsupportedAction"
+				+ " FROM " + I_Fact_Acct_Log.Table_Name
+				+ " WHERE " + I_Fact_Acct_Log.COLUMNNAME_ProcessingTag + "=?"
+				+ " GROUP BY 1, 2, 3, 4, 5, 6, 7"
+				+ " ORDER BY 1, 2, 3, 4, 5, 7, 6";
+		final Object[] sqlParams = new Object[] { processingTag };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final List<FactAcctLogAggregate> aggregates = new ArrayList<>();
+			while (rs.next())
+			{
+				final String unsupportedAction = rs.getString("UnsupportedAction");
+				if (unsupportedAction != null)
+				{
+					throw new IllegalStateException("Log action not supported: " + unsupportedAction + " (processingTag=" + processingTag + ")");
+				}
+
+				final IFactAcctSummaryKey key = FactAcctSummaryKey.of(
+						rs.getInt(I_Fact_Acct_Log.COLUMNNAME_AD_Client_ID),
+						rs.getInt(I_Fact_Acct_Log.COLUMNNAME_AD_Org_ID),
+						rs.getInt(I_Fact_Acct_Log.COLUMNNAME_C_ElementValue_ID),
+						rs.getInt(I_Fact_Acct_Log.COLUMNNAME_C_AcctSchema_ID),
+						rs.getString(I_Fact_Acct_Log.COLUMNNAME_PostingType),
+						rs.getInt(I_Fact_Acct_Log.COLUMNNAME_C_Period_ID),
+						rs.getTimestamp(I_Fact_Acct_Log.COLUMNNAME_DateAcct));
+
+				aggregates.add(FactAcctLogAggregate.builder()
+						.key(key)
+						.amtAcctDr(rs.getBigDecimal(I_Fact_Acct_Log.COLUMNNAME_AmtAcctDr))
+						.amtAcctCr(rs.getBigDecimal(I_Fact_Acct_Log.COLUMNNAME_AmtAcctCr))
+						.qty(rs.getBigDecimal(I_Fact_Acct_Log.COLUMNNAME_Qty))
+						.countLogs(rs.getInt("CountLogs"))
+						.build());
+			}
+
+			return aggregates;
+		}
+		catch (final SQLException e)
+		{
+			throw DBException.wrapIfNeeded(e).appendParametersToMessage()
+					.setParameter("sql", sql)
+					.setParameter("sqlParams", sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * @return SQL which sums up given column, negating the values of deleted logs
+	 */
+	private static String sqlSumSigned(final String columnName)
+	{
+		return "COALESCE(SUM(CASE"
+				+ " WHEN " + I_Fact_Acct_Log.COLUMNNAME_Action + "='" + X_Fact_Acct_Log.ACTION_Insert + "' THEN " + columnName
+				+ " WHEN " + I_Fact_Acct_Log.COLUMNNAME_Action + "='" + X_Fact_Acct_Log.ACTION_Delete + "' THEN -" + columnName
+				+ " END), 0) AS " + columnName;
+	}
+
 	public final IQueryBuilder<I_Fact_Acct_Summary> createFactAcctSummaryQueryForKeyNoDateAcct(final Properties ctx, final IFactAcctSummaryKey key)
 	{
 		return Services.get(IQueryBL.class)
@@ -37,7 +37,31 @@ final class FactAcctSummaryKey implements IFactAcctSummaryKey
 {
 	public static final IFactAcctSummaryKey of(final I_Fact_Acct_Log log)
 	{
-		return new FactAcctSummaryKey(log);
+		Check.assumeNotNull(log, "log not null");
+
+		final Date dateAcct = log.getDateAcct();
+		Check.assumeNotNull(dateAcct, "dateAcct not null for {}", log);
+
+		return of(
+				log.getAD_Client_ID(),
+				log.getAD_Org_ID(), // FRESH-326: set the AD_Org from the log
+				log.getC_ElementValue_ID(),
+				log.getC_AcctSchema_ID(),
+				log.getPostingType(),
+				log.getC_Period_ID(),
+				dateAcct);
+	}
+
+	public static final IFactAcctSummaryKey of(
+			final int AD_Client_ID,
+			final int AD_Org_ID,
+			final int C_ElementValue_ID,
+			final int C_AcctSchema_ID,
+			final String postingType,
+			final int C_Period_ID,
+			final Date dateAcct)
+	{
+		return new FactAcctSummaryKey(AD_Client_ID, AD_Org_ID, C_ElementValue_ID, C_AcctSchema_ID, postingType, C_Period_ID, dateAcct);
 	}
 
 	private final int C_ElementValue_ID;
@@ -50,22 +74,26 @@ final class FactAcctSummaryKey implements IFactAcctSummaryKey
 	private final int PA_ReportCube_ID;
 	private final ArrayKey _hashKey;
 
-	private FactAcctSummaryKey(final I_Fact_Acct_Log log)
+	private FactAcctSummaryKey(
+			final int AD_Client_ID,
+			final int AD_Org_ID,
+			final int C_ElementValue_ID,
+			final int C_AcctSchema_ID,
+			final String postingType,
+			final int C_Period_ID,
+			final Date dateAcct)
 	{
 		super();
-		Check.assumeNotNull(log, "log not null");
+		Check.assumeNotNull(dateAcct, "dateAcct not null");
 
-		C_ElementValue_ID = log.getC_ElementValue_ID();
-		C_AcctSchema_ID = log.getC_AcctSchema_ID();
-		postingType = log.getPostingType();
-		C_Period_ID = log.getC_Period_ID();
-		
-		final Date dateAcct = log.getDateAcct();
-		Check.assumeNotNull(dateAcct, "dateAcct not null for {}", log);
+		this.C_ElementValue_ID = C_ElementValue_ID;
+		this.C_AcctSchema_ID = C_AcctSchema_ID;
+		this.postingType = postingType;
+		this.C_Period_ID = C_Period_ID;
 		dateAcctMs = TimeUtil.trunc(dateAcct, TimeUtil.TRUNC_DAY).getTime();
 
-		AD_Client_ID = log.getAD_Client_ID();
-		AD_Org_ID = log.getAD_Org_ID(); // FRESH-326: set the AD_Org from the log
+		this.AD_Client_ID = AD_Client_ID;
+		this.AD_Org_ID = AD_Org_ID;
 		PA_ReportCube_ID = -1;
 		_hashKey = Util.mkKey(C_ElementValue_ID, C_AcctSchema_ID, postingType, C_Period_ID, dateAcctMs, AD_Client_ID, AD_Org_ID, PA_ReportCube_ID);
 	}
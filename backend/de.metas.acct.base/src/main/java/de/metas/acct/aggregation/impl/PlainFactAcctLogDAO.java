@@ -1,6 +1,18 @@
 package de.metas.acct.aggregation.impl;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Properties;
+
 import org.slf4j.Logger;
+
+import de.metas.acct.aggregation.FactAcctLogAggregate;
+import de.metas.acct.aggregation.IFactAcctSummaryKey;
+import de.metas.acct.model.I_Fact_Acct_Log;
+import de.metas.acct.model.X_Fact_Acct_Log;
 import de.metas.logging.LogManager;
 
 /*
@@ -34,4 +46,54 @@ public class PlainFactAcctLogDAO extends FactAcctLogDAO
 	{
 		logger.warn("Updating Fact_Acct_EndingBalance not supported. Skipped.");
 	}
+
+	@Override
+	public List<FactAcctLogAggregate> retrieveAggregatedForTag(final Properties ctx, final String processingTag)
+	{
+		final LinkedHashMap<IFactAcctSummaryKey, List<I_Fact_Acct_Log>> logsByKey = new LinkedHashMap<>();
+		for (final Iterator<I_Fact_Acct_Log> it = retrieveForTag(ctx, processingTag); it.hasNext();)
+		{
+			final I_Fact_Acct_Log log = it.next();
+			logsByKey.computeIfAbsent(FactAcctSummaryKey.of(log), key -> new ArrayList<>()).add(log);
+		}
+
+		final List<FactAcctLogAggregate> aggregates = new ArrayList<>();
+		logsByKey.forEach((key, logs) -> aggregates.add(aggregate(key, logs)));
+		return aggregates;
+	}
+
+	private static FactAcctLogAggregate aggregate(final IFactAcctSummaryKey key, final List<I_Fact_Acct_Log> logs)
+	{
+		BigDecimal amtAcctDr = BigDecimal.ZERO;
+		BigDecimal amtAcctCr = BigDecimal.ZERO;
+		BigDecimal qty = BigDecimal.ZERO;
+		for (final I_Fact_Acct_Log log : logs)
+		{
+			final String logAction = log.getAction();
+			if (X_Fact_Acct_Log.ACTION_Insert.equals(logAction))
+			{
+				amtAcctDr = amtAcctDr.add(log.getAmtAcctDr());
+				amtAcctCr = amtAcctCr.add(log.getAmtAcctCr());
+				qty = qty.add(log.getQty());
+			}
+			else if (X_Fact_Acct_Log.ACTION_Delete.equals(logAction))
+			{
+				amtAcctDr = amtAcctDr.subtract(log.getAmtAcctDr());
+				amtAcctCr = amtAcctCr.subtract(log.getAmtAcctCr());
+				qty = qty.subtract(log.getQty());
+			}
+			else
+			{
+				throw new IllegalStateException("Log action not supported: " + logAction + " (" + log + ")");
+			}
+		}
+
+		return FactAcctLogAggregate.builder()
+				.key(key)
+				.amtAcctDr(amtAcctDr)
+				.amtAcctCr(amtAcctCr)
+				.qty(qty)
+				.countLogs(logs.size())
+				.build();
+	}
 }
@@ -22,6 +22,7 @@
 package org.adempiere.ad.dao.impl;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -31,7 +32,14 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nullable;
 
@@ -43,10 +51,13 @@ import org.adempiere.ad.dao.IQueryUpdater;
 import org.adempiere.ad.dao.ISqlQueryUpdater;
 import org.adempiere.ad.dao.QueryLimit;
 import org.adempiere.ad.persistence.TableModelLoader;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.exceptions.DBMoreThanOneRecordsFoundException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.util.lang.ImmutablePair;
 import org.adempiere.util.text.TokenizedStringBuilder;
 import org.compiere.Adempiere;
 import org.compiere.model.IQuery;
@@ -640,7 +651,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 	}
 
 	@FunctionalInterface
-	private interface ValueFetcher<T>
+	interface ValueFetcher<T>
 	{
 		T retrieveValue(ResultSet rs) throws SQLException;
 	}
@@ -761,6 +772,37 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 
 	@Override
 	protected final List<Map<String, Object>> listColumns(final boolean distinct, final String... columnNames)
+	{
+		final List<Map<String, Object>> result = new ArrayList<>();
+		listColumns(
+				distinct,
+				row -> {
+					final Map<String, Object> rowAsMap = new HashMap<>(columnNames.length);
+					for (int i = 0; i < columnNames.length; i++)
+					{
+						rowAsMap.put(columnNames[i], row[i]);
+					}
+					return rowAsMap;
+				},
+				result::add,
+				columnNames);
+		return result;
+	}
+
+	@Override
+	public <R> ImmutableList<R> listColumns(@NonNull final Function<Object[], R> rowMapper, final String... columnNames)
+	{
+		final ImmutableList.Builder<R> result = ImmutableList.builder();
+		final boolean distinct = false;
+		listColumns(distinct, rowMapper, result::add, columnNames);
+		return result.build();
+	}
+
+	private <R> void listColumns(
+			final boolean distinct,
+			@NonNull final Function<Object[], R> rowMapper,
+			@NonNull final Consumer<R> collector,
+			final String... columnNames)
 	{
 		Check.assumeNotEmpty(columnNames, "columnNames not empty");
 
@@ -769,10 +811,11 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		//
 		// Build columns SQL
 		final POInfo poInfo = getPOInfo();
-		final Map<String, Class<?>> columnName2class = new HashMap<>(columnNames.length);
+		final Class<?>[] columnClasses = new Class<?>[columnNames.length];
 		final StringBuilder sqlColumnNames = new StringBuilder();
-		for (final String columnName : columnNames)
+		for (int i = 0; i < columnNames.length; i++)
 		{
+			final String columnName = columnNames[i];
 			final int columnIndex = poInfo.getColumnIndex(columnName);
 			if (columnIndex < 0)
 			{
@@ -786,8 +829,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 			}
 			sqlColumnNames.append(columnSql);
 
-			final Class<?> columnClass = poInfo.getColumnClass(columnIndex);
-			columnName2class.put(columnName, columnClass);
+			columnClasses[i] = poInfo.getColumnClass(columnIndex);
 		}
 
 		//
@@ -801,7 +843,6 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		final boolean useOrderByClause = !distinct;
 		final String sql = buildSQL(sqlSelect, fromClause, groupByClause, useOrderByClause);
 
-		final List<Map<String, Object>> result = new ArrayList<>();
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
 		try
@@ -810,14 +851,12 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 			rs = createResultSet(pstmt);
 			while (rs.next())
 			{
-				final Map<String, Object> row = new HashMap<>();
-				for (final String columnName : columnNames)
+				final Object[] row = new Object[columnNames.length];
+				for (int i = 0; i < columnNames.length; i++)
 				{
-					final Class<?> columnClass = columnName2class.get(columnName);
-					final Object value = DB.retrieveValue(rs, columnName, columnClass);
-					row.put(columnName, value);
+					row[i] = DB.retrieveValue(rs, columnNames[i], columnClasses[i]);
 				}
-				result.add(row);
+				collector.accept(rowMapper.apply(row));
 			}
 		}
 		catch (final SQLException e)
@@ -830,8 +869,6 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 			rs = null;
 			pstmt = null;
 		}
-		//
-		return result;
 	}
 
 	@Override
@@ -1017,6 +1054,192 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		}
 	}
 
+	@Override
+	public <ET extends T> Stream<ET> streamWithCursor(final Class<ET> clazz, final int fetchSize) throws DBException
+	{
+		Check.assume(fetchSize > 0, "fetchSize > 0");
+
+		final String sql = buildSQL(null, null, null, true);
+		final List<Object> sqlParams = getParametersEffective();
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		Stream<ET> stream = null;
+		try
+		{
+			if (Services.get(ITrxManager.class).isActive(trxName))
+			{
+				// the transaction's connection has autoCommit=false, so the JDBC driver is able to use a cursor
+				pstmt = DB.prepareStatement(sql, trxName);
+				pstmt.setFetchSize(fetchSize);
+				DB.setParameters(pstmt, sqlParams);
+				rs = pstmt.executeQuery();
+				stream = streamFromResultSet(newModelFetcher(clazz, trxName), null, pstmt, rs);
+			}
+			else
+			{
+				final ImmutablePair<Connection, PreparedStatement> connAndStmt = DB.prepareConnectionAndStatementForDataExport(sql, sqlParams, fetchSize);
+				conn = connAndStmt.getLeft();
+				pstmt = connAndStmt.getRight();
+				conn.setReadOnly(true);
+				rs = pstmt.executeQuery();
+				stream = streamFromResultSet(newModelFetcher(clazz, ITrx.TRXNAME_None), conn, pstmt, rs);
+			}
+
+			return stream;
+		}
+		catch (final SQLException e)
+		{
+			throw new DBException(e, sql, sqlParams);
+		}
+		finally
+		{
+			// If there was an error, then close the database resources
+			if (stream == null)
+			{
+				DB.close(rs, pstmt);
+				releaseStreamingConnection(conn);
+			}
+		}
+	}
+
+	private <ET extends T> ValueFetcher<ET> newModelFetcher(@Nullable final Class<ET> clazz, @Nullable final String modelsTrxName)
+	{
+		final Class<?> modelClassToUse = clazz != null ? clazz : modelClass;
+		return rs -> TableModelLoader.instance.retrieveModel(ctx, getTableName(), modelClassToUse, rs, modelsTrxName);
+	}
+
+	/**
+	 * @param conn the dedicated connection which shall be released together with the statement and result set; {@code null} if the statement runs in a transaction
+	 */
+	@VisibleForTesting
+	<ET extends T> Stream<ET> streamFromResultSet(
+			@NonNull final ValueFetcher<ET> modelFetcher,
+			@Nullable final Connection conn,
+			@NonNull final PreparedStatement pstmt,
+			@NonNull final ResultSet rs)
+	{
+		final StreamingModelIterator<ET> iterator = new StreamingModelIterator<>(modelFetcher, conn, pstmt, rs);
+		final boolean parallel = false;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), parallel)
+				.onClose(iterator::close);
+	}
+
+	/**
+	 * Iterates a forward-only {@link ResultSet} and retrieves one model at a time.
+	 * Releases the database resources as soon as the end of the result set was reached or {@link #close()} is called.
+	 */
+	private final class StreamingModelIterator<ET extends T> implements Iterator<ET>
+	{
+		private final ValueFetcher<ET> modelFetcher;
+		private final boolean readOnly;
+
+		@Nullable
+		private Connection conn;
+		private PreparedStatement pstmt;
+		private ResultSet rs;
+
+		private ET nextModel;
+
+		private StreamingModelIterator(
+				@NonNull final ValueFetcher<ET> modelFetcher,
+				@Nullable final Connection conn,
+				@NonNull final PreparedStatement pstmt,
+				@NonNull final ResultSet rs)
+		{
+			this.modelFetcher = modelFetcher;
+			this.readOnly = isReadOnlyRecords();
+			this.conn = conn;
+			this.pstmt = pstmt;
+			this.rs = rs;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (nextModel != null)
+			{
+				return true;
+			}
+			if (rs == null)
+			{
+				return false;
+			}
+
+			try
+			{
+				while (rs.next())
+				{
+					final ET model = modelFetcher.retrieveValue(rs);
+					if (postQueryFilter == null || postQueryFilter.accept(model))
+					{
+						InterfaceWrapperHelper.setSaveDeleteDisabled(model, readOnly);
+						nextModel = model;
+						return true;
+					}
+				}
+
+				close(); // no more rows => release the database resources right away
+				return false;
+			}
+			catch (final SQLException e)
+			{
+				close();
+				throw new DBException(e);
+			}
+			catch (final RuntimeException e)
+			{
+				close();
+				throw e;
+			}
+		}
+
+		@Override
+		public ET next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			final ET model = nextModel;
+			nextModel = null;
+			return model;
+		}
+
+		private void close()
+		{
+			DB.close(rs, pstmt);
+			rs = null;
+			pstmt = null;
+
+			releaseStreamingConnection(conn);
+			conn = null;
+
+			nextModel = null;
+		}
+	}
+
+	private static void releaseStreamingConnection(@Nullable final Connection conn)
+	{
+		if (conn == null)
+		{
+			return;
+		}
+
+		try
+		{
+			conn.rollback(); // nothing to commit, we were only reading
+			conn.setReadOnly(false); // the connection goes back to the pool
+		}
+		catch (final SQLException e)
+		{
+			log.warn("Failed resetting the connection {}. Ignored.", conn, e);
+		}
+		DB.close(conn);
+	}
+
 	/**
 	 * Create a new {@link TypedSqlQuery} object and set it's whereClause
 	 *
@@ -1309,18 +1532,23 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 	 */
 	public int[] getIDs()
 	{
-		// Convert to array
-		final List<Integer> idsList = listIds();
-		final int[] retValue = new int[idsList.size()];
-		for (int i = 0; i < retValue.length; i++)
-		{
-			retValue[i] = idsList.get(i);
-		}
-		return retValue;
+		return listIdsAsArray();
 	}    // get_IDs
 
 	@Override
 	public List<Integer> listIds()
+	{
+		final int[] ids = listIdsAsArray();
+		final List<Integer> list = new ArrayList<>(ids.length);
+		for (final int id : ids)
+		{
+			list.add(id);
+		}
+		return list;
+	}
+
+	@Override
+	public int[] listIdsAsArray()
 	{
 		final String keyColumnName = getKeyColumnName();
 
@@ -1329,7 +1557,8 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		final String groupByClause = null;
 		final String sql = buildSQL(selectClause, fromClause, groupByClause, true);
 
-		final List<Integer> list = new ArrayList<>();
+		int[] ids = new int[64];
+		int count = 0;
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
 		try
@@ -1338,8 +1567,11 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 			rs = createResultSet(pstmt);
 			while (rs.next())
 			{
-				final int recordId = rs.getInt(1);
-				list.add(recordId);
+				if (count >= ids.length)
+				{
+					ids = Arrays.copyOf(ids, Math.max(ids.length * 2, 16));
+				}
+				ids[count++] = rs.getInt(1);
 			}
 		}
 		catch (final SQLException e)
@@ -1353,7 +1585,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 			pstmt = null;
 		}
 
-		return list;
+		return count == ids.length ? ids : Arrays.copyOf(ids, count);
 	}
 
 	@Override
@@ -597,6 +597,19 @@ public class DB
 			@NonNull final String sqlSelect,
 			@Nullable final List<?> sqlParams/* not ImmutableList because list elements might be null */)
 	{
+		return prepareConnectionAndStatementForDataExport(sqlSelect, sqlParams, 1000);
+	}
+
+	/**
+	 * Same as {@link #prepareConnectionAndStatementForDataExport(String, List)}, but the statement will internally fetch only <code>fetchSize</code> rows at a time.
+	 */
+	public ImmutablePair<Connection, PreparedStatement> prepareConnectionAndStatementForDataExport(
+			@NonNull final String sqlSelect,
+			@Nullable final List<?> sqlParams/* not ImmutableList because list elements might be null */,
+			final int fetchSize)
+	{
+		Check.assume(fetchSize > 0, "fetchSize > 0");
+
 		Connection conn = null;
 		PreparedStatement pstmt = null;
 		try
@@ -609,7 +622,7 @@ public class DB
 
 			Check.assume(pstmt.getResultSetType() == ResultSet.TYPE_FORWARD_ONLY, "Prepared statement's ResultSetType shall be TYPE_FORWARD_ONLY");
 
-			pstmt.setFetchSize(1000);
+			pstmt.setFetchSize(fetchSize);
 			DB.setParameters(pstmt, sqlParams);
 			return ImmutablePair.of(conn, pstmt);
 		}
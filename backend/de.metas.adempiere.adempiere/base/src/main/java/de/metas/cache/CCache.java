@@ -17,6 +17,7 @@
 package de.metas.cache;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -27,9 +28,11 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -52,6 +55,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ExecutionError;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
+import de.metas.common.util.time.SystemTime;
 import de.metas.logging.LogManager;
 import lombok.Builder;
 import lombok.NonNull;
@@ -159,6 +163,14 @@ public class CCache<K, V> implements CacheInterface
 
 	private CacheAdditionListener<K, V> additionListener;
 
+	/** If positive, entries which were written longer than this are reloaded in background while the stale value is still served */
+	private final long refreshAfterWriteMillis;
+	/** When each key was (re)loaded; only maintained if refresh-ahead is enabled */
+	private final ConcurrentHashMap<K, Long> writeTimestamps;
+	private final Set<K> keysRefreshing;
+	/** Incremented on each invalidation, so a background refresh which raced with an invalidation is dropped */
+	private final AtomicLong invalidationsCount = new AtomicLong();
+
 	/**
 	 * Metasfresh Cache - expires after 2 hours
 	 *
@@ -187,7 +199,8 @@ public class CCache<K, V> implements CacheInterface
 				CacheMapType.HashMap,
 				(CachingKeysMapper<K>)null,
 				(CacheRemovalListener<K, V>)null,
-				(CacheAdditionListener<K, V>)null);
+				(CacheAdditionListener<K, V>)null,
+				(Duration)null);
 	}
 
 	@Builder
@@ -200,7 +213,8 @@ public class CCache<K, V> implements CacheInterface
 			final CacheMapType cacheMapType,
 			@Nullable final CachingKeysMapper<K> invalidationKeysMapper,
 			@Nullable final CacheRemovalListener<K, V> removalListener,
-			@Nullable final CacheAdditionListener<K, V> additionListener)
+			@Nullable final CacheAdditionListener<K, V> additionListener,
+			@Nullable final Duration refreshAfterWrite)
 	{
 		this.cacheId = NEXT_CACHE_ID.getAndIncrement();
 
@@ -246,11 +260,25 @@ public class CCache<K, V> implements CacheInterface
 		this.labels = buildCacheLabels(tableNameEffective, additionalTableNamesToResetFor);
 
 		this.expireMinutes = expireMinutes != null ? expireMinutes : EXPIREMINUTES_Never;
+
+		this.refreshAfterWriteMillis = refreshAfterWrite != null && !refreshAfterWrite.isNegative() ? refreshAfterWrite.toMillis() : 0;
+		if (this.refreshAfterWriteMillis > 0)
+		{
+			this.writeTimestamps = new ConcurrentHashMap<>();
+			this.keysRefreshing = ConcurrentHashMap.newKeySet();
+		}
+		else
+		{
+			this.writeTimestamps = null;
+			this.keysRefreshing = null;
+		}
+
 		this.cache = buildGuavaCache(
 				cacheMapType != null ? cacheMapType : CacheMapType.HashMap,
 				initialCapacity != null ? initialCapacity : 0,
 				this.expireMinutes,
-				removalListener);
+				removalListener,
+				this.writeTimestamps != null ? this::onEntryEvicted : null);
 
 		if (DEBUG)
 		{
@@ -318,9 +346,11 @@ public class CCache<K, V> implements CacheInterface
 			@NonNull final CacheMapType cacheMapType,
 			final int initialCapacity,
 			final int expireMinutes,
-			@Nullable final CacheRemovalListener<K, V> removalListener)
+			@Nullable final CacheRemovalListener<K, V> removalListener,
+			@Nullable final Consumer<K> evictionListener)
 	{
-		CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+		CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+				.recordStats();
 		if (cacheMapType == CacheMapType.HashMap)
 		{
 			cacheBuilder = cacheBuilder
@@ -341,7 +371,7 @@ public class CCache<K, V> implements CacheInterface
 			cacheBuilder = cacheBuilder.expireAfterWrite(expireMinutes, TimeUnit.MINUTES);
 		}
 
-		if (removalListener != null)
+		if (removalListener != null || evictionListener != null)
 		{
 			cacheBuilder.removalListener(notif -> {
 				@SuppressWarnings("unchecked")
@@ -350,7 +380,14 @@ public class CCache<K, V> implements CacheInterface
 				@SuppressWarnings("unchecked")
 				final V value = (V)notif.getValue();
 
-				removalListener.itemRemoved(key, value);
+				if (removalListener != null)
+				{
+					removalListener.itemRemoved(key, value);
+				}
+				if (evictionListener != null && notif.wasEvicted())
+				{
+					evictionListener.accept(key);
+				}
 			});
 		}
 		return cacheBuilder.build();
@@ -428,8 +465,13 @@ public class CCache<K, V> implements CacheInterface
 	private void clear()
 	{
 		// Clear
+		invalidationsCount.incrementAndGet();
 		cache.invalidateAll();
 		cache.cleanUp();
+		if (writeTimestamps != null)
+		{
+			writeTimestamps.clear();
+		}
 
 		m_justReset = true;
 	}	// clear
@@ -525,7 +567,12 @@ public class CCache<K, V> implements CacheInterface
 		try (final IAutoCloseable cacheIdMDC = CacheMDC.putCache(this))
 		{
 			final V value = cache.getIfPresent(key);
+			invalidationsCount.incrementAndGet();
 			cache.invalidate(key);
+			if (writeTimestamps != null)
+			{
+				writeTimestamps.remove(key);
+			}
 			logger.debug("remove - Removed key={}; item that was actually in this cache={}", key, value);
 			return value;
 		}
@@ -535,7 +582,12 @@ public class CCache<K, V> implements CacheInterface
 	{
 		try (final IAutoCloseable cacheIdMDC = CacheMDC.putCache(this))
 		{
+			invalidationsCount.incrementAndGet();
 			cache.invalidateAll(keys);
+			if (writeTimestamps != null)
+			{
+				keys.forEach(writeTimestamps::remove);
+			}
 		}
 	}
 
@@ -585,9 +637,14 @@ public class CCache<K, V> implements CacheInterface
 	 * Gets cached value by <code>key</code>.
 	 *
 	 * If value is not present in case it will try to initialize it by using <code>valueInitializer</code>.
+	 * If more threads are asking for the same missing key at the same time, only one of them is calling the <code>valueInitializer</code>, the others are waiting for its result.
 	 *
 	 * If the <code>valueInitializer</code> returns null then this method will return <code>null</code> and the value will NOT be cached.
 	 *
+	 * If refresh-ahead is enabled and the cached value is older than the configured refresh interval,
+	 * the cached value is returned right away and the <code>valueInitializer</code> is called in background to refresh it.
+	 * In that case the <code>valueInitializer</code> shall not rely on thread bound context or transaction.
+	 *
 	 * @param key
 	 * @param valueInitializer optional cache initializer.
 	 * @return cached value or <code>null</code>
@@ -603,7 +660,21 @@ public class CCache<K, V> implements CacheInterface
 
 			try
 			{
-				return cache.get(key, valueInitializer);
+				if (writeTimestamps == null)
+				{
+					return cache.get(key, valueInitializer);
+				}
+
+				final V value = cache.get(key, () -> {
+					final V loadedValue = valueInitializer.call();
+					if (loadedValue != null)
+					{
+						writeTimestamps.put(key, SystemTime.millis());
+					}
+					return loadedValue;
+				});
+				refreshInBackgroundIfStale(key, value, valueInitializer);
+				return value;
 			}
 			catch (final InvalidCacheLoadException e)
 			{
@@ -627,6 +698,67 @@ public class CCache<K, V> implements CacheInterface
 		}
 	}
 
+	private void refreshInBackgroundIfStale(final K key, final V staleValue, final Callable<V> valueLoader)
+	{
+		final long now = SystemTime.millis();
+		final Long writeTimestamp = writeTimestamps.putIfAbsent(key, now);
+		if (writeTimestamp == null || now - writeTimestamp < refreshAfterWriteMillis)
+		{
+			return;
+		}
+
+		if (!keysRefreshing.add(key))
+		{
+			return; // already refreshing
+		}
+
+		final long invalidationsCountAtStart = invalidationsCount.get();
+		final boolean scheduled = CacheRefreshAheadExecutor.instance.trySubmit(() -> refreshNow(key, staleValue, valueLoader, invalidationsCountAtStart));
+		if (!scheduled)
+		{
+			keysRefreshing.remove(key);
+			logger.debug("refreshInBackgroundIfStale - executor is saturated; skip refreshing key={}", key);
+		}
+	}
+
+	private void refreshNow(final K key, final V staleValue, final Callable<V> valueLoader, final long invalidationsCountAtStart)
+	{
+		try (final IAutoCloseable cacheIdMDC = CacheMDC.putCache(this))
+		{
+			final V newValue = valueLoader.call();
+			if (newValue == null)
+			{
+				return;
+			}
+
+			// Don't store the new value if the cache was invalidated meanwhile, because the value might have been loaded before the invalidation.
+			// Also, if the entry was changed or removed meanwhile, the replace will not happen.
+			if (invalidationsCount.get() == invalidationsCountAtStart
+					&& cache.asMap().replace(key, staleValue, newValue))
+			{
+				writeTimestamps.put(key, SystemTime.millis());
+				fireAdditionListener(key, newValue);
+			}
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed refreshing key={} of {}. Keeping the stale value.", key, this, ex);
+		}
+		finally
+		{
+			keysRefreshing.remove(key);
+		}
+	}
+
+	private void onEntryEvicted(final K key)
+	{
+		// NOTE: the key might have been loaded again meanwhile
+		if (!cache.asMap().containsKey(key))
+		{
+			writeTimestamps.remove(key);
+		}
+	}
+
 	/**
 	 * Same as {@link #get(Object, Callable)}. Introduced here to be able to use it with lambdas, without having ambiguous method calls.
 	 *
@@ -709,6 +841,7 @@ public class CCache<K, V> implements CacheInterface
 					final V value = entry.getValue();
 
 					cache.put(key, value);
+					recordWriteTimestamp(key);
 					fireAdditionListener(key, value);
 				}
 				values.addAll(valuesLoaded.values()); // add loaded values to the list we will return
@@ -751,11 +884,20 @@ public class CCache<K, V> implements CacheInterface
 			else
 			{
 				cache.put(key, value);
+				recordWriteTimestamp(key);
 				fireAdditionListener(key, value);
 			}
 		}
 	}
 
+	private void recordWriteTimestamp(final K key)
+	{
+		if (writeTimestamps != null)
+		{
+			writeTimestamps.put(key, SystemTime.millis());
+		}
+	}
+
 	private void fireAdditionListener(final K key, final V value)
 	{
 		logger.debug("fireAdditionListener - Item added; key={}; value={}", key, value);
@@ -778,6 +920,7 @@ public class CCache<K, V> implements CacheInterface
 
 			for (final Entry<? extends K, ? extends V> entry : map.entrySet())
 			{
+				recordWriteTimestamp(entry.getKey());
 				fireAdditionListener(entry.getKey(), entry.getValue());
 			}
 		}
@@ -906,5 +1049,36 @@ public class CCache<K, V> implements CacheInterface
 		{
 			return guavaStats;
 		}
+
+		public long getHitCount()
+		{
+			return guavaStats.hitCount();
+		}
+
+		public long getMissCount()
+		{
+			return guavaStats.missCount();
+		}
+
+		/** @return hit rate (0..1); if there were no requests at all, the hit rate is 1 */
+		public double getHitRate()
+		{
+			return guavaStats.hitRate();
+		}
+
+		public long getEvictionCount()
+		{
+			return guavaStats.evictionCount();
+		}
+
+		public long getLoadCount()
+		{
+			return guavaStats.loadCount();
+		}
+
+		public double getAverageLoadPenaltyMillis()
+		{
+			return guavaStats.averageLoadPenalty() / 1_000_000d;
+		}
 	}
 }	// CCache
@@ -0,0 +1,77 @@
+package de.metas.cache;
+
+import java.util.Comparator;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import de.metas.cache.CCache.CCacheStats;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * How to sort {@link CCacheStats} so that the worst offenders come first.
+ */
+public enum CCacheStatsOrderBy
+{
+	SIZE(Comparator.comparingLong(CCacheStats::getSize).reversed()),
+
+	MISS_COUNT(Comparator.comparingLong(CCacheStats::getMissCount).reversed()),
+
+	HIT_RATE(Comparator.comparingDouble(CCacheStats::getHitRate)),
+
+	EVICTION_COUNT(Comparator.comparingLong(CCacheStats::getEvictionCount).reversed()),
+
+	LOAD_PENALTY(Comparator.comparingDouble(CCacheStats::getAverageLoadPenaltyMillis).reversed()),
+	//
+	;
+
+	private final Comparator<CCacheStats> comparator;
+
+	CCacheStatsOrderBy(@NonNull final Comparator<CCacheStats> comparator)
+	{
+		this.comparator = comparator.thenComparing(CCacheStats::getName);
+	}
+
+	public Comparator<CCacheStats> getComparator()
+	{
+		return comparator;
+	}
+
+	public static CCacheStatsOrderBy ofNameOrDefault(final String name, @NonNull final CCacheStatsOrderBy defaultOrderBy)
+	{
+		if (name == null || name.trim().isEmpty())
+		{
+			return defaultOrderBy;
+		}
+
+		try
+		{
+			return valueOf(name.trim().toUpperCase());
+		}
+		catch (final IllegalArgumentException ex)
+		{
+			throw new AdempiereException("Unknown cache stats order by: " + name, ex);
+		}
+	}
+}
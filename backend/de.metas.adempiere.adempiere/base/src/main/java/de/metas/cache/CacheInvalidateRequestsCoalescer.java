@@ -0,0 +1,265 @@
+package de.metas.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.logging.LogManager;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Collects cache invalidation requests for a short time window and forwards them as one coalesced {@link CacheInvalidateMultiRequest}.
+ * <p>
+ * While coalescing, the requests are deduplicated, requests which are covered by a table level reset are dropped
+ * and if there are too many record level requests for one table, they are replaced by a table level reset.
+ */
+final class CacheInvalidateRequestsCoalescer
+{
+	private static final Logger logger = LogManager.getLogger(CacheInvalidateRequestsCoalescer.class);
+
+	private final String name;
+	private final long windowMillis;
+	private final int maxRecordsPerTable;
+	private final Consumer<CacheInvalidateMultiRequest> handler;
+
+	private final Object lock = new Object();
+	private LinkedHashSet<CacheInvalidateRequest> pendingRequests = new LinkedHashSet<>();
+	private boolean flushScheduled = false;
+	private ScheduledExecutorService _executor;
+
+	private final AtomicLong countRequestsAdded = new AtomicLong();
+	private final AtomicLong countRequestsFlushed = new AtomicLong();
+
+	@Builder
+	private CacheInvalidateRequestsCoalescer(
+			@NonNull final String name,
+			final long windowMillis,
+			final int maxRecordsPerTable,
+			@NonNull final Consumer<CacheInvalidateMultiRequest> handler)
+	{
+		this.name = name;
+		this.windowMillis = windowMillis;
+		this.maxRecordsPerTable = maxRecordsPerTable;
+		this.handler = handler;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[" + name + "]";
+	}
+
+	/**
+	 * Schedules given request to be forwarded at the end of current time window.
+	 * If the time window is not positive, the request is coalesced and forwarded right away.
+	 */
+	public void add(@NonNull final CacheInvalidateMultiRequest multiRequest)
+	{
+		final Set<CacheInvalidateRequest> requests = multiRequest.getRequests();
+		countRequestsAdded.addAndGet(requests.size());
+
+		if (windowMillis <= 0)
+		{
+			forward(requests);
+			return;
+		}
+
+		synchronized (lock)
+		{
+			pendingRequests.addAll(requests);
+			if (!flushScheduled)
+			{
+				getExecutor().schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+				flushScheduled = true;
+			}
+		}
+	}
+
+	private ScheduledExecutorService getExecutor()
+	{
+		// NOTE: called while holding the lock
+		if (_executor == null)
+		{
+			_executor = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+					.setThreadNamePrefix(getClass().getName() + "-" + name)
+					.setDaemon(true)
+					.build());
+		}
+		return _executor;
+	}
+
+	@VisibleForTesting
+	void flush()
+	{
+		final LinkedHashSet<CacheInvalidateRequest> requests;
+		synchronized (lock)
+		{
+			requests = pendingRequests;
+			pendingRequests = new LinkedHashSet<>();
+			flushScheduled = false;
+		}
+
+		try
+		{
+			forward(requests);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("{}: failed forwarding {} cache invalidation requests. Ignored.", this, requests.size(), ex);
+		}
+	}
+
+	private void forward(final Collection<CacheInvalidateRequest> requests)
+	{
+		if (requests.isEmpty())
+		{
+			return;
+		}
+
+		final CacheInvalidateMultiRequest coalescedRequest = coalesce(requests, maxRecordsPerTable);
+		countRequestsFlushed.addAndGet(coalescedRequest.getRequests().size());
+		logger.debug("{}: forwarding {} requests, coalesced from {} requests", this, coalescedRequest.getRequests().size(), requests.size());
+
+		handler.accept(coalescedRequest);
+	}
+
+	public long getCountRequestsAdded()
+	{
+		return countRequestsAdded.get();
+	}
+
+	public long getCountRequestsFlushed()
+	{
+		return countRequestsFlushed.get();
+	}
+
+	@VisibleForTesting
+	static CacheInvalidateMultiRequest coalesce(
+			@NonNull final Collection<CacheInvalidateRequest> requests,
+			final int maxRecordsPerTable)
+	{
+		if (requests.stream().anyMatch(CacheInvalidateRequest::isAll))
+		{
+			return CacheInvalidateMultiRequest.all();
+		}
+
+		//
+		// Tables which will be reset completely anyways
+		final Set<String> tableNamesToResetCompletely = new HashSet<>();
+		for (final CacheInvalidateRequest request : requests)
+		{
+			if (request.isAllRecords())
+			{
+				tableNamesToResetCompletely.add(request.getTableNameEffective());
+			}
+		}
+
+		//
+		// Count the root record requests per table and escalate to a table level reset if there are too many
+		if (maxRecordsPerTable > 0)
+		{
+			final Map<String, Integer> countRootRecordsByTableName = new HashMap<>();
+			for (final CacheInvalidateRequest request : requests)
+			{
+				if (isRootRecordOnly(request))
+				{
+					countRootRecordsByTableName.merge(request.getRootTableName(), 1, Integer::sum);
+				}
+			}
+			countRootRecordsByTableName.forEach((tableName, count) -> {
+				if (count > maxRecordsPerTable)
+				{
+					tableNamesToResetCompletely.add(tableName);
+				}
+			});
+		}
+
+		//
+		// Collect the requests which are not covered by a table level reset
+		final LinkedHashSet<CacheInvalidateRequest> result = new LinkedHashSet<>();
+		final List<String> tableNamesToResetCompletelyOrdered = new ArrayList<>();
+		for (final CacheInvalidateRequest request : requests)
+		{
+			if (request.isAllRecords())
+			{
+				result.add(request);
+				continue;
+			}
+
+			final boolean rootRecordCovered = tableNamesToResetCompletely.contains(request.getRootTableName());
+			if (isRootRecordOnly(request))
+			{
+				if (!rootRecordCovered)
+				{
+					result.add(request);
+				}
+				else if (!tableNamesToResetCompletelyOrdered.contains(request.getRootTableName()))
+				{
+					tableNamesToResetCompletelyOrdered.add(request.getRootTableName());
+				}
+			}
+			else
+			{
+				// child record request: it invalidates both the child and the root record
+				final boolean childRecordCovered = tableNamesToResetCompletely.contains(request.getChildTableName());
+				if (!rootRecordCovered || !childRecordCovered)
+				{
+					result.add(request);
+				}
+			}
+		}
+
+		for (final String tableName : tableNamesToResetCompletelyOrdered)
+		{
+			// NOTE: if there was already a table level reset request, this one is deduplicated
+			result.add(CacheInvalidateRequest.allRecordsForTable(tableName));
+		}
+
+		return CacheInvalidateMultiRequest.of(result);
+	}
+
+	private static boolean isRootRecordOnly(final CacheInvalidateRequest request)
+	{
+		return request.getChildTableName() == null && request.getRootRecordOrNull() != null;
+	}
+}
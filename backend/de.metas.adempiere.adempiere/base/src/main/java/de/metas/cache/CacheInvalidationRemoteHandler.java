@@ -1,6 +1,7 @@
 package de.metas.cache;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import org.adempiere.ad.dao.cache.CacheInvalidateMultiRequestSerializer;
@@ -62,6 +63,27 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 
 	private final CacheInvalidateMultiRequestSerializer jsonSerializer = new CacheInvalidateMultiRequestSerializer();
 
+	/** Time window in which the invalidation requests are collected before broadcasting/applying them */
+	private static final long COALESCE_WindowMillis = 100;
+	/** If there are more record level requests for one table in a time window, the whole table is invalidated */
+	private static final int COALESCE_MaxRecordsPerTable = 500;
+
+	private final CacheInvalidateRequestsCoalescer broadcastCoalescer = CacheInvalidateRequestsCoalescer.builder()
+			.name("broadcast")
+			.windowMillis(COALESCE_WindowMillis)
+			.maxRecordsPerTable(COALESCE_MaxRecordsPerTable)
+			.handler(this::postEventNow)
+			.build();
+	private final CacheInvalidateRequestsCoalescer receivedCoalescer = CacheInvalidateRequestsCoalescer.builder()
+			.name("received")
+			.windowMillis(COALESCE_WindowMillis)
+			.maxRecordsPerTable(COALESCE_MaxRecordsPerTable)
+			.handler(this::resetLocalNow)
+			.build();
+
+	private final AtomicLong countRequestsSent = new AtomicLong();
+	private final AtomicLong countRequestsApplied = new AtomicLong();
+
 	private CacheInvalidationRemoteHandler()
 	{
 	}
@@ -143,7 +165,11 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 			return;
 		}
 
-		// Broadcast the event.
+		broadcastCoalescer.add(request);
+	}
+
+	private void postEventNow(@NonNull final CacheInvalidateMultiRequest request)
+	{
 		final Event event = createEventFromRequest(request);
 		try (final MDCCloseable mdc = EventMDC.putEvent(event))
 		{
@@ -152,6 +178,8 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 					.getEventBus(TOPIC_CacheInvalidation)
 					.postEvent(event);
 		}
+
+		countRequestsSent.addAndGet(request.getRequests().size());
 	}
 
 	private boolean isAllowBroadcast(final CacheInvalidateMultiRequest multiRequest)
@@ -189,8 +217,48 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 
 		//
 		// Reset cache for TableName/Record_ID
-		logger.debug("onEvent - resetting local cache for request {} because we got remote event={}", request, event);
+		logger.debug("onEvent - scheduling local cache reset for request {} because we got remote event={}", request, event);
+		receivedCoalescer.add(request);
+	}
+
+	private void resetLocalNow(@NonNull final CacheInvalidateMultiRequest request)
+	{
+		logger.debug("Resetting local cache for remote request {}", request);
 		CacheMgt.get().reset(request, CacheMgt.ResetMode.LOCAL); // don't broadcast it anymore because else we would introduce recursion
+
+		countRequestsApplied.addAndGet(request.getRequests().size());
+	}
+
+	/**
+	 * @return how many requests were handed over for broadcasting (before coalescing)
+	 */
+	public long getCountRequestsToBroadcast()
+	{
+		return broadcastCoalescer.getCountRequestsAdded();
+	}
+
+	/**
+	 * @return how many requests were actually broadcasted (after coalescing)
+	 */
+	public long getCountRequestsSent()
+	{
+		return countRequestsSent.get();
+	}
+
+	/**
+	 * @return how many requests were received from remote (before coalescing)
+	 */
+	public long getCountRequestsReceived()
+	{
+		return receivedCoalescer.getCountRequestsAdded();
+	}
+
+	/**
+	 * @return how many of the received requests were actually applied to the local caches (after coalescing)
+	 */
+	public long getCountRequestsApplied()
+	{
+		return countRequestsApplied.get();
 	}
 
 	@VisibleForTesting
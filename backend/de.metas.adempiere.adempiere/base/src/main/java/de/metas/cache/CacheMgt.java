@@ -17,6 +17,7 @@
 package de.metas.cache;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -48,6 +49,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 
+import de.metas.cache.CCache.CCacheStats;
 import de.metas.cache.model.CacheInvalidateMultiRequest;
 import de.metas.cache.model.CacheInvalidateRequest;
 import de.metas.logging.LogManager;
@@ -158,6 +160,21 @@ public final class CacheMgt
 		return ImmutableSet.copyOf(cachesByLabel.keySet());
 	}
 
+	/**
+	 * @return statistics of all registered {@link CCache}s (each cache is reported once, even if it's registered for several labels)
+	 */
+	public ImmutableList<CCacheStats> getCacheStats()
+	{
+		final Map<Long, CCacheStats> statsByCacheId = new HashMap<>();
+		cachesByLabel.values()
+				.stream()
+				.flatMap(CachesGroup::streamCaches)
+				.filter(cache -> cache instanceof CCache)
+				.forEach(cache -> statsByCacheId.computeIfAbsent(cache.getCacheId(), cacheId -> ((CCache<?, ?>)cache).stats()));
+
+		return ImmutableList.copyOf(statsByCacheId.values());
+	}
+
 	public Set<String> getTableNamesToBroadcast()
 	{
 		return CacheInvalidationRemoteHandler.instance.getTableNamesToBroadcast();
@@ -0,0 +1,79 @@
+package de.metas.cache;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Runs the background reloads of {@link CCache}s which have refresh-ahead enabled.
+ * <p>
+ * Refreshing is best effort: the pool and its queue are bounded and if they are full, the refresh is skipped.
+ * The stale value will be served until the next attempt or until it expires.
+ */
+final class CacheRefreshAheadExecutor
+{
+	public static final CacheRefreshAheadExecutor instance = new CacheRefreshAheadExecutor();
+
+	private static final int POOL_SIZE = 4;
+	private static final int QUEUE_CAPACITY = 1000;
+
+	private final ThreadPoolExecutor executor;
+
+	private CacheRefreshAheadExecutor()
+	{
+		executor = new ThreadPoolExecutor(
+				POOL_SIZE, // corePoolSize
+				POOL_SIZE, // maximumPoolSize
+				60, TimeUnit.SECONDS, // keepAliveTime
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix(CacheRefreshAheadExecutor.class.getName())
+						.setDaemon(true)
+						.build(),
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @return true if the task was scheduled, false if it was rejected because the executor is saturated
+	 */
+	public boolean trySubmit(@NonNull final Runnable task)
+	{
+		try
+		{
+			executor.execute(task);
+			return true;
+		}
+		catch (final RejectedExecutionException ex)
+		{
+			return false;
+		}
+	}
+}
@@ -49,7 +49,8 @@ public class IDCache<V> extends CCache<Object, V>
 				cacheMapType,
 				KEYS_MAPPER,
 				(CacheRemovalListener<Object, V>)null,
-				(CacheAdditionListener<Object, V>)null);
+				(CacheAdditionListener<Object, V>)null,
+				null); // refreshAfterWrite
 
 		Check.assumeNotEmpty(tableName, "tableName not empty");
 	}
@@ -6,6 +6,7 @@ import java.util.Set;
 import org.adempiere.util.jmx.IJMXNameAware;
 import org.slf4j.Logger;
 
+import de.metas.cache.CCache.CCacheStats;
 import de.metas.logging.LogManager;
 
 /**
@@ -101,4 +102,41 @@ public class JMXCacheMgt implements JMXCacheMgtMBean, IJMXNameAware
 		return getCacheMgt().reset(tableName, recordId);
 	}
 
+	@Override
+	public long getRemoteInvalidationRequestsToBroadcast()
+	{
+		return CacheInvalidationRemoteHandler.instance.getCountRequestsToBroadcast();
+	}
+
+	@Override
+	public long getRemoteInvalidationRequestsSent()
+	{
+		return CacheInvalidationRemoteHandler.instance.getCountRequestsSent();
+	}
+
+	@Override
+	public long getRemoteInvalidationRequestsReceived()
+	{
+		return CacheInvalidationRemoteHandler.instance.getCountRequestsReceived();
+	}
+
+	@Override
+	public long getRemoteInvalidationRequestsApplied()
+	{
+		return CacheInvalidationRemoteHandler.instance.getCountRequestsApplied();
+	}
+
+	@Override
+	public String[] getTopCacheStats(final String orderBy, final int limit)
+	{
+		final CCacheStatsOrderBy orderByEffective = CCacheStatsOrderBy.ofNameOrDefault(orderBy, CCacheStatsOrderBy.MISS_COUNT);
+		return getCacheMgt()
+				.getCacheStats()
+				.stream()
+				.sorted(orderByEffective.getComparator())
+				.limit(limit > 0 ? limit : Long.MAX_VALUE)
+				.map(CCacheStats::toString)
+				.toArray(size -> new String[size]);
+	}
+
 }
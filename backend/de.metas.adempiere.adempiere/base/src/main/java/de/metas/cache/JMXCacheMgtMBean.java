@@ -25,4 +25,18 @@ public interface JMXCacheMgtMBean
 	long resetForTable(String tableName);
 
 	long resetForRecordId(String tableName, int recordId);
+
+	long getRemoteInvalidationRequestsToBroadcast();
+
+	long getRemoteInvalidationRequestsSent();
+
+	long getRemoteInvalidationRequestsReceived();
+
+	long getRemoteInvalidationRequestsApplied();
+
+	/**
+	 * @param orderBy see {@link CCacheStatsOrderBy}; if empty, caches are ordered by miss count
+	 * @return statistics of the worst offending caches
+	 */
+	String[] getTopCacheStats(String orderBy, int limit);
 }
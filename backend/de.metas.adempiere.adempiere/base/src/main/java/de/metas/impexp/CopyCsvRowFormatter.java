@@ -0,0 +1,112 @@
+package de.metas.impexp;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import de.metas.util.StringUtils;
+import de.metas.util.lang.RepoIdAware;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Formats JDBC values as one row of PostgreSQL's <code>COPY ... FROM STDIN WITH (FORMAT csv)</code> input.
+ * <p>
+ * The values are converted the same way as {@link org.compiere.util.DB#setParameter(java.sql.PreparedStatement, int, Object)} would do it for an <code>INSERT</code>.
+ * <code>null</code>s are written as unquoted empty values, while strings are always quoted, so an empty string is not mistaken for <code>null</code>.
+ */
+@UtilityClass
+class CopyCsvRowFormatter
+{
+	private static final char DELIMITER = ',';
+	private static final char QUOTE = '"';
+
+	public void appendRow(@NonNull final StringBuilder csv, @NonNull final List<Object> values)
+	{
+		boolean firstValue = true;
+		for (final Object value : values)
+		{
+			if (!firstValue)
+			{
+				csv.append(DELIMITER);
+			}
+			appendValue(csv, value);
+			firstValue = false;
+		}
+		csv.append('\n');
+	}
+
+	private void appendValue(@NonNull final StringBuilder csv, @Nullable final Object value)
+	{
+		if (value == null)
+		{
+			// unquoted empty value means NULL
+		}
+		else if (value instanceof Integer)
+		{
+			csv.append(value);
+		}
+		else if (value instanceof BigDecimal)
+		{
+			csv.append(((BigDecimal)value).toPlainString());
+		}
+		else if (value instanceof Timestamp)
+		{
+			// include the offset, so the value is the same instant as with PreparedStatement.setTimestamp, no matter the DB session's time zone
+			csv.append(OffsetDateTime.ofInstant(((Timestamp)value).toInstant(), ZoneId.systemDefault()));
+		}
+		else if (value instanceof Boolean)
+		{
+			csv.append(StringUtils.ofBoolean((Boolean)value));
+		}
+		else if (value instanceof RepoIdAware)
+		{
+			csv.append(((RepoIdAware)value).getRepoId());
+		}
+		else
+		{
+			appendQuoted(csv, value.toString());
+		}
+	}
+
+	private void appendQuoted(@NonNull final StringBuilder csv, @NonNull final String string)
+	{
+		csv.append(QUOTE);
+		for (int i = 0; i < string.length(); i++)
+		{
+			final char ch = string.charAt(i);
+			if (ch == QUOTE)
+			{
+				csv.append(QUOTE);
+			}
+			csv.append(ch);
+		}
+		csv.append(QUOTE);
+	}
+}
@@ -66,6 +66,7 @@ final class DataImportCommand
 	private final ImpDataParserFactory parserFactory = new ImpDataParserFactory();
 
 	private static final String SYSCONFIG_InsertBatchSize = "de.metas.impexp.insertBatchSize";
+	private static final String SYSCONFIG_InsertUsingCopy = "de.metas.impexp.insertUsingCopy";
 
 	//
 	// Parameters
@@ -227,6 +228,7 @@ final class DataImportCommand
 				.dataImportRunId(getOrCreateDataImportRunId())
 				.dataImportConfigId(dataImportConfigId)
 				.insertBatchSize(getInsertBatchSize())
+				.insertUsingCopy(isInsertUsingCopy())
 				.stream(sourceParser.streamDataLines(data))
 				.build();
 
@@ -255,6 +257,11 @@ final class DataImportCommand
 		return sysConfigBL.getIntValue(SYSCONFIG_InsertBatchSize, -1);
 	}
 
+	private boolean isInsertUsingCopy()
+	{
+		return sysConfigBL.getBooleanValue(SYSCONFIG_InsertUsingCopy, false);
+	}
+
 	private PInstanceId getOrCreateRecordsToImportSelectionId()
 	{
 		if (_recordsToImportSelectionId == null)
@@ -4,9 +4,16 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 
 import org.compiere.model.I_C_DataImport_Run;
+import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
+import com.google.common.base.Stopwatch;
+
+import ch.qos.logback.classic.Level;
 import de.metas.impexp.config.DataImportConfigId;
+import de.metas.logging.LogManager;
+import de.metas.util.Loggables;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -33,6 +40,8 @@ import de.metas.impexp.config.DataImportConfigId;
 @Service
 public class DataImportRunsService
 {
+	private static final Logger logger = LogManager.getLogger(DataImportRunsService.class);
+
 	public DataImportRunId createNewRun(final DataImportRunCreateRequest request)
 	{
 		final I_C_DataImport_Run record = newInstance(I_C_DataImport_Run.class);
@@ -45,4 +54,17 @@ public class DataImportRunsService
 
 		return DataImportRunId.ofRepoId(record.getC_DataImport_Run_ID());
 	}
+
+	/**
+	 * Called after each batch of lines was inserted into the import table, so that the progress of big imports can be followed.
+	 */
+	public void reportInsertIntoImportTableProgress(
+			@NonNull final DataImportRunId dataImportRunId,
+			final int countTotalRows,
+			final int countValidRows,
+			@NonNull final Stopwatch stopwatch)
+	{
+		Loggables.withLogger(logger, Level.INFO)
+				.addLog("{}: inserted {} rows ({} valid) into import table after {}", dataImportRunId, countTotalRows, countValidRows, stopwatch);
+	}
 }
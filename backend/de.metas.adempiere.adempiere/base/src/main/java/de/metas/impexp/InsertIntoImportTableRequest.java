@@ -61,6 +61,9 @@ public class InsertIntoImportTableRequest
 
 	int insertBatchSize;
 
+	/** if true, the lines are written using PostgreSQL's {@code COPY} instead of JDBC batched {@code INSERT}s */
+	boolean insertUsingCopy;
+
 	@NonNull
 	final Stream<ImpDataLine> stream;
 }
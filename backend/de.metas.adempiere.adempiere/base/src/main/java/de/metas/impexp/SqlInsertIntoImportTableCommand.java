@@ -1,8 +1,12 @@
 package de.metas.impexp;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -12,14 +16,19 @@ import javax.annotation.Nullable;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.service.ClientId;
 import org.compiere.util.DB;
 import org.compiere.util.TimeUtil;
+import org.compiere.util.Trx;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 
+import de.metas.common.util.time.SystemTime;
 import de.metas.impexp.config.DataImportConfigId;
 import de.metas.impexp.format.ImpFormat;
 import de.metas.impexp.format.ImpFormatColumn;
@@ -59,6 +68,9 @@ import lombok.NonNull;
 
 /**
  * Inserts {@link ImpDataLine}s into import tables.
+ * <p>
+ * The lines are consumed in batches of {@code insertBatchSize}, so only one batch is held in memory at a time.
+ * Each batch is written either using a JDBC batch of {@code INSERT}s or, if {@code useCopy} is set, using PostgreSQL's {@code COPY ... FROM STDIN}.
  * 
  * @author metas-dev <dev@metasfresh.com>
  *
@@ -81,11 +93,14 @@ final class SqlInsertIntoImportTableCommand
 	private final DataImportRunId dataImportRunId;
 	private final DataImportConfigId dataImportConfigId;
 	private final int insertBatchSize;
+	private final boolean useCopy;
+	private final DataImportRunsService dataImportRunsService;
 	private Stream<ImpDataLine> linesStream;
 
 	//
 	// State
 	private SqlAndParamsExtractor<ImpDataLine> _sqlInsertIntoImportTable; // lazy
+	private SqlAndParamsExtractor<ImpDataLine> _sqlCopyIntoImportTable; // lazy
 	private int countTotalRows = 0;
 	private int countValidRows = 0;
 	private final ArrayList<InsertIntoImportTableResult.Error> errors = new ArrayList<>();
@@ -99,6 +114,8 @@ final class SqlInsertIntoImportTableCommand
 			@NonNull final DataImportRunId dataImportRunId,
 			@Nullable final DataImportConfigId dataImportConfigId,
 			final int insertBatchSize,
+			final boolean useCopy,
+			@NonNull final DataImportRunsService dataImportRunsService,
 			@NonNull final Stream<ImpDataLine> linesStream)
 	{
 		this.importTableDescriptor = importFormat.getImportTableDescriptor();
@@ -111,6 +128,8 @@ final class SqlInsertIntoImportTableCommand
 		this.dataImportRunId = dataImportRunId;
 		this.dataImportConfigId = dataImportConfigId;
 		this.insertBatchSize = insertBatchSize > 0 ? insertBatchSize : DEFAULT_InsertBatchSize;
+		this.useCopy = useCopy;
+		this.dataImportRunsService = dataImportRunsService;
 
 		this.linesStream = linesStream;
 	}
@@ -118,8 +137,14 @@ final class SqlInsertIntoImportTableCommand
 	public InsertIntoImportTableResult execute()
 	{
 		final Stopwatch stopwatch = Stopwatch.createStarted();
-		final Stream<List<ImpDataLine>> batchedStream = GuavaCollectors.batchAndStream(linesStream, insertBatchSize);
-		batchedStream.forEach(this::insertIntoDatabase);
+		try (final Stream<ImpDataLine> linesStream = this.linesStream) // make sure the underlying resource is closed
+		{
+			final Stream<List<ImpDataLine>> batchedStream = GuavaCollectors.batchAndStream(linesStream, insertBatchSize);
+			batchedStream.forEach(lines -> {
+				insertIntoDatabase(lines);
+				dataImportRunsService.reportInsertIntoImportTableProgress(dataImportRunId, countTotalRows, countValidRows, stopwatch);
+			});
+		}
 		stopwatch.stop();
 
 		return InsertIntoImportTableResult.builder()
@@ -144,7 +169,14 @@ final class SqlInsertIntoImportTableCommand
 			return;
 		}
 
-		trxManager.run(ITrx.TRXNAME_ThreadInherited, () -> insertIntoDatabaseInTrx(lines));
+		if (useCopy)
+		{
+			trxManager.run(ITrx.TRXNAME_ThreadInherited, () -> copyIntoDatabaseInTrx(lines));
+		}
+		else
+		{
+			trxManager.run(ITrx.TRXNAME_ThreadInherited, () -> insertIntoDatabaseInTrx(lines));
+		}
 	}
 
 	private void insertIntoDatabaseInTrx(final List<ImpDataLine> lines)
@@ -164,20 +196,7 @@ final class SqlInsertIntoImportTableCommand
 				DB.setParameters(pstmt, params);
 				pstmt.addBatch();
 
-				// Update stats:
-				countTotalRows++;
-				if (line.hasErrors())
-				{
-					errors.add(InsertIntoImportTableResult.Error.builder()
-							.message(line.getErrorMessageAsStringOrNull())
-							.lineNo(line.getFileLineNo())
-							.lineContent(line.getLineString())
-							.build());
-				}
-				else
-				{
-					countValidRows++;
-				}
+				updateStats(line);
 			}
 
 			pstmt.executeBatch();
@@ -192,6 +211,86 @@ final class SqlInsertIntoImportTableCommand
 		}
 	}
 
+	private void copyIntoDatabaseInTrx(final List<ImpDataLine> lines)
+	{
+		final SqlAndParamsExtractor<ImpDataLine> sqlAndParamsExtractor = getCopyIntoImportTableSql();
+		final String sql = sqlAndParamsExtractor.getSql();
+
+		// COPY can't evaluate the key column's nextval() expression, so we fetch the IDs upfront
+		final List<Integer> ids = retrieveNextIds(lines.size());
+
+		final StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < lines.size(); i++)
+		{
+			final ImpDataLine line = lines.get(i);
+
+			final List<Object> values = new ArrayList<>();
+			values.add(ids.get(i));
+			values.addAll(sqlAndParamsExtractor.extractParameters(line));
+			CopyCsvRowFormatter.appendRow(csv, values);
+
+			updateStats(line);
+		}
+
+		try
+		{
+			final Trx trx = (Trx)trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.Fail);
+			final Connection connection = trx.getConnection();
+			final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+			copyManager.copyIn(sql, new StringReader(csv.toString()));
+		}
+		catch (final SQLException | IOException ex)
+		{
+			throw new DBException(ex, sql);
+		}
+	}
+
+	private List<Integer> retrieveNextIds(final int count)
+	{
+		final String sql = "SELECT " + DB.TO_TABLESEQUENCE_NEXTVAL(importTableDescriptor.getTableName()) + " FROM generate_series(1, ?)";
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, count);
+			rs = pstmt.executeQuery();
+
+			final List<Integer> ids = new ArrayList<>(count);
+			while (rs.next())
+			{
+				ids.add(rs.getInt(1));
+			}
+			return ids;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private void updateStats(final ImpDataLine line)
+	{
+		countTotalRows++;
+		if (line.hasErrors())
+		{
+			errors.add(InsertIntoImportTableResult.Error.builder()
+					.message(line.getErrorMessageAsStringOrNull())
+					.lineNo(line.getFileLineNo())
+					.lineContent(line.getLineString())
+					.build());
+		}
+		else
+		{
+			countValidRows++;
+		}
+	}
+
 	private SqlAndParamsExtractor<ImpDataLine> getInsertIntoImportTableSql()
 	{
 		SqlAndParamsExtractor<ImpDataLine> sqlInsertIntoImportTable = this._sqlInsertIntoImportTable;
@@ -203,7 +302,7 @@ final class SqlInsertIntoImportTableCommand
 	}
 
 	/**
-	 * IMPORTANT: keep in sync with {@link #extractSqlInsertParams(ImpDataLine)}
+	 * IMPORTANT: keep in sync with {@link #createCopyIntoImportTableSql()}
 	 */
 	private SqlAndParamsExtractor<ImpDataLine> createInsertIntoImportTableSql()
 	{
@@ -291,4 +390,95 @@ final class SqlInsertIntoImportTableCommand
 				.build();
 	}
 
+	private SqlAndParamsExtractor<ImpDataLine> getCopyIntoImportTableSql()
+	{
+		SqlAndParamsExtractor<ImpDataLine> sqlCopyIntoImportTable = this._sqlCopyIntoImportTable;
+		if (sqlCopyIntoImportTable == null)
+		{
+			sqlCopyIntoImportTable = this._sqlCopyIntoImportTable = createCopyIntoImportTableSql();
+		}
+		return sqlCopyIntoImportTable;
+	}
+
+	/**
+	 * Same columns and values as {@link #createInsertIntoImportTableSql()}, but all values (except the key column's, which comes first) are provided as parameters,
+	 * because {@code COPY} does not support SQL expressions.
+	 * <p>
+	 * IMPORTANT: keep in sync with {@link #createInsertIntoImportTableSql()}
+	 */
+	private SqlAndParamsExtractor<ImpDataLine> createCopyIntoImportTableSql()
+	{
+		final String tableName = importTableDescriptor.getTableName();
+		final String keyColumnName = importTableDescriptor.getKeyColumnName();
+
+		final StringBuilder sqlColumns = new StringBuilder();
+		final List<ParametersExtractor<ImpDataLine>> sqlParamsExtractors = new ArrayList<>();
+
+		sqlColumns.append(keyColumnName);
+
+		//
+		// Standard fields
+		{
+			final Timestamp now = SystemTime.asTimestamp();
+			sqlColumns.append(", AD_Client_ID, AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, Processed, I_IsImported");
+			final ImmutableList<Object> standardValues = ImmutableList.of(clientId.getRepoId(), orgId.getRepoId(), now, userId.getRepoId(), now, userId.getRepoId(), "Y", "N", "N");
+			sqlParamsExtractors.add(dataLine -> standardValues);
+		}
+
+		//
+		// I_LineNo
+		if (importTableDescriptor.getImportLineNoColumnName() != null)
+		{
+			sqlColumns.append(", ").append(importTableDescriptor.getImportLineNoColumnName());
+			sqlParamsExtractors.add(dataLine -> ImmutableList.of(dataLine.getFileLineNo()));
+		}
+
+		//
+		// I_LineContent
+		if (importTableDescriptor.getImportLineContentColumnName() != null)
+		{
+			sqlColumns.append(", ").append(importTableDescriptor.getImportLineContentColumnName());
+			sqlParamsExtractors.add(dataLine -> Collections.singletonList(dataLine.getLineString()));
+		}
+
+		//
+		// C_DataImport_Run_ID
+		{
+			Check.assumeNotNull(dataImportRunId, "dataImportRunId is not null");
+			sqlColumns.append(", ").append(ImportTableDescriptor.COLUMNNAME_C_DataImport_Run_ID);
+			sqlParamsExtractors.add(dataLine -> ImmutableList.of(dataImportRunId.getRepoId()));
+		}
+
+		//
+		// C_DataImport_ID
+		if (importTableDescriptor.getDataImportConfigIdColumnName() != null && dataImportConfigId != null)
+		{
+			sqlColumns.append(", ").append(importTableDescriptor.getDataImportConfigIdColumnName());
+			sqlParamsExtractors.add(dataLine -> ImmutableList.of(dataImportConfigId.getRepoId()));
+		}
+
+		//
+		// I_ErrorMsg
+		{
+			final int errorMaxLength = importTableDescriptor.getErrorMsgMaxLength();
+			sqlColumns.append(", ").append(ImportTableDescriptor.COLUMNNAME_I_ErrorMsg);
+			sqlParamsExtractors.add(dataLine -> Collections.singletonList(dataLine.getErrorMessageAsStringOrNull(errorMaxLength)));
+		}
+
+		//
+		// Values
+		{
+			for (final ImpFormatColumn column : columns)
+			{
+				sqlColumns.append(", ").append(column.getColumnName());
+			}
+			sqlParamsExtractors.add(dataLine -> dataLine.getJdbcValues(columns));
+		}
+
+		return SqlAndParamsExtractor.<ImpDataLine> builder()
+				.sql("COPY " + tableName + "(" + sqlColumns + ") FROM STDIN WITH (FORMAT csv)")
+				.parametersExtractors(sqlParamsExtractors)
+				.build();
+	}
+
 }
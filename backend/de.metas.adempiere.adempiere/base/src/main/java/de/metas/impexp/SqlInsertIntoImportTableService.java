@@ -2,6 +2,8 @@ package de.metas.impexp;
 
 import org.springframework.stereotype.Service;
 
+import lombok.NonNull;
+
 /*
  * #%L
  * de.metas.adempiere.adempiere.base
@@ -27,6 +29,12 @@ import org.springframework.stereotype.Service;
 @Service
 public class SqlInsertIntoImportTableService implements InsertIntoImportTableService
 {
+	private final DataImportRunsService dataImportRunsService;
+
+	public SqlInsertIntoImportTableService(@NonNull final DataImportRunsService dataImportRunsService)
+	{
+		this.dataImportRunsService = dataImportRunsService;
+	}
 
 	@Override
 	public InsertIntoImportTableResult insertData(InsertIntoImportTableRequest request)
@@ -39,6 +47,8 @@ public class SqlInsertIntoImportTableService implements InsertIntoImportTableSer
 				.dataImportRunId(request.getDataImportRunId())
 				.dataImportConfigId(request.getDataImportConfigId())
 				.insertBatchSize(request.getInsertBatchSize())
+				.useCopy(request.isInsertUsingCopy())
+				.dataImportRunsService(dataImportRunsService)
 				.linesStream(request.getStream())
 				.build();
 
@@ -26,19 +26,23 @@
 package de.metas.impexp.parser;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Streams;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
-import com.google.common.io.LineProcessor;
 import de.metas.util.Check;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author metas-dev <dev@metasfresh.com>
@@ -50,33 +54,52 @@ final class FileImportReader
 	private static final char TEXT_DELIMITER = '"';
 	private static final int MAX_LOADED_LINES = 100;
 
-	private static final class SingleLineProcessor implements LineProcessor<List<String>>
+	/**
+	 * Joins the physical lines of a multi-line text field into one logical line.
+	 * <p>
+	 * The last loaded line is kept back until we know that the next physical line does not belong to it,
+	 * so only one logical line is held in memory at a time.
+	 */
+	private static final class MultiLineIterator extends AbstractIterator<String>
 	{
-		private final List<String> lines = new ArrayList<>();
+		private final Iterator<String> physicalLines;
 
-		@Override
-		public boolean processLine(final String line) throws IOException
+		private boolean openQuote = false;
+		private boolean closedQuote = false;
+		private boolean quoteOpenRightNow = false;
+		private String lastLoadedDataLine = null;
+
+		private MultiLineIterator(@NonNull final Iterator<String> physicalLines)
 		{
-			lines.add(line);
-			return true;
+			this.physicalLines = physicalLines;
 		}
 
 		@Override
-		public List<String> getResult()
+		protected String computeNext()
 		{
-			return lines;
-		}
-	}
+			while (physicalLines.hasNext())
+			{
+				final String completedDataLine = processLine(physicalLines.next());
+				if (completedDataLine != null)
+				{
+					return completedDataLine;
+				}
+			}
 
-	final private static class MultiLineProcessor implements LineProcessor<List<String>>
-	{
-		private boolean openQuote = false;
-		private boolean closedQuote = false;
-		private boolean quoteOpenRightNow = false;
-		private final List<String> loadedDataLines = new ArrayList<>();
+			if (lastLoadedDataLine != null)
+			{
+				final String completedDataLine = lastLoadedDataLine;
+				lastLoadedDataLine = null;
+				return completedDataLine;
+			}
 
-		@Override
-		public boolean processLine(final String line) throws IOException
+			return endOfData();
+		}
+
+		/**
+		 * @return the previous data line if it's complete, i.e. the given line was not appended to it
+		 */
+		private String processLine(@NonNull final String line)
 		{
 			// If previous line had a " which is not closed, then add all to the previous line, until we meet next ".
 			// Of course, account that there could be multiple quotes on the same line.
@@ -93,15 +116,18 @@ final class FileImportReader
 					quoteOpenRightNow = true;
 				}
 			}
+
 			//
 			// if open quote, add this line to the previous
-			if (openQuote && !quoteOpenRightNow && !loadedDataLines.isEmpty() && checkLastLoadedDataLineIsNotBlank())
+			String completedDataLine = null;
+			if (openQuote && !quoteOpenRightNow && Check.isNotBlank(lastLoadedDataLine))
 			{
-				appendToPreviousLine(line);
+				lastLoadedDataLine = lastLoadedDataLine + "\n" + line;
 			}
 			else
 			{
-				loadedDataLines.add(line);
+				completedDataLine = lastLoadedDataLine;
+				lastLoadedDataLine = line;
 				quoteOpenRightNow = false;
 			}
 
@@ -113,39 +139,24 @@ final class FileImportReader
 				closedQuote = false;
 				quoteOpenRightNow = false;
 			}
-			return true;
-		}
-
-		private boolean checkLastLoadedDataLineIsNotBlank()
-		{
-			return Check.isNotBlank(loadedDataLines.get(loadedDataLines.size() - 1));
-		}
-
-		/**
-		 * add current line to the previous one
-		 */
-		private void appendToPreviousLine(@NonNull final String line)
-		{
-			final StringBuilder previousLine = new StringBuilder();
-			final int index = loadedDataLines.size() - 1;
-			previousLine.append(loadedDataLines.get(index));
-			// append the new line, because the char exists
-			if (Check.isNotBlank(previousLine.toString()))
-			{
-				previousLine.append("\n");
-			}
-			previousLine.append(line);
-			//
-			// now remove the line and add the new line
-			loadedDataLines.remove(index);
-			loadedDataLines.add(previousLine.toString());
+			return completedDataLine;
 		}
+	}
 
-		@Override
-		public List<String> getResult()
-		{
-			return loadedDataLines;
-		}
+	/**
+	 * Lazily streams the (logical) lines of given reader, without loading the whole content in memory.
+	 * <p>
+	 * The caller is responsible for closing the reader (e.g. via {@link Stream#onClose(Runnable)}).
+	 *
+	 * @param multiline if true, the physical lines of a quoted multi-line text field are joined, see {@link #readMultiLines(File, Charset)}
+	 * @throws UncheckedIOException while streaming, in case the reader fails
+	 */
+	public Stream<String> streamLines(@NonNull final BufferedReader reader, final boolean multiline)
+	{
+		final Stream<String> physicalLines = reader.lines();
+		return multiline
+				? Streams.stream(new MultiLineIterator(physicalLines.iterator()))
+				: physicalLines;
 	}
 
 	/**
@@ -160,12 +171,18 @@ final class FileImportReader
 	 */
 	public List<String> readMultiLines(@NonNull final File file, @NonNull final Charset charset) throws IOException
 	{
-		return Files.readLines(file, charset, new MultiLineProcessor());
+		try (final BufferedReader reader = Files.newReader(file, charset))
+		{
+			return readLines(reader, true);
+		}
 	}
 
 	public List<String> readMultiLines(@NonNull final byte[] data, @NonNull final Charset charset) throws IOException
 	{
-		return ByteSource.wrap(data).asCharSource(charset).readLines(new MultiLineProcessor());
+		try (final BufferedReader reader = ByteSource.wrap(data).asCharSource(charset).openBufferedStream())
+		{
+			return readLines(reader, true);
+		}
 	}
 
 	/**
@@ -178,12 +195,30 @@ final class FileImportReader
 	 */
 	public List<String> readRegularLines(@NonNull final File file, @NonNull final Charset charset) throws IOException
 	{
-		return Files.readLines(file, charset, new SingleLineProcessor());
+		try (final BufferedReader reader = Files.newReader(file, charset))
+		{
+			return readLines(reader, false);
+		}
 	}
 
 	public List<String> readRegularLines(@NonNull final byte[] data, @NonNull final Charset charset) throws IOException
 	{
-		return ByteSource.wrap(data).asCharSource(charset).readLines(new SingleLineProcessor());
+		try (final BufferedReader reader = ByteSource.wrap(data).asCharSource(charset).openBufferedStream())
+		{
+			return readLines(reader, false);
+		}
+	}
+
+	private List<String> readLines(@NonNull final BufferedReader reader, final boolean multiline) throws IOException
+	{
+		try
+		{
+			return streamLines(reader, multiline).collect(Collectors.toList());
+		}
+		catch (final UncheckedIOException ex)
+		{
+			throw ex.getCause();
+		}
 	}
 
 	/**
@@ -1,15 +1,18 @@
 package de.metas.impexp.parser;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.adempiere.exceptions.AdempiereException;
-import org.compiere.util.Util;
 import org.springframework.core.io.Resource;
 
+import com.google.common.io.Closeables;
+
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.ToString;
@@ -53,6 +56,9 @@ public final class ImpDataParser
 		this.lineParser = lineParser;
 	}
 
+	/**
+	 * @return lazy stream of the resource's lines; IMPORTANT: close the stream, in order to close the resource.
+	 */
 	public Stream<ImpDataLine> streamDataLines(final Resource resource)
 	{
 		final AtomicInteger nextLineNo = new AtomicInteger(1);
@@ -61,31 +67,23 @@ public final class ImpDataParser
 				.map(lineStr -> createImpDataLine(lineStr, nextLineNo));
 	}
 
+	/**
+	 * Streams the source lines directly from the resource's input stream, so the resource is never loaded in memory as a whole.
+	 * <p>
+	 * The resource is closed when the returned stream is closed.
+	 */
 	private Stream<String> streamSourceLines(final Resource resource)
 	{
-		final byte[] data = toByteArray(resource);
-		try
-		{
-			if (multiline)
-			{
-				return FileImportReader.readMultiLines(data, CHARSET).stream();
-			}
-			else
-			{
-				return FileImportReader.readRegularLines(data, CHARSET).stream();
-			}
-		}
-		catch (final IOException ex)
-		{
-			throw new AdempiereException("Failed reading resource: " + resource, ex);
-		}
+		final BufferedReader reader = openReader(resource);
+		return FileImportReader.streamLines(reader, multiline)
+				.onClose(() -> Closeables.closeQuietly(reader));
 	}
 
-	private static byte[] toByteArray(final Resource resource)
+	private static BufferedReader openReader(final Resource resource)
 	{
 		try
 		{
-			return Util.readBytes(resource.getInputStream());
+			return new BufferedReader(new InputStreamReader(resource.getInputStream(), CHARSET));
 		}
 		catch (final IOException ex)
 		{
@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import de.metas.common.util.time.SystemTime;
 import org.adempiere.ad.dao.ICompositeQueryFilter;
@@ -873,6 +874,23 @@ public class POJOQuery<T> extends AbstractTypedQuery<T>
 		return new ArrayList<>(result);
 	}
 
+	@Override
+	public <R> ImmutableList<R> listColumns(@NonNull final Function<Object[], R> rowMapper, final String... columnNames)
+	{
+		final ImmutableList.Builder<R> result = ImmutableList.builder();
+		for (final T record : list())
+		{
+			final Object[] row = new Object[columnNames.length];
+			for (int i = 0; i < columnNames.length; i++)
+			{
+				row[i] = InterfaceWrapperHelper.getValue(record, columnNames[i]).orElse(null);
+			}
+			result.add(rowMapper.apply(row));
+		}
+
+		return result.build();
+	}
+
 	@Override
 	public final <AT> List<AT> listDistinct(final String columnName, final Class<AT> valueType)
 	{
@@ -25,9 +25,8 @@ package org.adempiere.ad.persistence;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.reflections.ReflectionUtils;
 
@@ -43,8 +42,12 @@ class ModelClassInfo implements IModelClassInfo
 	private final Class<?> modelClass;
 	private final String tableName;
 
-	private Map<Method, IModelMethodInfo> _modelMethodInfos;
-	private final ReentrantLock modelMethodInfosLock = new ReentrantLock();
+	/**
+	 * Method infos, lazily loaded.
+	 * <p>
+	 * NOTE: {@link #getMethodInfo(Method)} is called on each model getter/setter invocation, so we don't want to lock there.
+	 */
+	private volatile ConcurrentHashMap<Method, IModelMethodInfo> _modelMethodInfos;
 
 	private Set<String> _definedColumnNames = null;
 
@@ -86,48 +89,45 @@ class ModelClassInfo implements IModelClassInfo
 	@Override
 	public final IModelMethodInfo getMethodInfo(final Method method)
 	{
-		modelMethodInfosLock.lock();
-		try
-		{
-			final Map<Method, IModelMethodInfo> methodInfos = getMethodInfos0();
+		final ConcurrentHashMap<Method, IModelMethodInfo> methodInfos = getMethodInfos0();
 
-			IModelMethodInfo methodInfo = methodInfos.get(method);
+		IModelMethodInfo methodInfo = methodInfos.get(method);
 
-			//
-			// If methodInfo was not found, try to create it now
+		//
+		// If methodInfo was not found, try to create it now
+		if (methodInfo == null)
+		{
+			methodInfo = methodInfos.computeIfAbsent(method, introspector::createModelMethodInfo);
 			if (methodInfo == null)
 			{
-				methodInfo = introspector.createModelMethodInfo(method);
-				if (methodInfo == null)
-				{
-					throw new IllegalStateException("No method info was found for " + method + " in " + this);
-				}
-
-				methodInfos.put(method, methodInfo);
+				throw new IllegalStateException("No method info was found for " + method + " in " + this);
 			}
-
-			return methodInfo;
-		}
-		finally
-		{
-			modelMethodInfosLock.unlock();
 		}
+
+		return methodInfo;
 	}
 
 	/**
 	 * Gets the inner map of {@link Method} to {@link IModelMethodInfo}.
 	 * 
-	 * NOTE: this method is not thread safe
-	 * 
 	 * @return
 	 */
-	private final Map<Method, IModelMethodInfo> getMethodInfos0()
+	private final ConcurrentHashMap<Method, IModelMethodInfo> getMethodInfos0()
 	{
-		if (_modelMethodInfos == null)
+		ConcurrentHashMap<Method, IModelMethodInfo> modelMethodInfos = _modelMethodInfos;
+		if (modelMethodInfos == null)
 		{
-			_modelMethodInfos = introspector.createModelMethodInfos(getModelClass());
+			synchronized (this)
+			{
+				modelMethodInfos = _modelMethodInfos;
+				if (modelMethodInfos == null)
+				{
+					modelMethodInfos = new ConcurrentHashMap<>(introspector.createModelMethodInfos(getModelClass()));
+					_modelMethodInfos = modelMethodInfos;
+				}
+			}
 		}
-		return _modelMethodInfos;
+		return modelMethodInfos;
 	}
 
 	@Override
@@ -477,6 +477,14 @@ public interface IQuery<T>
 		return listIds().stream().map(idMapper).collect(ImmutableSet.toImmutableSet());
 	}
 
+	/**
+	 * Same as {@link #listIds()}, but the IDs are returned as a primitive array, without boxing them.
+	 */
+	default int[] listIdsAsArray()
+	{
+		return listIds().stream().mapToInt(Integer::intValue).toArray();
+	}
+
 	/**
 	 * Selects given columns and return the result as a list of ColumnName to Value map.
 	 *
@@ -485,6 +493,16 @@ public interface IQuery<T>
 	 */
 	List<Map<String, Object>> listColumns(String... columnNames);
 
+	/**
+	 * Selects given columns and converts each row using the given mapper, without loading the models.
+	 * <p>
+	 * Use this instead of {@link #list()} if you need only a few columns of the records.
+	 *
+	 * @param rowMapper converts a row to the result type. The row is given as an array of column values, in the same order as <code>columnNames</code>.
+	 * @return the converted rows
+	 */
+	<R> ImmutableList<R> listColumns(@NonNull java.util.function.Function<Object[], R> rowMapper, String... columnNames);
+
 	/**
 	 * Selects DISTINCT given columns and return the result as a list of ColumnName to Value map.
 	 *
@@ -621,6 +639,24 @@ public interface IQuery<T>
 		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), parallel);
 	}
 
+	/**
+	 * Returns a stream over the current query selection which is backed by a database cursor, i.e. the rows are fetched from database <code>fetchSize</code> rows at a time
+	 * and only those are held in memory. Use this to go through huge selections.
+	 * <p>
+	 * If the query's transaction is not active, a dedicated read-only connection is used, so the returned records are not bound to a transaction.
+	 * <p>
+	 * IMPORTANT: the stream holds database resources, so please make sure to close it (e.g. by using try-with-resources).
+	 *
+	 * @param clazz model interface class
+	 * @param fetchSize how many rows to fetch from database at a time
+	 */
+	default <ET extends T> Stream<ET> streamWithCursor(final Class<ET> clazz, final int fetchSize) throws DBException
+	{
+		final Iterator<ET> iterator = iterate(clazz);
+		final boolean parallel = false;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), parallel);
+	}
+
 	default <ID extends RepoIdAware> Stream<ID> iterateAndStreamIds(@NonNull final IntFunction<ID> idMapper) throws DBException
 	{
 		final Iterator<ID> iterator = iterateIds(idMapper);
@@ -24,9 +24,15 @@ import static org.assertj.core.api.Assertions.assertThat;
  * #L%
  */
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.junit.Assert;
@@ -244,4 +250,97 @@ public class CCacheTest
 		cache.remove("k1");
 		assertThat(removedItems).containsEntry("k1", "v1");
 	}
+
+	@Test
+	public void test_stats()
+	{
+		final CCache<String, String> cache = new CCache<>("Test", 10);
+		cache.put("k1", "v1");
+
+		cache.get("k1");
+		cache.get("k1");
+		cache.get("k2");
+
+		final CCache.CCacheStats stats = cache.stats();
+		assertThat(stats.getSize()).isEqualTo(1);
+		assertThat(stats.getHitCount()).isEqualTo(2);
+		assertThat(stats.getMissCount()).isEqualTo(1);
+		assertThat(stats.getHitRate()).isEqualTo(2d / 3d);
+	}
+
+	@Test
+	public void test_getOrLoad_concurrentMissesAreLoadedOnce() throws Exception
+	{
+		final CCache<String, String> cache = new CCache<>("Test", 10);
+		final AtomicInteger loadCount = new AtomicInteger();
+		final CountDownLatch loaderStarted = new CountDownLatch(1);
+		final CountDownLatch releaseLoader = new CountDownLatch(1);
+
+		final CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.getOrLoad("k1", key -> {
+			loadCount.incrementAndGet();
+			loaderStarted.countDown();
+			awaitUninterruptibly(releaseLoader);
+			return "v1";
+		}));
+		loaderStarted.await(30, TimeUnit.SECONDS);
+
+		final FutureTask<String> second = new FutureTask<>(() -> cache.getOrLoad("k1", key -> {
+			loadCount.incrementAndGet();
+			return "v1-second";
+		}));
+		final Thread secondThread = new Thread(second, "CCacheTest-second");
+		secondThread.start();
+
+		// make sure the second caller is waiting for the first one's load before releasing it
+		awaitWaiting(secondThread);
+		assertThat(loadCount).hasValue(1);
+		releaseLoader.countDown();
+
+		assertThat(first.get(30, TimeUnit.SECONDS)).isEqualTo("v1");
+		assertThat(second.get(30, TimeUnit.SECONDS)).isEqualTo("v1");
+		assertThat(loadCount).hasValue(1);
+	}
+
+	private static void awaitWaiting(final Thread thread) throws InterruptedException
+	{
+		final long timeout = System.currentTimeMillis() + 30 * 1000;
+		while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < timeout)
+		{
+			Thread.sleep(1);
+		}
+		assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+	}
+
+	private static void awaitUninterruptibly(final CountDownLatch latch)
+	{
+		try
+		{
+			latch.await(30, TimeUnit.SECONDS);
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void test_getOrLoad_refreshAhead() throws Exception
+	{
+		final CCache<String, String> cache = CCache.<String, String> builder()
+				.cacheName("Test")
+				.refreshAfterWrite(Duration.ofMillis(1))
+				.build();
+		cache.put("k1", "v1");
+		Thread.sleep(10);
+
+		// the stale value is served while it's refreshed in background
+		assertThat(cache.getOrLoad("k1", key -> "v2")).isEqualTo("v1");
+
+		final long timeout = System.currentTimeMillis() + 30 * 1000;
+		while (!"v2".equals(cache.get("k1")) && System.currentTimeMillis() < timeout)
+		{
+			Thread.sleep(10);
+		}
+		assertThat(cache.get("k1")).isEqualTo("v2");
+	}
 }
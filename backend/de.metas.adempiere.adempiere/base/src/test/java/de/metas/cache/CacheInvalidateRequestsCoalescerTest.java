@@ -0,0 +1,120 @@
+package de.metas.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+class CacheInvalidateRequestsCoalescerTest
+{
+	@Test
+	void coalesce_deduplicates()
+	{
+		final CacheInvalidateMultiRequest result = CacheInvalidateRequestsCoalescer.coalesce(
+				ImmutableList.of(
+						CacheInvalidateRequest.rootRecord("T1", 1),
+						CacheInvalidateRequest.rootRecord("T1", 1),
+						CacheInvalidateRequest.rootRecord("T1", 2)),
+				100);
+
+		assertThat(result.getRequests()).containsExactly(
+				CacheInvalidateRequest.rootRecord("T1", 1),
+				CacheInvalidateRequest.rootRecord("T1", 2));
+	}
+
+	@Test
+	void coalesce_dropsRecordsCoveredByTableReset()
+	{
+		final CacheInvalidateMultiRequest result = CacheInvalidateRequestsCoalescer.coalesce(
+				ImmutableList.of(
+						CacheInvalidateRequest.rootRecord("T1", 1),
+						CacheInvalidateRequest.allRecordsForTable("T1"),
+						CacheInvalidateRequest.rootRecord("T2", 1),
+						CacheInvalidateRequest.allChildRecords("T2", 1, "T1")),
+				100);
+
+		assertThat(result.getRequests()).containsExactly(
+				CacheInvalidateRequest.allRecordsForTable("T1"),
+				CacheInvalidateRequest.rootRecord("T2", 1),
+				CacheInvalidateRequest.allChildRecords("T2", 1, "T1"));
+	}
+
+	@Test
+	void coalesce_escalatesToTableReset()
+	{
+		final List<CacheInvalidateRequest> requests = new ArrayList<>();
+		for (int recordId = 1; recordId <= 11; recordId++)
+		{
+			requests.add(CacheInvalidateRequest.rootRecord("T1", recordId));
+		}
+		requests.add(CacheInvalidateRequest.rootRecord("T2", 1));
+
+		final CacheInvalidateMultiRequest result = CacheInvalidateRequestsCoalescer.coalesce(requests, 10);
+
+		assertThat(result.getRequests()).containsExactly(
+				CacheInvalidateRequest.rootRecord("T2", 1),
+				CacheInvalidateRequest.allRecordsForTable("T1"));
+	}
+
+	@Test
+	void coalesce_resetAll()
+	{
+		final CacheInvalidateMultiRequest result = CacheInvalidateRequestsCoalescer.coalesce(
+				ImmutableList.of(
+						CacheInvalidateRequest.rootRecord("T1", 1),
+						CacheInvalidateRequest.all()),
+				100);
+
+		assertThat(result.isResetAll()).isTrue();
+	}
+
+	@Test
+	void add_and_flush()
+	{
+		final List<CacheInvalidateMultiRequest> forwarded = new ArrayList<>();
+		final CacheInvalidateRequestsCoalescer coalescer = CacheInvalidateRequestsCoalescer.builder()
+				.name("test")
+				.windowMillis(60 * 1000) // we flush manually
+				.maxRecordsPerTable(100)
+				.handler(forwarded::add)
+				.build();
+
+		coalescer.add(CacheInvalidateMultiRequest.rootRecord("T1", 1));
+		coalescer.add(CacheInvalidateMultiRequest.rootRecord("T1", 1));
+		assertThat(forwarded).isEmpty();
+
+		coalescer.flush();
+		assertThat(forwarded).containsExactly(CacheInvalidateMultiRequest.rootRecord("T1", 1));
+		assertThat(coalescer.getCountRequestsAdded()).isEqualTo(2);
+		assertThat(coalescer.getCountRequestsFlushed()).isEqualTo(1);
+	}
+}
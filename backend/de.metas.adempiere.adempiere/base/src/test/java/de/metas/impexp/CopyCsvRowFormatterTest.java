@@ -0,0 +1,51 @@
+package de.metas.impexp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class CopyCsvRowFormatterTest
+{
+	@Test
+	public void standardValues()
+	{
+		final StringBuilder csv = new StringBuilder();
+		CopyCsvRowFormatter.appendRow(csv, Arrays.asList(1, new BigDecimal("1E+2"), Boolean.TRUE, null, "text"));
+
+		assertThat(csv.toString()).isEqualTo("1,100,Y,,\"text\"\n");
+	}
+
+	@Test
+	public void stringsAreQuotedAndEscaped()
+	{
+		final StringBuilder csv = new StringBuilder();
+		CopyCsvRowFormatter.appendRow(csv, Arrays.asList("", "a,\"b\"\nc"));
+
+		assertThat(csv.toString()).isEqualTo("\"\",\"a,\"\"b\"\"\nc\"\n");
+	}
+}
@@ -24,9 +24,11 @@ package de.metas.impexp.parser;
 
 import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Assertions;
+import com.google.common.io.Files;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
@@ -34,6 +36,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -213,4 +216,24 @@ public class FileImportReaderTest
 		assertTrue(lines.get(1).endsWith("90"));
 		assertTrue(lines.get(2).endsWith("100"));
 	}
+
+	@Test
+	public void streamLines_sameAsReadMultiLines() throws IOException
+	{
+		final URL url = getClass().getResource(packagePath + "/OnlyAppendIfInQuotesPreserveFirstLine.csv");
+		assertNotNull("url null", url);
+		final File file = FileUtils.toFile(url);
+		assertNotNull("file null", file);
+
+		final Charset charset = StandardCharsets.UTF_8;
+		final List<String> streamedLines;
+		try (final BufferedReader reader = Files.newReader(file, charset))
+		{
+			streamedLines = FileImportReader.streamLines(reader, true).collect(Collectors.toList());
+		}
+
+		Assertions.assertThat(streamedLines)
+				.hasSize(5)
+				.isEqualTo(FileImportReader.readMultiLines(file, charset));
+	}
 }
@@ -30,6 +30,8 @@ import static org.junit.Assert.assertThat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.trx.api.ITrx;
@@ -333,4 +335,46 @@ public class QueryBuilderTests
 		final List<I_M_Product> result = query.list();
 		assertThat(result).containsExactly(product0, product1, product2, product3, product4);
 	}
+
+	@Test
+	public void listColumns_withRowMapper_and_listIdsAsArray()
+	{
+		product0.setValue("P0");
+		InterfaceWrapperHelper.save(product0);
+		product2.setValue("P2");
+		InterfaceWrapperHelper.save(product2);
+
+		final IQuery<I_M_Product> query = new QueryBuilder<>(I_M_Product.class, null) // tableName=null
+				.setContext(ctx, ITrx.TRXNAME_None)
+				.addOnlyActiveRecordsFilter()
+				.orderBy(I_M_Product.COLUMNNAME_M_Product_ID)
+				.create();
+
+		final List<String> rows = query.listColumns(
+				row -> row[0] + "/" + row[1],
+				I_M_Product.COLUMNNAME_M_Product_ID,
+				I_M_Product.COLUMNNAME_Value);
+		assertThat(rows).containsExactly(
+				product0.getM_Product_ID() + "/P0",
+				product2.getM_Product_ID() + "/P2");
+
+		assertThat(query.listIdsAsArray()).containsExactly(product0.getM_Product_ID(), product2.getM_Product_ID());
+	}
+
+	@Test
+	public void streamWithCursor()
+	{
+		final IQuery<I_M_Product> query = new QueryBuilder<>(I_M_Product.class, null) // tableName=null
+				.setContext(ctx, ITrx.TRXNAME_None)
+				.addOnlyActiveRecordsFilter()
+				.orderBy(I_M_Product.COLUMNNAME_M_Product_ID)
+				.create();
+
+		final List<I_M_Product> streamedProducts;
+		try (final Stream<I_M_Product> stream = query.streamWithCursor(I_M_Product.class, 1))
+		{
+			streamedProducts = stream.collect(Collectors.toList());
+		}
+		assertThat(streamedProducts).containsExactly(product0, product2);
+	}
 }
@@ -0,0 +1,164 @@
+package org.adempiere.ad.dao.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.IQuery;
+import org.compiere.model.I_AD_Table;
+import org.compiere.util.Env;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Tests how {@link TypedSqlQuery#streamWithCursor(Class, int)} iterates the result set and releases the database resources.
+ * The JDBC objects are mocked, because there is no database in unit tests.
+ */
+public class TypedSqlQueryStreamWithCursorTest
+{
+	private TypedSqlQuery<I_AD_Table> query;
+
+	private Connection conn;
+	private PreparedStatement pstmt;
+	private ResultSet rs;
+
+	@BeforeEach
+	public void init() throws SQLException
+	{
+		AdempiereTestHelper.get().init();
+
+		query = new TypedSqlQuery<>(Env.getCtx(), I_AD_Table.class, null, ITrx.TRXNAME_None);
+
+		conn = mock(Connection.class);
+		pstmt = mock(PreparedStatement.class);
+		rs = mock(ResultSet.class);
+		when(rs.next()).thenReturn(true, true, true, false);
+		when(rs.getString(1)).thenReturn("T1", "T2", "T3");
+	}
+
+	private static I_AD_Table retrieveTable(final ResultSet rs) throws SQLException
+	{
+		final I_AD_Table table = InterfaceWrapperHelper.newInstance(I_AD_Table.class);
+		table.setTableName(rs.getString(1));
+		return table;
+	}
+
+	private Stream<I_AD_Table> streamFromResultSet(final Connection conn)
+	{
+		return query.streamFromResultSet(TypedSqlQueryStreamWithCursorTest::retrieveTable, conn, pstmt, rs);
+	}
+
+	private static List<String> toTableNames(final Stream<I_AD_Table> stream)
+	{
+		return stream.map(I_AD_Table::getTableName).collect(Collectors.toList());
+	}
+
+	private void assertConnectionReleased() throws SQLException
+	{
+		verify(conn).rollback();
+		verify(conn).setReadOnly(false);
+		verify(conn).close();
+	}
+
+	@Test
+	public void allRows() throws SQLException
+	{
+		final List<String> tableNames;
+		try (final Stream<I_AD_Table> stream = streamFromResultSet(conn))
+		{
+			tableNames = toTableNames(stream);
+
+			// released as soon as the last row was read, i.e. even before the stream is closed
+			verify(rs).close();
+			verify(pstmt).close();
+			assertConnectionReleased();
+		}
+
+		assertThat(tableNames).containsExactly("T1", "T2", "T3");
+	}
+
+	@Test
+	public void allRows_inTrx() throws SQLException
+	{
+		try (final Stream<I_AD_Table> stream = streamFromResultSet(null))
+		{
+			assertThat(toTableNames(stream)).containsExactly("T1", "T2", "T3");
+		}
+
+		verify(rs).close();
+		verify(pstmt).close();
+		verify(conn, never()).close();
+	}
+
+	@Test
+	public void closingEarlyReleasesTheCursorAndConnection() throws SQLException
+	{
+		try (final Stream<I_AD_Table> stream = streamFromResultSet(conn))
+		{
+			assertThat(stream.findFirst().get().getTableName()).isEqualTo("T1");
+		}
+
+		verify(rs, times(1)).next();
+		verify(rs).close();
+		verify(pstmt).close();
+		assertConnectionReleased();
+	}
+
+	@Test
+	public void postQueryFilter() throws SQLException
+	{
+		query.setPostQueryFilter(table -> !"T2".equals(table.getTableName()));
+
+		try (final Stream<I_AD_Table> stream = streamFromResultSet(conn))
+		{
+			assertThat(toTableNames(stream)).containsExactly("T1", "T3");
+		}
+	}
+
+	@Test
+	public void recordsAreReadOnly() throws SQLException
+	{
+		query.setOption(IQuery.OPTION_ReturnReadOnlyRecords, true);
+
+		try (final Stream<I_AD_Table> stream = streamFromResultSet(conn))
+		{
+			assertThat(stream.allMatch(InterfaceWrapperHelper::isSaveDeleteDisabled)).isTrue();
+		}
+	}
+}
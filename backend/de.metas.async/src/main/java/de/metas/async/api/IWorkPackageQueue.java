@@ -86,6 +86,14 @@ public interface IWorkPackageQueue
 	 */
 	I_C_Queue_WorkPackage pollAndLock(long timeoutMillis);
 
+	/**
+	 * Same as {@link #pollAndLock(long)}, but retrieves and locks up to <code>maxWorkPackages</code> workpackages in one go.
+	 * Each returned workpackage has its own context.
+	 *
+	 * @return locked workpackages, in processing order; empty if there are none; never returns null
+	 */
+	List<I_C_Queue_WorkPackage> pollAndLockMultiple(long timeoutMillis, int maxWorkPackages);
+
 	/**
 	 * Unlocks given package
 	 *
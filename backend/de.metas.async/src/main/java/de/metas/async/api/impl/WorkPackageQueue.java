@@ -46,6 +46,8 @@ import org.compiere.util.Env;
 import org.slf4j.Logger;
 import org.slf4j.MDC.MDCCloseable;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.async.AsyncBatchId;
 import de.metas.async.Async_Constants;
 import de.metas.async.api.IAsyncBatchBL;
@@ -91,6 +93,7 @@ public class WorkPackageQueue implements IWorkPackageQueue
 	private final transient IWorkpackageProcessorContextFactory contextFactory = Services.get(IWorkpackageProcessorContextFactory.class);
 	private final transient IAsyncBatchBL asyncBatchBL = Services.get(IAsyncBatchBL.class);
 	private final transient IWorkPackageBL workPackageBL = Services.get(IWorkPackageBL.class);
+	private final transient WorkPackageReadyForProcessingNotifier readyNotifier = WorkPackageReadyForProcessingNotifier.instance;
 
 	private final Properties ctx;
 	private final List<Integer> packageProcessorIds;
@@ -198,12 +201,21 @@ public class WorkPackageQueue implements IWorkPackageQueue
 	@Override
 	public I_C_Queue_WorkPackage pollAndLock(final long timeoutMillis)
 	{
+		final List<I_C_Queue_WorkPackage> workPackages = pollAndLockMultiple(timeoutMillis, 1);
+		return workPackages.isEmpty() ? null : workPackages.get(0);
+	}
+
+	@Override
+	public List<I_C_Queue_WorkPackage> pollAndLockMultiple(final long timeoutMillis, final int maxWorkPackages)
+	{
+		Check.assume(maxWorkPackages > 0, "maxWorkPackages > 0");
+
 		logger.debug("Going to obtain mainLock");
 		mainLock.lock();
 		logger.debug("Obtained mainLock");
 		try
 		{
-			return pollAndLock0(timeoutMillis);
+			return pollAndLock0(timeoutMillis, maxWorkPackages);
 		}
 		finally
 		{
@@ -211,22 +223,25 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		}
 	}
 
-	private I_C_Queue_WorkPackage pollAndLock0(final long timeoutMillis)
+	private List<I_C_Queue_WorkPackage> pollAndLock0(final long timeoutMillis, final int maxWorkPackages)
 	{
 		final Properties workPackageCtx = Env.newTemporaryCtx();
 
 		final IQuery<I_C_Queue_WorkPackage> query = createQuery(workPackageCtx);
 
 		final long startTS = de.metas.common.util.time.SystemTime.millis();
-		I_C_Queue_WorkPackage workPackage = retrieveAndLock(query);
-		if (timeoutMillis == TIMEOUT_OneTimeOnly && workPackage == null)
+
+		// NOTE: get the notification version before querying, so we don't miss the workpackages which are enqueued meanwhile
+		long readyNotificationVersion = readyNotifier.getVersion(packageProcessorIds);
+		List<I_C_Queue_WorkPackage> workPackages = retrieveAndLock(query, workPackageCtx, maxWorkPackages);
+		if (timeoutMillis == TIMEOUT_OneTimeOnly && workPackages.isEmpty())
 		{
 			// We are running in one time only mode (synchronous mode) and we did not get the package from the first time
 			// No point to go further
-			return null;
+			return ImmutableList.of();
 		}
 
-		while (workPackage == null)
+		while (workPackages.isEmpty())
 		{
 			// If we have a timeout specified, make sure we are not waiting more then that timeout
 			if (timeoutMillis != TIMEOUT_Infinite)
@@ -237,30 +252,30 @@ public class WorkPackageQueue implements IWorkPackageQueue
 				if (elapsedMillis >= timeoutMillis)
 				{
 					logger.debug("Poll waiting time exceeded. Returning null");
-					return null;
+					return ImmutableList.of();
 				}
 			}
 
-			// No workpackages were found. Sleep 1sec and then try again
+			// No workpackages were found. Wait until a new workpackage is enqueued, but max. the poll interval, and then try again
 			try
 			{
 				// note: we always get the new service, because things might have changed since this method started
 				final int pollIntervalMs = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_POLLINTERVAL, 1000);
-				Thread.sleep(pollIntervalMs);
+				final boolean notified = readyNotifier.awaitReadyForProcessing(packageProcessorIds, readyNotificationVersion, pollIntervalMs);
+				logger.debug("Stopped waiting for next workpackage; notified={}", notified);
 			}
 			catch (final InterruptedException e)
 			{
 				logger.debug("Got interrupted signal. Returning null", e);
-				return null;
+				return ImmutableList.of();
 			}
 
 			// Try fetching the workpackage again
 			logger.debug("Retry retrieving next workpackage");
-			workPackage = retrieveAndLock(query);
+			readyNotificationVersion = readyNotifier.getVersion(packageProcessorIds);
+			workPackages = retrieveAndLock(query, workPackageCtx, maxWorkPackages);
 		}
 
-		Check.assumeNotNull(workPackage, "workPackage not null");
-
 		// Successfully acquired our lock :-)
 
 		// now we have all the time in the world to add our AD_PInstance_ID
@@ -269,11 +284,7 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		// workPackage.setAD_PInstance_ID(adPInstanceId);
 		// saveInLocalTrx(workPackage);
 
-		//
-		// Update context from work package
-		// NOTE: this will be the context that work package processors will use on processing
-		setupWorkpackageContext(workPackageCtx, workPackage);
-		return workPackage;
+		return workPackages;
 	}
 
 	/**
@@ -334,6 +345,54 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		Env.setContext(workPackageCtx, Env.CTXNAME_AD_Session_ID, Env.CTXVALUE_AD_SESSION_ID_NONE);
 	}
 
+	/**
+	 * Retrieves and locks the next workpackages. The context of each returned workpackage is already set up (see {@link #setupWorkpackageContext(Properties, I_C_Queue_WorkPackage)}).
+	 *
+	 * @param workPackageCtx the context the <code>query</code> was created with
+	 */
+	private List<I_C_Queue_WorkPackage> retrieveAndLock(
+			final IQuery<I_C_Queue_WorkPackage> query,
+			final Properties workPackageCtx,
+			final int maxWorkPackages)
+	{
+		if (maxWorkPackages <= 1)
+		{
+			final I_C_Queue_WorkPackage workPackage = retrieveAndLock(query);
+			if (workPackage == null)
+			{
+				return ImmutableList.of();
+			}
+
+			// NOTE: this will be the context that work package processors will use on processing
+			setupWorkpackageContext(workPackageCtx, workPackage);
+			return ImmutableList.of(workPackage);
+		}
+
+		//
+		// Claim all workpackages in one go.
+		// Each of them needs its own context, so we load them one by one, using a fresh context.
+		final List<Integer> workPackageIds = Services.get(ILockManager.class).retrieveAndLockMultipleRecordIds(query, I_C_Queue_WorkPackage.class, maxWorkPackages);
+		final List<I_C_Queue_WorkPackage> workPackages = new ArrayList<>(workPackageIds.size());
+		for (final int workPackageId : workPackageIds)
+		{
+			final Properties ctx = Env.newTemporaryCtx();
+			final I_C_Queue_WorkPackage workPackage = InterfaceWrapperHelper.create(ctx, workPackageId, I_C_Queue_WorkPackage.class, ITrx.TRXNAME_None);
+			if (!isValid(workPackage))
+			{
+				if (workPackage != null)
+				{
+					unlockNoFail(workPackage);
+				}
+				logger.warn("Aquired C_Queue_WorkPackage_ID={} on thread {} but is not valid. Unlocking and skipping it.", workPackageId, Thread.currentThread().getName());
+				continue;
+			}
+
+			setupWorkpackageContext(ctx, workPackage);
+			workPackages.add(workPackage);
+		}
+		return workPackages;
+	}
+
 	private I_C_Queue_WorkPackage retrieveAndLock(final IQuery<I_C_Queue_WorkPackage> query)
 	{
 		I_C_Queue_WorkPackage workPackage = Services.get(ILockManager.class).retrieveAndLock(query, I_C_Queue_WorkPackage.class);
@@ -755,6 +814,9 @@ public class WorkPackageQueue implements IWorkPackageQueue
 				dao.save(workPackage);
 				logger.debug("C_Queue_WorkPackage.IsReadyForProcessing is now set to true");
 				success = true;
+
+				// Wake up the idle queue processors instead of letting them wait for their next poll
+				readyNotifier.notifyReadyForProcessing(getPackageProcessorId(workPackage));
 			}
 			finally
 			{
@@ -774,6 +836,16 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		}
 	}
 
+	private int getPackageProcessorId(@NonNull final I_C_Queue_WorkPackage workPackage)
+	{
+		if (enquingPackageProcessorId > 0)
+		{
+			return enquingPackageProcessorId;
+		}
+		final I_C_Queue_Block block = workPackage.getC_Queue_Block();
+		return block != null ? block.getC_Queue_PackageProcessor_ID() : -1;
+	}
+
 	private IQuery<I_C_Queue_WorkPackage> createQuery(final Properties workPackageCtx)
 	{
 		//
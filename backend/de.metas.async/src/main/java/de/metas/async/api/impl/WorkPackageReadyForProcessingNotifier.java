@@ -0,0 +1,182 @@
+package de.metas.async.api.impl;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import de.metas.event.Event;
+import de.metas.event.IEventBus;
+import de.metas.event.IEventBusFactory;
+import de.metas.event.IEventListener;
+import de.metas.event.Topic;
+import de.metas.logging.LogManager;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Wakes up idle {@link WorkPackageQueue}s as soon as a workpackage was flagged as ready for processing, so that they don't have to wait for the next poll interval.
+ * <p>
+ * Notifications from the local JVM are delivered directly. Notifications from other nodes are received via the event bus, if {@link #enable()} was called.
+ * Polling remains the fallback, e.g. if a notification was sent before the workpackage's transaction was committed.
+ */
+public final class WorkPackageReadyForProcessingNotifier implements IEventListener
+{
+	public static final transient WorkPackageReadyForProcessingNotifier instance = new WorkPackageReadyForProcessingNotifier();
+
+	private static final Logger logger = LogManager.getLogger(WorkPackageReadyForProcessingNotifier.class);
+
+	private static final Topic TOPIC = Topic.remote("de.metas.async.WorkPackageReadyForProcessing");
+	private static final String EVENT_PROPERTY_C_Queue_PackageProcessor_ID = "C_Queue_PackageProcessor_ID";
+
+	private final AtomicBoolean _remoteEnabled = new AtomicBoolean(false);
+
+	/** Monotonic counters, one for each C_Queue_PackageProcessor_ID; they are increased on each notification */
+	private final ConcurrentHashMap<Integer, AtomicLong> versionsByPackageProcessorId = new ConcurrentHashMap<>();
+	private final Object signal = new Object();
+
+	private WorkPackageReadyForProcessingNotifier()
+	{
+	}
+
+	/**
+	 * Enables receiving and broadcasting notifications from/to other nodes.
+	 */
+	public void enable()
+	{
+		if (_remoteEnabled.getAndSet(true))
+		{
+			return;
+		}
+
+		Services.get(IEventBusFactory.class).registerGlobalEventListener(TOPIC, instance);
+	}
+
+	/**
+	 * Notifies both local and remote queues that a workpackage for the given processor is ready for processing.
+	 */
+	public void notifyReadyForProcessing(final int packageProcessorId)
+	{
+		if (packageProcessorId <= 0)
+		{
+			return;
+		}
+
+		notifyLocal(packageProcessorId);
+
+		if (_remoteEnabled.get())
+		{
+			try
+			{
+				final Event event = Event.builder()
+						.putProperty(EVENT_PROPERTY_C_Queue_PackageProcessor_ID, packageProcessorId)
+						.build();
+				Services.get(IEventBusFactory.class)
+						.getEventBus(TOPIC)
+						.postEvent(event);
+			}
+			catch (final Exception ex)
+			{
+				// polling is our fallback, so we don't want to fail the enqueuing because of this
+				logger.warn("Failed broadcasting ready-for-processing notification for C_Queue_PackageProcessor_ID={}. Ignored.", packageProcessorId, ex);
+			}
+		}
+	}
+
+	@Override
+	public void onEvent(final IEventBus eventBus, final Event event)
+	{
+		// Ignore local events because they were already delivered by notifyReadyForProcessing
+		if (event.isLocalEvent())
+		{
+			return;
+		}
+
+		final int packageProcessorId = event.getPropertyAsInt(EVENT_PROPERTY_C_Queue_PackageProcessor_ID, -1);
+		logger.debug("onEvent - got remote notification for C_Queue_PackageProcessor_ID={}", packageProcessorId);
+		notifyLocal(packageProcessorId);
+	}
+
+	private void notifyLocal(final int packageProcessorId)
+	{
+		if (packageProcessorId <= 0)
+		{
+			return;
+		}
+
+		versionsByPackageProcessorId.computeIfAbsent(packageProcessorId, k -> new AtomicLong()).incrementAndGet();
+		synchronized (signal)
+		{
+			signal.notifyAll();
+		}
+	}
+
+	/**
+	 * @return a value which changes each time one of the given processors was notified. Shall be fetched <b>before</b> querying the queue, in order not to miss notifications.
+	 */
+	public long getVersion(@NonNull final Collection<Integer> packageProcessorIds)
+	{
+		long version = 0;
+		for (final Integer packageProcessorId : packageProcessorIds)
+		{
+			final AtomicLong processorVersion = versionsByPackageProcessorId.get(packageProcessorId);
+			if (processorVersion != null)
+			{
+				version += processorVersion.get();
+			}
+		}
+		return version;
+	}
+
+	/**
+	 * Blocks until one of the given processors was notified after the given <code>lastVersion</code>, or until <code>maxWaitMillis</code> elapsed.
+	 *
+	 * @return true if we got notified, false if the waiting time elapsed
+	 */
+	public boolean awaitReadyForProcessing(
+			@NonNull final Collection<Integer> packageProcessorIds,
+			final long lastVersion,
+			final long maxWaitMillis) throws InterruptedException
+	{
+		// NOTE: we use nanoTime and not SystemTime because the latter might be fixed in tests
+		final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		synchronized (signal)
+		{
+			while (getVersion(packageProcessorIds) == lastVersion)
+			{
+				final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+				if (remainingMillis <= 0)
+				{
+					return false;
+				}
+				signal.wait(remainingMillis);
+			}
+			return true;
+		}
+	}
+}
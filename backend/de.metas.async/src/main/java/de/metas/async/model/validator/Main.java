@@ -39,6 +39,7 @@ import de.metas.Profiles;
 import de.metas.async.Async_Constants;
 import de.metas.async.api.IAsyncBatchListeners;
 import de.metas.async.api.impl.AsyncBatchDAO;
+import de.metas.async.api.impl.WorkPackageReadyForProcessingNotifier;
 import de.metas.async.model.I_C_Queue_WorkPackage;
 import de.metas.async.model.I_C_Queue_WorkPackage_Log;
 import de.metas.async.model.I_C_Queue_WorkPackage_Param;
@@ -72,6 +73,9 @@ public class Main extends AbstractModuleInterceptor
 	@Override
 	protected void onAfterInit()
 	{
+		// broadcast/receive "workpackage ready for processing" notifications, so that idle queue processors are woken up right away
+		WorkPackageReadyForProcessingNotifier.instance.enable();
+
 		startQueueProcessors();
 
 		final IMigrationLogger migrationLogger = Services.get(IMigrationLogger.class);
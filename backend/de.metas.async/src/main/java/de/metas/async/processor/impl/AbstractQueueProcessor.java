@@ -22,6 +22,7 @@ package de.metas.async.processor.impl;
  * #L%
  */
 
+import java.util.List;
 import java.util.Properties;
 
 import de.metas.common.util.time.SystemTime;
@@ -175,21 +176,54 @@ public abstract class AbstractQueueProcessor implements IQueueProcessor
 		}
 	}
 
+	/**
+	 * @return how many workpackages shall be retrieved and locked in one go; by default, they are retrieved one by one
+	 */
+	protected int getPollAndLockBatchSize()
+	{
+		return 1;
+	}
+
 	private boolean pollAndSubmitNextWorkPackageTask()
 	{
 		final IWorkPackageQueue queue = getQueue();
-		final I_C_Queue_WorkPackage workPackage;
+		final List<I_C_Queue_WorkPackage> workPackages;
 		try (final MDCCloseable ignored = MDC.putCloseable("queue", queue.toString());
 				final MDCCloseable ignored1 = MDC.putCloseable("queue.pollAndLockStart", Long.toString(SystemTime.millis()));)
 		{
-			logger.debug("pollAndSubmitNextWorkPackageTask - going to invoke queue.pollAndLock() with timeout={} on queue={}", queuePollingTimeout, queue);
-			workPackage = queue.pollAndLock(queuePollingTimeout);
-			if (workPackage == null)
+			final int batchSize = getPollAndLockBatchSize();
+			logger.debug("pollAndSubmitNextWorkPackageTask - going to invoke queue.pollAndLockMultiple() with timeout={} and batchSize={} on queue={}", queuePollingTimeout, batchSize, queue);
+			workPackages = queue.pollAndLockMultiple(queuePollingTimeout, batchSize);
+			if (workPackages.isEmpty())
 			{
-				logger.debug("pollAndSubmitNextWorkPackageTask - queue returned workPackage", queuePollingTimeout, queue);
+				logger.debug("pollAndSubmitNextWorkPackageTask - queue returned no workPackage; timeout={}, queue={}", queuePollingTimeout, queue);
 				return false;
 			}
 		}
+
+		int submittedCount = 0;
+		try
+		{
+			for (final I_C_Queue_WorkPackage workPackage : workPackages)
+			{
+				submitWorkPackageTask(workPackage);
+				submittedCount++;
+			}
+			return true;
+		}
+		finally
+		{
+			// if submitting one workpackage failed, the ones which were not submitted yet shall be unlocked too
+			for (final I_C_Queue_WorkPackage workPackage : workPackages.subList(Math.min(submittedCount + 1, workPackages.size()), workPackages.size()))
+			{
+				logger.info("Submitting for processing of a previous workpackage failed. Trying to unlock {}.", workPackage);
+				queue.unlockNoFail(workPackage);
+			}
+		}
+	}
+
+	private void submitWorkPackageTask(final I_C_Queue_WorkPackage workPackage)
+	{
 		boolean success = false;
 		try
 		{
@@ -197,14 +231,13 @@ public abstract class AbstractQueueProcessor implements IQueueProcessor
 			final WorkpackageProcessorTask task = new WorkpackageProcessorTask(this, workPackageProcessor, workPackage, logsRepository);
 			executeTask(task);
 			success = true;
-			return true;
 		}
 		finally
 		{
 			if (!success)
 			{
 				logger.info("Submitting for processing next workpackage failed. Trying to unlock {}.", workPackage);
-				queue.unlockNoFail(workPackage);
+				getQueue().unlockNoFail(workPackage);
 
 				getEventDispatcher().unregisterListeners(workPackage.getC_Queue_WorkPackage_ID());
 			}
@@ -31,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.concurrent.BlockingExecutorWrapper;
 import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.slf4j.Logger;
@@ -41,6 +42,7 @@ import de.metas.async.api.IWorkPackageQueue;
 import de.metas.async.api.IWorkpackageLogsRepository;
 import de.metas.async.model.I_C_Queue_Processor;
 import de.metas.logging.LogManager;
+import de.metas.util.Services;
 import lombok.NonNull;
 
 class ThreadPoolQueueProcessor extends AbstractQueueProcessor
@@ -50,7 +52,14 @@ class ThreadPoolQueueProcessor extends AbstractQueueProcessor
 	/** we don't have LogManager in the executor's package, so we create the logger here and inject it when creating the executor. */
 	private static final Logger loggerForExecutor = LogManager.getLogger(BlockingExecutorWrapper.class);
 
+	/**
+	 * How many workpackages shall be retrieved and locked in one go. Capped by the processor's pool size.
+	 * Default is 1, i.e. workpackages are retrieved one by one.
+	 */
+	private static final String SYSCONFIG_POLL_AND_LOCK_BATCH_SIZE = "de.metas.async.PollAndLockBatchSize";
+
 	private String name;
+	private final int poolSize;
 	private final ExecutorService executor;
 	private final AtomicBoolean running;
 
@@ -62,6 +71,7 @@ class ThreadPoolQueueProcessor extends AbstractQueueProcessor
 		super(queue, logsRepository);
 
 		this.name = config.getName();
+		this.poolSize = config.getPoolSize();
 
 		//
 		// Create the tasks executor
@@ -129,6 +139,16 @@ class ThreadPoolQueueProcessor extends AbstractQueueProcessor
 		return true;
 	}
 
+	@Override
+	protected int getPollAndLockBatchSize()
+	{
+		// note: we always get the new service, because things might have changed meanwhile
+		final int batchSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_POLL_AND_LOCK_BATCH_SIZE, 1);
+
+		// don't lock more workpackages than we can process in parallel, because the others would just wait while being locked
+		return Math.max(1, Math.min(batchSize, poolSize));
+	}
+
 	@Override
 	protected void executeTask(@NonNull final WorkpackageProcessorTask task)
 	{
@@ -23,6 +23,8 @@ package de.metas.lock.api;
  */
 
 
+import java.util.List;
+
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.IQueryFilter;
 import org.compiere.model.IQuery;
@@ -94,6 +96,16 @@ public interface ILockManager extends ISingletonService
 	 */
 	<T> T retrieveAndLock(IQuery<T> query, Class<T> clazz);
 
+	/**
+	 * Retrieves the next <code>maxRecords</code> models from query and locks them (using {@link LockOwner#NONE}).
+	 * <p>
+	 * Unlike calling {@link #retrieveAndLock(IQuery, Class)} multiple times, implementations are free to select and lock all records in one go.
+	 * Records which are concurrently locked by somebody else are skipped.
+	 *
+	 * @return IDs of the retrieved records (already locked), in query order; never returns null
+	 */
+	<T> List<Integer> retrieveAndLockMultipleRecordIds(IQuery<T> query, Class<T> clazz, int maxRecords);
+
 	/**
 	 * Builds a SQL where clause to be used in other queries to filter the results.
 	 *
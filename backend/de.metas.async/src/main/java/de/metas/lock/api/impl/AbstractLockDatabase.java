@@ -22,7 +22,9 @@ package de.metas.lock.api.impl;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
@@ -32,6 +34,8 @@ import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.model.IQuery;
 import org.slf4j.Logger;
 
+import com.google.common.collect.Iterators;
+
 import de.metas.lock.api.ILock;
 import de.metas.lock.api.ILockCommand;
 import de.metas.lock.api.ILockCommand.AllowAdditionalLocks;
@@ -54,6 +58,9 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 {
 	protected final transient Logger logger = LogManager.getLogger(getClass());
 
+	/** How many records shall be locked/unlocked in one go when they are given as an iterator */
+	protected static final int RECORDS_CHUNK_SIZE = 1000;
+
 	/** Asserts given lock owner is a valid owner to be used on for Locks */
 	protected static final void assertValidLockOwner(final LockOwner lockOwner)
 	{
@@ -135,6 +142,8 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 	/**
 	 * Lock all records specified by {@link LockCommand#getRecordsToLockIterator()}.
 	 *
+	 * The records are processed in chunks of {@link #RECORDS_CHUNK_SIZE}, see {@link #lockRecords(ILockCommand, List)} and {@link #changeLockRecords(ILockCommand, List)}.
+	 *
 	 * @return how many records were locked
 	 */
 	private final int lockByIterator(final ILockCommand lockCommand)
@@ -142,34 +151,43 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 		final Iterator<TableRecordReference> records = lockCommand.getRecordsToLockIterator();
 		Check.assumeNotNull(records, "records not null");
 
-		final boolean failIfAlreadyLocked = lockCommand.isFailIfAlreadyLocked();
 		final boolean changeLock = lockCommand.getParentLock() != null;
 		int countLocked = 0;
-		while (records.hasNext())
+		final Iterator<List<TableRecordReference>> recordsChunks = Iterators.partition(records, RECORDS_CHUNK_SIZE);
+		while (recordsChunks.hasNext())
 		{
-			final TableRecordReference record = records.next();
-
-			//
-			// Acquire/Change the lock
-			final boolean locked;
+			final List<TableRecordReference> recordsChunk = recordsChunks.next();
 			if (changeLock)
 			{
-				locked = changeLockRecord(lockCommand, record);
+				countLocked += changeLockRecords(lockCommand, recordsChunk);
 			}
 			else
 			{
-				locked = lockRecord(lockCommand, record);
+				countLocked += lockRecords(lockCommand, recordsChunk);
 			}
+		}
 
-			// Increment the locked counter
-			if (locked)
+		return countLocked;
+	}
+
+	/**
+	 * Locks the given records.
+	 *
+	 * This implementation locks them one by one, using {@link #lockRecord(ILockCommand, TableRecordReference)}. Implementations are encouraged to override it with a set based approach.
+	 *
+	 * @return how many records were locked
+	 * @throws LockFailedException if a record could not be locked and {@link LockCommand#isFailIfAlreadyLocked()} is true
+	 */
+	protected int lockRecords(final ILockCommand lockCommand, final List<TableRecordReference> records)
+	{
+		int countLocked = 0;
+		for (final TableRecordReference record : records)
+		{
+			if (lockRecord(lockCommand, record))
 			{
 				countLocked++;
 			}
-
-			//
-			// If lock could not be acquired/changed and we were asked to fail, do so
-			if (failIfAlreadyLocked && !locked)
+			else if (lockCommand.isFailIfAlreadyLocked())
 			{
 				// NOTE: we are checking this just to me sure, but basically, the "lockRecord" method is already throwing an exception in this case
 				throw new LockFailedException("Record was already locked: " + record)
@@ -177,10 +195,36 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 						.setRecordToLock(record);
 			}
 		}
-
 		return countLocked;
 	}
 
+	/**
+	 * Changes the lock of given records.
+	 *
+	 * This implementation changes them one by one, using {@link #changeLockRecord(ILockCommand, TableRecordReference)}. Implementations are encouraged to override it with a set based approach.
+	 *
+	 * @return how many records were changed
+	 * @throws LockFailedException if a record's lock could not be changed and {@link LockCommand#isFailIfAlreadyLocked()} is true
+	 */
+	protected int changeLockRecords(final ILockCommand lockCommand, final List<TableRecordReference> records)
+	{
+		int countChanged = 0;
+		for (final TableRecordReference record : records)
+		{
+			if (changeLockRecord(lockCommand, record))
+			{
+				countChanged++;
+			}
+			else if (lockCommand.isFailIfAlreadyLocked())
+			{
+				throw new LockFailedException("Record was already locked: " + record)
+						.setLockCommand(lockCommand)
+						.setRecordToLock(record);
+			}
+		}
+		return countChanged;
+	}
+
 	/**
 	 * Locks a single record.
 	 *
@@ -248,16 +292,33 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 		Check.assumeNotNull(records, "records not null");
 
 		int countUnlocked = 0;
-		while (records.hasNext())
+		final Iterator<List<TableRecordReference>> recordsChunks = Iterators.partition(records, RECORDS_CHUNK_SIZE);
+		while (recordsChunks.hasNext())
+		{
+			countUnlocked += unlockRecords(unlockCommand, recordsChunks.next());
+		}
+
+		return countUnlocked;
+	}
+
+	/**
+	 * Unlocks the given records.
+	 *
+	 * This implementation unlocks them one by one, using {@link #unlockRecord(IUnlockCommand, TableRecordReference)}. Implementations are encouraged to override it with a set based approach.
+	 *
+	 * @return how many records were unlocked
+	 */
+	protected int unlockRecords(final IUnlockCommand unlockCommand, final List<TableRecordReference> records)
+	{
+		int countUnlocked = 0;
+		for (final TableRecordReference record : records)
 		{
-			final TableRecordReference record = records.next();
 			final boolean unlocked = unlockRecord(unlockCommand, record);
 			if (unlocked)
 			{
 				countUnlocked++;
 			}
 		}
-
 		return countUnlocked;
 	}
 
@@ -269,8 +330,7 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 		final IQuery<T> finalQuery = retrieveNotLockedQuery(query);
 
 		final int maxLockRetries = 50;
-		final ILockCommand lockCommand = new LockCommand(this)
-				.setOwner(LockOwner.NONE);
+		final ILockCommand lockCommand = newRetrieveAndLockCommand();
 
 		int retryCounter = 0;
 		while (retryCounter < maxLockRetries)
@@ -308,6 +368,37 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 		return null;
 	}
 
+	/**
+	 * @return the lock command with which {@link #retrieveAndLock(IQuery, Class)} and {@link #retrieveAndLockMultipleRecordIds(IQuery, Class, int)} are locking their records
+	 */
+	protected final ILockCommand newRetrieveAndLockCommand()
+	{
+		return new LockCommand(this)
+				.setOwner(LockOwner.NONE);
+	}
+
+	/**
+	 * Retrieves and locks the records one by one, using {@link #retrieveAndLock(IQuery, Class)}.
+	 * Implementations are encouraged to override this method with a set based approach.
+	 */
+	@Override
+	public <T> List<Integer> retrieveAndLockMultipleRecordIds(final IQuery<T> query, final Class<T> clazz, final int maxRecords)
+	{
+		Check.assume(maxRecords > 0, "maxRecords > 0");
+
+		final List<Integer> lockedRecordIds = new ArrayList<>();
+		while (lockedRecordIds.size() < maxRecords)
+		{
+			final T model = retrieveAndLock(query, clazz);
+			if (model == null)
+			{
+				break;
+			}
+			lockedRecordIds.add(InterfaceWrapperHelper.getId(model));
+		}
+		return lockedRecordIds;
+	}
+
 	@Override
 	public final String getLockedWhereClause(final Class<?> modelClass, final String joinColumnNameFQ, final LockOwner lockOwner)
 	{
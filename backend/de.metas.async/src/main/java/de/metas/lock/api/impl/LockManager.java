@@ -22,6 +22,7 @@ package de.metas.lock.api.impl;
  * #L%
  */
 
+import java.util.List;
 
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.IQueryFilter;
@@ -128,6 +129,12 @@ public class LockManager implements ILockManager
 		return getLockDatabase().retrieveAndLock(query, clazz);
 	}
 
+	@Override
+	public final <T> List<Integer> retrieveAndLockMultipleRecordIds(final IQuery<T> query, final Class<T> clazz, final int maxRecords)
+	{
+		return getLockDatabase().retrieveAndLockMultipleRecordIds(query, clazz, maxRecords);
+	}
+
 	@Override
 	public final String getNotLockedWhereClause(final String tableName, final String joinColumnNameFQ)
 	{
@@ -22,6 +22,7 @@ package de.metas.lock.spi;
  * #L%
  */
 
+import java.util.List;
 
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.IQueryFilter;
@@ -50,6 +51,11 @@ public interface ILockDatabase
 
 	<T> T retrieveAndLock(IQuery<T> query, Class<T> clazz);
 
+	/**
+	 * See {@link ILockManager#retrieveAndLockMultipleRecordIds(IQuery, Class, int)}.
+	 */
+	<T> List<Integer> retrieveAndLockMultipleRecordIds(IQuery<T> query, Class<T> clazz, int maxRecords);
+
 	<T> IQueryFilter<T> getLockedByFilter(Class<T> modelClass, LockOwner lockOwner);
 
 	<T> IQueryFilter<T> getNotLockedFilter(Class<T> modelClass);
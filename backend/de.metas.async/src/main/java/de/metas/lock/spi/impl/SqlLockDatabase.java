@@ -5,10 +5,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.adempiere.ad.dao.IQueryFilter;
 import org.adempiere.ad.dao.ISqlQueryFilter;
+import org.adempiere.ad.dao.QueryLimit;
 import org.adempiere.ad.dao.impl.TypedSqlQuery;
 import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
 import org.adempiere.ad.table.api.IADTableDAO;
@@ -20,6 +26,9 @@ import org.compiere.model.IQuery;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
 import de.metas.lock.api.ILock;
 import de.metas.lock.api.ILockCommand;
 import de.metas.lock.api.IUnlockCommand;
@@ -216,8 +225,13 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		return performLockSQLInsert(lockCommand, sqlParams, sql);
 	}
 
-	protected int performLockSQLInsert(final ILockCommand lockCommand, final List<Object> sqlParams, final String sql)
+	protected int performLockSQLInsert(final ILockCommand lockCommand, final List<Object> sqlParams, final String sqlInsert)
 	{
+		// if we are allowed to, skip the records which are already locked and lock the others
+		final String sql = lockCommand.isFailIfAlreadyLocked()
+				? sqlInsert
+				: sqlInsert + " ON CONFLICT DO NOTHING";
+
 		try
 		{
 			final int countLocked = DB.executeUpdateEx(sql, sqlParams.toArray(), ITrx.TRXNAME_None);
@@ -230,8 +244,6 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		}
 		catch (final DBUniqueConstraintException e)
 		{
-			// TODO: implement for lockCommand.isFailIfAlreadyLocked() == false to allow partial locking
-
 			throw new LockFailedException("Some of the records were already locked", e)
 					.setLockCommand(lockCommand)
 					.setSql(sql, sqlParams.toArray());
@@ -307,6 +319,108 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		}
 	}
 
+	/**
+	 * Locks the given records using one INSERT statement for each table.
+	 * <p>
+	 * If {@link ILockCommand#isFailIfAlreadyLocked()} is true and one of the records is already locked, none of the records of that table is locked.
+	 * Else the records which are already locked are skipped.
+	 */
+	@Override
+	protected int lockRecords(final ILockCommand lockCommand, final List<TableRecordReference> records)
+	{
+		final LockOwner lockOwner = lockCommand.getOwner();
+		assertValidLockOwner(lockOwner);
+
+		int countLocked = 0;
+		for (final Map.Entry<Integer, List<Integer>> tableAndRecordIds : extractRecordIdsByTableId(records).entrySet())
+		{
+			final int adTableId = tableAndRecordIds.getKey();
+			final List<Integer> recordIds = tableAndRecordIds.getValue();
+
+			final List<Object> sqlParams = new ArrayList<>();
+			final StringBuilder sql = new StringBuilder("INSERT INTO " + I_T_Lock.Table_Name + " ("
+					+ I_T_Lock.COLUMNNAME_AD_Table_ID
+					+ ", " + I_T_Lock.COLUMNNAME_Record_ID
+					+ ", " + I_T_Lock.COLUMNNAME_Owner
+					+ ", " + I_T_Lock.COLUMNNAME_IsAutoCleanup
+					+ ", " + I_T_Lock.COLUMNNAME_IsAllowMultipleOwners
+					+ ") VALUES ");
+			for (final Integer recordId : recordIds)
+			{
+				if (sqlParams.size() > 0)
+				{
+					sql.append(", ");
+				}
+				sql.append("(")
+						.append(toSqlParam(adTableId, sqlParams))
+						.append(", ").append(toSqlParam(recordId, sqlParams))
+						.append(", ").append(toSqlParam(lockOwner.getOwnerName(), sqlParams))
+						.append(", ").append(toSqlParam(lockCommand.isAutoCleanup(), sqlParams))
+						.append(", ").append(toSqlParam(isAllowMultipleOwners(lockCommand.getAllowAdditionalLocks()), sqlParams)) // IsAllowMultipleOwners
+						.append(")");
+			}
+
+			if (!lockCommand.isFailIfAlreadyLocked())
+			{
+				// we are not asked to fail => skip the records which are already locked
+				sql.append(" ON CONFLICT DO NOTHING");
+			}
+			sql.append(" RETURNING ").append(I_T_Lock.COLUMNNAME_Record_ID);
+
+			final List<Integer> lockedRecordIds = new ArrayList<>();
+			try
+			{
+				DB.executeUpdateEx(
+						sql.toString(),
+						sqlParams.toArray(),
+						ITrx.TRXNAME_None,
+						0, // no timeout
+						rs -> lockedRecordIds.add(rs.getInt(I_T_Lock.COLUMNNAME_Record_ID)));
+			}
+			catch (final DBUniqueConstraintException e)
+			{
+				// we are in a concurrent situation where another DB client acquired the lock for one of the records since our select
+				throw new LockFailedException("Some of the records were already locked", e)
+						.setLockCommand(lockCommand)
+						.setSql(sql.toString(), sqlParams.toArray());
+			}
+			catch (final Exception e)
+			{
+				throw new LockFailedException("Failed locking AD_Table_ID=" + adTableId + ", Record_IDs=" + recordIds, e)
+						.setLockCommand(lockCommand)
+						.setSql(sql.toString(), sqlParams.toArray());
+			}
+
+			countLocked += lockedRecordIds.size();
+		}
+
+		return countLocked;
+	}
+
+	/**
+	 * @return record IDs grouped by AD_Table_ID; negative record IDs are skipped
+	 */
+	private static Map<Integer, List<Integer>> extractRecordIdsByTableId(final List<TableRecordReference> records)
+	{
+		final Map<Integer, List<Integer>> recordIdsByTableId = new LinkedHashMap<>();
+		for (final TableRecordReference record : records)
+		{
+			Check.assumeNotNull(record, "record not null");
+
+			final int adTableId = record.getAD_Table_ID();
+			Check.assume(adTableId > 0, "adTableId > 0");
+
+			final int recordId = record.getRecord_ID();
+			if (recordId < 0)
+			{
+				continue;
+			}
+
+			recordIdsByTableId.computeIfAbsent(adTableId, k -> new ArrayList<>()).add(recordId);
+		}
+		return recordIdsByTableId;
+	}
+
 	@Override
 	protected boolean changeLockRecord(final ILockCommand lockCommand, final TableRecordReference record)
 	{
@@ -357,6 +471,70 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		}
 	}
 
+	/**
+	 * Changes the lock of given records using one UPDATE statement for each table.
+	 */
+	@Override
+	protected int changeLockRecords(final ILockCommand lockCommand, final List<TableRecordReference> records)
+	{
+		final LockOwner ownerNew = lockCommand.getOwner();
+		assertValidLockOwner(ownerNew);
+
+		final ILock parentLock = lockCommand.getParentLock();
+		final LockOwner ownerCurrent = parentLock.getOwner();
+
+		int countChanged = 0;
+		for (final Map.Entry<Integer, List<Integer>> tableAndRecordIds : extractRecordIdsByTableId(records).entrySet())
+		{
+			final int adTableId = tableAndRecordIds.getKey();
+			final List<Integer> recordIds = tableAndRecordIds.getValue();
+
+			final List<Object> sqlParams = new ArrayList<>();
+			final StringBuilder sql = new StringBuilder("UPDATE " + I_T_Lock.Table_Name)
+					.append(" SET ")
+					.append(I_T_Lock.COLUMNNAME_Owner).append("=").append(toSqlParam(ownerNew.getOwnerName(), sqlParams))
+					.append(", ").append(I_T_Lock.COLUMNNAME_IsAutoCleanup).append("=").append(toSqlParam(lockCommand.isAutoCleanup(), sqlParams))
+					.append(", ").append(I_T_Lock.COLUMNNAME_IsAllowMultipleOwners).append("=").append(toSqlParam(isAllowMultipleOwners(lockCommand.getAllowAdditionalLocks()), sqlParams))
+					.append(" WHERE 1=1 ");
+			appendTableRecordsWhereClause(adTableId, recordIds, sql, sqlParams);
+			appendLockOwnerWhereClause(ownerCurrent, sql, sqlParams);
+
+			final int countChangedForTable;
+			try
+			{
+				countChangedForTable = DB.executeUpdateEx(sql.toString(), sqlParams.toArray(), ITrx.TRXNAME_None);
+			}
+			catch (final Exception e)
+			{
+				throw new LockChangeFailedException("Failed changing owner for records", e)
+						.setLockCommand(lockCommand)
+						.setLock(parentLock)
+						.setParameter("AD_Table_ID", adTableId)
+						.setParameter("Record_IDs", recordIds)
+						.setParameter("Owner (old)", ownerCurrent)
+						.setParameter("Owner (new)", ownerNew)
+						.setSql(sql.toString(), sqlParams.toArray());
+			}
+
+			if (countChangedForTable < recordIds.size() && lockCommand.isFailIfAlreadyLocked())
+			{
+				throw new LockFailedException("Only " + countChangedForTable + " of " + recordIds.size() + " records of AD_Table_ID=" + adTableId + " were locked by " + ownerCurrent)
+						.setLockCommand(lockCommand)
+						.setSql(sql.toString(), sqlParams.toArray());
+			}
+
+			countChanged += countChangedForTable;
+		}
+
+		return countChanged;
+	}
+
+	private final void appendTableRecordsWhereClause(final int adTableId, final Collection<Integer> recordIds, final StringBuilder sql, final List<Object> sqlParams)
+	{
+		sql.append(" AND ").append(I_T_Lock.COLUMNNAME_AD_Table_ID).append("=").append(toSqlParam(adTableId, sqlParams));
+		sql.append(" AND ").append(I_T_Lock.COLUMNNAME_Record_ID).append(" IN ").append(DB.buildSqlList(recordIds, sqlParams));
+	}
+
 	@Override
 	protected int unlockBySelection(final IUnlockCommand unlockCommand)
 	{
@@ -412,6 +590,38 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		}
 	}
 
+	/**
+	 * Unlocks the given records using one DELETE statement for each table.
+	 */
+	@Override
+	protected int unlockRecords(final IUnlockCommand unlockCommand, final List<TableRecordReference> records)
+	{
+		int countUnlocked = 0;
+		for (final Map.Entry<Integer, List<Integer>> tableAndRecordIds : extractRecordIdsByTableId(records).entrySet())
+		{
+			final int adTableId = tableAndRecordIds.getKey();
+			final List<Integer> recordIds = tableAndRecordIds.getValue();
+
+			final StringBuilder sql = new StringBuilder(SQL_DeleteLock);
+			final List<Object> sqlParams = new ArrayList<>();
+			appendTableRecordsWhereClause(adTableId, recordIds, sql, sqlParams);
+			appendLockOwnerWhereClause(unlockCommand.getOwner(), sql, sqlParams);
+
+			try
+			{
+				countUnlocked += DB.executeUpdateEx(sql.toString(), sqlParams.toArray(), ITrx.TRXNAME_None);
+			}
+			catch (final Exception e)
+			{
+				throw new UnlockFailedException("Failed unlocking AD_Table_ID=" + adTableId + ", Record_IDs=" + recordIds, e)
+						.setUnlockCommand(unlockCommand)
+						.setSql(sql.toString(), sqlParams.toArray());
+			}
+		}
+
+		return countUnlocked;
+	}
+
 	@Override
 	protected int unlockByOwner(final IUnlockCommand unlockCommand)
 	{
@@ -450,6 +660,115 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		return finalQuery;
 	}
 
+	/**
+	 * Selects and locks up to <code>maxRecords</code> records with one single SQL statement.
+	 * <p>
+	 * The selected rows are also row-locked using <code>FOR UPDATE SKIP LOCKED</code> while the statement runs,
+	 * so that concurrent callers don't try to lock the same records but skip to the next ones.
+	 */
+	@Override
+	public <T> List<Integer> retrieveAndLockMultipleRecordIds(@NonNull final IQuery<T> query, @NonNull final Class<T> clazz, final int maxRecords)
+	{
+		Check.assume(maxRecords > 0, "maxRecords > 0");
+
+		final TypedSqlQuery<T> notLockedQuery = TypedSqlQuery.cast(retrieveNotLockedQuery(TypedSqlQuery.cast(query).copy()))
+				.setLimit(QueryLimit.ofInt(maxRecords));
+		Check.assume(!notLockedQuery.hasUnions(), "Queries with unions are not supported: {}", notLockedQuery);
+
+		final String tableName = notLockedQuery.getTableName();
+		final String keyColumnNameFQ = tableName + "." + notLockedQuery.getKeyColumnName();
+		final int adTableId = Services.get(IADTableDAO.class).retrieveTableId(tableName);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final String sqlInsert = buildSqlInsertLocksReturningRecordIds(
+				adTableId,
+				notLockedQuery.buildSQL("SELECT " + keyColumnNameFQ + " AS Record_ID", null, null, true),
+				notLockedQuery.getParametersEffective(),
+				sqlParams);
+
+		final Set<Integer> lockedRecordIds = new HashSet<>();
+		try
+		{
+			DB.executeUpdateEx(
+					sqlInsert,
+					sqlParams.toArray(),
+					ITrx.TRXNAME_None,
+					0, // no timeout
+					rs -> lockedRecordIds.add(rs.getInt(I_T_Lock.COLUMNNAME_Record_ID)));
+		}
+		catch (final Exception e)
+		{
+			throw LockFailedException.wrapIfNeeded(e)
+					.setSql(sqlInsert, sqlParams.toArray());
+		}
+
+		if (lockedRecordIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		// RETURNING does not guarantee any ordering, so we restore the query's ordering
+		final List<Object> sqlOrderedParams = new ArrayList<>();
+		final String sqlOrdered = "SELECT " + keyColumnNameFQ
+				+ " FROM " + tableName
+				+ " WHERE " + keyColumnNameFQ + " IN " + DB.buildSqlList(lockedRecordIds, sqlOrderedParams)
+				+ (Check.isNotBlank(notLockedQuery.getOrderBy()) ? " ORDER BY " + notLockedQuery.getOrderBy() : "");
+		final List<Integer> orderedRecordIds = DB.retrieveRowsOutOfTrx(
+				sqlOrdered,
+				sqlOrderedParams,
+				rs -> rs.getInt(1));
+
+		if (orderedRecordIds.size() != lockedRecordIds.size())
+		{
+			logger.warn("Locked {} records but only {} were found afterwards. Returning the found ones; lockedRecordIds={}", lockedRecordIds.size(), orderedRecordIds.size(), lockedRecordIds);
+		}
+
+		return orderedRecordIds;
+	}
+
+	/**
+	 * Builds the <code>INSERT INTO T_Lock ... RETURNING Record_ID</code> statement of {@link #retrieveAndLockMultipleRecordIds(IQuery, Class, int)}.
+	 * <p>
+	 * The locks are created like the ones of {@link #retrieveAndLock(IQuery, Class)}, so they are also auto-cleanup locks.
+	 *
+	 * @param sqlSelectRecordIds SQL which selects the IDs of the records to lock, as <code>Record_ID</code>
+	 * @param sqlParamsOut the statement's parameters are added to this list
+	 */
+	@VisibleForTesting
+	String buildSqlInsertLocksReturningRecordIds(
+			final int adTableId,
+			@NonNull final String sqlSelectRecordIds,
+			@NonNull final List<Object> sqlSelectRecordIdsParams,
+			@NonNull final List<Object> sqlParamsOut)
+	{
+		final ILockCommand lockCommand = newRetrieveAndLockCommand();
+		final LockOwner lockOwner = lockCommand.getOwner();
+		assertValidLockOwner(lockOwner);
+
+		final String sql = "INSERT INTO " + I_T_Lock.Table_Name + " ("
+				+ I_T_Lock.COLUMNNAME_AD_Table_ID
+				+ ", " + I_T_Lock.COLUMNNAME_Record_ID
+				+ ", " + I_T_Lock.COLUMNNAME_Owner
+				+ ", " + I_T_Lock.COLUMNNAME_IsAutoCleanup
+				+ ", " + I_T_Lock.COLUMNNAME_IsAllowMultipleOwners
+				+ ")"
+				//
+				+ " SELECT "
+				+ toSqlParam(adTableId, sqlParamsOut) // AD_Table_ID
+				+ ", x.Record_ID" // Record_ID
+				+ ", " + toSqlParam(lockOwner.getOwnerName(), sqlParamsOut) // Owner
+				+ ", " + toSqlParam(lockCommand.isAutoCleanup(), sqlParamsOut) // IsAutoCleanup
+				+ ", " + toSqlParam(isAllowMultipleOwners(lockCommand.getAllowAdditionalLocks()), sqlParamsOut) // IsAllowMultipleOwners
+				//
+				+ " FROM (" + sqlSelectRecordIds + " FOR UPDATE SKIP LOCKED) x"
+				// someone else might have locked one of our records meanwhile; just skip it
+				+ " ON CONFLICT DO NOTHING"
+				+ " RETURNING " + I_T_Lock.COLUMNNAME_Record_ID;
+		sqlParamsOut.addAll(sqlSelectRecordIdsParams);
+
+		return sql;
+	}
+
 	@Override
 	public final String getNotLockedWhereClause(final String tableName, final String joinColumnNameFQ)
 	{
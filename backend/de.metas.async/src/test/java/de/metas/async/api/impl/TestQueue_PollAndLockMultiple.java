@@ -0,0 +1,74 @@
+package de.metas.async.api.impl;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.junit.Test;
+
+import de.metas.async.QueueProcessorTestBase;
+import de.metas.async.api.IWorkPackageQueue;
+import de.metas.async.model.I_C_Queue_Processor;
+import de.metas.async.model.I_C_Queue_WorkPackage;
+import de.metas.async.processor.IWorkPackageQueueFactory;
+import de.metas.async.processor.impl.StaticMockedWorkpackageProcessor;
+import de.metas.util.Services;
+
+public class TestQueue_PollAndLockMultiple extends QueueProcessorTestBase
+{
+	@Test
+	public void pollAndLockMultiple()
+	{
+		final I_C_Queue_Processor queueProcessorDef = helper.createQueueProcessor("Test", 10, 1000);
+		helper.assignPackageProcessor(queueProcessorDef, StaticMockedWorkpackageProcessor.class);
+
+		final IWorkPackageQueueFactory workPackageQueueFactory = Services.get(IWorkPackageQueueFactory.class);
+		final IWorkPackageQueue queueForEnqueuing = workPackageQueueFactory.getQueueForEnqueuing(ctx, StaticMockedWorkpackageProcessor.class);
+		helper.createAndEnqueueWorkpackages(queueForEnqueuing, 5, true); // markReadyForProcessing=true
+
+		final IWorkPackageQueue queueForProcessing = workPackageQueueFactory.getQueueForPackageProcessing(queueProcessorDef);
+
+		final List<I_C_Queue_WorkPackage> firstBatch = queueForProcessing.pollAndLockMultiple(IWorkPackageQueue.TIMEOUT_OneTimeOnly, 3);
+		assertThat(firstBatch).hasSize(3);
+		assertThat(firstBatch).allMatch(lockManager::isLocked);
+
+		// each workpackage shall have its own context
+		assertThat(InterfaceWrapperHelper.getCtx(firstBatch.get(0))).isNotSameAs(InterfaceWrapperHelper.getCtx(firstBatch.get(1)));
+
+		final List<I_C_Queue_WorkPackage> secondBatch = queueForProcessing.pollAndLockMultiple(IWorkPackageQueue.TIMEOUT_OneTimeOnly, 3);
+		assertThat(secondBatch).hasSize(2);
+		assertThat(secondBatch)
+				.extracting(I_C_Queue_WorkPackage::getC_Queue_WorkPackage_ID)
+				.doesNotContainAnyElementsOf(firstBatch.stream().map(I_C_Queue_WorkPackage::getC_Queue_WorkPackage_ID).collect(Collectors.toList()));
+
+		assertThat(queueForProcessing.pollAndLockMultiple(IWorkPackageQueue.TIMEOUT_OneTimeOnly, 3)).isEmpty();
+
+		firstBatch.forEach(queueForProcessing::unlock);
+		secondBatch.forEach(queueForProcessing::unlock);
+		helper.assertNothingLocked();
+	}
+}
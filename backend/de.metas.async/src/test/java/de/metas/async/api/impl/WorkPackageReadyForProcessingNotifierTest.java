@@ -0,0 +1,81 @@
+package de.metas.async.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class WorkPackageReadyForProcessingNotifierTest
+{
+	private final WorkPackageReadyForProcessingNotifier notifier = WorkPackageReadyForProcessingNotifier.instance;
+
+	@Test
+	public void await_returnsImmediately_ifNotifiedMeanwhile() throws Exception
+	{
+		final ImmutableList<Integer> packageProcessorIds = ImmutableList.of(1001);
+		final long version = notifier.getVersion(packageProcessorIds);
+
+		notifier.notifyReadyForProcessing(1001);
+
+		assertThat(notifier.awaitReadyForProcessing(packageProcessorIds, version, 60 * 1000)).isTrue();
+	}
+
+	@Test
+	public void await_timesOut_ifOtherProcessorWasNotified() throws Exception
+	{
+		final ImmutableList<Integer> packageProcessorIds = ImmutableList.of(1002);
+		final long version = notifier.getVersion(packageProcessorIds);
+
+		notifier.notifyReadyForProcessing(1003);
+
+		assertThat(notifier.awaitReadyForProcessing(packageProcessorIds, version, 10)).isFalse();
+	}
+
+	@Test
+	public void await_isWokenUpByNotification() throws Exception
+	{
+		final ImmutableList<Integer> packageProcessorIds = ImmutableList.of(1004, 1005);
+		final long version = notifier.getVersion(packageProcessorIds);
+
+		final CompletableFuture<Boolean> notified = CompletableFuture.supplyAsync(() -> {
+			try
+			{
+				return notifier.awaitReadyForProcessing(packageProcessorIds, version, 60 * 1000);
+			}
+			catch (final InterruptedException e)
+			{
+				return false;
+			}
+		});
+
+		notifier.notifyReadyForProcessing(1005);
+
+		assertThat(notified.get(30, TimeUnit.SECONDS)).isTrue();
+	}
+}
@@ -0,0 +1,120 @@
+package de.metas.lock.api.impl;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.IQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.async.model.I_C_Queue_WorkPackage;
+import de.metas.lock.api.ILockManager;
+import de.metas.lock.api.LockOwner;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LockManagerTest
+{
+	private ILockManager lockManager;
+
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		lockManager = Services.get(ILockManager.class);
+	}
+
+	private I_C_Queue_WorkPackage createRecord()
+	{
+		final I_C_Queue_WorkPackage record = newInstance(I_C_Queue_WorkPackage.class);
+		saveRecord(record);
+		return record;
+	}
+
+	private boolean isLocked(final I_C_Queue_WorkPackage record, final LockOwner lockOwner)
+	{
+		return lockManager.isLocked(I_C_Queue_WorkPackage.class, record.getC_Queue_WorkPackage_ID(), lockOwner);
+	}
+
+	@Test
+	public void lock_unlock_isLocked()
+	{
+		final I_C_Queue_WorkPackage record1 = createRecord();
+		final I_C_Queue_WorkPackage record2 = createRecord();
+		final ImmutableList<I_C_Queue_WorkPackage> records = ImmutableList.of(record1, record2);
+		final LockOwner lockOwner = LockOwner.newOwner("LockManagerTest");
+
+		lockManager.lock()
+				.setOwner(lockOwner)
+				.addRecordsByModel(records)
+				.acquire();
+		assertThat(isLocked(record1, lockOwner)).isTrue();
+		assertThat(isLocked(record2, lockOwner)).isTrue();
+
+		lockManager.unlock()
+				.setOwner(lockOwner)
+				.setRecordsByModels(records)
+				.release();
+		assertThat(isLocked(record1, lockOwner)).isFalse();
+		assertThat(isLocked(record2, lockOwner)).isFalse();
+		assertThat(lockManager.isLocked(record1)).isFalse();
+		assertThat(lockManager.isLocked(record2)).isFalse();
+	}
+
+	@Test
+	public void retrieveAndLockMultipleRecordIds_locksAreAutoCleanup()
+	{
+		final I_C_Queue_WorkPackage record1 = createRecord();
+		final I_C_Queue_WorkPackage record2 = createRecord();
+		final I_C_Queue_WorkPackage record3 = createRecord();
+
+		final IQuery<I_C_Queue_WorkPackage> query = Services.get(IQueryBL.class)
+				.createQueryBuilder(I_C_Queue_WorkPackage.class)
+				.orderBy(I_C_Queue_WorkPackage.COLUMNNAME_C_Queue_WorkPackage_ID)
+				.create();
+
+		final List<Integer> lockedRecordIds = lockManager.retrieveAndLockMultipleRecordIds(query, I_C_Queue_WorkPackage.class, 2);
+		assertThat(lockedRecordIds).containsExactly(record1.getC_Queue_WorkPackage_ID(), record2.getC_Queue_WorkPackage_ID());
+		assertThat(lockManager.isLocked(record1)).isTrue();
+		assertThat(lockManager.isLocked(record2)).isTrue();
+		assertThat(lockManager.isLocked(record3)).isFalse();
+
+		// records which are already locked are skipped
+		assertThat(lockManager.retrieveAndLockMultipleRecordIds(query, I_C_Queue_WorkPackage.class, 2))
+				.containsExactly(record3.getC_Queue_WorkPackage_ID());
+
+		// e.g. after a crash, the housekeeping shall release the locks again
+		assertThat(lockManager.removeAutoCleanupLocks()).isEqualTo(3);
+		assertThat(lockManager.isLocked(record1)).isFalse();
+		assertThat(lockManager.isLocked(record2)).isFalse();
+		assertThat(lockManager.isLocked(record3)).isFalse();
+	}
+}
@@ -0,0 +1,70 @@
+package de.metas.lock.spi.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.lock.api.LockOwner;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlLockDatabaseTest
+{
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void buildSqlInsertLocksReturningRecordIds()
+	{
+		final List<Object> sqlParams = new ArrayList<>();
+		final String sql = new SqlLockDatabase().buildSqlInsertLocksReturningRecordIds(
+				540425, // AD_Table_ID
+				"SELECT C_Queue_WorkPackage.C_Queue_WorkPackage_ID AS Record_ID FROM C_Queue_WorkPackage WHERE C_Queue_Block_ID=? ORDER BY C_Queue_WorkPackage_ID LIMIT 10",
+				ImmutableList.of(123),
+				sqlParams);
+
+		assertThat(sql).isEqualToIgnoringWhitespace("INSERT INTO T_Lock (AD_Table_ID, Record_ID, Owner, IsAutoCleanup, IsAllowMultipleOwners)"
+				+ " SELECT ?, x.Record_ID, ?, ?, ?"
+				+ " FROM (SELECT C_Queue_WorkPackage.C_Queue_WorkPackage_ID AS Record_ID FROM C_Queue_WorkPackage WHERE C_Queue_Block_ID=? ORDER BY C_Queue_WorkPackage_ID LIMIT 10 FOR UPDATE SKIP LOCKED) x"
+				+ " ON CONFLICT DO NOTHING"
+				+ " RETURNING Record_ID");
+
+		// the locks shall be IsAutoCleanup=Y, so they are removed by the housekeeping if the processing crashes
+		assertThat(sqlParams).containsExactly(
+				540425, // AD_Table_ID
+				LockOwner.NONE.getOwnerName(), // Owner
+				true, // IsAutoCleanup
+				false, // IsAllowMultipleOwners
+				123); // C_Queue_Block_ID
+	}
+}
@@ -0,0 +1,43 @@
+package de.metas.costing;
+
+/*
+ * #%L
+ * de.metas.business
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * While a batch is open on the current thread, {@link ICurrentCostsRepository} loads each {@link CurrentCost} only once
+ * and keeps the saved changes in memory, until {@link #saveChanges()} is called.
+ *
+ * @see ICurrentCostsRepository#startBatch(java.util.Set)
+ */
+public interface CurrentCostsBatch extends AutoCloseable
+{
+	/**
+	 * Saves all current costs which were changed since the batch was started or since the last call of this method.
+	 */
+	void saveChanges();
+
+	/**
+	 * Saves the changes which were not saved yet (see {@link #saveChanges()}) and closes the batch.
+	 */
+	@Override
+	void close();
+}
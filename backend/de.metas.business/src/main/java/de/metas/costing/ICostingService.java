@@ -1,8 +1,10 @@
 package de.metas.costing;
 
+import com.google.common.collect.ImmutableList;
 import de.metas.order.OrderLineId;
 import de.metas.uom.UomId;
 
+import java.util.List;
 import java.util.Optional;
 
 /*
@@ -31,6 +33,14 @@ public interface ICostingService
 {
 	AggregatedCostAmount createCostDetail(CostDetailCreateRequest request);
 
+	/**
+	 * Same as calling {@link #createCostDetail(CostDetailCreateRequest)} for each request, in the given order,
+	 * but the involved current costs are loaded up front and saved only once, at the end.
+	 *
+	 * @return the aggregated cost amounts, one for each request, in the same order
+	 */
+	ImmutableList<AggregatedCostAmount> createCostDetails(List<CostDetailCreateRequest> requests);
+
 	AggregatedCostAmount createReversalCostDetails(CostDetailReverseRequest request);
 
 	MoveCostsResult moveCosts(MoveCostsRequest request);
@@ -58,4 +58,15 @@ public interface ICurrentCostsRepository
 	List<CurrentCost> getByCostSegmentAndCostElements(CostSegment costSegment, Set<CostElementId> costElementIds);
 
 	void updateCostRecord(CostSegmentAndElement costSegmentAndElement, Consumer<I_M_Cost> updater);
+
+	/**
+	 * Starts a batch on the current thread, in which {@link #getOrNull(CostSegmentAndElement)} and {@link #getOrCreate(CostSegmentAndElement)} load each current cost only once,
+	 * and {@link #save(CurrentCost)} only remembers the changes. Any other method of this repository saves the changes first, so it does not see outdated costs.
+	 * The remaining changes are saved when the batch is closed.
+	 * <p>
+	 * If there is already a batch started on the current thread, the given current costs are preloaded into it and a batch is returned which does nothing when saved or closed.
+	 *
+	 * @param costSegmentAndElementsToPreload current costs which are loaded at once, using one query
+	 */
+	CurrentCostsBatch startBatch(Set<CostSegmentAndElement> costSegmentAndElementsToPreload);
 }
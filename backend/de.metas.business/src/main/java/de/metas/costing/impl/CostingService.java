@@ -24,6 +24,7 @@ import de.metas.costing.CostTypeId;
 import de.metas.costing.CostingDocumentRef;
 import de.metas.costing.CostingLevel;
 import de.metas.costing.CostingMethod;
+import de.metas.costing.CurrentCostsBatch;
 import de.metas.costing.ICostDetailService;
 import de.metas.costing.ICostElementRepository;
 import de.metas.costing.ICostingService;
@@ -130,10 +131,54 @@ public class CostingService implements ICostingService
 	@Override
 	public AggregatedCostAmount createCostDetail(@NonNull final CostDetailCreateRequest request)
 	{
-		final ImmutableList<CostDetailCreateResult> costElementResults = Stream.of(request)
+		return createCostDetail(request, explodeToCostElementRequests(request));
+	}
+
+	@Override
+	public ImmutableList<AggregatedCostAmount> createCostDetails(@NonNull final List<CostDetailCreateRequest> requests)
+	{
+		if (requests.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final ImmutableList<ImmutableList<CostDetailCreateRequest>> costElementRequestsList = requests.stream()
+				.map(this::explodeToCostElementRequests)
+				.collect(ImmutableList.toImmutableList());
+
+		final ImmutableSet<CostSegmentAndElement> costSegmentAndElements = costElementRequestsList.stream()
+				.flatMap(List::stream)
+				.map(utils::extractCostSegmentAndElement)
+				.collect(ImmutableSet.toImmutableSet());
+
+		try (final CurrentCostsBatch currentCostsBatch = currentCostsRepo.startBatch(costSegmentAndElements))
+		{
+			final ImmutableList.Builder<AggregatedCostAmount> result = ImmutableList.builder();
+			for (int i = 0; i < requests.size(); i++)
+			{
+				result.add(createCostDetail(requests.get(i), costElementRequestsList.get(i)));
+			}
+
+			currentCostsBatch.saveChanges();
+
+			return result.build();
+		}
+	}
+
+	private ImmutableList<CostDetailCreateRequest> explodeToCostElementRequests(@NonNull final CostDetailCreateRequest request)
+	{
+		return Stream.of(request)
 				.flatMap(this::explodeAcctSchemas)
 				.map(this::convertToAcctSchemaCurrency)
 				.flatMap(this::explodeCostElements)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private AggregatedCostAmount createCostDetail(
+			@NonNull final CostDetailCreateRequest request,
+			@NonNull final List<CostDetailCreateRequest> costElementRequests)
+	{
+		final ImmutableList<CostDetailCreateResult> costElementResults = costElementRequests.stream()
 				.flatMap(this::createCostDetailUsingHandlersAndStream)
 				.collect(ImmutableList.toImmutableList());
 
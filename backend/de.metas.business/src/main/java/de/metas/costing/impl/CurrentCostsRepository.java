@@ -1,7 +1,10 @@
 package de.metas.costing.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import de.metas.acct.api.AcctSchema;
 import de.metas.acct.api.AcctSchemaId;
 import de.metas.acct.api.IAcctSchemaDAO;
@@ -16,6 +19,7 @@ import de.metas.costing.CostingLevel;
 import de.metas.costing.CostingMethod;
 import de.metas.costing.CurrentCost;
 import de.metas.costing.CurrentCostId;
+import de.metas.costing.CurrentCostsBatch;
 import de.metas.costing.ICostElementRepository;
 import de.metas.costing.ICurrentCostsRepository;
 import de.metas.costing.IProductCostingBL;
@@ -29,6 +33,7 @@ import de.metas.uom.IUOMDAO;
 import de.metas.util.Check;
 import de.metas.util.Services;
 import lombok.NonNull;
+import lombok.Value;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.mm.attributes.AttributeSetInstanceId;
@@ -44,11 +49,14 @@ import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 
@@ -86,6 +94,8 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 	private final IProductCostingBL productCostingBL = Services.get(IProductCostingBL.class);
 	private final ICostElementRepository costElementRepo;
 
+	private final ThreadLocal<InMemoryCurrentCostsBatch> activeBatch = new ThreadLocal<>();
+
 	public CurrentCostsRepository(
 			@NonNull final ICostElementRepository costElementRepo)
 	{
@@ -100,6 +110,8 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 			return ImmutableList.of();
 		}
 
+		saveActiveBatchChanges();
+
 		return queryBL
 				.createQueryBuilder(I_M_Cost.class)
 				.addInArrayFilter(I_M_Cost.COLUMNNAME_M_Cost_ID, ids)
@@ -112,6 +124,18 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 
 	@Override
 	public CurrentCost getOrNull(@NonNull final CostSegmentAndElement costSegmentAndElement)
+	{
+		final InMemoryCurrentCostsBatch batch = activeBatch.get();
+		if (batch != null)
+		{
+			return batch.getOrLoadOrNull(costSegmentAndElement, this::retrieveOrNull);
+		}
+
+		return retrieveOrNull(costSegmentAndElement);
+	}
+
+	@Nullable
+	private CurrentCost retrieveOrNull(@NonNull final CostSegmentAndElement costSegmentAndElement)
 	{
 		final I_M_Cost costRecord = getCostRecordOrNull(costSegmentAndElement);
 		if (costRecord == null)
@@ -157,7 +181,15 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 		}
 		else
 		{
-			return create(costSegmentAndElement);
+			final CurrentCost newCurrentCost = create(costSegmentAndElement);
+
+			final InMemoryCurrentCostsBatch batch = activeBatch.get();
+			if (batch != null)
+			{
+				batch.put(costSegmentAndElement, newCurrentCost);
+			}
+
+			return newCurrentCost;
 		}
 	}
 
@@ -173,6 +205,8 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 			return Optional.empty();
 		}
 
+		saveActiveBatchChanges();
+
 		final ImmutableMap<CostElement, CostPrice> costPrices = queryCostRecords(costSegment)
 				.addInArrayFilter(I_M_Cost.COLUMN_M_CostElement_ID, costElementIds)
 				.create()
@@ -212,6 +246,8 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 			@NonNull final Set<CostElementId> costElementIds)
 	{
 		Check.assumeNotEmpty(costElementIds, "costElementIds is not empty");
+		saveActiveBatchChanges();
+
 		return queryCostRecords(costSegment)
 				.addInArrayFilter(I_M_Cost.COLUMN_M_CostElement_ID, costElementIds)
 				.create()
@@ -248,6 +284,18 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 
 	@Override
 	public void save(@NonNull final CurrentCost currentCost)
+	{
+		final InMemoryCurrentCostsBatch batch = activeBatch.get();
+		if (batch != null && currentCost.getId() != null)
+		{
+			batch.putChanged(currentCost);
+			return;
+		}
+
+		saveNow(currentCost);
+	}
+
+	private void saveNow(@NonNull final CurrentCost currentCost)
 	{
 		final I_M_Cost costRecord;
 		if (currentCost.getId() != null)
@@ -266,6 +314,117 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 		currentCost.setId(CurrentCostId.ofRepoId(costRecord.getM_Cost_ID()));
 	}
 
+	private void saveAllNow(@NonNull final List<CurrentCost> currentCosts)
+	{
+		if (currentCosts.isEmpty())
+		{
+			return;
+		}
+
+		final ImmutableSet<CurrentCostId> ids = currentCosts.stream()
+				.map(CurrentCost::getId)
+				.collect(ImmutableSet.toImmutableSet());
+		final ImmutableMap<Integer, I_M_Cost> costRecordsById = Maps.uniqueIndex(
+				queryBL.createQueryBuilder(I_M_Cost.class)
+						.addInArrayFilter(I_M_Cost.COLUMNNAME_M_Cost_ID, ids)
+						.create()
+						.list(I_M_Cost.class),
+				I_M_Cost::getM_Cost_ID);
+
+		for (final CurrentCost currentCost : currentCosts)
+		{
+			final I_M_Cost costRecord = costRecordsById.get(currentCost.getId().getRepoId());
+			if (costRecord == null)
+			{
+				// shall not happen, unless the record was deleted meanwhile
+				saveNow(currentCost);
+				continue;
+			}
+
+			updateCostRecord(costRecord, currentCost);
+			InterfaceWrapperHelper.save(costRecord);
+		}
+	}
+
+	@Override
+	public CurrentCostsBatch startBatch(@NonNull final Set<CostSegmentAndElement> costSegmentAndElementsToPreload)
+	{
+		final InMemoryCurrentCostsBatch existingBatch = activeBatch.get();
+		if (existingBatch != null)
+		{
+			existingBatch.preload(costSegmentAndElementsToPreload, this::retrieveByCostSegmentAndElements);
+			return NestedCurrentCostsBatch.instance;
+		}
+
+		final InMemoryCurrentCostsBatch batch = new InMemoryCurrentCostsBatch();
+		batch.preload(costSegmentAndElementsToPreload, this::retrieveByCostSegmentAndElements);
+		activeBatch.set(batch);
+		return batch;
+	}
+
+	private void saveActiveBatchChanges()
+	{
+		final InMemoryCurrentCostsBatch batch = activeBatch.get();
+		if (batch != null)
+		{
+			batch.saveChanges();
+		}
+	}
+
+	/**
+	 * Saves the active batch's changes and forgets what it loaded, because the {@link I_M_Cost} records are about to be changed bypassing it.
+	 */
+	private void saveActiveBatchChangesAndReset()
+	{
+		final InMemoryCurrentCostsBatch batch = activeBatch.get();
+		if (batch != null)
+		{
+			batch.saveChanges();
+			batch.reset();
+		}
+	}
+
+	private ImmutableMap<CostSegmentAndElement, CurrentCost> retrieveByCostSegmentAndElements(@NonNull final Set<CostSegmentAndElement> costSegmentAndElements)
+	{
+		if (costSegmentAndElements.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final ImmutableListMultimap<CostRecordKey, CostSegmentAndElement> costSegmentAndElementsByRecordKey = costSegmentAndElements.stream()
+				.collect(ImmutableListMultimap.toImmutableListMultimap(CostRecordKey::of, Function.identity()));
+
+		final HashMap<CostSegmentAndElement, CurrentCost> result = new HashMap<>();
+		queryBL.createQueryBuilder(I_M_Cost.class)
+				.addInArrayFilter(I_M_Cost.COLUMN_C_AcctSchema_ID, extractIds(costSegmentAndElements, CostSegmentAndElement::getAcctSchemaId))
+				.addInArrayFilter(I_M_Cost.COLUMN_M_CostType_ID, extractIds(costSegmentAndElements, CostSegmentAndElement::getCostTypeId))
+				.addInArrayFilter(I_M_Cost.COLUMN_M_Product_ID, extractIds(costSegmentAndElements, CostSegmentAndElement::getProductId))
+				.addInArrayFilter(I_M_Cost.COLUMN_AD_Org_ID, extractIds(costSegmentAndElements, CostSegmentAndElement::getOrgId))
+				.addInArrayFilter(I_M_Cost.COLUMN_M_AttributeSetInstance_ID, extractIds(costSegmentAndElements, CostSegmentAndElement::getAttributeSetInstanceId))
+				.addInArrayFilter(I_M_Cost.COLUMN_M_CostElement_ID, extractIds(costSegmentAndElements, CostSegmentAndElement::getCostElementId))
+				.create()
+				.stream(I_M_Cost.class)
+				.forEach(costRecord -> {
+					final ImmutableList<CostSegmentAndElement> keys = costSegmentAndElementsByRecordKey.get(CostRecordKey.of(costRecord));
+					if (!keys.isEmpty())
+					{
+						final CurrentCost currentCost = toCurrentCost(costRecord);
+						keys.forEach(key -> result.put(key, currentCost));
+					}
+				});
+
+		return ImmutableMap.copyOf(result);
+	}
+
+	private static <T> ImmutableSet<T> extractIds(
+			@NonNull final Set<CostSegmentAndElement> costSegmentAndElements,
+			@NonNull final Function<CostSegmentAndElement, T> idExtractor)
+	{
+		return costSegmentAndElements.stream()
+				.map(idExtractor)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
 	private CurrentCost toCurrentCost(final I_M_Cost record)
 	{
 
@@ -338,6 +497,8 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 	@Override
 	public void deleteForProduct(final I_M_Product product)
 	{
+		saveActiveBatchChangesAndReset();
+
 		forEachCostSegmentAndElement(product, costSegmentAndElement -> {
 			final I_M_Cost costRecord = getCostRecordOrNull(costSegmentAndElement);
 			if (costRecord != null)
@@ -413,6 +574,8 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 			@NonNull final CostSegmentAndElement costSegmentAndElement,
 			@NonNull final Consumer<I_M_Cost> updater)
 	{
+		saveActiveBatchChangesAndReset();
+
 		final I_M_Cost costRecord = getCostRecordOrNull(costSegmentAndElement);
 		if (costRecord == null)
 		{
@@ -423,4 +586,159 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 		saveRecord(costRecord);
 	}
 
+	/**
+	 * Identifies an {@link I_M_Cost} record by its key columns, the same way {@link #queryCostRecords(CostSegmentAndElement)} does.
+	 */
+	@Value
+	private static class CostRecordKey
+	{
+		static CostRecordKey of(@NonNull final CostSegmentAndElement costSegmentAndElement)
+		{
+			return new CostRecordKey(
+					costSegmentAndElement.getAcctSchemaId().getRepoId(),
+					costSegmentAndElement.getCostTypeId().getRepoId(),
+					costSegmentAndElement.getOrgId().getRepoId(),
+					costSegmentAndElement.getProductId().getRepoId(),
+					costSegmentAndElement.getAttributeSetInstanceId().getRepoId(),
+					costSegmentAndElement.getCostElementId().getRepoId());
+		}
+
+		static CostRecordKey of(@NonNull final I_M_Cost costRecord)
+		{
+			return new CostRecordKey(
+					costRecord.getC_AcctSchema_ID(),
+					costRecord.getM_CostType_ID(),
+					costRecord.getAD_Org_ID(),
+					costRecord.getM_Product_ID(),
+					costRecord.getM_AttributeSetInstance_ID(),
+					costRecord.getM_CostElement_ID());
+		}
+
+		int acctSchemaId;
+		int costTypeId;
+		int orgId;
+		int productId;
+		int attributeSetInstanceId;
+		int costElementId;
+	}
+
+	private final class InMemoryCurrentCostsBatch implements CurrentCostsBatch
+	{
+		private final HashMap<CostSegmentAndElement, CurrentCostId> idsByKey = new HashMap<>();
+		private final HashMap<CurrentCostId, CurrentCost> currentCostsById = new HashMap<>();
+		private final LinkedHashSet<CurrentCostId> changedIds = new LinkedHashSet<>();
+
+		private void preload(
+				@NonNull final Set<CostSegmentAndElement> costSegmentAndElements,
+				@NonNull final Function<Set<CostSegmentAndElement>, ImmutableMap<CostSegmentAndElement, CurrentCost>> loader)
+		{
+			final ImmutableSet<CostSegmentAndElement> keysToLoad = costSegmentAndElements.stream()
+					.filter(key -> !idsByKey.containsKey(key))
+					.collect(ImmutableSet.toImmutableSet());
+			if (keysToLoad.isEmpty())
+			{
+				return;
+			}
+
+			loader.apply(keysToLoad).forEach(this::put);
+		}
+
+		@Nullable
+		private CurrentCost getOrLoadOrNull(
+				@NonNull final CostSegmentAndElement costSegmentAndElement,
+				@NonNull final Function<CostSegmentAndElement, CurrentCost> loader)
+		{
+			CurrentCostId id = idsByKey.get(costSegmentAndElement);
+			if (id == null)
+			{
+				final CurrentCost currentCost = loader.apply(costSegmentAndElement);
+				if (currentCost == null)
+				{
+					return null;
+				}
+
+				id = put(costSegmentAndElement, currentCost);
+			}
+
+			// return a copy, so the changes are only seen after they are saved, same as when there is no batch
+			return currentCostsById.get(id).copy();
+		}
+
+		private CurrentCostId put(
+				@NonNull final CostSegmentAndElement costSegmentAndElement,
+				@NonNull final CurrentCost currentCost)
+		{
+			final CurrentCostId id = currentCost.getId();
+			Check.assumeNotNull(id, "current cost is saved: {}", currentCost);
+
+			idsByKey.put(costSegmentAndElement, id);
+			currentCostsById.putIfAbsent(id, currentCost.copy()); // keep the version we have, it might contain unsaved changes
+			return id;
+		}
+
+		private void putChanged(@NonNull final CurrentCost currentCost)
+		{
+			final CurrentCostId id = currentCost.getId();
+			currentCostsById.put(id, currentCost.copy());
+			changedIds.add(id);
+		}
+
+		@Override
+		public void saveChanges()
+		{
+			if (changedIds.isEmpty())
+			{
+				return;
+			}
+
+			final ImmutableList<CurrentCost> changedCurrentCosts = changedIds.stream()
+					.map(currentCostsById::get)
+					.collect(ImmutableList.toImmutableList());
+			saveAllNow(changedCurrentCosts);
+			changedIds.clear();
+
+			logger.debug("Saved {} changed current costs", changedCurrentCosts.size());
+		}
+
+		private void reset()
+		{
+			Check.assume(changedIds.isEmpty(), "all changes are saved before reset");
+			idsByKey.clear();
+			currentCostsById.clear();
+		}
+
+		@Override
+		public void close()
+		{
+			try
+			{
+				// the cost details were already saved, so the current costs must not be lost
+				saveChanges();
+			}
+			finally
+			{
+				if (activeBatch.get() == this)
+				{
+					activeBatch.remove();
+				}
+			}
+		}
+	}
+
+	private static final class NestedCurrentCostsBatch implements CurrentCostsBatch
+	{
+		private static final NestedCurrentCostsBatch instance = new NestedCurrentCostsBatch();
+
+		@Override
+		public void saveChanges()
+		{
+			// nothing to do; the changes are saved by the enclosing batch
+		}
+
+		@Override
+		public void close()
+		{
+			// nothing to do; the enclosing batch is closed by its owner
+		}
+	}
 }
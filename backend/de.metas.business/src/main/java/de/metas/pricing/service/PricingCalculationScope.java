@@ -0,0 +1,142 @@
+package de.metas.pricing.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.util.lang.IAutoCloseable;
+import org.adempiere.util.lang.NullAutoCloseable;
+import org.compiere.model.I_M_ProductPrice;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.pricing.PriceListVersionId;
+import de.metas.pricing.rules.AggregatedPricingRule;
+import de.metas.product.ProductId;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.business
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Memoizes the pricing rules chain and the main {@link I_M_ProductPrice}s while one or more prices are calculated on the current thread.
+ * <p>
+ * Price list versions and discount schemas are not memoized here because they are already cached application-wide.
+ * <p>
+ * NOTE: product prices which are changed while a scope is open are not seen by the pricing calculations of that scope,
+ * so keep the scope as short as the price calculations.
+ */
+public final class PricingCalculationScope
+{
+	private static final Logger logger = LogManager.getLogger(PricingCalculationScope.class);
+
+	private static final ThreadLocal<PricingCalculationScope> currentScope = new ThreadLocal<>();
+
+	/**
+	 * Opens a new scope on the current thread, unless there is already one.
+	 *
+	 * @return an auto-closeable used to close the scope which was opened
+	 */
+	public static IAutoCloseable open()
+	{
+		if (currentScope.get() != null)
+		{
+			return NullAutoCloseable.instance;
+		}
+
+		final PricingCalculationScope scope = new PricingCalculationScope();
+		currentScope.set(scope);
+
+		return () -> {
+			currentScope.remove();
+			logger.trace("Closed {}", scope);
+		};
+	}
+
+	/**
+	 * @return the scope which is open on the current thread or <code>null</code>
+	 */
+	@Nullable
+	public static PricingCalculationScope getCurrentOrNull()
+	{
+		return currentScope.get();
+	}
+
+	private AggregatedPricingRule pricingRules;
+	private final Map<MainProductPriceKey, ImmutableList<I_M_ProductPrice>> mainProductPrices = new HashMap<>();
+
+	private PricingCalculationScope()
+	{
+	}
+
+	public AggregatedPricingRule getPricingRules(@NonNull final Supplier<AggregatedPricingRule> loader)
+	{
+		if (pricingRules == null)
+		{
+			pricingRules = loader.get();
+		}
+		return pricingRules;
+	}
+
+	/**
+	 * @return the main product prices of given product in given price list version, as they were previously put or loaded.
+	 */
+	public ImmutableList<I_M_ProductPrice> getMainProductPrices(
+			@NonNull final PriceListVersionId priceListVersionId,
+			@NonNull final ProductId productId,
+			@NonNull final Supplier<List<I_M_ProductPrice>> loader)
+	{
+		return mainProductPrices.computeIfAbsent(
+				new MainProductPriceKey(priceListVersionId, productId),
+				key -> ImmutableList.copyOf(loader.get()));
+	}
+
+	public boolean isMainProductPricesLoaded(
+			@NonNull final PriceListVersionId priceListVersionId,
+			@NonNull final ProductId productId)
+	{
+		return mainProductPrices.containsKey(new MainProductPriceKey(priceListVersionId, productId));
+	}
+
+	public void putMainProductPrices(
+			@NonNull final PriceListVersionId priceListVersionId,
+			@NonNull final ProductId productId,
+			@NonNull final List<I_M_ProductPrice> productPrices)
+	{
+		mainProductPrices.put(new MainProductPriceKey(priceListVersionId, productId), ImmutableList.copyOf(productPrices));
+	}
+
+	@Value
+	private static class MainProductPriceKey
+	{
+		@NonNull
+		PriceListVersionId priceListVersionId;
+		@NonNull
+		ProductId productId;
+	}
+}
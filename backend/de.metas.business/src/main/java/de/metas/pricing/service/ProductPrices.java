@@ -6,6 +6,7 @@ import static org.adempiere.model.InterfaceWrapperHelper.save;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
@@ -23,6 +24,9 @@ import org.compiere.model.I_M_PricingSystem;
 import org.compiere.model.I_M_ProductPrice;
 import org.slf4j.Logger;
 
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.adempiere.model.I_M_Product;
 import de.metas.i18n.AdMessageKey;
 import de.metas.i18n.IMsgBL;
@@ -163,12 +167,56 @@ public class ProductPrices
 		}
 	}
 
+	/**
+	 * NOTE: if a {@link PricingCalculationScope} is open, the product prices are memoized in it.
+	 */
 	public static final I_M_ProductPrice retrieveMainProductPriceOrNull(final I_M_PriceList_Version plv, final ProductId productId)
 	{
-		final List<I_M_ProductPrice> allMainPrices = retrieveAllMainPrices(plv, productId);
+		final PricingCalculationScope scope = PricingCalculationScope.getCurrentOrNull();
+		final List<I_M_ProductPrice> allMainPrices = scope != null
+				? scope.getMainProductPrices(PriceListVersionId.ofRepoId(plv.getM_PriceList_Version_ID()), productId, () -> retrieveAllMainPrices(plv, productId))
+				: retrieveAllMainPrices(plv, productId);
 		return getFirstOrThrowExceptionIfMoreThanOne(allMainPrices);
 	}
 
+	/**
+	 * Loads the main product prices of all given products in one query, into the current {@link PricingCalculationScope}.
+	 * Does nothing if there is no scope open.
+	 */
+	public static void prefetchMainProductPrices(@NonNull final I_M_PriceList_Version plv, @NonNull final Collection<ProductId> productIds)
+	{
+		final PricingCalculationScope scope = PricingCalculationScope.getCurrentOrNull();
+		if (scope == null)
+		{
+			return;
+		}
+
+		final PriceListVersionId priceListVersionId = PriceListVersionId.ofRepoId(plv.getM_PriceList_Version_ID());
+		final ImmutableSet<ProductId> productIdsToLoad = productIds.stream()
+				.filter(productId -> !scope.isMainProductPricesLoaded(priceListVersionId, productId))
+				.collect(ImmutableSet.toImmutableSet());
+		if (productIdsToLoad.isEmpty())
+		{
+			return;
+		}
+
+		final ImmutableListMultimap<ProductId, I_M_ProductPrice> allMainPricesByProductId = newQuery(plv)
+				.setProductIds(productIdsToLoad)
+				.noAttributePricing()
+				.onlyValidPrices(true)
+				.addMatchersIfAbsent(MATCHERS_MainProductPrice) // IMORTANT: keep it last
+				.list()
+				.stream()
+				.collect(ImmutableListMultimap.toImmutableListMultimap(
+						productPrice -> ProductId.ofRepoId(productPrice.getM_Product_ID()),
+						productPrice -> productPrice));
+
+		for (final ProductId productId : productIdsToLoad)
+		{
+			scope.putMainProductPrices(priceListVersionId, productId, allMainPricesByProductId.get(productId));
+		}
+	}
+
 	private static List<I_M_ProductPrice> retrieveAllMainPrices(
 			@NonNull final I_M_PriceList_Version plv,
 			@NonNull final ProductId productId)
@@ -24,6 +24,8 @@ package de.metas.pricing.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -42,6 +44,8 @@ import org.slf4j.Logger;
 
 import java.util.Objects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
 
 import de.metas.adempiere.model.I_C_InvoiceLine;
 import de.metas.bpartner.BPartnerId;
@@ -70,6 +74,7 @@ import de.metas.pricing.service.IPriceListBL;
 import de.metas.pricing.service.IPriceListDAO;
 import de.metas.pricing.service.IPricingBL;
 import de.metas.pricing.service.IPricingDAO;
+import de.metas.pricing.service.PricingCalculationScope;
 import de.metas.pricing.service.PricingRuleDescriptor;
 import de.metas.pricing.service.ProductPrices;
 import de.metas.product.IProductBL;
@@ -162,7 +167,8 @@ public class PricingBL implements IPricingBL
 	public IPricingResult calculatePrice(@NonNull final IPricingContext pricingCtx)
 	{
 		final PlainStringLoggable plainStringLoggable = Loggables.newPlainStringLoggable();
-		try (IAutoCloseable c = Loggables.temporarySetLoggable(plainStringLoggable))
+		try (final IAutoCloseable c = Loggables.temporarySetLoggable(plainStringLoggable);
+				final IAutoCloseable scope = PricingCalculationScope.open())
 		{
 			final IPricingResult result = calculatePrice0(pricingCtx);
 			return result.setLoggableMessages(plainStringLoggable.getSingleMessages());
@@ -173,6 +179,64 @@ public class PricingBL implements IPricingBL
 		}
 	}
 
+	@Override
+	public List<IPricingResult> calculatePrices(@NonNull final List<IPricingContext> pricingCtxs)
+	{
+		if (pricingCtxs.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		try (final IAutoCloseable scope = PricingCalculationScope.open())
+		{
+			prefetchMainProductPrices(pricingCtxs);
+
+			return pricingCtxs.stream()
+					.map(this::calculatePrice)
+					.collect(ImmutableList.toImmutableList());
+		}
+	}
+
+	/**
+	 * Loads the main product prices of all given contexts with one query per price list version, into the current {@link PricingCalculationScope}.
+	 */
+	private void prefetchMainProductPrices(@NonNull final List<IPricingContext> pricingCtxs)
+	{
+		final LinkedHashMap<PriceListVersionId, I_M_PriceList_Version> priceListVersions = new LinkedHashMap<>();
+		final SetMultimap<PriceListVersionId, ProductId> productIdsByPriceListVersionId = LinkedHashMultimap.create();
+		for (final IPricingContext pricingCtx : pricingCtxs)
+		{
+			if (pricingCtx.getProductId() == null)
+			{
+				continue;
+			}
+
+			final I_M_PriceList_Version priceListVersion;
+			try
+			{
+				priceListVersion = setupPricingContext(pricingCtx).getM_PriceList_Version();
+			}
+			catch (final Exception ex)
+			{
+				// the same error will be thrown when the price of this context is calculated
+				logger.debug("Skip prefetching the product price for {}", pricingCtx, ex);
+				continue;
+			}
+			if (priceListVersion == null)
+			{
+				continue;
+			}
+
+			final PriceListVersionId priceListVersionId = PriceListVersionId.ofRepoId(priceListVersion.getM_PriceList_Version_ID());
+			priceListVersions.putIfAbsent(priceListVersionId, priceListVersion);
+			productIdsByPriceListVersionId.put(priceListVersionId, pricingCtx.getProductId());
+		}
+
+		priceListVersions.forEach((priceListVersionId, priceListVersion) -> ProductPrices.prefetchMainProductPrices(
+				priceListVersion,
+				productIdsByPriceListVersionId.get(priceListVersionId)));
+	}
+
 	private IPricingResult calculatePrice0(final IPricingContext pricingCtx)
 	{
 		final IPricingContext pricingCtxToUse = setupPricingContext(pricingCtx);
@@ -196,7 +260,7 @@ public class PricingBL implements IPricingBL
 			// return result;
 		}
 
-		final AggregatedPricingRule rules = createPricingRules();
+		final AggregatedPricingRule rules = getPricingRules();
 		rules.calculate(pricingCtxToUse, result);
 
 		//
@@ -490,6 +554,14 @@ public class PricingBL implements IPricingBL
 		return result;
 	}
 
+	private AggregatedPricingRule getPricingRules()
+	{
+		final PricingCalculationScope scope = PricingCalculationScope.getCurrentOrNull();
+		return scope != null
+				? scope.getPricingRules(this::createPricingRules)
+				: createPricingRules();
+	}
+
 	private AggregatedPricingRule createPricingRules()
 	{
 		final IPricingDAO pricingRulesRepo = Services.get(IPricingDAO.class);
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.acct.api.AcctSchema;
 import de.metas.acct.api.AcctSchemaId;
@@ -48,6 +49,7 @@ import de.metas.costing.CostingDocumentRef;
 import de.metas.costing.CostingLevel;
 import de.metas.costing.CostingMethod;
 import de.metas.costing.CurrentCost;
+import de.metas.costing.CurrentCostsBatch;
 import de.metas.costing.MoveCostsRequest;
 import de.metas.costing.MoveCostsResult;
 import de.metas.costing.impl.CostDetailRepository;
@@ -355,6 +357,72 @@ public class AveragePOCostingMethodHandlerTest
 		}
 	}
 
+	@Nested
+	public class currentCostsBatch
+	{
+		private void inventoryAndReceipt()
+		{
+			handler.createOrUpdateCost(
+					costDetailCreateRequest()
+							.documentRef(CostingDocumentRef.ofInventoryLineId(1))
+							.amt(CostAmount.of(100, euroCurrencyId))
+							.qty(Quantity.of(10, eachUOM))
+							.build());
+
+			handler.createOrUpdateCost(
+					costDetailCreateRequest()
+							.documentRef(CostingDocumentRef.ofMatchPOId(1))
+							.amt(CostAmount.of(10 * 15, euroCurrencyId))
+							.qty(Quantity.of(10, eachUOM))
+							.build());
+		}
+
+		@Test
+		public void changesAreSaved()
+		{
+			try (final CurrentCostsBatch batch = currentCostsRepo.startBatch(ImmutableSet.of()))
+			{
+				inventoryAndReceipt();
+				batch.saveChanges();
+			}
+
+			final CurrentCost currentCost = getCurrentCostOrNull(orgId1);
+			assertThat(currentCost.getCurrentQty().toBigDecimal()).isEqualTo("20");
+			assertThat(currentCost.getCostPrice().toBigDecimal()).isEqualTo("12.5"); // (10x10 + 10x15) / (10 + 10)
+		}
+
+		@Test
+		public void pendingChangesAreSavedOnClose()
+		{
+			try (final CurrentCostsBatch batch = currentCostsRepo.startBatch(ImmutableSet.of()))
+			{
+				inventoryAndReceipt();
+			}
+
+			final CurrentCost currentCost = getCurrentCostOrNull(orgId1);
+			assertThat(currentCost.getCurrentQty().toBigDecimal()).isEqualTo("20");
+			assertThat(currentCost.getCostPrice().toBigDecimal()).isEqualTo("12.5");
+		}
+
+		@Test
+		public void nestedBatch()
+		{
+			try (final CurrentCostsBatch batch = currentCostsRepo.startBatch(ImmutableSet.of()))
+			{
+				try (final CurrentCostsBatch nestedBatch = currentCostsRepo.startBatch(ImmutableSet.of()))
+				{
+					inventoryAndReceipt();
+					nestedBatch.saveChanges(); // does nothing
+				}
+
+				batch.saveChanges();
+			}
+
+			final CurrentCost currentCost = getCurrentCostOrNull(orgId1);
+			assertThat(currentCost.getCurrentQty().toBigDecimal()).isEqualTo("20");
+		}
+	}
+
 	@Nested
 	public class scenarios
 	{
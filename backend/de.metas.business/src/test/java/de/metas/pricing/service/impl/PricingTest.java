@@ -1,19 +1,28 @@
 package de.metas.pricing.service.impl;
 
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import org.adempiere.test.AdempiereTestHelper;
 import org.adempiere.test.AdempiereTestWatcher;
+import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_Product;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.pricing.IEditablePricingContext;
+import de.metas.pricing.IPricingContext;
 import de.metas.pricing.IPricingResult;
+import de.metas.product.ProductId;
 
 /*
  * #%L
@@ -95,4 +104,33 @@ public class PricingTest
 			Assert.assertThat("Bio PriceStd\n" + result, result.getPriceStd(), Matchers.comparesEqualTo(BigDecimal.valueOf(3)));
 		}
 	}
+
+	@Test
+	public void calculatePrices()
+	{
+		final I_C_UOM uom = newInstance(I_C_UOM.class);
+		saveRecord(uom);
+		final I_M_Product product2 = helper.createProduct("Product2", uom);
+
+		helper.newProductPriceBuilder()
+				.setPrice(5)
+				.build();
+		new ProductPriceBuilder(helper.getDefaultPriceListVerion(), product2)
+				.setTaxCategoryId(helper.getTaxCategoryId())
+				.setPrice(7)
+				.build();
+
+		final IEditablePricingContext pricingCtx1 = helper.createPricingContext();
+		final IEditablePricingContext pricingCtx2 = helper.createPricingContext();
+		pricingCtx2.setProductId(ProductId.ofRepoId(product2.getM_Product_ID()));
+
+		final List<IPricingResult> results = helper.pricingBL.calculatePrices(ImmutableList.<IPricingContext> of(pricingCtx1, pricingCtx2, pricingCtx1));
+
+		assertThat(results).hasSize(3);
+		assertThat(results).allMatch(IPricingResult::isCalculated);
+		assertThat(results.get(0).getPriceStd()).isEqualByComparingTo("5");
+		assertThat(results.get(1).getPriceStd()).isEqualByComparingTo("7");
+		assertThat(results.get(2).getPriceStd()).isEqualByComparingTo("5");
+		assertThat(results.get(1).getPriceStd()).isEqualByComparingTo(helper.calculatePrice(pricingCtx2).getPriceStd());
+	}
 }
@@ -0,0 +1,85 @@
+package de.metas.material.dispo.commons.interceptor;
+
+import org.adempiere.ad.modelvalidator.annotations.Init;
+import org.adempiere.ad.modelvalidator.annotations.Interceptor;
+import org.adempiere.ad.modelvalidator.annotations.ModelChange;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.compiere.model.ModelValidator;
+import org.springframework.stereotype.Component;
+
+import de.metas.cache.CacheMgt;
+import de.metas.material.dispo.commons.repository.atp.AvailableToPromiseIndex;
+import de.metas.material.dispo.model.I_MD_Candidate;
+import de.metas.material.dispo.model.X_MD_Candidate;
+
+/*
+ * #%L
+ * metasfresh-material-dispo-commons
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps the {@link AvailableToPromiseIndex} up to date when stock candidates are changed.
+ */
+@Interceptor(I_MD_Candidate.class)
+@Component
+public class MD_Candidate
+{
+	@Init
+	public void enableRemoteCacheInvalidation()
+	{
+		CacheMgt.get().enableRemoteCacheInvalidationForTableName(AvailableToPromiseIndex.CACHE_LABEL);
+	}
+
+	@ModelChange(timings = { ModelValidator.TYPE_AFTER_NEW, ModelValidator.TYPE_AFTER_DELETE })
+	public void invalidateAvailableToPromiseIndex(final I_MD_Candidate candidateRecord)
+	{
+		invalidateIfStock(candidateRecord);
+	}
+
+	@ModelChange(timings = ModelValidator.TYPE_AFTER_CHANGE)
+	public void invalidateAvailableToPromiseIndexOnChange(final I_MD_Candidate candidateRecord)
+	{
+		invalidateIfStock(candidateRecord);
+
+		// the record might have been a stock candidate of another product before
+		final I_MD_Candidate candidateRecordOld = InterfaceWrapperHelper.createOld(candidateRecord, I_MD_Candidate.class);
+		if (candidateRecordOld.getM_Product_ID() != candidateRecord.getM_Product_ID()
+				|| !candidateRecordOld.getMD_Candidate_Type().equals(candidateRecord.getMD_Candidate_Type()))
+		{
+			invalidateIfStock(candidateRecordOld);
+		}
+	}
+
+	private static void invalidateIfStock(final I_MD_Candidate candidateRecord)
+	{
+		if (!X_MD_Candidate.MD_CANDIDATE_TYPE_STOCK.equals(candidateRecord.getMD_Candidate_Type()))
+		{
+			return;
+		}
+
+		final int productId = candidateRecord.getM_Product_ID();
+		if (productId <= 0)
+		{
+			return;
+		}
+
+		AvailableToPromiseIndex.invalidateProductIdOnTrxCommit(productId);
+	}
+}
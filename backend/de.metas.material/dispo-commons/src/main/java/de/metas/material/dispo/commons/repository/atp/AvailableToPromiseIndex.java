@@ -0,0 +1,292 @@
+package de.metas.material.dispo.commons.repository.atp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.warehouse.WarehouseId;
+import org.compiere.util.TimeUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.cache.CacheMgt;
+import de.metas.material.commons.attributes.AttributesKeyPattern;
+import de.metas.material.dispo.model.I_MD_Candidate;
+import de.metas.material.dispo.model.X_MD_Candidate;
+import de.metas.material.event.commons.AttributesKey;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-material-dispo-commons
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory index of the {@code STOCK} candidates, used to answer ATP queries without calling {@code de_metas_material.retrieve_atp_at_date}.
+ * <p>
+ * The stock candidates are loaded lazily, per product, and grouped the same way as the DB function does it
+ * (i.e. by warehouse, customer and storage attributes key), each group being ordered by {@code DateProjected} and {@code SeqNo}.
+ * A query then picks, per matching group, the last candidate which is not after the query's date.
+ * <p>
+ * A product's entry is invalidated (locally and on the other cluster nodes) when one of its stock candidates changes, see {@link #invalidateProductIdOnTrxCommit(int)}.
+ * Note that the index is loaded out of transaction, so it only reflects committed candidates.
+ */
+public final class AvailableToPromiseIndex
+{
+	public static final AvailableToPromiseIndex instance = new AvailableToPromiseIndex(AvailableToPromiseIndex::retrieveStockCandidates);
+
+	/** Label under which the per-product entries are invalidated; it's not a real table name. */
+	public static final String CACHE_LABEL = I_MD_Candidate.Table_Name + "#ATP";
+
+	private static final int MAX_PRODUCTS = 500;
+	private static final int EXPIRE_MINUTES = 60;
+	/** Reload a product's stock in background some time before it expires, so that the hot products don't all have to be reloaded by the callers after expiry. */
+	private static final Duration REFRESH_AFTER_WRITE = Duration.ofMinutes(EXPIRE_MINUTES - 10);
+
+	private static final Comparator<AddToResultGroupRequest> ORDER_BY_DATE_AND_SEQNO = Comparator
+			.comparing(AddToResultGroupRequest::getDate)
+			.thenComparing(AddToResultGroupRequest::getSeqNo);
+
+	private final Function<Integer, List<AddToResultGroupRequest>> stockCandidatesLoader;
+
+	private final CCache<Integer, ProductStock> stocksByProductId = CCache.<Integer, ProductStock> builder()
+			.cacheName("AvailableToPromiseIndex")
+			.tableName(CACHE_LABEL)
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(MAX_PRODUCTS) // i.e. max size
+			.expireMinutes(EXPIRE_MINUTES)
+			.refreshAfterWrite(REFRESH_AFTER_WRITE)
+			.invalidationKeysMapper(recordRef -> ImmutableList.of(recordRef.getRecord_ID()))
+			.build();
+
+	@VisibleForTesting
+	AvailableToPromiseIndex(@NonNull final Function<Integer, List<AddToResultGroupRequest>> stockCandidatesLoader)
+	{
+		this.stockCandidatesLoader = stockCandidatesLoader;
+	}
+
+	/**
+	 * @return the stock candidates matching any of the given queries; the result has no particular order.
+	 */
+	public ImmutableList<AddToResultGroupRequest> query(@NonNull final AvailableToPromiseMultiQuery multiQuery)
+	{
+		final Set<AddToResultGroupRequest> result = new LinkedHashSet<>();
+		for (final AvailableToPromiseQuery query : multiQuery.getQueries())
+		{
+			if (query == null)
+			{
+				continue;
+			}
+
+			final Instant date = TimeUtil.asInstant(query.getDate());
+			for (final int productId : ImmutableSet.copyOf(query.getProductIds()))
+			{
+				getProductStock(productId)
+						.streamMatchingGroups(query)
+						.map(group -> group.getLatestNotAfter(date))
+						.filter(Objects::nonNull)
+						.forEach(result::add);
+			}
+		}
+
+		return ImmutableList.copyOf(result);
+	}
+
+	private ProductStock getProductStock(final int productId)
+	{
+		return stocksByProductId.getOrLoad(productId, this::loadProductStock);
+	}
+
+	private ProductStock loadProductStock(final int productId)
+	{
+		final List<AddToResultGroupRequest> stockCandidates = new ArrayList<>(stockCandidatesLoader.apply(productId));
+		stockCandidates.sort(ORDER_BY_DATE_AND_SEQNO);
+
+		final LinkedHashMap<StockGroupKey, ImmutableList.Builder<AddToResultGroupRequest>> candidatesByGroupKey = new LinkedHashMap<>();
+		for (final AddToResultGroupRequest stockCandidate : stockCandidates)
+		{
+			candidatesByGroupKey
+					.computeIfAbsent(StockGroupKey.of(stockCandidate), k -> ImmutableList.builder())
+					.add(stockCandidate);
+		}
+
+		final ImmutableList<StockGroup> groups = candidatesByGroupKey.entrySet()
+				.stream()
+				.map(entry -> new StockGroup(entry.getKey(), entry.getValue().build()))
+				.collect(ImmutableList.toImmutableList());
+		return new ProductStock(groups);
+	}
+
+	private static List<AddToResultGroupRequest> retrieveStockCandidates(final int productId)
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_MD_Candidate.class)
+				.addOnlyActiveRecordsFilter()
+				.addEqualsFilter(I_MD_Candidate.COLUMNNAME_MD_Candidate_Type, X_MD_Candidate.MD_CANDIDATE_TYPE_STOCK)
+				.addEqualsFilter(I_MD_Candidate.COLUMNNAME_M_Product_ID, productId)
+				.create()
+				.stream()
+				.map(AvailableToPromiseIndex::createAddToResultGroupRequest)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static AddToResultGroupRequest createAddToResultGroupRequest(final I_MD_Candidate stockRecord)
+	{
+		final BPartnerId customerId = BPartnerId.ofRepoIdOrNull(stockRecord.getC_BPartner_Customer_ID());
+
+		return AddToResultGroupRequest.builder()
+				.productId(stockRecord.getM_Product_ID())
+				.bpartner(BPartnerClassifier.specificOrAny(customerId)) // records that have no bPartner-ID are applicable to any bpartner
+				.warehouseId(WarehouseId.ofRepoId(stockRecord.getM_Warehouse_ID()))
+				.storageAttributesKey(AttributesKey.ofString(stockRecord.getStorageAttributesKey()))
+				.qty(stockRecord.getQty())
+				.date(TimeUtil.asInstant(stockRecord.getDateProjected()))
+				.seqNo(stockRecord.getSeqNo())
+				.build();
+	}
+
+	/**
+	 * Invalidates the given product's entry after the current transaction was committed, on this node and on the other cluster nodes.
+	 */
+	public static void invalidateProductIdOnTrxCommit(final int productId)
+	{
+		Services.get(ITrxManager.class).runAfterCommit(() -> CacheMgt.get().reset(CACHE_LABEL, productId));
+	}
+
+	public void invalidateAll()
+	{
+		stocksByProductId.reset();
+	}
+
+	@Value
+	private static class ProductStock
+	{
+		@NonNull
+		ImmutableList<StockGroup> groups;
+
+		Stream<StockGroup> streamMatchingGroups(@NonNull final AvailableToPromiseQuery query)
+		{
+			return groups.stream().filter(group -> group.getKey().isMatching(query));
+		}
+	}
+
+	@Value
+	private static class StockGroup
+	{
+		@NonNull
+		StockGroupKey key;
+
+		/** ordered by date and seqNo */
+		@NonNull
+		ImmutableList<AddToResultGroupRequest> stockCandidates;
+
+		/** @return the candidate with the biggest date and seqNo which is not after the given date, or {@code null} */
+		AddToResultGroupRequest getLatestNotAfter(@NonNull final Instant date)
+		{
+			// binary search for the first candidate which is after the given date
+			int low = 0;
+			int high = stockCandidates.size();
+			while (low < high)
+			{
+				final int mid = (low + high) >>> 1;
+				if (stockCandidates.get(mid).getDate().isAfter(date))
+				{
+					high = mid;
+				}
+				else
+				{
+					low = mid + 1;
+				}
+			}
+
+			return low > 0 ? stockCandidates.get(low - 1) : null;
+		}
+	}
+
+	@Value(staticConstructor = "of")
+	private static class StockGroupKey
+	{
+		@NonNull
+		WarehouseId warehouseId;
+		@NonNull
+		BPartnerClassifier bpartner;
+		@NonNull
+		AttributesKey storageAttributesKey;
+
+		static StockGroupKey of(@NonNull final AddToResultGroupRequest request)
+		{
+			return of(request.getWarehouseId(), request.getBpartner(), request.getStorageAttributesKey());
+		}
+
+		/** Same filtering as {@link AvailableToPromiseSqlHelper} is doing on the DB function's result, except for the product. */
+		boolean isMatching(@NonNull final AvailableToPromiseQuery query)
+		{
+			final Set<WarehouseId> warehouseIds = query.getWarehouseIds();
+			if (!warehouseIds.isEmpty() && !warehouseIds.contains(warehouseId))
+			{
+				return false;
+			}
+
+			final BPartnerClassifier queryBPartner = query.getBpartner();
+			if (queryBPartner.isNone() && bpartner.isSpecificBPartner())
+			{
+				return false;
+			}
+			else if (queryBPartner.isSpecificBPartner()
+					&& bpartner.isSpecificBPartner()
+					&& !queryBPartner.getBpartnerId().equals(bpartner.getBpartnerId()))
+			{
+				return false;
+			}
+
+			return isMatchingAnyOf(query.getStorageAttributesKeyPatterns());
+		}
+
+		private boolean isMatchingAnyOf(final Collection<AttributesKeyPattern> storageAttributesKeyPatterns)
+		{
+			if (storageAttributesKeyPatterns.isEmpty()
+					|| storageAttributesKeyPatterns.contains(AttributesKeyPattern.ALL)
+					|| storageAttributesKeyPatterns.contains(AttributesKeyPattern.OTHER))
+			{
+				return true;
+			}
+
+			return storageAttributesKeyPatterns.stream().anyMatch(pattern -> pattern.matches(storageAttributesKey));
+		}
+	}
+}
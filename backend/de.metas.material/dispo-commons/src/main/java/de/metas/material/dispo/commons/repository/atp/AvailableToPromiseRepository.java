@@ -4,7 +4,6 @@ import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
 
 import org.adempiere.service.ISysConfigBL;
 import org.adempiere.warehouse.WarehouseId;
@@ -53,6 +52,9 @@ public class AvailableToPromiseRepository
 {
 	private static final String SYSCONFIG_ATP_ATTRIBUTES_KEYS = "de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.ATP.AttributesKeys";
 
+	/** If enabled, the stock candidates are taken from {@link AvailableToPromiseIndex} instead of calling {@code de_metas_material.retrieve_atp_at_date}. */
+	private static final String SYSCONFIG_USE_IN_MEMORY_INDEX = "de.metas.material.dispo.commons.repository.atp.AvailableToPromiseRepository.UseInMemoryIndex";
+
 	@NonNull
 	public BigDecimal retrieveAvailableStockQtySum(@NonNull final AvailableToPromiseMultiQuery multiQuery)
 	{
@@ -75,31 +77,7 @@ public class AvailableToPromiseRepository
 				? AvailableToPromiseResultBuilder.createEmptyWithPredefinedBuckets(multiQuery)
 				: AvailableToPromiseResultBuilder.createEmpty();
 
-		final IQuery<I_MD_Candidate_ATP_QueryResult> dbQuery = createDBQueryForMaterialQueryOrNull(multiQuery);
-		if (dbQuery == null)
-		{
-			return result.build();
-		}
-
-		final Function<I_MD_Candidate_ATP_QueryResult, Boolean> compareByWhetherRecordHasBPartnerId = record -> record.getC_BPartner_Customer_ID() > 0;
-
-		final List<I_MD_Candidate_ATP_QueryResult> atpRecords = dbQuery.list()
-				.stream()
-				// records with dedicated bPartnerId first
-				// latest date first
-				// biggest seqNo first
-				.sorted(Comparator
-						.comparing(compareByWhetherRecordHasBPartnerId)
-						.thenComparing(I_MD_Candidate_ATP_QueryResult::getDateProjected)
-						.thenComparing(I_MD_Candidate_ATP_QueryResult::getSeqNo) // if dateProjected is equal, then SeqNo makes the difference
-						.reversed())
-				.collect(ImmutableList.toImmutableList());
-
-		// note: this is a dedicated step in order to ease debugging (i.e. have a chance to take a look at the atpRecords)
-		final ImmutableList<AddToResultGroupRequest> requests = atpRecords
-				.stream()
-				.map(AvailableToPromiseRepository::createAddToResultGroupRequest)
-				.collect(ImmutableList.toImmutableList());
+		final ImmutableList<AddToResultGroupRequest> requests = retrieveAddToResultGroupRequests(multiQuery);
 
 		for (final AddToResultGroupRequest request : requests)
 		{
@@ -121,6 +99,45 @@ public class AvailableToPromiseRepository
 		return retrieveAvailableStock(AvailableToPromiseMultiQuery.of(query));
 	}
 
+	private ImmutableList<AddToResultGroupRequest> retrieveAddToResultGroupRequests(@NonNull final AvailableToPromiseMultiQuery multiQuery)
+	{
+		final ImmutableList<AddToResultGroupRequest> requests;
+		if (isUseInMemoryIndex())
+		{
+			requests = AvailableToPromiseIndex.instance.query(multiQuery);
+		}
+		else
+		{
+			final IQuery<I_MD_Candidate_ATP_QueryResult> dbQuery = createDBQueryForMaterialQueryOrNull(multiQuery);
+			if (dbQuery == null)
+			{
+				return ImmutableList.of();
+			}
+
+			requests = dbQuery.list()
+					.stream()
+					.map(AvailableToPromiseRepository::createAddToResultGroupRequest)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		return requests
+				.stream()
+				// records with dedicated bPartnerId first
+				// latest date first
+				// biggest seqNo first
+				.sorted(Comparator
+						.comparing((AddToResultGroupRequest request) -> request.getBpartner().isSpecificBPartner())
+						.thenComparing(AddToResultGroupRequest::getDate)
+						.thenComparing(AddToResultGroupRequest::getSeqNo) // if date is equal, then SeqNo makes the difference
+						.reversed())
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private boolean isUseInMemoryIndex()
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_USE_IN_MEMORY_INDEX, false);
+	}
+
 	private IQuery<I_MD_Candidate_ATP_QueryResult> createDBQueryForMaterialQueryOrNull(
 			@NonNull final AvailableToPromiseMultiQuery multiQuery)
 	{
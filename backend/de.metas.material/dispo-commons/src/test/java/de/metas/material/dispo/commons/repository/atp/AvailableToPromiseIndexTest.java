@@ -0,0 +1,157 @@
+package de.metas.material.dispo.commons.repository.atp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.warehouse.WarehouseId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.material.commons.attributes.AttributesKeyPatterns;
+import de.metas.material.event.commons.AttributesKey;
+
+/*
+ * #%L
+ * metasfresh-material-dispo-commons
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class AvailableToPromiseIndexTest
+{
+	private static final int PRODUCT_ID = 10;
+	private static final WarehouseId WAREHOUSE_ID_1 = WarehouseId.ofRepoId(1);
+	private static final WarehouseId WAREHOUSE_ID_2 = WarehouseId.ofRepoId(2);
+	private static final BPartnerId BPARTNER_ID = BPartnerId.ofRepoId(20);
+	private static final AttributesKey STORAGE_ATTRIBUTES_KEY = AttributesKey.ofAttributeValueIds(1, 2);
+
+	private static final Instant T1 = Instant.parse("2020-01-01T10:00:00Z");
+	private static final Instant T2 = Instant.parse("2020-01-02T10:00:00Z");
+	private static final Instant T3 = Instant.parse("2020-01-03T10:00:00Z");
+
+	private List<AddToResultGroupRequest> stockCandidates;
+	private int loadCount;
+	private AvailableToPromiseIndex index;
+
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		stockCandidates = new ArrayList<>();
+		loadCount = 0;
+		index = new AvailableToPromiseIndex(productId -> {
+			loadCount++;
+			return stockCandidates;
+		});
+	}
+
+	private AddToResultGroupRequest stockCandidate(final WarehouseId warehouseId, final BPartnerId customerId, final Instant date, final int seqNo, final String qty)
+	{
+		final AddToResultGroupRequest stockCandidate = AddToResultGroupRequest.builder()
+				.productId(PRODUCT_ID)
+				.warehouseId(warehouseId)
+				.bpartner(BPartnerClassifier.specificOrAny(customerId))
+				.storageAttributesKey(STORAGE_ATTRIBUTES_KEY)
+				.qty(new BigDecimal(qty))
+				.date(date)
+				.seqNo(seqNo)
+				.build();
+		stockCandidates.add(stockCandidate);
+		return stockCandidate;
+	}
+
+	private static AvailableToPromiseMultiQuery query(final Instant date, final BPartnerClassifier bpartner)
+	{
+		return AvailableToPromiseMultiQuery.of(AvailableToPromiseQuery.builder()
+				.productId(PRODUCT_ID)
+				.date(date.atZone(ZoneId.of("UTC")))
+				.bpartner(bpartner)
+				.build());
+	}
+
+	@Test
+	public void latestCandidateNotAfterDate_perGroup()
+	{
+		final AddToResultGroupRequest wh1_t1 = stockCandidate(WAREHOUSE_ID_1, null, T1, 1, "10");
+		final AddToResultGroupRequest wh1_t2_seq2 = stockCandidate(WAREHOUSE_ID_1, null, T2, 2, "20");
+		stockCandidate(WAREHOUSE_ID_1, null, T2, 1, "15");
+		stockCandidate(WAREHOUSE_ID_1, null, T3, 3, "30");
+		final AddToResultGroupRequest wh2_t1 = stockCandidate(WAREHOUSE_ID_2, null, T1, 4, "5");
+
+		assertThat(index.query(query(T1, BPartnerClassifier.any()))).containsExactlyInAnyOrder(wh1_t1, wh2_t1);
+		assertThat(index.query(query(T2, BPartnerClassifier.any()))).containsExactlyInAnyOrder(wh1_t2_seq2, wh2_t1);
+		assertThat(index.query(query(T1.minusSeconds(1), BPartnerClassifier.any()))).isEmpty();
+	}
+
+	@Test
+	public void bpartnerFilter()
+	{
+		final AddToResultGroupRequest anyBPartner = stockCandidate(WAREHOUSE_ID_1, null, T1, 1, "10");
+		final AddToResultGroupRequest specificBPartner = stockCandidate(WAREHOUSE_ID_1, BPARTNER_ID, T1, 2, "20");
+		stockCandidate(WAREHOUSE_ID_1, BPartnerId.ofRepoId(30), T1, 3, "30");
+
+		assertThat(index.query(query(T1, BPartnerClassifier.none()))).containsExactly(anyBPartner);
+		assertThat(index.query(query(T1, BPartnerClassifier.specific(BPARTNER_ID)))).containsExactlyInAnyOrder(anyBPartner, specificBPartner);
+		assertThat(index.query(query(T1, BPartnerClassifier.any()))).hasSize(3);
+	}
+
+	@Test
+	public void warehouseAndAttributesFilter()
+	{
+		final AddToResultGroupRequest wh1 = stockCandidate(WAREHOUSE_ID_1, null, T1, 1, "10");
+		stockCandidate(WAREHOUSE_ID_2, null, T1, 2, "20");
+
+		final AvailableToPromiseQuery query = AvailableToPromiseQuery.builder()
+				.productId(PRODUCT_ID)
+				.warehouseId(WAREHOUSE_ID_1)
+				.date(T1.atZone(ZoneId.of("UTC")))
+				.storageAttributesKeyPattern(AttributesKeyPatterns.ofAttributeKey(STORAGE_ATTRIBUTES_KEY))
+				.build();
+		assertThat(index.query(AvailableToPromiseMultiQuery.of(query))).containsExactly(wh1);
+
+		final AvailableToPromiseQuery otherAttributesQuery = query.toBuilder()
+				.clearStorageAttributesKeyPatterns()
+				.storageAttributesKeyPattern(AttributesKeyPatterns.ofAttributeKey(AttributesKey.ofAttributeValueIds(3)))
+				.build();
+		assertThat(index.query(AvailableToPromiseMultiQuery.of(otherAttributesQuery))).isEmpty();
+	}
+
+	@Test
+	public void productIsLoadedOnlyOnceUntilInvalidated()
+	{
+		stockCandidate(WAREHOUSE_ID_1, null, T1, 1, "10");
+
+		index.query(query(T1, BPartnerClassifier.any()));
+		index.query(query(T2, BPartnerClassifier.any()));
+		assertThat(loadCount).isEqualTo(1);
+
+		final AddToResultGroupRequest newCandidate = stockCandidate(WAREHOUSE_ID_1, null, T2, 2, "20");
+		index.invalidateAll();
+
+		assertThat(index.query(query(T2, BPartnerClassifier.any()))).containsExactly(newCandidate);
+		assertThat(loadCount).isEqualTo(2);
+	}
+}
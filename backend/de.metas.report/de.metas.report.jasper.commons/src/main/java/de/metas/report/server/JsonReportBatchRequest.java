@@ -0,0 +1,68 @@
+package de.metas.report.server;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.google.common.collect.ImmutableList;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.report.jasper.commons
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Several documents to be rendered as PDF and merged, in the given order, into one PDF.
+ */
+@Value
+@Builder
+@JsonDeserialize(builder = JsonReportBatchRequest.JsonReportBatchRequestBuilder.class)
+public class JsonReportBatchRequest
+{
+	@Singular
+	ImmutableList<Document> documents;
+
+	@JsonPOJOBuilder(withPrefix = "")
+	public static class JsonReportBatchRequestBuilder
+	{
+	}
+
+	@Value
+	@Builder
+	@JsonDeserialize(builder = Document.DocumentBuilder.class)
+	public static class Document
+	{
+		/** AD_Process_ID */
+		int processId;
+
+		/** AD_PInstance_ID */
+		int pinstanceId;
+
+		/** AD_Language; optional */
+		String adLanguage;
+
+		@JsonPOJOBuilder(withPrefix = "")
+		public static class DocumentBuilder
+		{
+		}
+	}
+}
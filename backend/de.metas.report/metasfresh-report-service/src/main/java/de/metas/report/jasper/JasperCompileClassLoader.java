@@ -74,6 +74,12 @@ public class JasperCompileClassLoader extends ClassLoader
 	private final ImmutableSet<File> additionalResourceDirNames;
 	private final Map<String, Optional<JasperEntry>> jasperEntriesByJrxmlPath = new ConcurrentHashMap<>();
 
+	/**
+	 * Compiled reports, shared by all instances, because a new class loader is created for each report request.
+	 * A report is compiled again only if its JRXML file changed.
+	 */
+	private static final Map<File, JasperEntry> compiledJasperEntriesByJrxmlFile = new ConcurrentHashMap<>();
+
 	@Builder
 	private JasperCompileClassLoader(
 			@Nullable final ClassLoader parentClassLoader,
@@ -157,13 +163,28 @@ public class JasperCompileClassLoader extends ClassLoader
 		}
 
 		final File jrxmlFile = toLocalFile(jrxmlUrl);
+		return Optional.of(compiledJasperEntriesByJrxmlFile.compute(jrxmlFile, (file, existingEntry) -> compileIfChanged(file, existingEntry)));
+	}
+
+	private static JasperEntry compileIfChanged(@NonNull final File jrxmlFile, @Nullable final JasperEntry existingEntry)
+	{
+		final long jrxmlLastModified = jrxmlFile.lastModified();
+		if (existingEntry != null
+				&& existingEntry.getJrxmlLastModified() == jrxmlLastModified
+				&& existingEntry.getJasperFile().exists())
+		{
+			logger.trace("Reusing compiled jasper report: {} <- {}", existingEntry.getJasperFile(), jrxmlFile);
+			return existingEntry;
+		}
+
 		final File jasperFile = compileJrxml(jrxmlFile);
 		logger.trace("Compiled jasper report: {} <- {}", jasperFile, jrxmlFile);
 
-		return Optional.of(JasperEntry.builder()
+		return JasperEntry.builder()
 				.jrxmlFile(jrxmlFile)
+				.jrxmlLastModified(jrxmlLastModified)
 				.jasperFile(jasperFile)
-				.build());
+				.build();
 	}
 
 	private URL findMiscResource(final String name)
@@ -278,6 +299,8 @@ public class JasperCompileClassLoader extends ClassLoader
 		@NonNull
 		File jrxmlFile;
 
+		long jrxmlLastModified;
+
 		@NonNull
 		File jasperFile;
 
@@ -33,10 +33,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.service.ISysConfigBL;
 import org.compiere.SpringContextHolder;
@@ -55,6 +58,7 @@ import de.metas.process.AdProcessId;
 import de.metas.process.IADProcessDAO;
 import de.metas.process.PInstanceId;
 import de.metas.process.ProcessInfoParameter;
+import de.metas.report.jasper.JasperReportsCache.JasperReportKey;
 import de.metas.report.server.AbstractReportEngine;
 import de.metas.report.server.OutputType;
 import de.metas.report.server.ReportConstants;
@@ -192,32 +196,24 @@ public class JasperEngine extends AbstractReportEngine
 			final ClassLoader jasperLoader) throws JRException
 	{
 		final String reportPath = getReportPath(adProcessId, jrParameters);
-		final InputStream jasperInputStream;
+		final String reportResourceName;
 		if (reportPath.startsWith("resource:"))
 		{
 			// load the jasper file(s) using an ordinary class loader.
-			final String name = reportPath.substring("resource:".length()).trim();
+			reportResourceName = reportPath.substring("resource:".length()).trim();
 			logger.debug("reportPath = {}", reportPath);
-			// logger.debug("getting resource from = {}", jasperLoader.getResource(name));
-
-			jasperInputStream = jasperLoader.getResourceAsStream(name);
 		}
 		else
 		{
-			jasperInputStream = jasperLoader.getResourceAsStream(reportPath);
+			reportResourceName = reportPath;
 			jrParameters.put(JRParameter.REPORT_CLASS_LOADER, jasperLoader);
 		}
 
-		// Make sure the jasper input stream is not null
-		if (jasperInputStream == null)
-		{
-			// TODO ->A AD_Message
-			throw new AdempiereException("Berichtsdatei '" + reportPath + "' konnte nicht geöffnet werden");
-		}
-
 		//
-		// Load the jasper report from stream
-		final JasperReport jasperReport = (JasperReport)JRLoader.loadObject(jasperInputStream);
+		// Get the deserialized jasper report from cache or load it
+		final JasperReportsCache jasperReportsCache = JasperReportsCache.getInstance();
+		final JasperReportKey reportKey = jasperReportsCache.getReportKeyOrNull(jasperLoader.getResource(reportResourceName));
+		final JasperReport jasperReport = jasperReportsCache.getReport(reportKey, () -> loadJasperReport(reportPath, reportResourceName, jasperLoader));
 
 		//
 		// Load report's resource bundles, if any.
@@ -226,9 +222,29 @@ public class JasperEngine extends AbstractReportEngine
 		{
 			final String reportDir = extractReportDir(reportPath);
 			final String resourceBundleName = getResourceBundleName(jasperReport, reportDir);
-			loadJasperReportResourceBundle(resourceBundleName, jrParameters, jasperLoader);
+			loadJasperReportResourceBundle(reportKey, resourceBundleName, jrParameters, jasperLoader);
+		}
+
+		return jasperReport;
+	}
+
+	private static JasperReport loadJasperReport(
+			final String reportPath,
+			final String reportResourceName,
+			final ClassLoader jasperLoader) throws JRException
+	{
+		final InputStream jasperInputStream = jasperLoader.getResourceAsStream(reportResourceName);
+
+		// Make sure the jasper input stream is not null
+		if (jasperInputStream == null)
+		{
+			// TODO ->A AD_Message
+			throw new AdempiereException("Berichtsdatei '" + reportPath + "' konnte nicht geöffnet werden");
 		}
 
+		//
+		// Load the jasper report from stream
+		final JasperReport jasperReport = (JasperReport)JRLoader.loadObject(jasperInputStream);
 		jasperReport.setProperty(JRPROPERTY_ReportPath, reportPath);
 
 		return jasperReport;
@@ -477,12 +493,17 @@ public class JasperEngine extends AbstractReportEngine
 	 *
 	 * If the {@link ResourceBundle} was found it will be set as {@link JRParameter#REPORT_RESOURCE_BUNDLE} parameter in <code>jrParameters</code>.
 	 *
+	 * @param reportKey the report's cache key or <code>null</code> if the resource bundle shall not be cached
 	 * @param resourceBundleName
 	 * @param jrParameters
 	 * @param classLoader class loader to be used for loading the resource
 	 * @return true if resource bundle was loaded
 	 */
-	private boolean loadJasperReportResourceBundle(final String resourceBundleName, final Map<String, Object> jrParameters, final ClassLoader classLoader)
+	private boolean loadJasperReportResourceBundle(
+			@Nullable final JasperReportKey reportKey,
+			final String resourceBundleName,
+			final Map<String, Object> jrParameters,
+			final ClassLoader classLoader)
 	{
 		if (Check.isEmpty(resourceBundleName, true))
 		{
@@ -491,18 +512,29 @@ public class JasperEngine extends AbstractReportEngine
 
 		final Locale locale = (Locale)jrParameters.get(PARAM_REPORT_LOCALE);
 
+		final ResourceBundle resourceBundle = JasperReportsCache.getInstance()
+				.getResourceBundle(reportKey, resourceBundleName, locale, () -> retrieveResourceBundle(resourceBundleName, locale, classLoader))
+				.orElse(null);
+		if (resourceBundle == null)
+		{
+			return false; // not loaded
+		}
+
+		jrParameters.put(JRParameter.REPORT_RESOURCE_BUNDLE, resourceBundle);
+		return true;
+	}
+
+	private static Optional<ResourceBundle> retrieveResourceBundle(final String resourceBundleName, final Locale locale, final ClassLoader classLoader)
+	{
 		try
 		{
-			final ResourceBundle resourceBundle = ResourceBundle.getBundle(resourceBundleName, locale, classLoader);
-			jrParameters.put(JRParameter.REPORT_RESOURCE_BUNDLE, resourceBundle);
-			return true;
+			return Optional.of(ResourceBundle.getBundle(resourceBundleName, locale, classLoader));
 		}
 		catch (final Exception e)
 		{
 			logger.warn("Failed loading resource bundle for base name: {}, {}. Skipping", resourceBundleName, locale, e);
+			return Optional.empty();
 		}
-
-		return false; // not loaded
 	}
 
 	private ReportResult createOutput(final JasperPrint jasperPrint, OutputType outputType) throws JRException, IOException
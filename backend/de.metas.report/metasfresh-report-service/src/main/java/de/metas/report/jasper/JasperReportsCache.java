@@ -0,0 +1,241 @@
+package de.metas.report.jasper;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.VFS;
+import org.compiere.model.I_AD_Process;
+import org.slf4j.Logger;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.cache.CCache.CCacheStats;
+import de.metas.logging.LogManager;
+import lombok.NonNull;
+import lombok.Value;
+import net.sf.jasperreports.engine.JasperReport;
+
+/*
+ * #%L
+ * de.metas.report.jasper.server.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Caches the deserialized {@link JasperReport}s and their {@link ResourceBundle}s, so that printing the same report again does not reload it.
+ * <p>
+ * The entries are keyed by the report's resolved URL and its last modified time, so a changed (e.g. redeployed or recompiled) report file is loaded again.
+ * Reports whose last modified time can't be determined are not cached.
+ * <p>
+ * NOTE: a changed resource bundle file is only picked up when its report changed too or after a cache reset.
+ */
+/* package */final class JasperReportsCache
+{
+	private static final transient Logger logger = LogManager.getLogger(JasperReportsCache.class);
+
+	private static final JasperReportsCache instance = new JasperReportsCache();
+
+	public static JasperReportsCache getInstance()
+	{
+		return instance;
+	}
+
+	private static final int MAX_CACHED_REPORTS = 200;
+
+	private final CCache<JasperReportKey, JasperReport> reports = CCache.<JasperReportKey, JasperReport> builder()
+			.cacheName("JasperReport#by#URL")
+			.tableName(I_AD_Process.Table_Name)
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(MAX_CACHED_REPORTS) // i.e. max size, for LRU
+			.build();
+
+	private final CCache<ResourceBundleKey, Optional<ResourceBundle>> resourceBundles = CCache.<ResourceBundleKey, Optional<ResourceBundle>> builder()
+			.cacheName("JasperReport#ResourceBundle")
+			.tableName(I_AD_Process.Table_Name)
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(MAX_CACHED_REPORTS * 5) // i.e. max size, for LRU; assume a couple of languages per report
+			.build();
+
+	private JasperReportsCache()
+	{
+	}
+
+	/**
+	 * @return the key of the report found at given URL or <code>null</code> if the report shall not be cached
+	 */
+	@Nullable
+	public JasperReportKey getReportKeyOrNull(@Nullable final URL reportUrl)
+	{
+		if (reportUrl == null)
+		{
+			return null;
+		}
+
+		final Long lastModified = extractLastModifiedOrNull(reportUrl);
+		if (lastModified == null)
+		{
+			return null;
+		}
+
+		return new JasperReportKey(reportUrl.toString(), lastModified);
+	}
+
+	public JasperReport getReport(
+			@Nullable final JasperReportKey reportKey,
+			@NonNull final Callable<JasperReport> reportLoader)
+	{
+		if (reportKey == null)
+		{
+			return call(reportLoader);
+		}
+
+		final JasperReport report = reports.getOrLoad(reportKey, () -> call(reportLoader));
+		logger.debug("Got report for {}. Stats: {}", reportKey, getReportsStats());
+		return report;
+	}
+
+	public Optional<ResourceBundle> getResourceBundle(
+			@Nullable final JasperReportKey reportKey,
+			@NonNull final String resourceBundleName,
+			@NonNull final Locale locale,
+			@NonNull final Supplier<Optional<ResourceBundle>> resourceBundleLoader)
+	{
+		if (reportKey == null)
+		{
+			return resourceBundleLoader.get();
+		}
+
+		return resourceBundles.getOrLoad(new ResourceBundleKey(reportKey, resourceBundleName, locale), resourceBundleLoader::get);
+	}
+
+	public CCacheStats getReportsStats()
+	{
+		return reports.stats();
+	}
+
+	public CCacheStats getResourceBundlesStats()
+	{
+		return resourceBundles.stats();
+	}
+
+	private static JasperReport call(final Callable<JasperReport> reportLoader)
+	{
+		try
+		{
+			return reportLoader.call();
+		}
+		catch (final Exception ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+
+	/**
+	 * @return last modified timestamp or <code>null</code> if it cannot be determined.
+	 *         For resources from jars, returns zero, because they can't change while we are running.
+	 */
+	@Nullable
+	/* package */ static Long extractLastModifiedOrNull(@NonNull final URL url)
+	{
+		final String protocol = url.getProtocol();
+		if ("jar".equals(protocol))
+		{
+			return 0L;
+		}
+		else if ("file".equals(protocol))
+		{
+			try
+			{
+				final File file = new File(url.toURI());
+				return file.exists() ? file.lastModified() : null;
+			}
+			catch (final URISyntaxException | IllegalArgumentException ex)
+			{
+				logger.debug("Cannot convert {} to file. Assume last modified is unknown", url, ex);
+				return null;
+			}
+		}
+		else
+		{
+			// e.g. http; same as JasperClassLoader, use VFS to access it
+			FileObject fileObject = null;
+			try
+			{
+				fileObject = VFS.getManager().resolveFile(url.toString());
+				return fileObject.getContent().getLastModifiedTime();
+			}
+			catch (final Exception ex)
+			{
+				logger.debug("Cannot get last modified time of {}. Assume it's unknown", url, ex);
+				return null;
+			}
+			finally
+			{
+				closeQuietly(fileObject);
+			}
+		}
+	}
+
+	private static void closeQuietly(@Nullable final FileObject fileObject)
+	{
+		if (fileObject == null)
+		{
+			return;
+		}
+
+		try
+		{
+			fileObject.close();
+		}
+		catch (final FileSystemException ex)
+		{
+			logger.debug("Failed closing {}. Ignored.", fileObject, ex);
+		}
+	}
+
+	@Value
+	/* package */ static class JasperReportKey
+	{
+		@NonNull
+		String url;
+		long lastModified;
+	}
+
+	@Value
+	private static class ResourceBundleKey
+	{
+		@NonNull
+		JasperReportKey reportKey;
+		@NonNull
+		String resourceBundleName;
+		@NonNull
+		Locale locale;
+	}
+}
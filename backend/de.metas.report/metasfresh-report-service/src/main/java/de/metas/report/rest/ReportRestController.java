@@ -26,17 +26,22 @@ import de.metas.Profiles;
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.Language;
 import de.metas.logging.LogManager;
+import de.metas.report.server.BatchPdfReportRenderer;
 import de.metas.report.server.IReportServer;
+import de.metas.report.server.JsonReportBatchRequest;
 import de.metas.report.server.JsonReportError;
 import de.metas.report.server.LocalReportServer;
 import de.metas.report.server.OutputType;
 import de.metas.report.server.ReportResult;
 import de.metas.util.Check;
 import de.metas.util.GuavaCollectors;
+import de.metas.util.Services;
 import de.metas.util.lang.ReferenceListAwareEnum;
 import de.metas.util.lang.RepoIdAware;
 import lombok.NonNull;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.compiere.model.Null;
 import org.compiere.util.Trace;
 import org.slf4j.Logger;
@@ -48,11 +53,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.annotation.PreDestroy;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping(value = ReportRestController.ENDPOINT)
@@ -66,6 +78,45 @@ public class ReportRestController
 
 	private final LocalReportServer server = new LocalReportServer();
 
+	private static final String SYSCONFIG_BatchRenderPoolSize = "de.metas.report.rest.ReportRestController.BatchRenderPoolSize";
+	private static final int DEFAULT_BatchRenderPoolSize = 4;
+	private BatchPdfReportRenderer _batchRenderer; // lazy
+	private ExecutorService _batchRenderExecutor; // lazy
+
+	private synchronized BatchPdfReportRenderer getBatchRenderer()
+	{
+		if (_batchRenderer == null)
+		{
+			// NOTE: created on first use and not at bean creation, because the sysconfig can't be read before the database connection is available
+			final int poolSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_BatchRenderPoolSize, DEFAULT_BatchRenderPoolSize);
+			_batchRenderExecutor = Executors.newFixedThreadPool(
+					poolSize,
+					CustomizableThreadFactory.builder()
+							.setThreadNamePrefix(ReportRestController.class.getSimpleName() + "-BatchRender-")
+							.setDaemon(true)
+							.build());
+
+			_batchRenderer = BatchPdfReportRenderer.builder()
+					.server(server)
+					.executor(_batchRenderExecutor)
+					.maxDocumentsInFlight(poolSize * 2) // keep the workers busy while the next document in order is merged
+					.build();
+			logger.info("Batch rendering pool size: {}", poolSize);
+		}
+		return _batchRenderer;
+	}
+
+	@PreDestroy
+	public synchronized void shutdownBatchRenderExecutor()
+	{
+		if (_batchRenderExecutor != null)
+		{
+			_batchRenderExecutor.shutdownNow();
+			_batchRenderExecutor = null;
+			_batchRenderer = null;
+		}
+	}
+
 	@GetMapping
 	public ResponseEntity<Object> report(
 			@RequestParam(name = "AD_Process_ID", required = false) final int processId,
@@ -102,6 +153,44 @@ public class ReportRestController
 		}
 	}
 
+	/**
+	 * Renders the given documents concurrently and streams them out as one merged PDF.
+	 * <p>
+	 * NOTE: once streaming started, an error can't be reported as JSON anymore; in that case the response is aborted.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity<?> reportBatch(@RequestBody final JsonReportBatchRequest request)
+	{
+		final List<JsonReportBatchRequest.Document> documents = request.getDocuments();
+		if (documents == null || documents.isEmpty())
+		{
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(JsonReportError.builder().message("No documents to render").build());
+		}
+
+		final BatchPdfReportRenderer batchRenderer = getBatchRenderer();
+		final StreamingResponseBody body = out -> {
+			try (final MDCCloseable c1 = MDC.putCloseable("batchDocumentsCount", String.valueOf(documents.size())))
+			{
+				batchRenderer.renderAndMerge(documents, out);
+			}
+			catch (final Exception ex)
+			{
+				logger.error("Failed creating merged report for {} documents: {}", documents.size(), documents, ex);
+				throw AdempiereException.wrapIfNeeded(ex);
+			}
+		};
+
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_PDF);
+		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"report." + OutputType.PDF.getFileExtension() + "\"");
+		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+
+		return ResponseEntity.ok()
+				.headers(headers)
+				.body(body);
+	}
+
 	private String extractReportFilename(final ReportResult report)
 	{
 		if (Check.isNotBlank(report.getReportFilename()))
@@ -0,0 +1,160 @@
+package de.metas.report.server;
+
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.slf4j.Logger;
+
+import com.google.common.base.Stopwatch;
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.report.jasper.server.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Renders several documents as PDF and merges them, in the given order, into one PDF which is written to an {@link OutputStream}.
+ * <p>
+ * The documents are rendered concurrently using the given executor, but at most {@code maxDocumentsInFlight} are rendered and not yet merged at any time.
+ * Each document's pages are written out as soon as it's the next one in order, so the heap holds only those few documents and not the whole merged PDF.
+ */
+public final class BatchPdfReportRenderer
+{
+	private static final Logger logger = LogManager.getLogger(BatchPdfReportRenderer.class);
+
+	private final IReportServer server;
+	private final ExecutorService executor;
+	private final int maxDocumentsInFlight;
+
+	@Builder
+	private BatchPdfReportRenderer(
+			@NonNull final IReportServer server,
+			@NonNull final ExecutorService executor,
+			final int maxDocumentsInFlight)
+	{
+		Check.assumeGreaterThanZero(maxDocumentsInFlight, "maxDocumentsInFlight");
+
+		this.server = server;
+		this.executor = executor;
+		this.maxDocumentsInFlight = maxDocumentsInFlight;
+	}
+
+	/**
+	 * NOTE: if a document fails, the remaining ones are cancelled and the exception is propagated; what was written to {@code out} so far is not a valid PDF.
+	 */
+	public void renderAndMerge(
+			@NonNull final List<JsonReportBatchRequest.Document> documents,
+			@NonNull final OutputStream out) throws Exception
+	{
+		Check.assumeNotEmpty(documents, "documents is not empty");
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Document document = new Document();
+		final PdfCopy copy = new PdfCopy(document, out);
+		copy.setCloseStream(false); // the caller is responsible for closing it
+		// NOTE: the document is opened (and the PDF header written) only when the first page is appended, see appendPages
+
+		final Deque<Future<byte[]>> documentsInFlight = new ArrayDeque<>(maxDocumentsInFlight);
+		try
+		{
+			final Iterator<JsonReportBatchRequest.Document> documentsToRender = documents.iterator();
+			while (documentsToRender.hasNext() || !documentsInFlight.isEmpty())
+			{
+				while (documentsToRender.hasNext() && documentsInFlight.size() < maxDocumentsInFlight)
+				{
+					final JsonReportBatchRequest.Document documentToRender = documentsToRender.next();
+					documentsInFlight.addLast(executor.submit(() -> renderPdf(documentToRender)));
+				}
+
+				appendPages(document, copy, getResult(documentsInFlight.removeFirst()));
+			}
+
+			if (!document.isOpen())
+			{
+				// nothing was written yet, so the caller can still report a proper error
+				throw new AdempiereException("None of the " + documents.size() + " rendered documents has any pages");
+			}
+		}
+		catch (final Exception ex)
+		{
+			documentsInFlight.forEach(future -> future.cancel(true));
+			throw ex;
+		}
+
+		document.close();
+
+		logger.debug("Rendered and merged {} documents in {}", documents.size(), stopwatch.stop());
+	}
+
+	private byte[] renderPdf(@NonNull final JsonReportBatchRequest.Document document)
+	{
+		final ReportResult report = server.report(document.getProcessId(), document.getPinstanceId(), document.getAdLanguage(), OutputType.PDF);
+		return report.getReportContent();
+	}
+
+	private static byte[] getResult(@NonNull final Future<byte[]> future) throws InterruptedException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause());
+		}
+	}
+
+	private static void appendPages(@NonNull final Document document, @NonNull final PdfCopy copy, @NonNull final byte[] pdf) throws Exception
+	{
+		final PdfReader reader = new PdfReader(pdf);
+		if (reader.getNumberOfPages() <= 0)
+		{
+			reader.close();
+			return;
+		}
+
+		if (!document.isOpen())
+		{
+			document.open();
+		}
+		for (int page = 0; page < reader.getNumberOfPages(); )
+		{
+			copy.addPage(copy.getImportedPage(reader, ++page));
+		}
+		copy.freeReader(reader); // writes the pages out and releases them
+		reader.close();
+	}
+}
@@ -25,9 +25,17 @@ import java.util.Optional;
  * #L%
  */
 
-public interface IXlsDataSource
+public interface IXlsDataSource extends AutoCloseable
 {
 	Collection<Object> getRows();
 
 	Optional<String> getSuggestedFilename();
+
+	/**
+	 * Releases the resources (e.g. database cursors) which are still held by this data source.
+	 */
+	@Override
+	default void close()
+	{
+	}
 }
@@ -7,6 +7,10 @@ import de.metas.report.server.OutputType;
 import de.metas.report.server.ReportResult;
 import de.metas.util.Check;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.compiere.util.Env;
 import org.jxls.area.Area;
 import org.jxls.builder.AreaBuilder;
@@ -72,6 +76,9 @@ public class JXlsExporter
 
 	private static final transient Logger logger = LogManager.getLogger(JXlsExporter.class);
 
+	/** How many rows are kept in memory while streaming; the others are flushed to a temporary file */
+	private static final int STREAMING_RowAccessWindowSize = 100;
+
 	private Properties _ctx;
 	private ClassLoader _loader;
 	private String _templateResourceName;
@@ -80,6 +87,7 @@ public class JXlsExporter
 	private String _adLanguage;
 	private ResourceBundle _resourceBundle;
 	private Map<String, Object> _properties = new HashMap<>();
+	private boolean _streaming = false;
 
 	private JXlsExporter()
 	{
@@ -103,7 +111,14 @@ public class JXlsExporter
 				evaluator.getJexlEngine().setSilent(true);
 				evaluator.getJexlEngine().setLenient(true);
 
-				processTemplate(transformer, context);
+				try
+				{
+					processTemplate(transformer, context);
+				}
+				finally
+				{
+					disposeIfStreaming(transformer);
+				}
 
 				return ReportResult.builder()
 						.reportFilename(getDataSource().getSuggestedFilename().orElse(null))
@@ -127,6 +142,13 @@ public class JXlsExporter
 		areaBuilder.setTransformer(transformer);
 		final List<Area> xlsAreaList = areaBuilder.build();
 
+		final boolean streaming = isStreamingWorkbook(transformer);
+		if (streaming && !transformer.getFormulaCells().isEmpty())
+		{
+			logger.warn("Template {} has {} formula cells, but it's streamed; its formulas will not be adjusted to the written rows. Consider disabling streaming for this report.",
+					_templateResourceName, transformer.getFormulaCells().size());
+		}
+
 		//
 		// Process those areas
 		for (final Area xlsArea : xlsAreaList)
@@ -135,8 +157,12 @@ public class JXlsExporter
 			xlsArea.applyAt(new CellRef(xlsArea.getStartCellRef().getCellName()), context);
 
 			// Process formulas
-			xlsArea.setFormulaProcessor(new FastFormulaProcessor());
-			xlsArea.processFormulas();
+			// NOTE: not possible when streaming, because the rows which the formulas refer to were already flushed
+			if (!streaming)
+			{
+				xlsArea.setFormulaProcessor(new FastFormulaProcessor());
+				xlsArea.processFormulas();
+			}
 		}
 
 		//
@@ -146,7 +172,25 @@ public class JXlsExporter
 
 	private final Transformer createTransformer(final InputStream is, final ByteArrayOutputStream os) throws InvalidFormatException, IOException
 	{
-		final PoiTransformer transformer = PoiTransformer.createTransformer(is, os);
+		final PoiTransformer transformer;
+		if (_streaming)
+		{
+			final Workbook template = WorkbookFactory.create(is);
+			if (template instanceof XSSFWorkbook)
+			{
+				transformer = PoiTransformer.createSxssfTransformer(template, STREAMING_RowAccessWindowSize, false/* compressTmpFiles */);
+			}
+			else
+			{
+				logger.debug("Streaming is not supported for {}. Using the whole workbook in memory", _templateResourceName);
+				transformer = PoiTransformer.createTransformer(template);
+			}
+			transformer.setOutputStream(os);
+		}
+		else
+		{
+			transformer = PoiTransformer.createTransformer(is, os);
+		}
 		transformer.setLastCommentedColumn(250);
 
 		// make sure our custom jexl functions are registered
@@ -156,6 +200,21 @@ public class JXlsExporter
 		return transformer;
 	}
 
+	private static boolean isStreamingWorkbook(final Transformer transformer)
+	{
+		return transformer instanceof PoiTransformer
+				&& ((PoiTransformer)transformer).getWorkbook() instanceof SXSSFWorkbook;
+	}
+
+	private static void disposeIfStreaming(final Transformer transformer)
+	{
+		if (isStreamingWorkbook(transformer))
+		{
+			// delete the temporary files
+			((SXSSFWorkbook)((PoiTransformer)transformer).getWorkbook()).dispose();
+		}
+	}
+
 	private Context createJXlsContext()
 	{
 		final Context xlsContext = new Context();
@@ -277,6 +336,17 @@ public class JXlsExporter
 		return this;
 	}
 
+	/**
+	 * If enabled and the template is an <code>xlsx</code>, the rows are written using a streaming workbook, which keeps only a few rows in memory.
+	 * <p>
+	 * NOTE: in that case the formulas from the template are not adjusted to the written rows.
+	 */
+	public JXlsExporter setStreaming(final boolean streaming)
+	{
+		this._streaming = streaming;
+		return this;
+	}
+
 	public JXlsExporter setResourceBundle(ResourceBundle resourceBundle)
 	{
 		this._resourceBundle = resourceBundle;
@@ -7,16 +7,23 @@ import de.metas.util.Check;
 import de.metas.util.StringUtils;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.DBException;
+import org.adempiere.util.lang.ImmutablePair;
 import org.compiere.util.DB;
 
+import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.TreeMap;
 
@@ -46,20 +53,38 @@ public class JdbcXlsDataSource implements IXlsDataSource
 {
 	public static final JdbcXlsDataSource of(final String sql)
 	{
-		return new JdbcXlsDataSource(sql);
+		return new JdbcXlsDataSource(sql, false);
+	}
+
+	/**
+	 * Creates a data source whose rows are not loaded into memory, but fetched from a database cursor each time they are iterated.
+	 * <p>
+	 * Make sure to {@link #close()} it, in order to release the cursors which were not iterated until the end.
+	 */
+	public static final JdbcXlsDataSource streaming(final String sql)
+	{
+		return new JdbcXlsDataSource(sql, true);
 	}
 
 	private static final String COLUMNNAME_ReportFileName = "ReportFileName";
 
 	private final String sql;
+	private final boolean streaming;
 
-	private final Supplier<Collection<Object>> rowsSupplier = Suppliers.memoize(() -> retrieveRows());
+	private final Supplier<Collection<Object>> rowsSupplier = Suppliers.memoize(() -> streaming ? new StreamingRows() : retrieveRows());
 
-	private JdbcXlsDataSource(final String sql)
+	/** streaming mode: the cursors which are currently open */
+	private final List<StreamingRowsIterator> openIterators = new ArrayList<>();
+	/** streaming mode: the first row, as seen while iterating the rows */
+	private Map<String, Object> firstRow = null;
+	private boolean firstRowRetrieved = false;
+
+	private JdbcXlsDataSource(final String sql, final boolean streaming)
 	{
 		super();
 		Check.assumeNotNull(sql, "sql not null");
 		this.sql = sql;
+		this.streaming = streaming;
 	}
 
 	@Override
@@ -67,9 +92,19 @@ public class JdbcXlsDataSource implements IXlsDataSource
 	{
 		return MoreObjects.toStringHelper(this)
 				.add("sql", sql)
+				.add("streaming", streaming)
 				.toString();
 	}
 
+	@Override
+	public void close()
+	{
+		for (final StreamingRowsIterator iterator : new ArrayList<>(openIterators))
+		{
+			iterator.close();
+		}
+	}
+
 	@Override
 	public Collection<Object> getRows()
 	{
@@ -131,13 +166,12 @@ public class JdbcXlsDataSource implements IXlsDataSource
 	@Override
 	public Optional<String> getSuggestedFilename()
 	{
-		final Collection<Object> rows = getRows();
-		if (rows.isEmpty())
+		final Map<String, Object> row = getFirstRowOrNull();
+		if (row == null)
 		{
 			return Optional.empty();
 		}
 
-		@SuppressWarnings("unchecked") final Map<String, Object> row = (Map<String, Object>)rows.iterator().next();
 		final Object reportFileNameObj = row.get(COLUMNNAME_ReportFileName);
 		if (reportFileNameObj == null)
 		{
@@ -152,4 +186,192 @@ public class JdbcXlsDataSource implements IXlsDataSource
 
 		return Optional.of(reportFileName);
 	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getFirstRowOrNull()
+	{
+		if (!streaming)
+		{
+			final Collection<Object> rows = getRows();
+			return rows.isEmpty() ? null : (Map<String, Object>)rows.iterator().next();
+		}
+
+		// avoid running the whole query again just for the first row, in case the rows were already iterated
+		if (!firstRowRetrieved)
+		{
+			try (final StreamingRowsIterator iterator = new StreamingRowsIterator("SELECT * FROM (" + sql + ") t LIMIT 1"))
+			{
+				if (iterator.hasNext())
+				{
+					iterator.next();
+				}
+			}
+		}
+		return firstRow;
+	}
+
+	/**
+	 * Rows which are fetched from a new database cursor each time they are iterated.
+	 * The size is retrieved using a count query, but only if it's asked for.
+	 */
+	private final class StreamingRows extends AbstractCollection<Object>
+	{
+		private final Supplier<Integer> sizeSupplier = Suppliers.memoize(() -> DB.getSQLValueEx(ITrx.TRXNAME_None, "SELECT COUNT(1) FROM (" + sql + ") t"));
+
+		@Override
+		public Iterator<Object> iterator()
+		{
+			return new StreamingRowsIterator(sql);
+		}
+
+		@Override
+		public int size()
+		{
+			return sizeSupplier.get();
+		}
+	}
+
+	/**
+	 * Iterates the rows of a database cursor. The cursor is closed as soon as the last row was fetched, or when this data source is closed.
+	 */
+	private final class StreamingRowsIterator implements Iterator<Object>, AutoCloseable
+	{
+		private final String sqlSelect;
+
+		private Connection conn = null;
+		private PreparedStatement pstmt = null;
+		private ResultSet rs = null;
+		private boolean closed = false;
+
+		private int rowsRetrieved = 0;
+		private Map<String, Object> currentRow = null;
+
+		private StreamingRowsIterator(final String sqlSelect)
+		{
+			this.sqlSelect = sqlSelect;
+		}
+
+		private ResultSet getResultSet()
+		{
+			if (rs != null)
+			{
+				return rs;
+			}
+
+			DB.saveConstraints();
+			boolean ok = false;
+			try
+			{
+				// disabling trx timeout, as this might be a long-running report
+				DB.getConstraints().setTrxTimeoutSecs(-1, false);
+
+				final ImmutablePair<Connection, PreparedStatement> connAndStmt = DB.prepareConnectionAndStatementForDataExport(sqlSelect, null/* sqlParams */);
+				openIterators.add(this);
+				conn = connAndStmt.getLeft();
+				pstmt = connAndStmt.getRight();
+
+				rs = pstmt.executeQuery();
+				ok = true;
+			}
+			catch (final SQLException e)
+			{
+				throw new DBException(e, sqlSelect);
+			}
+			finally
+			{
+				DB.restoreConstraints();
+				if (!ok)
+				{
+					close();
+				}
+			}
+
+			return rs;
+		}
+
+		@Nullable
+		private Map<String, Object> retrieveNextOrNull()
+		{
+			if (closed)
+			{
+				return null;
+			}
+
+			boolean ok = false;
+			try
+			{
+				final ResultSet rs = getResultSet();
+				if (!rs.next())
+				{
+					// no more rows; the cursor is closed in the finally block
+					if (rowsRetrieved == 0)
+					{
+						firstRowRetrieved = true; // there are no rows at all
+					}
+					return null;
+				}
+
+				final Map<String, Object> row = retrieveRow(rs);
+				if (rowsRetrieved == 0 && !firstRowRetrieved)
+				{
+					firstRow = row;
+					firstRowRetrieved = true;
+				}
+				rowsRetrieved++;
+				ok = true;
+				return row;
+			}
+			catch (final SQLException e)
+			{
+				throw new DBException(e, sqlSelect);
+			}
+			finally
+			{
+				if (!ok)
+				{
+					close();
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (currentRow == null)
+			{
+				currentRow = retrieveNextOrNull();
+			}
+
+			return currentRow != null;
+		}
+
+		@Override
+		public Map<String, Object> next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			final Map<String, Object> rowToReturn = currentRow;
+			currentRow = null;
+			return rowToReturn;
+		}
+
+		@Override
+		public void close()
+		{
+			DB.close(rs, pstmt);
+			rs = null;
+			pstmt = null;
+
+			DB.close(conn);
+			conn = null;
+
+			currentRow = null;
+			closed = true;
+			openIterators.remove(this);
+		}
+	}
 }
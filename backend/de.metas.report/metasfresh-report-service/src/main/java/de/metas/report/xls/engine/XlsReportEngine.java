@@ -2,6 +2,7 @@ package de.metas.report.xls.engine;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import de.metas.process.AdProcessId;
 import de.metas.process.PInstanceId;
 import de.metas.process.ProcessInfoParameter;
 import de.metas.report.server.AbstractReportEngine;
@@ -15,6 +16,7 @@ import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IExpressionFactory;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
 import org.compiere.util.Evaluatee2;
@@ -54,6 +56,13 @@ public class XlsReportEngine extends AbstractReportEngine
 
 	private static final String PROPERTY_ProcessParameters = "p";
 
+	/**
+	 * Prefix of the per-report switch {@code de.metas.report.xls.engine.XlsReportEngine.Streaming.<AD_Process_ID>}.
+	 * If enabled, the report rows are streamed from a database cursor into a streaming workbook (for xlsx templates), so that big reports run in bounded memory.
+	 * It's enabled only for particular reports, because templates which rely on jxls adjusting their formulas to the written rows shall not be used with it.
+	 */
+	private static final String SYSCONFIG_Streaming_Prefix = "de.metas.report.xls.engine.XlsReportEngine.Streaming";
+
 	@Override
 	public ReportResult report(final ReportContext reportContext)
 	{
@@ -67,24 +76,39 @@ public class XlsReportEngine extends AbstractReportEngine
 		final String templateResourceName = reportContext.getReportTemplatePath();
 		Check.assumeNotEmpty(templateResourceName, "templateResourceName not defined in process: {}", reportContext);
 
+		final boolean streaming = isStreaming(reportContext);
+
 		//
 		// Datasource
-		final IXlsDataSource xlsDataSource = retrieveDataSource(reportContext);
+		try (final IXlsDataSource xlsDataSource = retrieveDataSource(reportContext, streaming))
+		{
+			//
+			// Create the report
+			return JXlsExporter.newInstance()
+					.setContext(reportContext.getCtx())
+					.setLoader(reportClassLoader)
+					.setProperty(PROPERTY_ProcessParameters, createContextAsMap(reportContext))
+					.setTemplateResourceName(templateResourceName)
+					.setAD_Language(reportContext.getAD_Language())
+					//
+					.setDataSource(xlsDataSource)
+					.setStreaming(streaming)
+					.export();
+		}
+	}
 
-		//
-		// Create the report
-		return JXlsExporter.newInstance()
-				.setContext(reportContext.getCtx())
-				.setLoader(reportClassLoader)
-				.setProperty(PROPERTY_ProcessParameters, createContextAsMap(reportContext))
-				.setTemplateResourceName(templateResourceName)
-				.setAD_Language(reportContext.getAD_Language())
-				//
-				.setDataSource(xlsDataSource)
-				.export();
+	private static boolean isStreaming(final ReportContext reportContext)
+	{
+		final int processId = AdProcessId.toRepoId(reportContext.getAD_Process_ID());
+		if (processId <= 0)
+		{
+			return false;
+		}
+
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_Streaming_Prefix + "." + processId, false);
 	}
 
-	private IXlsDataSource retrieveDataSource(final ReportContext reportContext)
+	private IXlsDataSource retrieveDataSource(final ReportContext reportContext, final boolean streaming)
 	{
 		//
 		// Get SQL Statement
@@ -114,7 +138,7 @@ public class XlsReportEngine extends AbstractReportEngine
 
 		//
 		// Create & return the data source
-		return JdbcXlsDataSource.of(sqlFinal);
+		return streaming ? JdbcXlsDataSource.streaming(sqlFinal) : JdbcXlsDataSource.of(sqlFinal);
 	}
 
 	private Evaluatee createEvaluationContext(final ReportContext reportContext)
@@ -0,0 +1,63 @@
+package de.metas.report.jasper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.net.URL;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * #%L
+ * de.metas.report.jasper.server.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JasperReportsCacheTest
+{
+	@Test
+	public void extractLastModifiedOrNull_file() throws Exception
+	{
+		final File file = File.createTempFile("JasperReportsCacheTest", ".jasper");
+		file.deleteOnExit();
+		assertThat(file.setLastModified(1_000_000L)).isTrue();
+
+		final URL url = file.toURI().toURL();
+		assertThat(JasperReportsCache.extractLastModifiedOrNull(url)).isEqualTo(1_000_000L);
+
+		assertThat(file.setLastModified(2_000_000L)).isTrue();
+		assertThat(JasperReportsCache.extractLastModifiedOrNull(url)).isEqualTo(2_000_000L);
+	}
+
+	@Test
+	public void extractLastModifiedOrNull_missingFile() throws Exception
+	{
+		final File file = File.createTempFile("JasperReportsCacheTest", ".jasper");
+		assertThat(file.delete()).isTrue();
+
+		assertThat(JasperReportsCache.extractLastModifiedOrNull(file.toURI().toURL())).isNull();
+	}
+
+	@Test
+	public void extractLastModifiedOrNull_jar() throws Exception
+	{
+		final URL url = new URL("jar:file:/opt/metasfresh/metasfresh-report.jar!/de/metas/docs/sales/invoice/report.jasper");
+		assertThat(JasperReportsCache.extractLastModifiedOrNull(url)).isZero();
+	}
+}
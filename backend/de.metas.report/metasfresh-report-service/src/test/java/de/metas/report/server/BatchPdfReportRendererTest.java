@@ -0,0 +1,159 @@
+package de.metas.report.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import com.lowagie.text.Document;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+/*
+ * #%L
+ * de.metas.report.jasper.server.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class BatchPdfReportRendererTest
+{
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void init()
+	{
+		executor = Executors.newFixedThreadPool(3);
+	}
+
+	@AfterEach
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Renders a PDF with one page per AD_PInstance_ID, having the text "processId-pageNo"
+	 */
+	private static class MockedReportServer implements IReportServer
+	{
+		@Override
+		public ReportResult report(final int AD_Process_ID, final int AD_PInstance_ID, final String adLanguage, final OutputType outputType)
+		{
+			if (AD_Process_ID <= 0)
+			{
+				throw new IllegalArgumentException("AD_Process_ID <= 0");
+			}
+
+			try
+			{
+				final ByteArrayOutputStream out = new ByteArrayOutputStream();
+				final Document document = new Document();
+				PdfWriter.getInstance(document, out);
+				document.open();
+				for (int pageNo = 1; pageNo <= AD_PInstance_ID; pageNo++)
+				{
+					document.newPage();
+					document.add(new Paragraph(AD_Process_ID + "-" + pageNo));
+				}
+				document.close();
+
+				return ReportResult.builder()
+						.outputType(outputType)
+						.reportContentBase64(BaseEncoding.base64().encode(out.toByteArray()))
+						.build();
+			}
+			catch (final Exception ex)
+			{
+				throw new RuntimeException(ex);
+			}
+		}
+
+		@Override
+		public void cacheReset()
+		{
+		}
+	}
+
+	private BatchPdfReportRenderer newRenderer()
+	{
+		return BatchPdfReportRenderer.builder()
+				.server(new MockedReportServer())
+				.executor(executor)
+				.maxDocumentsInFlight(2)
+				.build();
+	}
+
+	private static JsonReportBatchRequest.Document document(final int processId, final int countPages)
+	{
+		return JsonReportBatchRequest.Document.builder()
+				.processId(processId)
+				.pinstanceId(countPages)
+				.build();
+	}
+
+	@Test
+	public void pagesAreMergedInDocumentsOrder() throws Exception
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		newRenderer().renderAndMerge(
+				ImmutableList.of(document(1, 2), document(2, 1), document(3, 3), document(4, 1), document(5, 1)),
+				out);
+
+		final PdfReader reader = new PdfReader(out.toByteArray());
+		assertThat(reader.getNumberOfPages()).isEqualTo(8);
+
+		final PdfTextExtractor textExtractor = new PdfTextExtractor(reader);
+		assertThat(textExtractor.getTextFromPage(1)).contains("1-1");
+		assertThat(textExtractor.getTextFromPage(2)).contains("1-2");
+		assertThat(textExtractor.getTextFromPage(3)).contains("2-1");
+		assertThat(textExtractor.getTextFromPage(6)).contains("3-3");
+		assertThat(textExtractor.getTextFromPage(8)).contains("5-1");
+	}
+
+	@Test
+	public void failingDocument() throws Exception
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final BatchPdfReportRenderer renderer = newRenderer();
+
+		assertThatThrownBy(() -> renderer.renderAndMerge(ImmutableList.of(document(1, 1), document(-1, 1), document(3, 1)), out))
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void failingFirstDocument_nothingIsWritten()
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final BatchPdfReportRenderer renderer = newRenderer();
+
+		assertThatThrownBy(() -> renderer.renderAndMerge(ImmutableList.of(document(-1, 1), document(2, 1)), out))
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+		assertThat(out.size()).isZero();
+	}
+}
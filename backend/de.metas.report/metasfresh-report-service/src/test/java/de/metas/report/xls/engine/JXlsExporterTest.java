@@ -2,11 +2,14 @@ package de.metas.report.xls.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -99,6 +102,50 @@ public class JXlsExporterTest
 				.export();
 	}
 
+	@Nested
+	public class Streaming
+	{
+		@Test
+		public void xlsx() throws Exception
+		{
+			final ReportResult report = JXlsExporter.newInstance()
+					.setContext(new Properties())
+					.setTemplate(JXlsExporterTest.class.getResourceAsStream(RESOURCENAME_TestBPartners_xlsx))
+					.setDataSource(createBPartnersDataSource(1000))
+					.setStreaming(true)
+					.export();
+
+			assertThat(getLastRowNum(report)).isGreaterThanOrEqualTo(1000);
+		}
+
+		/** Streaming is not supported for xls templates, so the whole workbook is still created in memory */
+		@Test
+		public void xls() throws Exception
+		{
+			final ReportResult report = JXlsExporter.newInstance()
+					.setContext(new Properties())
+					.setTemplate(JXlsExporterTest.class.getResourceAsStream(RESOURCENAME_TestBPartners_xls))
+					.setDataSource(createBPartnersDataSource(1000))
+					.setStreaming(true)
+					.export();
+
+			assertThat(getLastRowNum(report)).isGreaterThanOrEqualTo(1000);
+		}
+
+		private int getLastRowNum(final ReportResult report) throws Exception
+		{
+			try (final Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(report.getReportContent())))
+			{
+				int lastRowNum = -1;
+				for (int i = 0; i < workbook.getNumberOfSheets(); i++)
+				{
+					lastRowNum = Math.max(lastRowNum, workbook.getSheetAt(i).getLastRowNum());
+				}
+				return lastRowNum;
+			}
+		}
+	}
+
 	@Nested
 	public class GetSuggestedFilename
 	{
@@ -0,0 +1,113 @@
+package de.metas.inoutcandidate.api.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Splits items into partitions which can be processed independently of each other.
+ * <p>
+ * Each item has a set of keys (e.g. its product, its order). Two items which have a key in common end up in the same partition, also transitively.
+ * The items' original order is preserved within each partition.
+ */
+@UtilityClass
+class ShipmentSchedulePartitioner
+{
+	public <T> ImmutableList<ImmutableList<T>> partition(
+			@NonNull final List<T> items,
+			@NonNull final Function<T, Collection<?>> keysExtractor)
+	{
+		final int size = items.size();
+		final int[] parents = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			parents[i] = i;
+		}
+
+		// link each item to the first item which had the same key
+		final HashMap<Object, Integer> firstItemIndexByKey = new HashMap<>();
+		for (int i = 0; i < size; i++)
+		{
+			for (final Object key : keysExtractor.apply(items.get(i)))
+			{
+				final Integer firstItemIndex = firstItemIndexByKey.putIfAbsent(key, i);
+				if (firstItemIndex != null)
+				{
+					union(parents, firstItemIndex, i);
+				}
+			}
+		}
+
+		final LinkedHashMap<Integer, List<T>> itemsByRoot = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++)
+		{
+			itemsByRoot.computeIfAbsent(find(parents, i), root -> new ArrayList<>()).add(items.get(i));
+		}
+
+		return itemsByRoot.values()
+				.stream()
+				.map(ImmutableList::copyOf)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static int find(final int[] parents, final int index)
+	{
+		int root = index;
+		while (parents[root] != root)
+		{
+			root = parents[root];
+		}
+
+		// path compression
+		int current = index;
+		while (parents[current] != root)
+		{
+			final int next = parents[current];
+			parents[current] = root;
+			current = next;
+		}
+
+		return root;
+	}
+
+	private static void union(final int[] parents, final int index1, final int index2)
+	{
+		final int root1 = find(parents, index1);
+		final int root2 = find(parents, index2);
+		if (root1 != root2)
+		{
+			// keep the smaller index as root, so that partitions are ordered by their first item
+			parents[Math.max(root1, root2)] = Math.min(root1, root2);
+		}
+	}
+}
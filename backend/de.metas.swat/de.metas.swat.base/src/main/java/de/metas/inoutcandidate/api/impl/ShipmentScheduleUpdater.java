@@ -35,6 +35,7 @@ import de.metas.lang.SOTrx;
 import de.metas.logging.LogManager;
 import de.metas.material.cockpit.stock.StockRepository;
 import de.metas.order.DeliveryRule;
+import de.metas.order.OrderId;
 import de.metas.organization.OrgId;
 import de.metas.process.PInstanceId;
 import de.metas.product.IProductBL;
@@ -51,6 +52,7 @@ import de.metas.util.Loggables;
 import de.metas.util.Services;
 import lombok.NonNull;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.inout.util.DeliveryGroupCandidate;
 import org.adempiere.inout.util.DeliveryGroupCandidateGroupId;
 import org.adempiere.inout.util.DeliveryLineCandidate;
@@ -61,13 +63,18 @@ import org.adempiere.inout.util.ShipmentScheduleQtyOnHandStorage;
 import org.adempiere.inout.util.ShipmentScheduleQtyOnHandStorageFactory;
 import org.adempiere.inout.util.ShipmentSchedulesDuringUpdate;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.adempiere.util.lang.IContextAware;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.ImmutablePair;
+import org.adempiere.util.lang.impl.TableRecordReference;
 import org.adempiere.warehouse.LocatorId;
 import org.adempiere.warehouse.WarehouseId;
 import org.adempiere.warehouse.api.IWarehouseDAO;
 import org.compiere.model.I_C_BPartner_Product;
 import org.compiere.model.I_M_Product;
+import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
 import org.slf4j.Logger;
 import org.slf4j.MDC.MDCCloseable;
@@ -76,11 +83,17 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 /*
@@ -125,6 +138,11 @@ public class ShipmentScheduleUpdater implements IShipmentScheduleUpdater
 
 	private static final Logger logger = LogManager.getLogger(ShipmentScheduleUpdater.class);
 
+	/**
+	 * If greater than one, the invalid schedules are split into independent partitions which are updated concurrently, each one in its own transaction.
+	 */
+	private static final String SYSCONFIG_Parallelism = "de.metas.inoutcandidate.api.impl.ShipmentScheduleUpdater.Parallelism";
+
 	private final IShipmentScheduleHandlerBL shipmentScheduleHandlerBL = Services.get(IShipmentScheduleHandlerBL.class);
 	private final IShipmentScheduleInvalidateRepository invalidSchedulesRepo = Services.get(IShipmentScheduleInvalidateRepository.class);
 	private final IShipmentSchedulePA shipmentSchedulePA = Services.get(IShipmentSchedulePA.class);
@@ -143,6 +161,9 @@ public class ShipmentScheduleUpdater implements IShipmentScheduleUpdater
 	private final IProductBL productsService = Services.get(IProductBL.class);
 	private final IBPartnerProductDAO bpartnerProductDAO = Services.get(IBPartnerProductDAO.class);
 
+	private final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
+
 	private final CompositeCandidateProcessor candidateProcessors = new CompositeCandidateProcessor();
 
 	/**
@@ -207,7 +228,15 @@ public class ShipmentScheduleUpdater implements IShipmentScheduleUpdater
 
 			invalidatePickingBOMProducts(olsAndScheds, selectionId);
 
-			updateSchedules(request.getCtx(), olsAndScheds);
+			if (request.isCreateMissingShipmentSchedules())
+			{
+				// the newly created schedules are not committed yet, so they can't be updated in other transactions
+				updateSchedules(request.getCtx(), olsAndScheds);
+			}
+			else
+			{
+				updateSchedulesPartitionedIfConfigured(request.getCtx(), selectionId, olsAndScheds);
+			}
 
 			// cleanup the marker/pointer tables
 			invalidSchedulesRepo.deleteRecomputeMarkersOutOfTrx(selectionId);
@@ -237,6 +266,162 @@ public class ShipmentScheduleUpdater implements IShipmentScheduleUpdater
 		return running != null && running == true;
 	}
 
+	private void updateSchedulesPartitionedIfConfigured(
+			@NonNull final Properties ctx,
+			@NonNull final PInstanceId selectionId,
+			@NonNull final List<OlAndSched> olsAndScheds)
+	{
+		final int parallelism = sysConfigBL.getIntValue(SYSCONFIG_Parallelism, 1);
+		if (parallelism <= 1 || olsAndScheds.size() <= 1)
+		{
+			updateSchedules(ctx, olsAndScheds);
+			return;
+		}
+
+		final ImmutableList<ImmutableList<OlAndSched>> partitions = ShipmentSchedulePartitioner.partition(olsAndScheds, this::extractPartitionKeys);
+		Loggables.withLogger(logger, Level.DEBUG).addLog("ShipmentScheduleUpdater - split {} shipment schedules into {} partitions", olsAndScheds.size(), partitions.size());
+		if (partitions.size() <= 1)
+		{
+			updateSchedules(ctx, olsAndScheds);
+			return;
+		}
+
+		updatePartitionsConcurrently(
+				ctx,
+				partitions,
+				parallelism,
+				ShipmentScheduleUpdater.class.getSimpleName() + "-" + selectionId.getRepoId(),
+				(partitionCtx, partition) -> updatePartitionInNewTrx(partitionCtx, selectionId, partition));
+	}
+
+	/**
+	 * Calls the partition updater for each partition, using at most {@code parallelism} threads.
+	 * Each thread runs with its own copy of the given context, so the context changes done while updating one partition (e.g. trx name, org) are not seen by the others.
+	 * <p>
+	 * All partitions are updated, even if some of them fail. The first failure is rethrown at the end.
+	 */
+	@VisibleForTesting
+	static <T> void updatePartitionsConcurrently(
+			@NonNull final Properties ctx,
+			@NonNull final List<? extends List<T>> partitions,
+			final int parallelism,
+			@NonNull final String threadNamePrefix,
+			@NonNull final BiConsumer<Properties, List<T>> partitionUpdater)
+	{
+		if (partitions.isEmpty())
+		{
+			return;
+		}
+
+		final int poolSize = Math.max(1, Math.min(parallelism, partitions.size()));
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				poolSize,
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix(threadNamePrefix)
+						.setDaemon(true)
+						.build());
+		try
+		{
+			final List<Future<?>> futures = new ArrayList<>(partitions.size());
+			for (final List<T> partition : partitions)
+			{
+				futures.add(executor.submit(() -> {
+					final Properties partitionCtx = Env.copyCtx(ctx);
+					try (final IAutoCloseable ctxRestorer = Env.switchContext(partitionCtx))
+					{
+						partitionUpdater.accept(partitionCtx, partition);
+					}
+				}));
+			}
+
+			// wait for all partitions, even if some of them fail; the failed ones will be recomputed on next run
+			AdempiereException firstException = null;
+			for (final Future<?> future : futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (final InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+					throw AdempiereException.wrapIfNeeded(ex);
+				}
+				catch (final ExecutionException ex)
+				{
+					final AdempiereException partitionException = AdempiereException.wrapIfNeeded(ex.getCause());
+					if (firstException == null)
+					{
+						firstException = partitionException;
+					}
+					else
+					{
+						firstException.addSuppressed(partitionException);
+					}
+				}
+			}
+
+			if (firstException != null)
+			{
+				throw firstException;
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Schedules which have a key in common are updated in the same partition:
+	 * <ul>
+	 * <li>the product, because the schedules are competing for the same stock (also across warehouses of the same picking group)
+	 * <li>the picking BOM products, because they are using the stock of their components
+	 * <li>the order and the bpartner, because the schedules might end up in the same delivery group
+	 * </ul>
+	 */
+	private Collection<?> extractPartitionKeys(@NonNull final OlAndSched olAndSched)
+	{
+		final I_M_ShipmentSchedule sched = olAndSched.getSched();
+		final ProductId productId = olAndSched.getProductId();
+
+		final ArrayList<Object> keys = new ArrayList<>();
+		keys.add(productId);
+		keys.addAll(pickingBOMService.getPickingBOMsReversedIndex().getBOMProductIdsByComponentId(productId));
+		keys.add(TableRecordReference.of(sched.getAD_Table_ID(), sched.getRecord_ID()));
+		keys.add(shipmentScheduleEffectiveBL.getBPartnerId(sched));
+
+		final OrderId orderId = OrderId.ofRepoIdOrNull(sched.getC_Order_ID());
+		if (orderId != null)
+		{
+			keys.add(orderId);
+		}
+
+		return keys;
+	}
+
+	private void updatePartitionInNewTrx(
+			@NonNull final Properties ctx,
+			@NonNull final PInstanceId selectionId,
+			@NonNull final List<OlAndSched> partition)
+	{
+		try (final MDCCloseable mdcRestorer = ShipmentSchedulesMDC.putRevalidationId(selectionId))
+		{
+			running.set(true);
+			trxManager.runInNewTrx(() -> {
+				for (final OlAndSched olAndSched : partition)
+				{
+					InterfaceWrapperHelper.setThreadInheritedTrxName(olAndSched.getSched());
+				}
+				updateSchedules(ctx, partition);
+			});
+		}
+		finally
+		{
+			running.remove();
+		}
+	}
+
 	/**
 	 * Updates the given {@link I_M_ShipmentSchedule}s by setting these columns:
 	 * <li>
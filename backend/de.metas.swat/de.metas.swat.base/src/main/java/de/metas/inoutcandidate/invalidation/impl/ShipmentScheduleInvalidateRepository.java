@@ -17,6 +17,7 @@ import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.adempiere.mm.attributes.AttributeId;
 import org.adempiere.mm.attributes.api.IAttributeDAO;
 import org.adempiere.mm.attributes.api.IAttributesBL;
@@ -30,6 +31,7 @@ import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 
 import de.metas.cache.model.CacheInvalidateMultiRequest;
 import de.metas.cache.model.IModelCacheInvalidationService;
@@ -37,6 +39,7 @@ import de.metas.cache.model.ModelCacheInvalidationTiming;
 import de.metas.inoutcandidate.ShipmentScheduleId;
 import de.metas.inoutcandidate.async.UpdateInvalidShipmentSchedulesWorkpackageProcessor;
 import de.metas.inoutcandidate.invalidation.IShipmentScheduleInvalidateRepository;
+import de.metas.inoutcandidate.invalidation.impl.ShipmentScheduleInvalidationsCollector.CollectedInvalidations;
 import de.metas.inoutcandidate.invalidation.segments.IShipmentScheduleSegment;
 import de.metas.inoutcandidate.invalidation.segments.ShipmentScheduleAttributeSegment;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
@@ -90,7 +93,12 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 			+ " WHERE true "
 			+ "   AND s.IsActive='Y' AND s." + I_M_ShipmentSchedule.COLUMNNAME_Processed + "='N' "
 			+ "   AND NOT EXISTS (select 1 from M_ShipmentSchedule_Recompute e where e.AD_PInstance_ID is NULL and e.M_ShipmentSchedule_ID=s." + COLUMNNAME_M_ShipmentSchedule_ID + ")"
-			+ "   AND ol.M_Product_ID=? ";
+			+ "   AND ";
+
+	/**
+	 * Max. number of IDs resp. segments per INSERT, to keep the number of SQL parameters in a sane range.
+	 */
+	private static final int FLUSH_CHUNK_SIZE = 1000;
 
 	private static final String SQL_RECOMPUTE_ALL =               //
 			"INSERT INTO " + M_SHIPMENT_SCHEDULE_RECOMPUTE + " (M_ShipmentSchedule_ID, Description) "
@@ -116,13 +124,30 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 	@Override
 	public void invalidateForProduct(@NonNull final ProductId productId)
 	{
-		final String description = truncInvalidateDescription("" + productId);
-		final int count = DB.executeUpdateEx(SQL_RECOMPUTE_BY_PRODUCT, new Object[] { description, productId }, ITrx.TRXNAME_ThreadInherited);
-		logger.debug("Invalidated {} entries for productId={} ", count, productId);
+		final ShipmentScheduleInvalidationsCollector collector = getCollectorOrNull();
+		if (collector != null)
+		{
+			collector.addProductId(productId);
+			return;
+		}
+
+		invalidateForProductsNow(ImmutableSet.of(productId), ITrx.TRXNAME_ThreadInherited);
+	}
+
+	private void invalidateForProductsNow(@NonNull final Collection<ProductId> productIds, final String trxName)
+	{
+		final String description = truncInvalidateDescription("" + productIds);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		sqlParams.add(description);
+		final String sql = SQL_RECOMPUTE_BY_PRODUCT + "(" + DB.buildSqlList("ol.M_Product_ID", productIds, sqlParams) + ")";
+
+		final int count = DB.executeUpdateEx(sql, sqlParams.toArray(), trxName);
+		logger.debug("Invalidated {} entries for productIds={} ", count, productIds);
 
 		if (count > 0)
 		{
-			UpdateInvalidShipmentSchedulesWorkpackageProcessor.schedule();
+			UpdateInvalidShipmentSchedulesWorkpackageProcessor.schedule(Env.getCtx(), trxName);
 		}
 	}
 
@@ -209,6 +234,18 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 			return;
 		}
 
+		final ShipmentScheduleInvalidationsCollector collector = getCollectorOrNull();
+		if (collector != null)
+		{
+			collector.addShipmentScheduleIds(shipmentScheduleIds);
+			return;
+		}
+
+		invalidateShipmentSchedulesNow(shipmentScheduleIds, ITrx.TRXNAME_ThreadInherited);
+	}
+
+	private void invalidateShipmentSchedulesNow(@NonNull final Collection<ShipmentScheduleId> shipmentScheduleIds, final String trxName)
+	{
 		final String description = truncInvalidateDescription("" + shipmentScheduleIds.size() + " shipment schedules: " + shipmentScheduleIds);
 
 		final List<Object> sqlParams = new ArrayList<>();
@@ -225,12 +262,12 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 				+ "   AND NOT EXISTS (select 1 from " + M_SHIPMENT_SCHEDULE_RECOMPUTE + " e where e.AD_PInstance_ID is NULL and e.M_ShipmentSchedule_ID=" + I_M_ShipmentSchedule.Table_Name + "."
 				+ I_M_ShipmentSchedule.COLUMNNAME_M_ShipmentSchedule_ID + ")";
 
-		final int count = DB.executeUpdateEx(sql, sqlParams.toArray(), ITrx.TRXNAME_ThreadInherited);
+		final int count = DB.executeUpdateEx(sql, sqlParams.toArray(), trxName);
 		logger.debug("Invalidated {} shipment schedules for M_ShipmentSchedule_IDs={}", count, shipmentScheduleIds);
 
 		if (count > 0)
 		{
-			UpdateInvalidShipmentSchedulesWorkpackageProcessor.schedule();
+			UpdateInvalidShipmentSchedulesWorkpackageProcessor.schedule(Env.getCtx(), trxName);
 		}
 	}
 
@@ -264,6 +301,24 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 			return;
 		}
 
+		if (addToSelectionId == null)
+		{
+			final ShipmentScheduleInvalidationsCollector collector = getCollectorOrNull();
+			if (collector != null)
+			{
+				collector.addStorageSegments(storageSegments);
+				return;
+			}
+		}
+
+		invalidateStorageSegmentsNow(storageSegments, addToSelectionId, ITrx.TRXNAME_None);
+	}
+
+	private void invalidateStorageSegmentsNow(
+			@NonNull final Collection<IShipmentScheduleSegment> storageSegments,
+			@Nullable final PInstanceId addToSelectionId,
+			final String trxName)
+	{
 		final String ssAlias = I_M_ShipmentSchedule.Table_Name + ".";
 		final StringBuilder sqlWhereClause = new StringBuilder();
 		final List<Object> sqlParams = new ArrayList<>();
@@ -319,7 +374,6 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 
 		//
 		// Execute
-		final String trxName = ITrx.TRXNAME_None;
 		final int count = DB.executeUpdateEx(sql, sqlParams.toArray(), trxName);
 		logger.debug("Invalidated {} shipment schedules for segments={}", count, storageSegments);
 
@@ -330,6 +384,46 @@ public class ShipmentScheduleInvalidateRepository implements IShipmentScheduleIn
 		}
 	}
 
+	/**
+	 * @return the invalidations collector of the current thread's transaction, or {@code null} if the invalidations shall be inserted right away,
+	 *         i.e. if there is no transaction or the transaction is already being committed.
+	 */
+	@Nullable
+	private ShipmentScheduleInvalidationsCollector getCollectorOrNull()
+	{
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		final ITrx trx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
+		if (!trxManager.isActive(trx))
+		{
+			return null;
+		}
+		if (!trx.getTrxListenerManager().canRegisterOnTiming(TrxEventTiming.BEFORE_COMMIT))
+		{
+			return null;
+		}
+
+		return ShipmentScheduleInvalidationsCollector.getCreate(trx, this::flushCollectedInvalidations);
+	}
+
+	private void flushCollectedInvalidations(@NonNull final ITrx trx, @NonNull final CollectedInvalidations invalidations)
+	{
+		final String trxName = trx.getTrxName();
+		logger.debug("Flushing collected invalidations of {}: {}", trxName, invalidations);
+
+		for (final List<ProductId> productIds : Iterables.partition(invalidations.getProductIds(), FLUSH_CHUNK_SIZE))
+		{
+			invalidateForProductsNow(productIds, trxName);
+		}
+		for (final List<IShipmentScheduleSegment> storageSegments : Iterables.partition(invalidations.getStorageSegments(), FLUSH_CHUNK_SIZE / 10))
+		{
+			invalidateStorageSegmentsNow(storageSegments, null, trxName);
+		}
+		for (final List<ShipmentScheduleId> shipmentScheduleIds : Iterables.partition(invalidations.getShipmentScheduleIds(), FLUSH_CHUNK_SIZE))
+		{
+			invalidateShipmentSchedulesNow(shipmentScheduleIds, trxName);
+		}
+	}
+
 	/**
 	 * Build {@link I_M_ShipmentSchedule} where clause based on given segment.
 	 *
@@ -0,0 +1,137 @@
+package de.metas.inoutcandidate.invalidation.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.function.BiConsumer;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.inoutcandidate.ShipmentScheduleId;
+import de.metas.inoutcandidate.invalidation.segments.IShipmentScheduleSegment;
+import de.metas.product.ProductId;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Collects the shipment schedule invalidations of one transaction, so that they can be flushed to {@code M_ShipmentSchedule_Recompute} just before the transaction is committed.
+ * <p>
+ * Invalidating the same schedules, products or segments several times within the transaction results in only one insert.
+ */
+@ToString
+final class ShipmentScheduleInvalidationsCollector
+{
+	private static final String TRX_PROPERTY = ShipmentScheduleInvalidationsCollector.class.getName();
+
+	/**
+	 * Gets/creates the collector of given transaction.
+	 *
+	 * @param flusher called before the transaction is committed, if the collector is not empty; the collector is cleared afterwards.
+	 */
+	public static ShipmentScheduleInvalidationsCollector getCreate(
+			@NonNull final ITrx trx,
+			@NonNull final BiConsumer<ITrx, CollectedInvalidations> flusher)
+	{
+		return trx.getProperty(TRX_PROPERTY, () -> {
+			final ShipmentScheduleInvalidationsCollector collector = new ShipmentScheduleInvalidationsCollector();
+
+			trx.getTrxListenerManager()
+					.newEventListener(TrxEventTiming.BEFORE_COMMIT)
+					.invokeMethodJustOnce(false) // the trx might be committed more than once
+					.registerHandlingMethod(innerTrx -> {
+						final ShipmentScheduleInvalidationsCollector innerCollector = innerTrx.getProperty(TRX_PROPERTY);
+						if (innerCollector == null || innerCollector.isEmpty())
+						{
+							return;
+						}
+
+						flusher.accept(innerTrx, innerCollector.getAndClear());
+					});
+
+			return collector;
+		});
+	}
+
+	private final LinkedHashSet<ShipmentScheduleId> shipmentScheduleIds = new LinkedHashSet<>();
+	private final LinkedHashSet<ProductId> productIds = new LinkedHashSet<>();
+	private final LinkedHashSet<IShipmentScheduleSegment> storageSegments = new LinkedHashSet<>();
+
+	private ShipmentScheduleInvalidationsCollector()
+	{
+	}
+
+	public synchronized void addShipmentScheduleIds(@NonNull final Collection<ShipmentScheduleId> shipmentScheduleIds)
+	{
+		this.shipmentScheduleIds.addAll(shipmentScheduleIds);
+	}
+
+	public synchronized void addProductId(@NonNull final ProductId productId)
+	{
+		this.productIds.add(productId);
+	}
+
+	public synchronized void addStorageSegments(@NonNull final Collection<IShipmentScheduleSegment> storageSegments)
+	{
+		this.storageSegments.addAll(storageSegments);
+	}
+
+	private synchronized boolean isEmpty()
+	{
+		return shipmentScheduleIds.isEmpty()
+				&& productIds.isEmpty()
+				&& storageSegments.isEmpty();
+	}
+
+	private synchronized CollectedInvalidations getAndClear()
+	{
+		final CollectedInvalidations invalidations = CollectedInvalidations.builder()
+				.shipmentScheduleIds(ImmutableSet.copyOf(shipmentScheduleIds))
+				.productIds(ImmutableSet.copyOf(productIds))
+				.storageSegments(ImmutableSet.copyOf(storageSegments))
+				.build();
+
+		shipmentScheduleIds.clear();
+		productIds.clear();
+		storageSegments.clear();
+
+		return invalidations;
+	}
+
+	@Value
+	@Builder
+	static class CollectedInvalidations
+	{
+		@NonNull
+		ImmutableSet<ShipmentScheduleId> shipmentScheduleIds;
+		@NonNull
+		ImmutableSet<ProductId> productIds;
+		@NonNull
+		ImmutableSet<IShipmentScheduleSegment> storageSegments;
+	}
+}
@@ -108,6 +108,15 @@ public interface IInvoiceCandDAO extends ISingletonService
 
 	boolean hasInvalidInvoiceCandidatesForTag(final InvoiceCandRecomputeTag tag);
 
+	/**
+	 * Creates/updates the {@link I_C_InvoiceCandidate_InOutLine}s of those invoice candidates that have been tagged by the given <code>recomputeTag</code>
+	 * and that are invoiced based on the nominal quantity, using set-based SQL.
+	 * Like {@link #fetchInvalidInvoiceCandidates(Properties, InvoiceCandRecomputeTag, String)}, only the candidates of the context's client are considered.
+	 *
+	 * @return how many records were created or updated
+	 */
+	int updateNominalICIOLAssociationsForTag(Properties ctx, InvoiceCandRecomputeTag recomputeTag, String trxName);
+
 	List<I_C_InvoiceLine> retrieveIlForIc(I_C_Invoice_Candidate invoiceCand);
 
 	List<I_C_InvoiceLine> retrieveIlForIc(InvoiceCandidateId invoiceCandidateId);
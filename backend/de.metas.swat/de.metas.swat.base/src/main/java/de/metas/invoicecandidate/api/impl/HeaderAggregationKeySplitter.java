@@ -0,0 +1,120 @@
+package de.metas.invoicecandidate.api.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import de.metas.util.Check;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Maps items to {@link SplitKey}s, such that the items of one big header aggregation key are split among several workpackages.
+ * <p>
+ * The items are split only between different "invoice split keys" (i.e. the DateInvoiced which the invoice will have),
+ * because the items with different invoice split keys end up in different invoices anyway.
+ * So all the items of one header aggregation key and invoice split key always get the same {@link SplitKey},
+ * no matter in which order they come and even if there are more of them than the given max size.
+ * A new split is started only after the current split of the header aggregation key reached the given max size.
+ */
+@ToString
+final class HeaderAggregationKeySplitter<T> implements Function<T, HeaderAggregationKeySplitter.SplitKey>
+{
+	private final Function<T, Object> headerAggregationKeyBuilder;
+	private final Function<T, Object> invoiceSplitKeyBuilder;
+	private final int maxItemsPerSplit;
+
+	private final Map<Object, HeaderAggregationKeySplits> splitsByHeaderAggregationKey = new HashMap<>();
+
+	public HeaderAggregationKeySplitter(
+			@NonNull final Function<T, Object> headerAggregationKeyBuilder,
+			@NonNull final Function<T, Object> invoiceSplitKeyBuilder,
+			final int maxItemsPerSplit)
+	{
+		Check.assumeGreaterThanZero(maxItemsPerSplit, "maxItemsPerSplit");
+
+		this.headerAggregationKeyBuilder = headerAggregationKeyBuilder;
+		this.invoiceSplitKeyBuilder = invoiceSplitKeyBuilder;
+		this.maxItemsPerSplit = maxItemsPerSplit;
+	}
+
+	@Override
+	public SplitKey apply(@NonNull final T item)
+	{
+		final Object headerAggregationKey = headerAggregationKeyBuilder.apply(item);
+		final Object invoiceSplitKey = invoiceSplitKeyBuilder.apply(item);
+
+		final int splitNo = splitsByHeaderAggregationKey
+				.computeIfAbsent(headerAggregationKey, k -> new HeaderAggregationKeySplits())
+				.addItemAndGetSplitNo(invoiceSplitKey);
+
+		return new SplitKey(headerAggregationKey, splitNo);
+	}
+
+	@Value
+	public static class SplitKey
+	{
+		Object headerAggregationKey;
+		int splitNo;
+
+		@Override
+		public String toString()
+		{
+			return splitNo > 0 ? headerAggregationKey + "_" + splitNo : String.valueOf(headerAggregationKey);
+		}
+	}
+
+	@ToString
+	private final class HeaderAggregationKeySplits
+	{
+		private final Map<Object, Integer> splitNoByInvoiceSplitKey = new HashMap<>();
+		private int currentSplitNo = 0;
+		private int currentSplitSize = 0;
+
+		public int addItemAndGetSplitNo(final Object invoiceSplitKey)
+		{
+			final Integer existingSplitNo = splitNoByInvoiceSplitKey.get(invoiceSplitKey);
+			if (existingSplitNo != null)
+			{
+				if (existingSplitNo == currentSplitNo)
+				{
+					currentSplitSize++;
+				}
+				return existingSplitNo;
+			}
+
+			if (currentSplitSize >= maxItemsPerSplit)
+			{
+				currentSplitNo++;
+				currentSplitSize = 0;
+			}
+
+			splitNoByInvoiceSplitKey.put(invoiceSplitKey, currentSplitNo);
+			currentSplitSize++;
+			return currentSplitNo;
+		}
+	}
+}
@@ -1103,6 +1103,57 @@ public class InvoiceCandDAO implements IInvoiceCandDAO
 				.anyMatch();
 	}
 
+	private static final String SQL_FROM_TaggedICsAndInOutLines = " FROM " + I_C_Invoice_Candidate.Table_Name + " ic"
+			+ " INNER JOIN M_InOutLine iol ON iol.C_OrderLine_ID = ic.C_OrderLine_ID AND iol.IsActive = 'Y'";
+
+	private static final String SQL_WHERE_TaggedNominalICs = " ic.C_Invoice_Candidate_ID IN (SELECT icr.C_Invoice_Candidate_ID FROM C_Invoice_Candidate_Recompute icr WHERE icr.AD_PInstance_ID = ?)"
+			+ " AND ic.AD_Client_ID = ?"
+			+ " AND ic.IsActive = 'Y'"
+			+ " AND COALESCE(TRIM(ic.InvoicableQtyBasedOn), '') IN ('', '" + X_C_Invoice_Candidate.INVOICABLEQTYBASEDON_Nominal + "')";
+
+	private static final String SQL_UpdateNominalICIOLAssociations = "UPDATE " + I_C_InvoiceCandidate_InOutLine.Table_Name + " iciol SET"
+			+ " AD_Org_ID = iol.AD_Org_ID"
+			+ ", QtyDelivered = iol.MovementQty"
+			+ ", C_UOM_ID = iol.C_UOM_ID"
+			+ ", QtyDeliveredInUOM_Nominal = iol.QtyEntered"
+			+ ", Updated = now()"
+			+ ", UpdatedBy = ?"
+			+ SQL_FROM_TaggedICsAndInOutLines
+			+ " WHERE " + SQL_WHERE_TaggedNominalICs
+			+ " AND iciol.C_Invoice_Candidate_ID = ic.C_Invoice_Candidate_ID AND iciol.M_InOutLine_ID = iol.M_InOutLine_ID AND iciol.IsActive = 'Y'"
+			// don't touch the records which are already up to date
+			+ " AND (iciol.AD_Org_ID, iciol.QtyDelivered, iciol.C_UOM_ID, iciol.QtyDeliveredInUOM_Nominal)"
+			+ " IS DISTINCT FROM (iol.AD_Org_ID, iol.MovementQty, iol.C_UOM_ID, iol.QtyEntered)";
+
+	private static final String SQL_InsertNominalICIOLAssociations = "INSERT INTO " + I_C_InvoiceCandidate_InOutLine.Table_Name + " ("
+			+ " C_InvoiceCandidate_InOutLine_ID, AD_Client_ID, AD_Org_ID, IsActive, Created, CreatedBy, Updated, UpdatedBy"
+			+ ", C_Invoice_Candidate_ID, M_InOutLine_ID, QtyDelivered, C_UOM_ID, QtyDeliveredInUOM_Nominal, QtyInvoiced"
+			+ ")"
+			+ " SELECT nextval('" + I_C_InvoiceCandidate_InOutLine.Table_Name.toLowerCase() + "_seq'), ic.AD_Client_ID, iol.AD_Org_ID, 'Y', now(), ?, now(), ?"
+			+ ", ic.C_Invoice_Candidate_ID, iol.M_InOutLine_ID, iol.MovementQty, iol.C_UOM_ID, iol.QtyEntered, 0"
+			+ SQL_FROM_TaggedICsAndInOutLines
+			+ " WHERE " + SQL_WHERE_TaggedNominalICs
+			+ " AND NOT EXISTS (SELECT 1 FROM " + I_C_InvoiceCandidate_InOutLine.Table_Name + " iciol"
+			+ " WHERE iciol.C_Invoice_Candidate_ID = ic.C_Invoice_Candidate_ID AND iciol.M_InOutLine_ID = iol.M_InOutLine_ID AND iciol.IsActive = 'Y')";
+
+	@Override
+	public int updateNominalICIOLAssociationsForTag(
+			final Properties ctx,
+			@NonNull final InvoiceCandRecomputeTag recomputeTag,
+			final String trxName)
+	{
+		final PInstanceId pinstanceId = InvoiceCandRecomputeTag.getPinstanceIdOrNull(recomputeTag);
+		Check.assumeNotNull(pinstanceId, "recomputeTag shall not be null: {}", recomputeTag);
+
+		final int userId = Env.getAD_User_ID(ctx);
+		final int clientId = Env.getAD_Client_ID(ctx);
+
+		final int countUpdated = DB.executeUpdateEx(SQL_UpdateNominalICIOLAssociations, new Object[] { userId, pinstanceId.getRepoId(), clientId }, trxName);
+		final int countInserted = DB.executeUpdateEx(SQL_InsertNominalICIOLAssociations, new Object[] { userId, userId, pinstanceId.getRepoId(), clientId }, trxName);
+
+		return countUpdated + countInserted;
+	}
+
 	private final IQueryBuilder<I_C_Invoice_Candidate> retrieveForBillPartnerQuery(final I_C_BPartner bpartner)
 	{
 		return queryBL
@@ -0,0 +1,86 @@
+package de.metas.invoicecandidate.api.impl;
+
+import java.util.Properties;
+
+import org.compiere.model.X_M_ProductPrice;
+import org.slf4j.Logger;
+
+import ch.qos.logback.classic.Level;
+import de.metas.cache.CacheMgt;
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.invoicecandidate.api.IInvoiceCandDAO;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeTag;
+import de.metas.invoicecandidate.model.I_C_InvoiceCandidate_InOutLine;
+import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import de.metas.util.Loggables;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Creates/updates the {@link I_C_InvoiceCandidate_InOutLine} records of all invoice candidates which are tagged with a given recompute tag,
+ * using the set-based SQL of {@link IInvoiceCandDAO#updateNominalICIOLAssociationsForTag(Properties, InvoiceCandRecomputeTag, String)}.
+ * <p>
+ * Does the same as {@link InvoiceCandBL#updateICIOLAssociationFromIOL(I_C_InvoiceCandidate_InOutLine, org.compiere.model.I_M_InOutLine)} does per record,
+ * but only for invoice candidates which are not invoiced based on catch weight (see {@link #isHandledInBulk(I_C_Invoice_Candidate)}).
+ * The catch weight case needs UOM conversions and is still done per record.
+ */
+@UtilityClass
+class InvoiceCandInOutLinesBulkUpdater
+{
+	private static final Logger logger = LogManager.getLogger(InvoiceCandInOutLinesBulkUpdater.class);
+
+	/**
+	 * @return true if the {@link I_C_InvoiceCandidate_InOutLine}s of given invoice candidate are created/updated by {@link #updateTagged(Properties, InvoiceCandRecomputeTag, String)}.
+	 */
+	public boolean isHandledInBulk(@NonNull final I_C_Invoice_Candidate ic)
+	{
+		final String invoicableQtyBasedOn = ic.getInvoicableQtyBasedOn();
+		return Check.isEmpty(invoicableQtyBasedOn, true) || X_M_ProductPrice.INVOICABLEQTYBASEDON_Nominal.equals(invoicableQtyBasedOn);
+	}
+
+	/**
+	 * @return how many {@link I_C_InvoiceCandidate_InOutLine} records were created or updated
+	 */
+	public int updateTagged(
+			@NonNull final Properties ctx,
+			@NonNull final InvoiceCandRecomputeTag recomputeTag,
+			final String trxName)
+	{
+		final int count = Services.get(IInvoiceCandDAO.class).updateNominalICIOLAssociationsForTag(ctx, recomputeTag, trxName);
+
+		Loggables.withLogger(logger, Level.DEBUG)
+				.addLog("Bulk created/updated {} {} records for recomputeTag={}", count, I_C_InvoiceCandidate_InOutLine.Table_Name, recomputeTag);
+
+		if (count > 0)
+		{
+			CacheMgt.get().resetLocalNowAndBroadcastOnTrxCommit(trxName, CacheInvalidateMultiRequest.allRecordsForTable(I_C_InvoiceCandidate_InOutLine.Table_Name));
+		}
+
+		return count;
+	}
+}
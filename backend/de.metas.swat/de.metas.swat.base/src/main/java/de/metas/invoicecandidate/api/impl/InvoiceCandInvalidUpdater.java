@@ -23,6 +23,7 @@
 package de.metas.invoicecandidate.api.impl;
 
 import ch.qos.logback.classic.Level;
+import com.google.common.annotations.VisibleForTesting;
 import de.metas.inout.IInOutDAO;
 import de.metas.invoicecandidate.api.IInvoiceCandBL;
 import de.metas.invoicecandidate.api.IInvoiceCandDAO;
@@ -84,6 +85,14 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 	private static final String SYSCONFIG_ItemsPerBatch = "de.metas.invoicecandidate.api.impl.InvoiceCandInvalidUpdater.ItemsPerBatch";
 	private static final int DEFAULT_ItemsPerBatch = 100;
 
+	/**
+	 * If enabled, the {@link I_C_InvoiceCandidate_InOutLine}s of all tagged invoice candidates are created/updated with set-based SQL before the candidates are updated one by one.
+	 * See {@link InvoiceCandInOutLinesBulkUpdater}.
+	 */
+	@VisibleForTesting
+	static final String SYSCONFIG_BulkUpdateInOutLines = "de.metas.invoicecandidate.api.impl.InvoiceCandInvalidUpdater.BulkUpdateInOutLines";
+	private static final boolean DEFAULT_BulkUpdateInOutLines = false;
+
 	//
 	// Parameters
 	private Properties _ctx;
@@ -93,6 +102,7 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 	//
 	// State
 	private boolean executed = false;
+	private boolean inOutLinesUpdatedInBulk = false;
 
 	InvoiceCandInvalidUpdater(@NonNull final InvoiceCandBL invoiceCandBL)
 	{
@@ -107,12 +117,13 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 
 		//
 		// Tag invoice candidates scheduled to recompute using given "recomputeTag" as the recompute tag marker
-		icTagger.tag();
+		final InvoiceCandRecomputeTag recomputeTag = icTagger.tag();
 
 		//
 		// Update the tagged invoice candidates
 		try
 		{
+			updateInOutLinesInBulkIfEnabled(recomputeTag);
 			updateTagged();
 
 			//
@@ -139,6 +150,17 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 		}
 	}
 
+	private void updateInOutLinesInBulkIfEnabled(@NonNull final InvoiceCandRecomputeTag recomputeTag)
+	{
+		if (!sysConfigBL.getBooleanValue(SYSCONFIG_BulkUpdateInOutLines, DEFAULT_BulkUpdateInOutLines))
+		{
+			return;
+		}
+
+		InvoiceCandInOutLinesBulkUpdater.updateTagged(getCtx(), recomputeTag, getTrxName());
+		inOutLinesUpdatedInBulk = true;
+	}
+
 	/**
 	 * Update all invoice candidates which were tagged
 	 */
@@ -276,7 +298,10 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 		// Note: the code originally related to task 06502 has partially been moved to de.metas.invoicecandidate.modelvalidator.M_InoutLine
 		// we'll need those icIols to be up to date to date in order to have QtyWithIssues (updateQtyWithIssues() et al. further down),
 		// and we need them (depending on which handler) for setDeliveredData()
-		populateC_InvoiceCandidate_InOutLine(icRecord, icRecord.getC_OrderLine());
+		if (!inOutLinesUpdatedInBulk || !InvoiceCandInOutLinesBulkUpdater.isHandledInBulk(icRecord))
+		{
+			populateC_InvoiceCandidate_InOutLine(icRecord, icRecord.getC_OrderLine());
+		}
 
 		// Update 'QtyToInvoice_OverrideFulfilled'
 		// If is turns out that the fulfillment is now sufficient,
@@ -22,12 +22,15 @@ package de.metas.invoicecandidate.api.impl;
  * #L%
  */
 
+import java.time.LocalDate;
 import java.util.IdentityHashMap;
 import java.util.Properties;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.Env;
+import org.compiere.util.TimeUtil;
 
 import de.metas.aggregation.api.IAggregationKeyBuilder;
 import de.metas.async.api.IWorkPackageBlockBuilder;
@@ -38,7 +41,9 @@ import de.metas.async.model.I_C_Async_Batch;
 import de.metas.async.processor.IWorkPackageQueueFactory;
 import de.metas.async.spi.IWorkpackagePrioStrategy;
 import de.metas.async.spi.impl.SizeBasedWorkpackagePrio;
+import de.metas.common.util.CoalesceUtil;
 import de.metas.invoicecandidate.api.IAggregationBL;
+import de.metas.invoicecandidate.api.IInvoiceCandBL;
 import de.metas.invoicecandidate.api.IInvoicingParams;
 import de.metas.invoicecandidate.async.spi.impl.InvoiceCandWorkpackageProcessor;
 import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
@@ -53,6 +58,9 @@ import lombok.NonNull;
 
 /**
  * Takes {@link I_C_Invoice_Candidate}s, group them by "IC's header aggregation key" and add them {@link InvoiceCandWorkpackageProcessor} workpackages.
+ * <p>
+ * The workpackages are independent of each other, so they can be processed concurrently by the queue processor.
+ * Big header aggregation key groups might be split among several workpackages, if that does not change the resulting invoices (see {@link HeaderAggregationKeySplitter}).
  *
  * @author tsa
  *
@@ -62,6 +70,15 @@ import lombok.NonNull;
 {
 	// services
 	private final transient IWorkPackageQueueFactory workPackageQueueFactory = Services.get(IWorkPackageQueueFactory.class);
+	private final transient ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+
+	/**
+	 * Number of invoice candidates after which the candidates of one header aggregation key are split into another workpackage.
+	 * Candidates which would end up in the same invoice (i.e. which have the same DateInvoiced) are never split, because each workpackage creates its own invoices.
+	 * Default is 0, i.e. one workpackage per header aggregation key.
+	 */
+	private static final String SYSCONFIG_MaxInvoiceCandidatesPerWorkpackage = "de.metas.invoicecandidate.api.impl.InvoiceCandidate2WorkpackageAggregator.MaxInvoiceCandidatesPerWorkpackage";
+	private static final int DEFAULT_MaxInvoiceCandidatesPerWorkpackage = 0;
 
 	//
 	// Parameters
@@ -75,6 +92,7 @@ import lombok.NonNull;
 	private I_C_Async_Batch _asyncBatch = null;
 
 	// status
+	private LocalDate today; // lazy
 	private final IdentityHashMap<IWorkPackageBuilder, ICNetAmtToInvoiceChecker> group2netAmtToInvoiceChecker = new IdentityHashMap<>();
 
 	public InvoiceCandidate2WorkpackageAggregator(@NonNull final Properties ctx, @Nullable final String trxName)
@@ -98,6 +116,57 @@ import lombok.NonNull;
 		setGroupsBufferSize(1);
 	}
 
+	/**
+	 * Configure the splitting of big header aggregation key groups, see {@link #SYSCONFIG_MaxInvoiceCandidatesPerWorkpackage}.
+	 */
+	private void configureHeaderAggregationKeySplitter()
+	{
+		// if the user expects exactly one invoice, then we shall not split anything
+		if (invoicingParams.isAssumeOneInvoice())
+		{
+			return;
+		}
+
+		final int maxInvoiceCandidatesPerWorkpackage = sysConfigBL.getIntValue(SYSCONFIG_MaxInvoiceCandidatesPerWorkpackage, DEFAULT_MaxInvoiceCandidatesPerWorkpackage);
+		if (maxInvoiceCandidatesPerWorkpackage <= 0)
+		{
+			return;
+		}
+
+		final IAggregationBL aggregationBL = Services.get(IAggregationBL.class);
+		final IAggregationKeyBuilder<I_C_Invoice_Candidate> headerAggregationKeyBuilder = aggregationBL.getHeaderAggregationKeyBuilder();
+		setItemAggregationKeyBuilder(new HeaderAggregationKeySplitter<I_C_Invoice_Candidate>(
+				headerAggregationKeyBuilder::buildKey,
+				this::computeDateInvoiced,
+				maxInvoiceCandidatesPerWorkpackage)::apply);
+
+		//
+		// Configure: keep all groups in memory,
+		// because the candidates of one split (i.e. one DateInvoiced) don't have to come one after the other
+		setGroupsBufferSize(0);
+	}
+
+	/**
+	 * @return the DateInvoiced which the candidate's invoice will have; same logic as in {@link AggregationEngine}, which creates different invoices for different DateInvoiced values.
+	 */
+	private LocalDate computeDateInvoiced(@NonNull final I_C_Invoice_Candidate ic)
+	{
+		return CoalesceUtil.coalesceSuppliers(
+				invoicingParams::getDateInvoiced,
+				() -> TimeUtil.asLocalDate(ic.getPresetDateInvoiced()),
+				() -> TimeUtil.asLocalDate(ic.getDateInvoiced()),
+				this::getToday);
+	}
+
+	private LocalDate getToday()
+	{
+		if (today == null)
+		{
+			today = Services.get(IInvoiceCandBL.class).getToday();
+		}
+		return today;
+	}
+
 	private IWorkPackageQueue getWorkPackageQueue()
 	{
 		return _workpackageQueue;
@@ -222,6 +291,7 @@ import lombok.NonNull;
 	public InvoiceCandidate2WorkpackageAggregator setInvoicingParams(@NonNull final IInvoicingParams invoicingParams)
 	{
 		this.invoicingParams = invoicingParams;
+		configureHeaderAggregationKeySplitter();
 		return this;
 	}
 
@@ -0,0 +1,80 @@
+package de.metas.inoutcandidate.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ShipmentSchedulePartitionerTest
+{
+	/** item format: "name:key1,key2" */
+	private static ImmutableList<ImmutableList<String>> partition(final String... items)
+	{
+		return ShipmentSchedulePartitioner.partition(
+				Arrays.asList(items),
+				item -> Arrays.asList(item.substring(item.indexOf(':') + 1).split(",")));
+	}
+
+	@Test
+	public void independentItems()
+	{
+		assertThat(partition("a:p1", "b:p2", "c:p3"))
+				.containsExactly(
+						ImmutableList.of("a:p1"),
+						ImmutableList.of("b:p2"),
+						ImmutableList.of("c:p3"));
+	}
+
+	@Test
+	public void sharedKey()
+	{
+		assertThat(partition("a:p1,o1", "b:p2,o2", "c:p1,o3"))
+				.containsExactly(
+						ImmutableList.of("a:p1,o1", "c:p1,o3"),
+						ImmutableList.of("b:p2,o2"));
+	}
+
+	@Test
+	public void transitivelySharedKeys()
+	{
+		// a and d are linked via b and c
+		final ImmutableList<ImmutableList<String>> partitions = partition("a:p1,o1", "b:p2,o1", "c:p2,o2", "d:p3,o2", "e:p4,o4");
+		assertThat(partitions)
+				.containsExactly(
+						ImmutableList.of("a:p1,o1", "b:p2,o1", "c:p2,o2", "d:p3,o2"),
+						ImmutableList.of("e:p4,o4"));
+	}
+
+	@Test
+	public void emptyList()
+	{
+		final List<String> items = ImmutableList.of();
+		assertThat(ShipmentSchedulePartitioner.partition(items, ImmutableList::of)).isEmpty();
+	}
+}
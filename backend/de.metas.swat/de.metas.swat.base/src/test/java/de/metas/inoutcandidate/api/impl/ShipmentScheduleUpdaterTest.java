@@ -2,11 +2,18 @@ package de.metas.inoutcandidate.api.impl;
 
 import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.inout.util.DeliveryGroupCandidate;
 import org.adempiere.inout.util.DeliveryGroupCandidateGroupId;
 import org.adempiere.test.AdempiereTestHelper;
@@ -15,8 +22,11 @@ import org.adempiere.warehouse.WarehouseId;
 import org.compiere.model.I_C_Order;
 import org.compiere.util.Env;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.inoutcandidate.api.OlAndSched;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.inoutcandidate.spi.ShipmentScheduleReferencedLine;
@@ -109,4 +119,52 @@ public class ShipmentScheduleUpdaterTest
 		shipmentScheduleUpdater.updateProcessedFlag(sched);
 		assertThat(sched.isProcessed()).isTrue();
 	}
+
+	@Nested
+	public class updatePartitionsConcurrently
+	{
+		private final ImmutableList<ImmutableList<Integer>> partitions = ImmutableList.of(
+				ImmutableList.of(1, 2),
+				ImmutableList.of(3),
+				ImmutableList.of(4, 5, 6),
+				ImmutableList.of(7));
+
+		@Test
+		public void allPartitionsAreUpdated_eachWithItsOwnContext()
+		{
+			final Properties ctx = Env.getCtx();
+			final Set<Integer> updatedItems = ConcurrentHashMap.newKeySet();
+			final Set<Properties> partitionCtxs = Collections.newSetFromMap(new IdentityHashMap<>());
+
+			ShipmentScheduleUpdater.updatePartitionsConcurrently(ctx, partitions, 2, "test", (partitionCtx, partition) -> {
+				synchronized (partitionCtxs)
+				{
+					partitionCtxs.add(partitionCtx);
+				}
+				updatedItems.addAll(partition);
+			});
+
+			assertThat(updatedItems).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6, 7);
+			assertThat(partitionCtxs).hasSize(partitions.size());
+			assertThat(partitionCtxs).doesNotContain(ctx);
+		}
+
+		@Test
+		public void failingPartition_otherPartitionsAreUpdated_andExceptionIsRethrown()
+		{
+			final Set<Integer> updatedItems = ConcurrentHashMap.newKeySet();
+
+			assertThatThrownBy(() -> ShipmentScheduleUpdater.updatePartitionsConcurrently(Env.getCtx(), partitions, 2, "test", (partitionCtx, partition) -> {
+				if (partition.contains(3))
+				{
+					throw new AdempiereException("partition failed");
+				}
+				updatedItems.addAll(partition);
+			}))
+					.isInstanceOf(AdempiereException.class)
+					.hasMessageContaining("partition failed");
+
+			assertThat(updatedItems).containsExactlyInAnyOrder(1, 2, 4, 5, 6, 7);
+		}
+	}
 }
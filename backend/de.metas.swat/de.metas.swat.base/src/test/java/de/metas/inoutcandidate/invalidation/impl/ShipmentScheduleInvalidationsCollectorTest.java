@@ -0,0 +1,89 @@
+package de.metas.inoutcandidate.invalidation.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.inoutcandidate.ShipmentScheduleId;
+import de.metas.inoutcandidate.invalidation.impl.ShipmentScheduleInvalidationsCollector.CollectedInvalidations;
+import de.metas.product.ProductId;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ShipmentScheduleInvalidationsCollectorTest
+{
+	private ITrxManager trxManager;
+	private List<CollectedInvalidations> flushed;
+
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		trxManager = Services.get(ITrxManager.class);
+		flushed = new ArrayList<>();
+	}
+
+	private ShipmentScheduleInvalidationsCollector getCollector()
+	{
+		final ITrx trx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.Fail);
+		return ShipmentScheduleInvalidationsCollector.getCreate(trx, (innerTrx, invalidations) -> flushed.add(invalidations));
+	}
+
+	@Test
+	public void flushedOnceOnCommit_deduplicated()
+	{
+		trxManager.runInNewTrx(() -> {
+			getCollector().addShipmentScheduleIds(ImmutableList.of(ShipmentScheduleId.ofRepoId(1), ShipmentScheduleId.ofRepoId(2)));
+			getCollector().addShipmentScheduleIds(ImmutableList.of(ShipmentScheduleId.ofRepoId(2), ShipmentScheduleId.ofRepoId(3)));
+			getCollector().addProductId(ProductId.ofRepoId(10));
+			getCollector().addProductId(ProductId.ofRepoId(10));
+
+			assertThat(flushed).isEmpty();
+		});
+
+		assertThat(flushed).hasSize(1);
+		assertThat(flushed.get(0).getShipmentScheduleIds())
+				.containsExactly(ShipmentScheduleId.ofRepoId(1), ShipmentScheduleId.ofRepoId(2), ShipmentScheduleId.ofRepoId(3));
+		assertThat(flushed.get(0).getProductIds()).containsExactly(ProductId.ofRepoId(10));
+		assertThat(flushed.get(0).getStorageSegments()).isEmpty();
+	}
+
+	@Test
+	public void notFlushedIfEmpty()
+	{
+		trxManager.runInNewTrx(() -> getCollector());
+
+		assertThat(flushed).isEmpty();
+	}
+}
@@ -0,0 +1,75 @@
+package de.metas.invoicecandidate.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HeaderAggregationKeySplitterTest
+{
+	/** items are "headerAggregationKey/invoiceSplitKey" strings; results are "headerAggregationKey_splitNo" strings */
+	private static List<String> splitKeys(final int maxItemsPerSplit, final String... items)
+	{
+		final HeaderAggregationKeySplitter<String> splitter = new HeaderAggregationKeySplitter<>(
+				item -> item.split("/")[0],
+				item -> item.split("/")[1],
+				maxItemsPerSplit);
+		return Stream.of(items)
+				.map(splitter)
+				.map(HeaderAggregationKeySplitter.SplitKey::toString)
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void smallKeysAreNotSplit()
+	{
+		assertThat(splitKeys(3, "A/1", "A/2", "B/1", "B/2", "B/3"))
+				.containsExactly("A", "A", "B", "B", "B");
+	}
+
+	@Test
+	public void bigKeyIsSplitByInvoiceSplitKey()
+	{
+		assertThat(splitKeys(2, "A/1", "A/2", "A/3", "A/4", "A/5", "B/1"))
+				.containsExactly("A", "A", "A_1", "A_1", "A_2", "B");
+	}
+
+	@Test
+	public void sameInvoiceSplitKeyIsNeverSplit()
+	{
+		assertThat(splitKeys(2, "A/1", "A/1", "A/1", "A/2", "A/2", "A/2"))
+				.containsExactly("A", "A", "A", "A_1", "A_1", "A_1");
+	}
+
+	@Test
+	public void sameInvoiceSplitKeyIsNeverSplit_unordered()
+	{
+		assertThat(splitKeys(1, "A/1", "A/2", "A/1", "B/1", "A/2", "A/3"))
+				.containsExactly("A", "A_1", "A", "B", "A_1", "A_2");
+	}
+}
@@ -0,0 +1,174 @@
+package de.metas.invoicecandidate.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ClientId;
+import org.adempiere.service.ISysConfigBL;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ShutdownListener;
+import de.metas.StartupListener;
+import de.metas.currency.CurrencyRepository;
+import de.metas.inout.model.I_M_InOut;
+import de.metas.inout.model.I_M_InOutLine;
+import de.metas.invoicecandidate.AbstractICTestSupport;
+import de.metas.invoicecandidate.api.IInvoiceCandDAO;
+import de.metas.invoicecandidate.internalbusinesslogic.InvoiceCandidateRecordService;
+import de.metas.invoicecandidate.model.I_C_InvoiceCandidate_InOutLine;
+import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
+import de.metas.invoicecandidate.model.X_C_Invoice_Candidate;
+import de.metas.money.MoneyService;
+import de.metas.organization.OrgId;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Makes sure that the invoice candidate/inout line associations are the same, no matter if they were created/updated in bulk or per record.
+ * <p>
+ * Note: in unit tests, the bulk SQL is replaced by {@link PlainInvoiceCandDAO#updateNominalICIOLAssociationsForTag(java.util.Properties, de.metas.invoicecandidate.api.InvoiceCandRecomputeTag, String)}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { StartupListener.class, ShutdownListener.class, MoneyService.class, CurrencyRepository.class, InvoiceCandidateRecordService.class })
+public class InvoiceCandInOutLinesBulkUpdaterTest extends AbstractICTestSupport
+{
+	@Test
+	public void perRecord()
+	{
+		updateInvalidCandidatesAndAssertICIOLs(false);
+	}
+
+	@Test
+	public void bulk()
+	{
+		updateInvalidCandidatesAndAssertICIOLs(true);
+	}
+
+	private void updateInvalidCandidatesAndAssertICIOLs(final boolean bulkUpdateInOutLines)
+	{
+		Services.get(ISysConfigBL.class).setValue(InvoiceCandInvalidUpdater.SYSCONFIG_BulkUpdateInOutLines, bulkUpdateInOutLines, ClientId.SYSTEM, OrgId.ANY);
+
+		final I_C_Invoice_Candidate nominalIC = createInvoiceCandidate()
+				.setInstanceName("nominalIC")
+				.setBillBPartnerId(1)
+				.setPriceEntered(1)
+				.setQtyOrdered(20)
+				.setSOTrx(true)
+				.setOrderDocNo("order1")
+				.setOrderLineDescription("orderline1")
+				.build();
+
+		final I_C_Invoice_Candidate catchWeightIC = createInvoiceCandidate()
+				.setInstanceName("catchWeightIC")
+				.setBillBPartnerId(1)
+				.setPriceEntered(1)
+				.setQtyOrdered(20)
+				.setSOTrx(true)
+				.setOrderDocNo("order2")
+				.setOrderLineDescription("orderline2")
+				.build();
+		catchWeightIC.setInvoicableQtyBasedOn(X_C_Invoice_Candidate.INVOICABLEQTYBASEDON_CatchWeight);
+		InterfaceWrapperHelper.save(catchWeightIC);
+
+		final I_M_InOut inOut = createInOut(nominalIC.getBill_BPartner_ID(), nominalIC.getC_Order_ID(), "inOut1");
+
+		// no association yet
+		final I_M_InOutLine nominalIOL1 = createInOutLine(inOut, nominalIC, "nominalIOL1", "3", null);
+
+		// outdated association
+		final I_M_InOutLine nominalIOL2 = createInOutLine(inOut, nominalIC, "nominalIOL2", "4", null);
+		invoiceCandidateInOutLine(nominalIC, nominalIOL2);
+		nominalIOL2.setMovementQty(new BigDecimal("5"));
+		nominalIOL2.setQtyEntered(new BigDecimal("5"));
+		InterfaceWrapperHelper.save(nominalIOL2);
+
+		final I_M_InOutLine catchWeightIOL = createInOutLine(inOut, catchWeightIC, "catchWeightIOL", "6", new BigDecimal("6.5"));
+
+		Services.get(IInvoiceCandDAO.class).invalidateCands(ImmutableList.of(nominalIC, catchWeightIC));
+		updateInvalidCandidates();
+
+		assertThat(icIOLs(nominalIC)).containsExactlyInAnyOrder(
+				"M_InOutLine_ID=" + nominalIOL1.getM_InOutLine_ID() + ", QtyDelivered=3, C_UOM_ID=" + uomId.getRepoId() + ", QtyDeliveredInUOM_Nominal=3, QtyDeliveredInUOM_Catch=null",
+				"M_InOutLine_ID=" + nominalIOL2.getM_InOutLine_ID() + ", QtyDelivered=5, C_UOM_ID=" + uomId.getRepoId() + ", QtyDeliveredInUOM_Nominal=5, QtyDeliveredInUOM_Catch=null");
+		assertThat(icIOLs(catchWeightIC)).containsExactly(
+				"M_InOutLine_ID=" + catchWeightIOL.getM_InOutLine_ID() + ", QtyDelivered=6, C_UOM_ID=" + uomId.getRepoId() + ", QtyDeliveredInUOM_Nominal=6, QtyDeliveredInUOM_Catch=6.5");
+	}
+
+	private I_M_InOutLine createInOutLine(
+			final I_M_InOut inOut,
+			final I_C_Invoice_Candidate ic,
+			final String description,
+			final String qty,
+			@Nullable final BigDecimal qtyCatch)
+	{
+		final I_M_InOutLine inOutLine = inOutLine(description, true, I_M_InOutLine.class);
+		inOutLine.setM_InOut_ID(inOut.getM_InOut_ID());
+		inOutLine.setM_Product_ID(ic.getM_Product_ID());
+		inOutLine.setC_OrderLine_ID(ic.getC_OrderLine_ID());
+		inOutLine.setMovementQty(new BigDecimal(qty));
+		inOutLine.setQtyEntered(new BigDecimal(qty));
+		inOutLine.setC_UOM_ID(uomId.getRepoId());
+		if (qtyCatch != null)
+		{
+			inOutLine.setCatch_UOM_ID(uomId.getRepoId());
+			inOutLine.setQtyDeliveredCatch(qtyCatch);
+		}
+		InterfaceWrapperHelper.save(inOutLine);
+		return inOutLine;
+	}
+
+	private static List<String> icIOLs(final I_C_Invoice_Candidate ic)
+	{
+		return Services.get(IInvoiceCandDAO.class).retrieveICIOLAssociationsExclRE(ic)
+				.stream()
+				.map(InvoiceCandInOutLinesBulkUpdaterTest::describe)
+				.collect(Collectors.toList());
+	}
+
+	private static String describe(final I_C_InvoiceCandidate_InOutLine iciol)
+	{
+		final BigDecimal qtyDeliveredInUOM_Catch = InterfaceWrapperHelper.getValueOrNull(iciol, I_C_InvoiceCandidate_InOutLine.COLUMNNAME_QtyDeliveredInUOM_Catch);
+		return "M_InOutLine_ID=" + iciol.getM_InOutLine_ID()
+				+ ", QtyDelivered=" + describe(iciol.getQtyDelivered())
+				+ ", C_UOM_ID=" + iciol.getC_UOM_ID()
+				+ ", QtyDeliveredInUOM_Nominal=" + describe(iciol.getQtyDeliveredInUOM_Nominal())
+				+ ", QtyDeliveredInUOM_Catch=" + describe(qtyDeliveredInUOM_Catch);
+	}
+
+	private static String describe(@Nullable final BigDecimal qty)
+	{
+		return qty != null ? qty.stripTrailingZeros().toPlainString() : "null";
+	}
+}
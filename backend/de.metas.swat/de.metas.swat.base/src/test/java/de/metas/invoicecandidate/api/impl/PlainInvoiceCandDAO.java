@@ -28,20 +28,27 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import de.metas.common.util.time.SystemTime;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.wrapper.POJOLookupMap;
 import org.adempiere.ad.wrapper.POJOWrapper;
+import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.ClientId;
+import org.compiere.model.I_M_InOutLine;
+import org.compiere.util.Env;
 import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.currency.ICurrencyBL;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeTag;
 import de.metas.invoicecandidate.api.InvoiceCandidateMultiQuery;
 import de.metas.invoicecandidate.api.InvoiceCandidateQuery;
+import de.metas.invoicecandidate.model.I_C_InvoiceCandidate_InOutLine;
 import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
+import de.metas.invoicecandidate.model.I_C_Invoice_Candidate_Recompute;
 import de.metas.logging.LogManager;
 import de.metas.money.CurrencyConversionTypeId;
 import de.metas.money.CurrencyId;
@@ -105,7 +112,58 @@ public class PlainInvoiceCandDAO extends InvoiceCandDAO
 		return totalAmt;
 	}
 
+	/**
+	 * Does on the in-memory records what {@link InvoiceCandDAO} does with set-based SQL.
+	 */
+	@Override
+	public int updateNominalICIOLAssociationsForTag(final Properties ctx, final InvoiceCandRecomputeTag recomputeTag, final String trxName)
+	{
+		final PInstanceId pinstanceId = InvoiceCandRecomputeTag.getPinstanceIdOrNull(recomputeTag);
+		final Set<Integer> taggedICIds = db.getRecords(I_C_Invoice_Candidate_Recompute.class, icr -> icr.getAD_PInstance_ID() == pinstanceId.getRepoId())
+				.stream()
+				.map(I_C_Invoice_Candidate_Recompute::getC_Invoice_Candidate_ID)
+				.collect(Collectors.toSet());
+		final int clientId = Env.getAD_Client_ID(ctx);
+
+		final List<I_C_Invoice_Candidate> ics = db.getRecords(I_C_Invoice_Candidate.class, ic -> taggedICIds.contains(ic.getC_Invoice_Candidate_ID())
+				&& ic.getAD_Client_ID() == clientId
+				&& ic.isActive()
+				&& InvoiceCandInOutLinesBulkUpdater.isHandledInBulk(ic));
+
+		int count = 0;
+		for (final I_C_Invoice_Candidate ic : ics)
+		{
+			for (final I_M_InOutLine iol : db.getRecords(I_M_InOutLine.class, iol -> iol.getC_OrderLine_ID() == ic.getC_OrderLine_ID() && iol.isActive()))
+			{
+				I_C_InvoiceCandidate_InOutLine iciol = db.getFirstOnly(I_C_InvoiceCandidate_InOutLine.class, pojo -> pojo.getC_Invoice_Candidate_ID() == ic.getC_Invoice_Candidate_ID()
+						&& pojo.getM_InOutLine_ID() == iol.getM_InOutLine_ID()
+						&& pojo.isActive());
+				if (iciol == null)
+				{
+					iciol = db.newInstance(ctx, I_C_InvoiceCandidate_InOutLine.class);
+					iciol.setC_Invoice_Candidate_ID(ic.getC_Invoice_Candidate_ID());
+					iciol.setM_InOutLine_ID(iol.getM_InOutLine_ID());
+					iciol.setQtyInvoiced(BigDecimal.ZERO);
+				}
+				else if (iciol.getAD_Org_ID() == iol.getAD_Org_ID()
+						&& iciol.getQtyDelivered().compareTo(iol.getMovementQty()) == 0
+						&& iciol.getC_UOM_ID() == iol.getC_UOM_ID()
+						&& iciol.getQtyDeliveredInUOM_Nominal().compareTo(iol.getQtyEntered()) == 0)
+				{
+					continue; // already up to date
+				}
+
+				iciol.setAD_Org_ID(iol.getAD_Org_ID());
+				iciol.setQtyDelivered(iol.getMovementQty());
+				iciol.setC_UOM_ID(iol.getC_UOM_ID());
+				iciol.setQtyDeliveredInUOM_Nominal(iol.getQtyEntered());
+				InterfaceWrapperHelper.save(iciol);
+				count++;
+			}
+		}
 
+		return count;
+	}
 
 	@Override
 	public Set<String> retrieveOrderDocumentNosForIncompleteGroupsFromSelection(final PInstanceId adPInstanceId)
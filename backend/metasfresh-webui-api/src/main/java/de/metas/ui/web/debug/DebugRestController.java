@@ -27,6 +27,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import de.metas.cache.CCacheStatsOrderBy;
 import de.metas.cache.CacheMgt;
 import de.metas.event.Topic;
 import de.metas.event.Type;
@@ -287,6 +288,23 @@ public class DebugRestController
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
+	@GetMapping("/cacheStats")
+	public List<JSONCacheStats> getCacheStats(
+			@RequestParam(name = "orderBy", required = false) @ApiParam("One of SIZE, MISS_COUNT, HIT_RATE, EVICTION_COUNT, LOAD_PENALTY. Default is MISS_COUNT.") final String orderByStr,
+			@RequestParam(name = "limit", defaultValue = "50", required = false) final int limit)
+	{
+		userSession.assertLoggedIn();
+
+		final CCacheStatsOrderBy orderBy = CCacheStatsOrderBy.ofNameOrDefault(orderByStr, CCacheStatsOrderBy.MISS_COUNT);
+		return CacheMgt.get()
+				.getCacheStats()
+				.stream()
+				.sorted(orderBy.getComparator())
+				.limit(limit > 0 ? limit : Long.MAX_VALUE)
+				.map(JSONCacheStats::of)
+				.collect(GuavaCollectors.toImmutableList());
+	}
+
 	@RequestMapping(value = "/eventBus/postEvent", method = RequestMethod.GET)
 	public void postEvent(
 			@RequestParam(name = "topicName", defaultValue = "de.metas.event.GeneralNotifications") final String topicName //
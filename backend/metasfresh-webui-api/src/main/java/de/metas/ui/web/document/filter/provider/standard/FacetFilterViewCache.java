@@ -34,6 +34,7 @@ public class FacetFilterViewCache
 	@NonNull
 	String filterId;
 
+	/** The values, each having the number of view rows with that value in its <code>count</code> attribute */
 	@NonNull
 	LookupValuesList availableValues;
 }
@@ -1,8 +1,11 @@
 package de.metas.ui.web.document.filter.provider.standard;
 
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import org.adempiere.exceptions.AdempiereException;
+
 import lombok.NonNull;
 import lombok.ToString;
 
@@ -42,10 +45,48 @@ public final class FacetFilterViewCacheMap
 	{
 	}
 
+	/**
+	 * Gets the cache for given filter ID. If it's missing, the caches of all facet filters are loaded at once.
+	 *
+	 * @param allCachesSupplier supplies the caches of all facet filters of the view, including the one for given filter ID
+	 */
 	public FacetFilterViewCache computeIfAbsent(
 			@NonNull final String id,
-			@NonNull final Supplier<FacetFilterViewCache> supplier)
+			@NonNull final Supplier<Collection<FacetFilterViewCache>> allCachesSupplier)
+	{
+		final FacetFilterViewCache existingCache = cachesById.get(id);
+		if (existingCache != null)
+		{
+			return existingCache;
+		}
+
+		synchronized (this)
+		{
+			final FacetFilterViewCache existingCacheNow = cachesById.get(id);
+			if (existingCacheNow != null)
+			{
+				return existingCacheNow;
+			}
+
+			for (final FacetFilterViewCache cache : allCachesSupplier.get())
+			{
+				cachesById.putIfAbsent(cache.getFilterId(), cache);
+			}
+
+			final FacetFilterViewCache cache = cachesById.get(id);
+			if (cache == null)
+			{
+				throw new AdempiereException("No facet filter cache was loaded for " + id);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Forgets all facet values, so they will be loaded again on next request.
+	 */
+	public void reset()
 	{
-		return cachesById.computeIfAbsent(id, k -> supplier.get());
+		cachesById.clear();
 	}
 }
@@ -1,26 +1,33 @@
 package de.metas.ui.web.document.filter.provider.standard;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.compiere.util.DisplayType;
 
-import java.util.Objects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 
 import de.metas.i18n.IMsgBL;
 import de.metas.i18n.TranslatableStrings;
+import de.metas.ui.web.document.filter.DocumentFilterDescriptor;
 import de.metas.ui.web.view.DefaultView;
 import de.metas.ui.web.view.IViewDataRepository;
 import de.metas.ui.web.view.IViewsRepository;
 import de.metas.ui.web.view.ViewEvaluationCtx;
+import de.metas.ui.web.view.ViewFieldValueCount;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
 import de.metas.ui.web.window.datatypes.LookupValue.StringLookupValue;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.Values;
@@ -59,6 +66,9 @@ import lombok.NonNull;
 
 final class FacetsFilterLookupDescriptor extends SimpleLookupDescriptorTemplate
 {
+	/** Name of the lookup value attribute which tells how many rows of the view have that value */
+	static final String ATTRIBUTE_Count = "count";
+
 	private final IMsgBL msgBL = Services.get(IMsgBL.class);
 	private final IViewsRepository viewsRepository;
 
@@ -143,21 +153,74 @@ final class FacetsFilterLookupDescriptor extends SimpleLookupDescriptorTemplate
 		final DefaultView view = getView(evalCtx);
 
 		return view.getFacetFiltersCacheMap()
-				.computeIfAbsent(filterId, () -> createFacetFilterViewCache(view))
+				.computeIfAbsent(filterId, () -> createFacetFilterViewCaches(view))
 				.getAvailableValues();
 	}
 
-	private FacetFilterViewCache createFacetFilterViewCache(final DefaultView view)
+	/**
+	 * Creates the caches for all facet filters of given view, using one query.
+	 */
+	private ImmutableList<FacetFilterViewCache> createFacetFilterViewCaches(final DefaultView view)
 	{
+		final ImmutableList<FacetsFilterLookupDescriptor> facets = getAllFacetsOfView(view);
+
 		final IViewDataRepository viewDataRepository = view.getViewDataRepository();
 		final ViewEvaluationCtx viewEvalCtx = view.getViewEvaluationCtx();
 		final String selectionId = view.getDefaultSelectionBeforeFacetsFiltering().getSelectionId();
+		final ImmutableList<String> fieldNames = facets.stream()
+				.map(FacetsFilterLookupDescriptor::getFieldName)
+				.distinct()
+				.collect(ImmutableList.toImmutableList());
 
-		List<Object> rawValues = viewDataRepository.retrieveFieldValues(
+		final ImmutableListMultimap<String, ViewFieldValueCount> valueCountsByFieldName = viewDataRepository.retrieveFieldValueCounts(
 				viewEvalCtx,
 				selectionId,
-				fieldName,
-				maxFacetsToFetch);
+				fieldNames);
+
+		return facets.stream()
+				.map(facet -> facet.createFacetFilterViewCache(valueCountsByFieldName.get(facet.getFieldName())))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private ImmutableList<FacetsFilterLookupDescriptor> getAllFacetsOfView(final DefaultView view)
+	{
+		final ArrayList<FacetsFilterLookupDescriptor> facets = view.getFilterDescriptors()
+				.getAll()
+				.stream()
+				.filter(DocumentFilterDescriptor::isFacetFilter)
+				.flatMap(filter -> filter.getParameters().stream())
+				.map(param -> param.getLookupDescriptor().orElse(null))
+				.filter(FacetsFilterLookupDescriptor.class::isInstance)
+				.map(FacetsFilterLookupDescriptor.class::cast)
+				.collect(Collectors.toCollection(ArrayList::new));
+
+		if (facets.stream().noneMatch(facet -> filterId.equals(facet.getFilterId())))
+		{
+			facets.add(this);
+		}
+
+		return ImmutableList.copyOf(facets);
+	}
+
+	/**
+	 * @param valueCounts value counts of this facet's field, ordered by count descending
+	 */
+	private FacetFilterViewCache createFacetFilterViewCache(final List<ViewFieldValueCount> valueCounts)
+	{
+		// keep the most frequent values
+		final List<ViewFieldValueCount> valueCountsToUse = valueCounts.size() > maxFacetsToFetch
+				? valueCounts.subList(0, maxFacetsToFetch)
+				: valueCounts;
+
+		final HashMap<Object, Integer> countsByRawValue = new HashMap<>();
+		for (final ViewFieldValueCount valueCount : valueCountsToUse)
+		{
+			countsByRawValue.merge(valueCount.getValue(), valueCount.getCount(), Integer::sum);
+		}
+
+		List<Object> rawValues = valueCountsToUse.stream()
+				.map(ViewFieldValueCount::getValue)
+				.collect(ImmutableList.toImmutableList());
 
 		boolean valuesAreOrdered = false;
 		if (fieldWidgetType.isDateOrTime()
@@ -171,19 +234,62 @@ final class FacetsFilterLookupDescriptor extends SimpleLookupDescriptorTemplate
 			valuesAreOrdered = true;
 		}
 
-		final LookupValuesList lookupValues = rawValues.stream()
-				.map(this::convertRawFieldValueToLookupValue)
-				.filter(Objects::nonNull)
-				.distinct()
-				.collect(LookupValuesList.collect())
-				.ordered(valuesAreOrdered);
+		final LinkedHashMap<Object, LookupValue> lookupValuesById = new LinkedHashMap<>();
+		final HashMap<Object, Integer> countsByValueId = new HashMap<>();
+		for (final Object rawValue : rawValues)
+		{
+			final LookupValue lookupValue = convertRawFieldValueToLookupValue(rawValue);
+			if (lookupValue == null)
+			{
+				continue;
+			}
+
+			lookupValuesById.putIfAbsent(lookupValue.getId(), lookupValue);
+
+			// NOTE: more raw values might be converted to the same lookup value
+			countsByValueId.merge(lookupValue.getId(), countsByRawValue.getOrDefault(rawValue, 0), Integer::sum);
+		}
 
 		return FacetFilterViewCache.builder()
 				.filterId(filterId)
-				.availableValues(lookupValues)
+				.availableValues(lookupValuesById.values()
+						.stream()
+						.map(lookupValue -> withCount(lookupValue, countsByValueId.get(lookupValue.getId())))
+						.collect(LookupValuesList.collect())
+						.ordered(valuesAreOrdered))
 				.build();
 	}
 
+	/**
+	 * @return given lookup value, having the number of view rows with that value in its {@link #ATTRIBUTE_Count} attribute
+	 */
+	private static LookupValue withCount(@NonNull final LookupValue lookupValue, final int count)
+	{
+		if (lookupValue instanceof IntegerLookupValue)
+		{
+			return IntegerLookupValue.builder()
+					.id(lookupValue.getIdAsInt())
+					.displayName(lookupValue.getDisplayNameTrl())
+					.description(lookupValue.getDescriptionTrl())
+					.attributes(lookupValue.getAttributes())
+					.attribute(ATTRIBUTE_Count, count)
+					.active(lookupValue.isActive())
+					.build();
+		}
+		else
+		{
+			return StringLookupValue.builder()
+					.id(lookupValue.getIdAsString())
+					.displayName(lookupValue.getDisplayNameTrl())
+					.description(lookupValue.getDescriptionTrl())
+					.attributes(lookupValue.getAttributes())
+					.attribute(ATTRIBUTE_Count, count)
+					.active(lookupValue.isActive())
+					.validationInformation(lookupValue.getValidationInformation())
+					.build();
+		}
+	}
+
 	private DefaultView getView(@NonNull final LookupDataSourceContext evalCtx)
 	{
 		final ViewId viewId = evalCtx.getViewId();
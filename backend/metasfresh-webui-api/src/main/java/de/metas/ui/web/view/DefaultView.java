@@ -25,8 +25,6 @@ import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
-import de.metas.cache.CCache;
-import de.metas.cache.CCache.CacheMapType;
 import de.metas.common.util.CoalesceUtil;
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.TranslatableStrings;
@@ -150,7 +148,7 @@ public final class DefaultView implements IEditableView
 
 	//
 	// Caching
-	private final transient CCache<DocumentId, IViewRow> cache_rowsById;
+	private final transient ViewRowsSharedCache rowsCache = ViewRowsSharedCache.instance;
 
 	private final IViewInvalidationAdvisor viewInvalidationAdvisor;
 
@@ -195,16 +193,6 @@ public final class DefaultView implements IEditableView
 					.build();
 		}
 
-		//
-		// Cache
-		cache_rowsById = CCache.<DocumentId, IViewRow>builder()
-				.cacheMapType(CacheMapType.LRU)
-				.cacheName("ViewRows#" + viewId)
-				.additionalTableNameToResetFor(viewDataRepository.getTableName())
-				.initialCapacity(100) // i.e. max size
-				.expireMinutes(2)
-				.build();
-
 		logger.debug("View created: {}", this);
 	}
 
@@ -308,14 +296,14 @@ public final class DefaultView implements IEditableView
 	@Override
 	public void invalidateAll()
 	{
-		cache_rowsById.reset();
+		rowsCache.invalidateAll(viewDataRepository.getTableName());
 		headerPropertiesHolder.setValue(null);
 	}
 
 	@Override
 	public void invalidateRowById(final DocumentId rowId)
 	{
-		cache_rowsById.remove(rowId);
+		rowsCache.invalidateRowIds(viewDataRepository.getTableName(), ImmutableList.of(rowId));
 		headerPropertiesHolder.setValue(null);
 	}
 
@@ -354,7 +342,7 @@ public final class DefaultView implements IEditableView
 		final List<IViewRow> rows = viewDataRepository.retrievePage(evalCtx, orderedSelection, firstRow, pageLength);
 
 		// Add to cache
-		rows.forEach(row -> cache_rowsById.put(row.getId(), row));
+		rowsCache.putAll(viewDataRepository, getViewId(), evalCtx, rows);
 
 		return ViewResult.builder()
 				.view(this)
@@ -445,12 +433,12 @@ public final class DefaultView implements IEditableView
 	{
 		checkChangedRows();
 
-		return cache_rowsById.getOrLoad(rowId, () -> retrieveRowById(rowId));
+		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
+		return rowsCache.getOrLoad(viewDataRepository, getViewId(), evalCtx, rowId, () -> retrieveRowById(evalCtx, rowId));
 	}
 
-	private IViewRow retrieveRowById(final DocumentId rowId)
+	private IViewRow retrieveRowById(final ViewEvaluationCtx evalCtx, final DocumentId rowId)
 	{
-		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
 		return viewDataRepository.retrieveById(evalCtx, getViewId(), rowId);
 	}
 
@@ -562,8 +550,8 @@ public final class DefaultView implements IEditableView
 			changedRowIdsToCheck.addChangedRows(rowIds);
 		}
 
-		// Invalidate local rowsById cache
-		cache_rowsById.removeAll(rowIds);
+		// Invalidate the cached rows
+		rowsCache.invalidateRowIds(viewDataRepository.getTableName(), rowIds);
 
 		checkCollectHeaderPropertiesChanged(rowIds, watchedByFrontend);
 
@@ -625,7 +613,12 @@ public final class DefaultView implements IEditableView
 
 	private void checkChangedRows()
 	{
-		changedRowIdsToCheck.process(selectionsRef::updateChangedRows);
+		changedRowIdsToCheck.process(changedRowIds -> {
+			selectionsRef.updateChangedRows(changedRowIds);
+
+			// facet values and counts might have changed too; they will be loaded again, all together, on next request
+			facetFiltersCacheMap.reset();
+		});
 	}
 
 	@Override
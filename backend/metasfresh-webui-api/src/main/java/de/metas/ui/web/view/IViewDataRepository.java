@@ -6,6 +6,8 @@ import java.util.Set;
 
 import org.adempiere.exceptions.DBException;
 
+import com.google.common.collect.ImmutableListMultimap;
+
 import de.metas.ui.web.document.filter.DocumentFilterList;
 import de.metas.ui.web.document.filter.provider.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
@@ -78,5 +80,15 @@ public interface IViewDataRepository
 
 	ViewRowIdsOrderedSelection removeRowIdsNotMatchingFilters(ViewRowIdsOrderedSelection selection, DocumentFilterList filters, Set<DocumentId> rowIds);
 
-	List<Object> retrieveFieldValues(ViewEvaluationCtx viewEvalCtx, String selectionId, String fieldName, int limit);
+	/**
+	 * Updates given selection for the given changed rows: removes the rows which are no longer matching the filters and appends the rows which are now matching them.
+	 */
+	ViewRowIdsOrderedSelection updateSelectionForChangedRowIds(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection selection, DocumentFilterList filters, boolean applySecurityRestrictions, Set<DocumentId> changedRowIds);
+
+	/**
+	 * Counts, using a single query, the rows of given selection for each distinct (not null) value of each of given fields.
+	 *
+	 * @return value counts indexed by field name, ordered by count descending
+	 */
+	ImmutableListMultimap<String, ViewFieldValueCount> retrieveFieldValueCounts(ViewEvaluationCtx viewEvalCtx, String selectionId, List<String> fieldNames);
 }
@@ -10,6 +10,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.AdempiereException;
@@ -19,8 +21,10 @@ import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
@@ -41,6 +45,7 @@ import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
 import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding.SqlViewRowFieldLoader;
 import de.metas.ui.web.view.descriptor.SqlViewRowsWhereClause;
 import de.metas.ui.web.view.descriptor.SqlViewSelectData;
+import de.metas.ui.web.view.descriptor.SqlViewSelectionQueryBuilder;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.LookupValue;
@@ -81,6 +86,7 @@ class SqlViewDataRepository implements IViewDataRepository
 {
 	private static final Logger logger = LogManager.getLogger(SqlViewDataRepository.class);
 
+	private final SqlViewBinding viewBinding;
 	private final String tableName;
 	private final String tableAlias;
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
@@ -98,6 +104,7 @@ class SqlViewDataRepository implements IViewDataRepository
 
 	SqlViewDataRepository(@NonNull final SqlViewBinding sqlBindings)
 	{
+		viewBinding = sqlBindings;
 		tableName = sqlBindings.getTableName();
 		tableAlias = sqlBindings.getTableAlias();
 		keyColumnNamesMap = sqlBindings.getSqlViewKeyColumnNamesMap();
@@ -131,6 +138,22 @@ class SqlViewDataRepository implements IViewDataRepository
 		return tableName;
 	}
 
+	/**
+	 * @return the binding this repository was created for; repositories of the same binding are loading the same rows
+	 */
+	SqlViewBinding getViewBinding()
+	{
+		return viewBinding;
+	}
+
+	/**
+	 * @return true if the row IDs are the record IDs of {@link #getTableName()}
+	 */
+	boolean isRowIdSameAsRecordId()
+	{
+		return keyColumnNamesMap.isSingleKey() && !hasIncludedRows;
+	}
+
 	private String getTableAlias()
 	{
 		return tableAlias;
@@ -519,6 +542,14 @@ class SqlViewDataRepository implements IViewDataRepository
 		logger.debug("Getting page: firstRow={}, pageLength={} - {}", firstRow, pageLength, this);
 		logger.debug("Using: {}", orderedSelection);
 
+		//
+		// Keyset lookup in the in-memory index, if the selection can be indexed
+		final ViewRowIdsOrderedIndex orderedIndex = viewRowIdsOrderedSelectionFactory.getOrderedIndex(orderedSelection).orElse(null);
+		if (orderedIndex != null)
+		{
+			return retainRowIdsWithExistingRecords(orderedIndex.getRowIdsByPage(firstRow, pageLength));
+		}
+
 		final ViewId viewId = orderedSelection.getViewId();
 		final SqlAndParams sqlAndParams = sqlViewSelect.selectRowIdsByPage()
 				.viewEvalCtx(viewEvalCtx)
@@ -562,6 +593,32 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	/**
+	 * Like the SQL path, skips the rows whose records were deleted meanwhile.
+	 */
+	private List<DocumentId> retainRowIdsWithExistingRecords(final List<DocumentId> rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return rowIds;
+		}
+
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(viewBinding)
+				.buildSqlRetrieveExistingRowIds(DocumentIdsSelection.of(rowIds));
+		final Set<Integer> existingRecordIds = ImmutableSet.copyOf(DB.retrieveRows(
+				sqlAndParams.getSql(),
+				sqlAndParams.getSqlParams(),
+				rs -> rs.getInt(1)));
+		if (existingRecordIds.size() == rowIds.size())
+		{
+			return rowIds;
+		}
+
+		return rowIds.stream()
+				.filter(rowId -> existingRecordIds.contains(rowId.toInt()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	private List<IViewRow> retrieveRowLines(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
 	{
 		logger.debug("Getting row lines: rowId={} - {}", rowIds, this);
@@ -643,6 +700,36 @@ class SqlViewDataRepository implements IViewDataRepository
 		return viewRowIdsOrderedSelectionFactory.removeRowIdsFromSelection(selection, DocumentIdsSelection.of(notMatchingRowIds));
 	}
 
+	@Override
+	public ViewRowIdsOrderedSelection updateSelectionForChangedRowIds(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewRowIdsOrderedSelection selection,
+			@NonNull final DocumentFilterList filters,
+			final boolean applySecurityRestrictions,
+			@NonNull final Set<DocumentId> changedRowIds)
+	{
+		if (changedRowIds.isEmpty())
+		{
+			return selection;
+		}
+
+		final ViewRowIdsOrderedSelection selectionAfterRemove = removeRowIdsNotMatchingFilters(selection, filters, changedRowIds);
+
+		// If the selection was truncated by the query limit, we cannot tell if the new rows would have been part of it
+		if (selection.isQueryLimitHit())
+		{
+			return selectionAfterRemove;
+		}
+
+		return viewRowIdsOrderedSelectionFactory.addRowIdsMatchingFiltersToSelection(
+				viewEvalCtx,
+				selectionAfterRemove,
+				filters,
+				applySecurityRestrictions,
+				DocumentIdsSelection.of(changedRowIds),
+				SqlDocumentFilterConverterContext.EMPTY);
+	}
+
 	public Set<DocumentId> retrieveRowIdsMatchingFilters(
 			@NonNull final ViewId viewId,
 			@NonNull final DocumentFilterList filters,
@@ -653,22 +740,12 @@ class SqlViewDataRepository implements IViewDataRepository
 			return ImmutableSet.of();
 		}
 
-		final SqlViewRowsWhereClause sqlWhereClause = getSqlWhereClause(
-				viewId,
-				filters,
-				DocumentIdsSelection.of(rowIds),
-				SqlOptions.usingTableName(getTableName()));
-		if (sqlWhereClause.isNoRecords())
+		final SqlAndParams sql = buildSqlRetrieveRowIdsMatchingFilters(viewId, filters, rowIds);
+		if (sql == null)
 		{
 			return ImmutableSet.of();
 		}
 
-		final SqlAndParams sql = SqlAndParams.builder()
-				.append("SELECT ").append(keyColumnNamesMap.getKeyColumnNamesCommaSeparated())
-				.append("\n FROM " + getTableName())
-				.append("\n WHERE ").append(sqlWhereClause.toSqlAndParams())
-				.build();
-
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
 		try
@@ -699,20 +776,85 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	/**
+	 * @return SQL which is selecting those of the given rowIds which are in the view's selection and are matching the filters, or null if there are no such rows
+	 */
+	@VisibleForTesting
+	@Nullable
+	SqlAndParams buildSqlRetrieveRowIdsMatchingFilters(
+			@NonNull final ViewId viewId,
+			@NonNull final DocumentFilterList filters,
+			@NonNull final Set<DocumentId> rowIds)
+	{
+		final SqlViewRowsWhereClause sqlWhereClause = getSqlWhereClause(
+				viewId,
+				filters,
+				DocumentIdsSelection.of(rowIds),
+				SqlOptions.usingTableName(getTableName()));
+		if (sqlWhereClause.isNoRecords())
+		{
+			return null;
+		}
+
+		return SqlAndParams.builder()
+				.append("SELECT ").append(keyColumnNamesMap.getKeyColumnNamesCommaSeparated())
+				.append("\n FROM " + getTableName())
+				.append("\n WHERE ").append(sqlWhereClause.toSqlAndParams())
+				.build();
+	}
+
 	@Override
-	public List<Object> retrieveFieldValues(
+	public ImmutableListMultimap<String, ViewFieldValueCount> retrieveFieldValueCounts(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
 			@NonNull final String selectionId,
-			@NonNull final String fieldName,
-			final int limit)
+			@NonNull final List<String> fieldNames)
 	{
-		final SqlViewRowFieldLoader fieldLoader = rowFieldLoaders.get(fieldName);
-		final SqlAndParams sql = sqlViewSelect.selectFieldValues(viewEvalCtx, selectionId, fieldName, limit);
+		if (fieldNames.isEmpty())
+		{
+			return ImmutableListMultimap.of();
+		}
 
+		final SqlAndParams sql = sqlViewSelect.selectFieldValueCounts(viewEvalCtx, selectionId, fieldNames);
 		final String adLanguage = viewEvalCtx.getAdLanguage();
-		return DB.retrieveRows(
-				sql.getSql(),
-				sql.getSqlParams(),
-				rs -> fieldLoader.retrieveValue(rs, adLanguage));
+
+		final ImmutableListMultimap.Builder<String, ViewFieldValueCount> result = ImmutableListMultimap.builder();
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sql.getSqlParams());
+			rs = pstmt.executeQuery();
+			while (rs.next())
+			{
+				final int count = rs.getInt(SqlViewSelectData.COLUMNNAME_FieldValueCount_Count);
+				for (int fieldIndex = 0; fieldIndex < fieldNames.size(); fieldIndex++)
+				{
+					// GROUPING(...) is 0 for the field which is counted by current row
+					if (rs.getInt(SqlViewSelectData.getFieldValueCountGroupingColumnName(fieldIndex)) != 0)
+					{
+						continue;
+					}
+
+					final String fieldName = fieldNames.get(fieldIndex);
+					final Object value = rowFieldLoaders.get(fieldName).retrieveValue(rs, adLanguage);
+					if (!JSONNullValue.isNull(value))
+					{
+						result.put(fieldName, ViewFieldValueCount.of(value, count));
+					}
+					break;
+				}
+			}
+
+			return result.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql.getSql(), sql.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
 	}
 }
@@ -3,6 +3,8 @@ package de.metas.ui.web.view;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.Set;
 
 import org.adempiere.ad.trx.api.ITrx;
@@ -64,6 +66,19 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 	}
 
 	private static final Logger logger = LogManager.getLogger(SqlViewRowIdsOrderedSelectionFactory.class);
+
+	/** Selections bigger than this are not indexed in memory. */
+	private static final int ORDERED_INDEX_MAX_SIZE = 100_000;
+
+	/**
+	 * In-memory ordered indexes, shared by all factories because selection IDs are unique.
+	 * Any change of a selection's rows goes through this factory, which evicts the index of that selection.
+	 * <p>
+	 * Bounded to 2M rows in total, i.e. roughly 24MB, because each indexed row takes three ints.
+	 */
+	private static final ViewRowIdsOrderedIndexCache orderedIndexesBySelectionId = new ViewRowIdsOrderedIndexCache(
+			2_000_000, // maxTotalRows
+			30); // expireMinutes
 	private final IUserRolePermissionsDAO userRolePermissionsRepo = Services.get(IUserRolePermissionsDAO.class);
 
 	private final SqlViewBinding viewBinding;
@@ -226,6 +241,7 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			// nothing changed
 			return selection;
 		}
+		invalidateOrderedIndex(selectionId);
 
 		//
 		// Retrieve current size
@@ -254,6 +270,7 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 				// nothing changed
 				return selection;
 			}
+			invalidateOrderedIndex(selection.getSelectionId());
 		}
 
 		//
@@ -264,6 +281,53 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 		return selection.withSize(size);
 	}
 
+	@Override
+	public ViewRowIdsOrderedSelection addRowIdsMatchingFiltersToSelection(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewRowIdsOrderedSelection selection,
+			@NonNull final DocumentFilterList filters,
+			final boolean applySecurityRestrictions,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final SqlDocumentFilterConverterContext filterConverterCtx)
+	{
+		if (rowIds.isEmpty())
+		{
+			// nothing changed
+			return selection;
+		}
+		else if (rowIds.isAll())
+		{
+			throw new IllegalArgumentException("Cannot add ALL to selection");
+		}
+
+		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder()
+				.applySecurityRestrictions(applySecurityRestrictions);
+		if (viewQueryBuilder.hasGroupingFields())
+		{
+			// adding rows is not supported when using grouping fields, because the rows are aggregated from T_WEBUI_ViewSelectionLine
+			return selection;
+		}
+
+		final SqlAndParams sqlAdd = viewQueryBuilder.buildSqlAddRowIdsMatchingFilters(
+				viewEvalCtx,
+				selection.getSelectionId(),
+				selection.getOrderBys(),
+				filters,
+				rowIds,
+				filterConverterCtx);
+		final int added = DB.executeUpdateEx(sqlAdd.getSql(), sqlAdd.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
+		if (added <= 0)
+		{
+			// nothing changed
+			return selection;
+		}
+
+		invalidateOrderedIndex(selection.getSelectionId());
+		logger.trace("Added {} rows to selection {}", added, selection);
+		final int size = retrieveSize(selection.getSelectionId());
+		return selection.withSize(size);
+	}
+
 	private final int retrieveSize(final String selectionId)
 	{
 		final SqlAndParams sqlCount = newSqlViewSelectionQueryBuilder().buildSqlRetrieveSize(selectionId);
@@ -279,6 +343,12 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			return false;
 		}
 
+		final ViewRowIdsOrderedIndex orderedIndex = orderedIndexesBySelectionId.getIfPresent(selection.getSelectionId());
+		if (orderedIndex != null && !rowIds.isAll())
+		{
+			return orderedIndex.containsAnyOf(rowIds.toSet());
+		}
+
 		final SqlAndParams sqlCount = newSqlViewSelectionQueryBuilder().buildSqlCount(selection.getSelectionId(), rowIds);
 		final int count = DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sqlCount.getSql(), sqlCount.getSqlParamsArray());
 		return count > 0;
@@ -292,6 +362,8 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			return;
 		}
 
+		orderedIndexesBySelectionId.invalidateAll(selectionIds);
+
 		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder();
 
 		// Delete selection lines
@@ -312,9 +384,81 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 	@Override
 	public void scheduleDeleteSelections(@NonNull final Set<String> selectionIds)
 	{
+		orderedIndexesBySelectionId.invalidateAll(selectionIds);
 		SqlViewSelectionToDeleteHelper.scheduleDeleteSelections(selectionIds);
 	}
 
+	@Override
+	public Optional<ViewRowIdsOrderedIndex> getOrderedIndex(@NonNull final ViewRowIdsOrderedSelection selection)
+	{
+		if (selection.getSize() > ORDERED_INDEX_MAX_SIZE)
+		{
+			return Optional.empty();
+		}
+
+		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder();
+		if (!viewQueryBuilder.isSingleIntKeySelection())
+		{
+			return Optional.empty();
+		}
+
+		final String selectionId = selection.getSelectionId();
+		return Optional.of(orderedIndexesBySelectionId.getOrLoad(selectionId, () -> retrieveOrderedIndex(viewQueryBuilder, selectionId, (int)selection.getSize())));
+	}
+
+	private static ViewRowIdsOrderedIndex retrieveOrderedIndex(
+			@NonNull final SqlViewSelectionQueryBuilder viewQueryBuilder,
+			@NonNull final String selectionId,
+			final int expectedSize)
+	{
+		final SqlAndParams sqlAndParams = viewQueryBuilder.buildSqlRetrieveLinesAndIntKeys(selectionId);
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+
+			int[] lines = new int[Math.max(expectedSize, 16)];
+			int[] rowIds = new int[lines.length];
+			int size = 0;
+			while (rs.next())
+			{
+				if (size >= lines.length)
+				{
+					lines = Arrays.copyOf(lines, lines.length * 2);
+					rowIds = Arrays.copyOf(rowIds, rowIds.length * 2);
+				}
+
+				lines[size] = rs.getInt(1);
+				rowIds[size] = rs.getInt(2);
+				size++;
+			}
+
+			final ViewRowIdsOrderedIndex orderedIndex = ViewRowIdsOrderedIndex.ofOrderedArrays(
+					Arrays.copyOf(lines, size),
+					Arrays.copyOf(rowIds, size));
+			logger.trace("Loaded ordered index for selection {}: {} in {}", selectionId, orderedIndex, stopwatch);
+			return orderedIndex;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private static void invalidateOrderedIndex(@NonNull final String selectionId)
+	{
+		orderedIndexesBySelectionId.invalidate(selectionId);
+	}
+
 	public static Set<DocumentId> retrieveRowIdsForLineIds(
 			@NonNull SqlViewKeyColumnNamesMap keyColumnNamesMap,
 			final ViewId viewId,
@@ -0,0 +1,114 @@
+package de.metas.ui.web.view;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.util.Check;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory copy of the (Line, IntKey) pairs of a {@link ViewRowIdsOrderedSelection}, ordered by Line.
+ * <p>
+ * Pages are looked up the same way the SQL does it (i.e. {@code Line BETWEEN firstRow+1 AND firstRow+pageLength}),
+ * but using a binary search on the lines instead of a database roundtrip.
+ * Lines may have gaps, e.g. after rows were removed from the selection.
+ */
+public final class ViewRowIdsOrderedIndex
+{
+	public static ViewRowIdsOrderedIndex ofOrderedArrays(@NonNull final int[] lines, @NonNull final int[] rowIds)
+	{
+		return new ViewRowIdsOrderedIndex(lines, rowIds);
+	}
+
+	private final int[] lines;
+	private final int[] rowIds;
+	private final int[] rowIdsSorted;
+
+	private ViewRowIdsOrderedIndex(@NonNull final int[] lines, @NonNull final int[] rowIds)
+	{
+		Check.assumeEquals(lines.length, rowIds.length, "lines and rowIds shall have the same length");
+		this.lines = lines;
+		this.rowIds = rowIds;
+
+		this.rowIdsSorted = rowIds.clone();
+		Arrays.sort(this.rowIdsSorted);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[size=" + size() + "]";
+	}
+
+	public int size()
+	{
+		return rowIds.length;
+	}
+
+	public List<DocumentId> getRowIdsByPage(final int firstRowZeroBased, final int pageLength)
+	{
+		if (pageLength <= 0 || rowIds.length == 0)
+		{
+			return ImmutableList.of();
+		}
+
+		final long firstLine = (long)firstRowZeroBased + 1;
+		final long lastLine = firstLine + pageLength - 1;
+
+		int index = Arrays.binarySearch(lines, (int)Math.min(firstLine, Integer.MAX_VALUE));
+		if (index < 0)
+		{
+			index = -index - 1; // insertion point
+		}
+
+		final ImmutableList.Builder<DocumentId> page = ImmutableList.builder();
+		for (; index < lines.length && lines[index] <= lastLine; index++)
+		{
+			page.add(DocumentId.of(rowIds[index]));
+		}
+		return page.build();
+	}
+
+	public boolean containsAnyOf(@NonNull final Iterable<DocumentId> rowIdsToCheck)
+	{
+		for (final DocumentId rowId : rowIdsToCheck)
+		{
+			if (!rowId.isInt())
+			{
+				continue;
+			}
+
+			if (Arrays.binarySearch(rowIdsSorted, rowId.toInt()) >= 0)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
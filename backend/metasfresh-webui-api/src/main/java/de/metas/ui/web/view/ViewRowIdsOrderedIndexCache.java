@@ -0,0 +1,102 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.util.Check;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * {@link ViewRowIdsOrderedIndex}es by selection ID.
+ * <p>
+ * The cache is bounded by the total number of indexed rows (and not by the number of indexes),
+ * so that its memory footprint does not depend on how big the cached selections are.
+ */
+@ToString(of = "maxTotalRows")
+final class ViewRowIdsOrderedIndexCache
+{
+	private final int maxTotalRows;
+	private final Cache<String, ViewRowIdsOrderedIndex> indexesBySelectionId;
+
+	public ViewRowIdsOrderedIndexCache(final int maxTotalRows, final int expireMinutes)
+	{
+		Check.assumeGreaterThanZero(maxTotalRows, "maxTotalRows");
+		this.maxTotalRows = maxTotalRows;
+
+		indexesBySelectionId = CacheBuilder.newBuilder()
+				.concurrencyLevel(1) // one segment, so that one index may use the whole capacity
+				.maximumWeight(maxTotalRows)
+				.weigher((String selectionId, ViewRowIdsOrderedIndex index) -> index.size())
+				.expireAfterAccess(expireMinutes, TimeUnit.MINUTES)
+				.build();
+	}
+
+	public ViewRowIdsOrderedIndex getOrLoad(@NonNull final String selectionId, @NonNull final Supplier<ViewRowIdsOrderedIndex> loader)
+	{
+		try
+		{
+			return indexesBySelectionId.get(selectionId, loader::get);
+		}
+		catch (final ExecutionException e)
+		{
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+	}
+
+	@Nullable
+	public ViewRowIdsOrderedIndex getIfPresent(@NonNull final String selectionId)
+	{
+		return indexesBySelectionId.getIfPresent(selectionId);
+	}
+
+	public void invalidate(@NonNull final String selectionId)
+	{
+		indexesBySelectionId.invalidate(selectionId);
+	}
+
+	public void invalidateAll(@NonNull final Collection<String> selectionIds)
+	{
+		indexesBySelectionId.invalidateAll(selectionIds);
+	}
+
+	public long getTotalRows()
+	{
+		return indexesBySelectionId.asMap()
+				.values()
+				.stream()
+				.mapToLong(ViewRowIdsOrderedIndex::size)
+				.sum();
+	}
+}
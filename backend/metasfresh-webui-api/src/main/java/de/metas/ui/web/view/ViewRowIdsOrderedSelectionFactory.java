@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.util.Optional;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
@@ -58,8 +59,25 @@ public interface ViewRowIdsOrderedSelectionFactory
 
 	ViewRowIdsOrderedSelection removeRowIdsFromSelection(ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds);
 
+	/**
+	 * Adds to given selection those of the given rowIds which are matching the filters and are not already part of it.
+	 * The rows are appended after the existing rows of the selection.
+	 */
+	ViewRowIdsOrderedSelection addRowIdsMatchingFiltersToSelection(
+			ViewEvaluationCtx viewEvalCtx,
+			ViewRowIdsOrderedSelection selection,
+			DocumentFilterList filters,
+			boolean applySecurityRestrictions,
+			DocumentIdsSelection rowIds,
+			SqlDocumentFilterConverterContext filterConverterCtx);
+
 	boolean containsAnyOfRowIds(ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds);
 
+	/**
+	 * @return in-memory index of the selection's row IDs ordered by line, or empty if the selection cannot be indexed (e.g. composed keys, grouping or too big)
+	 */
+	Optional<ViewRowIdsOrderedIndex> getOrderedIndex(ViewRowIdsOrderedSelection selection);
+
 	default void deleteSelection(@NonNull final String selectionId)
 	{
 		deleteSelections(ImmutableSet.of(selectionId));
@@ -1,5 +1,8 @@
 package de.metas.ui.web.view;
 
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
 import org.adempiere.exceptions.AdempiereException;
 
 import com.google.common.collect.ImmutableMap;
@@ -63,19 +66,32 @@ final class ViewRowIdsOrderedSelections
 		this.selectionsByOrderBys = selectionsByOrderBys;
 	}
 
-	public ViewRowIdsOrderedSelections withDefaultSelection(
-			@NonNull final ViewRowIdsOrderedSelection defaultSelectionBeforeFacetsFiltering,
-			@NonNull final ViewRowIdsOrderedSelection defaultSelection)
+	/**
+	 * Updates all selections in place, keeping the ordered selections.
+	 *
+	 * @param defaultSelectionBeforeFacetsFilteringUpdater used to update the default selection before facets filtering
+	 * @param selectionUpdater used to update the default selection (if facet filtered) and the ordered selections
+	 */
+	public ViewRowIdsOrderedSelections withSelectionsUpdated(
+			@NonNull final UnaryOperator<ViewRowIdsOrderedSelection> defaultSelectionBeforeFacetsFilteringUpdater,
+			@NonNull final UnaryOperator<ViewRowIdsOrderedSelection> selectionUpdater)
 	{
-		if (ViewRowIdsOrderedSelection.equals(this.defaultSelectionBeforeFacetsFiltering, defaultSelectionBeforeFacetsFiltering)
-				&& ViewRowIdsOrderedSelection.equals(this.defaultSelection, defaultSelection))
+		final ViewRowIdsOrderedSelection defaultSelectionBeforeFacetsFilteringNew = defaultSelectionBeforeFacetsFilteringUpdater.apply(defaultSelectionBeforeFacetsFiltering);
+
+		final ViewRowIdsOrderedSelection defaultSelectionNew;
+		if (Objects.equals(defaultSelection.getSelectionId(), defaultSelectionBeforeFacetsFiltering.getSelectionId()))
 		{
-			return this;
+			defaultSelectionNew = defaultSelectionBeforeFacetsFilteringNew;
 		}
 		else
 		{
-			return ofDefaultSelection(defaultSelectionBeforeFacetsFiltering, defaultSelection);
+			defaultSelectionNew = selectionUpdater.apply(defaultSelection);
 		}
+
+		final ImmutableMap.Builder<DocumentQueryOrderByList, ViewRowIdsOrderedSelection> selectionsByOrderBysNew = ImmutableMap.builder();
+		selectionsByOrderBys.forEach((orderBys, selection) -> selectionsByOrderBysNew.put(orderBys, selectionUpdater.apply(selection)));
+
+		return new ViewRowIdsOrderedSelections(defaultSelectionBeforeFacetsFilteringNew, defaultSelectionNew, selectionsByOrderBysNew.build());
 	}
 
 	@FunctionalInterface
@@ -198,32 +198,34 @@ final class ViewRowIdsOrderedSelectionsHolder
 			return;
 		}
 
-		computeCurrentSelectionsIfPresent(selections -> removeRowIdsNotMatchingFilters(selections, changedRowIds));
+		computeCurrentSelectionsIfPresent(selections -> updateSelectionsForChangedRowIds(selections, changedRowIds));
 	}
 
-	private ViewRowIdsOrderedSelections removeRowIdsNotMatchingFilters(
+	/**
+	 * Updates the current selections in place: changed rows which are no longer matching the filters are removed
+	 * and changed rows which are now matching the filters are appended.
+	 * The ordered selections are kept, so they don't have to be created again from the default selection.
+	 */
+	private ViewRowIdsOrderedSelections updateSelectionsForChangedRowIds(
 			@NonNull final ViewRowIdsOrderedSelections selections,
-			@NonNull final Set<DocumentId> rowIds)
+			@NonNull final Set<DocumentId> changedRowIds)
 	{
-		final ViewRowIdsOrderedSelection defaultSelectionBeforeFacetsFiltering = viewDataRepository.removeRowIdsNotMatchingFilters(
-				selections.getDefaultSelectionBeforeFacetsFiltering(),
-				filtersExcludingFacets,
-				rowIds);
-
-		final ViewRowIdsOrderedSelection defaultSelection;
-		if (!facetFilters.isEmpty())
-		{
-			defaultSelection = viewDataRepository.removeRowIdsNotMatchingFilters(
-					selections.getDefaultSelection(),
-					facetFilters,
-					rowIds);
-		}
-		else
-		{
-			defaultSelection = defaultSelectionBeforeFacetsFiltering;
-		}
-
-		return selections.withDefaultSelection(defaultSelectionBeforeFacetsFiltering, defaultSelection);
+		final ViewEvaluationCtx viewEvalCtx = getViewEvaluationCtx();
+		final DocumentFilterList allFilters = filtersExcludingFacets.mergeWith(facetFilters);
+
+		return selections.withSelectionsUpdated(
+				defaultSelectionBeforeFacetsFiltering -> viewDataRepository.updateSelectionForChangedRowIds(
+						viewEvalCtx,
+						defaultSelectionBeforeFacetsFiltering,
+						filtersExcludingFacets,
+						applySecurityRestrictions,
+						changedRowIds),
+				selection -> viewDataRepository.updateSelectionForChangedRowIds(
+						viewEvalCtx,
+						selection,
+						allFilters,
+						applySecurityRestrictions,
+						changedRowIds));
 	}
 
 	public ViewRowIdsOrderedSelection getOrderedSelection(final DocumentQueryOrderByList orderBys)
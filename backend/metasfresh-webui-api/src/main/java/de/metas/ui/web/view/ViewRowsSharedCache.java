@@ -0,0 +1,197 @@
+package de.metas.ui.web.view;
+
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.security.UserRolePermissionsKey;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.user.UserId;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Rows cache which is shared by all {@link DefaultView}s.
+ * <p>
+ * Rows are cached per table and row ID. For each row ID we keep the row as loaded by each view binding and evaluation context,
+ * so views which are showing the same records in the same context are sharing the same row instances.
+ * Rows whose IDs are not record IDs (e.g. grouped rows) depend on the view's selection, so they are shared only within the same view.
+ * The number of cached row IDs is bounded per table, no matter how many views are open.
+ * <p>
+ * If the row IDs are the record IDs of the view's table, a record change invalidates only that row ID. Else the whole table cache is invalidated.
+ */
+final class ViewRowsSharedCache
+{
+	public static final ViewRowsSharedCache instance = new ViewRowsSharedCache();
+
+	private static final int MAX_ROW_IDS_PER_TABLE = 1000;
+	private static final int EXPIRE_MINUTES = 2;
+
+	private final ConcurrentHashMap<TableKey, CCache<DocumentId, ConcurrentHashMap<RowScope, IViewRow>>> cachesByTableKey = new ConcurrentHashMap<>();
+
+	private ViewRowsSharedCache()
+	{
+	}
+
+	public IViewRow getOrLoad(
+			@NonNull final SqlViewDataRepository viewDataRepository,
+			@NonNull final ViewId viewId,
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final DocumentId rowId,
+			@NonNull final Supplier<IViewRow> rowLoader)
+	{
+		final RowScope scope = RowScope.of(viewDataRepository, viewId, viewEvalCtx);
+		return getRowsByScope(viewDataRepository, rowId)
+				.computeIfAbsent(scope, k -> rowLoader.get());
+	}
+
+	public void putAll(
+			@NonNull final SqlViewDataRepository viewDataRepository,
+			@NonNull final ViewId viewId,
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final List<IViewRow> rows)
+	{
+		if (rows.isEmpty())
+		{
+			return;
+		}
+
+		final RowScope scope = RowScope.of(viewDataRepository, viewId, viewEvalCtx);
+		for (final IViewRow row : rows)
+		{
+			getRowsByScope(viewDataRepository, row.getId()).put(scope, row);
+		}
+	}
+
+	private ConcurrentHashMap<RowScope, IViewRow> getRowsByScope(final SqlViewDataRepository viewDataRepository, final DocumentId rowId)
+	{
+		return getCache(TableKey.of(viewDataRepository))
+				.getOrLoad(rowId, k -> new ConcurrentHashMap<>());
+	}
+
+	private CCache<DocumentId, ConcurrentHashMap<RowScope, IViewRow>> getCache(final TableKey tableKey)
+	{
+		return cachesByTableKey.computeIfAbsent(tableKey, ViewRowsSharedCache::createCache);
+	}
+
+	private static CCache<DocumentId, ConcurrentHashMap<RowScope, IViewRow>> createCache(final TableKey tableKey)
+	{
+		return CCache.<DocumentId, ConcurrentHashMap<RowScope, IViewRow>> builder()
+				.cacheMapType(CacheMapType.LRU)
+				.cacheName("ViewRows#" + tableKey.getTableName() + (tableKey.isRowIdIsRecordId() ? "" : "#composed"))
+				.tableName(tableKey.getTableName())
+				.initialCapacity(MAX_ROW_IDS_PER_TABLE) // i.e. max size
+				.expireMinutes(EXPIRE_MINUTES)
+				.invalidationKeysMapper(tableKey.isRowIdIsRecordId()
+						? recordRef -> ImmutableList.of(DocumentId.of(recordRef.getRecord_ID()))
+						: null)
+				.build();
+	}
+
+	public void invalidateRowIds(@NonNull final String tableName, @NonNull final Collection<DocumentId> rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return;
+		}
+
+		streamCaches(tableName).forEach(cache -> cache.removeAll(rowIds));
+	}
+
+	public void invalidateAll(@NonNull final String tableName)
+	{
+		streamCaches(tableName).forEach(CCache::reset);
+	}
+
+	private Stream<CCache<DocumentId, ConcurrentHashMap<RowScope, IViewRow>>> streamCaches(final String tableName)
+	{
+		return cachesByTableKey.entrySet()
+				.stream()
+				.filter(entry -> tableName.equals(entry.getKey().getTableName()))
+				.map(Map.Entry::getValue);
+	}
+
+	@Value(staticConstructor = "of")
+	private static class TableKey
+	{
+		@NonNull
+		String tableName;
+		boolean rowIdIsRecordId;
+
+		static TableKey of(@NonNull final SqlViewDataRepository viewDataRepository)
+		{
+			return of(viewDataRepository.getTableName(), viewDataRepository.isRowIdSameAsRecordId());
+		}
+	}
+
+	@Value
+	private static class RowScope
+	{
+		/** Rows loaded using the same view binding are interchangeable. Compared by identity. */
+		@NonNull
+		Object viewBinding;
+
+		@NonNull
+		Optional<UserId> loggedUserId;
+		@NonNull
+		String adLanguage;
+		@NonNull
+		ZoneId timeZone;
+		@NonNull
+		UserRolePermissionsKey permissionsKey;
+
+		/**
+		 * Set only if the row IDs are not the record IDs (e.g. grouped rows or rows with included rows),
+		 * because then the rows are loaded from the view's own selection and can't be shared with other views.
+		 */
+		@Nullable
+		ViewId viewId;
+
+		static RowScope of(
+				@NonNull final SqlViewDataRepository viewDataRepository,
+				@NonNull final ViewId viewId,
+				@NonNull final ViewEvaluationCtx viewEvalCtx)
+		{
+			return new RowScope(
+					viewDataRepository.getViewBinding(),
+					viewEvalCtx.getLoggedUserId(),
+					viewEvalCtx.getAdLanguage(),
+					viewEvalCtx.getTimeZone(),
+					viewEvalCtx.getPermissionsKey(),
+					viewDataRepository.isRowIdSameAsRecordId() ? null : viewId);
+		}
+	}
+}
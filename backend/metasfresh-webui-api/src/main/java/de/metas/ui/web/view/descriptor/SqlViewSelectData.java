@@ -66,6 +66,8 @@ public class SqlViewSelectData
 	public static final String COLUMNNAME_Paging_SeqNo_OneBased = COLUMNNAME_Paging_Prefix + I_T_WEBUI_ViewSelection.COLUMNNAME_Line;
 	public static final String COLUMNNAME_Paging_Parent_Prefix = COLUMNNAME_Paging_Prefix + "parent_";
 	public static final String COLUMNNAME_IsRecordMissing = COLUMNNAME_Paging_Prefix + "IsRecordMissing";
+	private static final String COLUMNNAME_FieldValueCount_Prefix = "_facet_";
+	public static final String COLUMNNAME_FieldValueCount_Count = COLUMNNAME_FieldValueCount_Prefix + "count";
 
 	private final String sqlTableName;
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
@@ -453,60 +455,76 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, sqlParams);
 	}
 
-	public SqlAndParams selectFieldValues(
+	/**
+	 * @return name of the column which is 0 if the result row of {@link #selectFieldValueCounts(ViewEvaluationCtx, String, List)} is counting the field at given index
+	 */
+	public static String getFieldValueCountGroupingColumnName(final int fieldIndex)
+	{
+		return COLUMNNAME_FieldValueCount_Prefix + "grouping_" + fieldIndex;
+	}
+
+	/**
+	 * Builds one query which counts the rows of given selection for each distinct value of each of given fields.
+	 * <p>
+	 * Each result row is counting one field (see {@link #getFieldValueCountGroupingColumnName(int)}) and the rows are ordered by count, descending.
+	 */
+	public SqlAndParams selectFieldValueCounts(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
 			@NonNull final String selectionId,
-			@NonNull final String fieldName,
-			final int limit)
+			@NonNull final List<String> fieldNames)
 	{
-		Check.assumeGreaterThanZero(limit, "limit");
+		Check.assumeNotEmpty(fieldNames, "fieldNames is not empty");
 
-		final SqlViewRowFieldBinding field = fieldsByFieldName.get(fieldName);
-		if (field == null)
+		final StringBuilder sqlGroupingColumns = new StringBuilder();
+		final StringBuilder sqlOuterColumns = new StringBuilder();
+		final CompositeStringExpression.Builder sqlInnerColumns = IStringExpression.composer();
+		final StringBuilder sqlGroupingSets = new StringBuilder();
+		for (int fieldIndex = 0; fieldIndex < fieldNames.size(); fieldIndex++)
 		{
-			throw new AdempiereException("Field `" + fieldName + "` not found. Available fields are: " + fieldsByFieldName.keySet());
-		}
+			final String fieldName = fieldNames.get(fieldIndex);
+			final SqlViewRowFieldBinding field = fieldsByFieldName.get(fieldName);
+			if (field == null)
+			{
+				throw new AdempiereException("Field `" + fieldName + "` not found. Available fields are: " + fieldsByFieldName.keySet());
+			}
 
-		final SqlSelectValue sqlValue = field.getSqlSelectValue();
+			final SqlSelectValue sqlValue = field.getSqlSelectValue();
+			final SqlSelectDisplayValue sqlDisplayValue = field.getSqlSelectDisplayValue() != null && displayFieldNames.contains(fieldName)
+					? field.getSqlSelectDisplayValue()
+					: null;
 
-		final SqlSelectDisplayValue sqlDisplayValue;
-		if (field.getSqlSelectDisplayValue() != null && displayFieldNames.contains(fieldName))
-		{
-			sqlDisplayValue = field.getSqlSelectDisplayValue();
-		}
-		else
-		{
-			sqlDisplayValue = null;
-		}
+			final String separator = fieldIndex > 0 ? ", " : "";
+			sqlGroupingColumns.append(separator).append("GROUPING(").append(sqlValue.getColumnNameAlias()).append(") AS ").append(getFieldValueCountGroupingColumnName(fieldIndex));
 
-		final CompositeStringExpression.Builder sqlExpression = IStringExpression.composer()
-				.append("SELECT DISTINCT ")
-				.append(sqlValue.getColumnNameAlias());
-		if (sqlDisplayValue != null)
-		{
-			sqlExpression.append(", ").append(sqlDisplayValue.getColumnNameAlias());
+			sqlOuterColumns.append(", ").append(sqlValue.getColumnNameAlias());
+			sqlInnerColumns.append(separator).append("\n ").append(sqlValue.withJoinOnTableNameOrAlias(sqlTableName).toSqlStringWithColumnNameAlias());
+			sqlGroupingSets.append(separator).append("(").append(sqlValue.getColumnNameAlias());
+			if (sqlDisplayValue != null)
+			{
+				sqlOuterColumns.append(", ").append(sqlDisplayValue.getColumnNameAlias());
+				sqlInnerColumns.append("\n, ").append(sqlDisplayValue.withJoinOnTableNameOrAlias(sqlTableName).toStringExpressionWithColumnNameAlias());
+				sqlGroupingSets.append(", ").append(sqlDisplayValue.getColumnNameAlias());
+			}
+			sqlGroupingSets.append(")");
 		}
 
-		sqlExpression
+		final String sql = IStringExpression.composer()
+				.append("SELECT ").append(sqlGroupingColumns)
+				.append(sqlOuterColumns)
+				.append(", COUNT(1) AS " + COLUMNNAME_FieldValueCount_Count)
 				.append("\n FROM (")
 				.append("\n SELECT ")
-				.append("\n ").append(sqlValue.withJoinOnTableNameOrAlias(sqlTableName).toSqlStringWithColumnNameAlias());
-		if (sqlDisplayValue != null)
-		{
-			sqlExpression
-					.append("\n, ").append(sqlDisplayValue.withJoinOnTableNameOrAlias(sqlTableName).toStringExpressionWithColumnNameAlias());
-		}
-		sqlExpression.append("\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel")
+				.append(sqlInnerColumns.build())
+				.append("\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel")
 				.append("\n INNER JOIN " + sqlTableName + " ON (" + keyColumnNamesMap.getSqlJoinCondition(sqlTableName, "sel") + ")")
 				// Filter by UUID. Keep this closer to the source table, see https://github.com/metasfresh/metasfresh-webui-api/issues/437
 				.append("\n WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?")
-				.append("\n ORDER BY sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_Line)
 				.append("\n) t")
-				.append("\n LIMIT ?");
-
-		final String sql = sqlExpression.build()
+				.append("\n GROUP BY GROUPING SETS (").append(sqlGroupingSets).append(")")
+				.append("\n ORDER BY " + COLUMNNAME_FieldValueCount_Count + " DESC")
+				.build()
 				.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
 
-		return SqlAndParams.of(sql, selectionId, limit);
+		return SqlAndParams.of(sql, selectionId);
 	}
 }
@@ -768,6 +768,100 @@ public final class SqlViewSelectionQueryBuilder
 				.build();
 	}
 
+	/**
+	 * Builds the SQL which appends to given selection those of the given rowIds which are matching the filters and which are not already part of the selection.
+	 * The added rows are ordered by the selection's order by, after the rows which are already in the selection.
+	 */
+	public SqlAndParams buildSqlAddRowIdsMatchingFilters(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final String selectionId,
+			@NonNull final DocumentQueryOrderByList orderBys,
+			@NonNull final DocumentFilterList filters,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final SqlDocumentFilterConverterContext filterConverterCtx)
+	{
+		Check.assume(!rowIds.isEmpty() && !rowIds.isAll(), "rowIds shall be a not empty, explicit list of rowIds: {}", rowIds);
+
+		final String sqlTableName = getTableName();
+		final String sqlTableAlias = getTableAlias();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		//
+		// INSERT INTO T_WEBUI_ViewSelection (...)
+		final CompositeStringExpression.Builder sqlBuilder = IStringExpression.composer();
+		sqlBuilder.append("INSERT INTO " + I_T_WEBUI_ViewSelection.Table_Name + " ("
+				+ " " + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID
+				+ ", " + I_T_WEBUI_ViewSelection.COLUMNNAME_Line // SeqNo
+				+ ", " + keyColumnNamesMap.getWebuiSelectionColumnNamesCommaSeparated() // keys: IntKey1... StringKey1...
+				+ ")");
+
+		//
+		// SELECT ... FROM ... WHERE 1=1
+		final ArrayList<Object> sqlParams = new ArrayList<>();
+		{
+			final IStringExpression sqlOrderBy = SqlDocumentOrderByBuilder.newInstance(this::getFieldOrderBy)
+					.joinOnTableNameOrAlias(sqlTableAlias)
+					.useColumnNameAlias(false)
+					.buildSqlOrderBy(orderBys)
+					.orElseGet(() -> ConstantStringExpression.of(keyColumnNamesMap.getKeyColumnNamesCommaSeparated(sqlTableAlias)));
+
+			final IStringExpression sqlSeqNo = IStringExpression.composer()
+					.append("(select coalesce(max(z.Line), 0) from " + I_T_WEBUI_ViewSelection.Table_Name + " z where z.UUID=?)")
+					.append(" + row_number() OVER (ORDER BY ").append(sqlOrderBy).append(")")
+					.build();
+
+			sqlBuilder.append(
+					IStringExpression.composer()
+							.append("\n SELECT ")
+							.append("\n  ?") // UUID
+							.append("\n, ").append(sqlSeqNo) // Line/SeqNo
+							.append("\n, ").append(keyColumnNamesMap.getKeyColumnNamesCommaSeparated(sqlTableAlias)) // keys
+							//
+							.append("\n FROM ").append(sqlTableName).append(" ").append(sqlTableAlias)
+							.append("\n WHERE 1=1 ")
+							.wrap(securityRestrictionsWrapper(sqlTableAlias)) // security
+			);
+			sqlParams.add(selectionId); // UUID
+			sqlParams.add(selectionId); // max(Line)
+		}
+
+		//
+		// WHERE clause (from query)
+		{
+			final SqlParamsCollector sqlWhereClauseParams = SqlParamsCollector.newInstance();
+			final IStringExpression sqlWhereClause = buildSqlWhereClause(sqlWhereClauseParams, filters, SqlOptions.usingTableAlias(sqlTableAlias), filterConverterCtx);
+
+			if (sqlWhereClause != null && !sqlWhereClause.isNullExpression())
+			{
+				sqlBuilder.append("\n AND (\n").append(sqlWhereClause).append("\n)");
+				sqlParams.addAll(sqlWhereClauseParams.toList());
+			}
+		}
+
+		//
+		// Only given rowIds which are not already in selection
+		{
+			final SqlAndParams sqlFilterByRowIds = keyColumnNamesMap.prepareSqlFilterByRowIds()
+					.sqlColumnPrefix(sqlTableAlias + ".")
+					.useKeyColumnName(true)
+					.rowIds(rowIds)
+					.rowIdsConverter(getRowIdsConverter())
+					.embedSqlParams(true)
+					.build();
+			sqlBuilder.append("\n AND (").append(sqlFilterByRowIds.getSql()).append(")");
+
+			sqlBuilder.append("\n AND NOT EXISTS (select 1 from " + I_T_WEBUI_ViewSelection.Table_Name + " sel"
+					+ " where sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=" + DB.TO_STRING(selectionId)
+					+ " and " + keyColumnNamesMap.getSqlJoinCondition(sqlTableAlias, "sel")
+					+ ")");
+		}
+
+		//
+		// Evaluate the final SQL query
+		final String sql = sqlBuilder.build().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
 	public SqlAndParams buildSqlRetrieveSize(final String selectionId)
 	{
 		Check.assumeNotEmpty(selectionId, "selectionId is not empty");
@@ -775,6 +869,57 @@ public final class SqlViewSelectionQueryBuilder
 		return SqlAndParams.of("SELECT COUNT(1) FROM " + I_T_WEBUI_ViewSelection.Table_Name + " WHERE " + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?", selectionId);
 	}
 
+	/**
+	 * @return true if the selection's rows are identified by one integer key, i.e. the selection can be indexed in memory as (Line, IntKey) pairs
+	 */
+	public boolean isSingleIntKeySelection()
+	{
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+		return !hasGroupingFields()
+				&& keyColumnNamesMap.isSingleKey()
+				&& I_T_WEBUI_ViewSelection.COLUMNNAME_IntKeys.contains(keyColumnNamesMap.getSingleWebuiSelectionColumnName());
+	}
+
+	/**
+	 * @return SQL which is selecting the Line and the single integer key of each selection row, ordered by Line
+	 * @see #isSingleIntKeySelection()
+	 */
+	public SqlAndParams buildSqlRetrieveLinesAndIntKeys(final String selectionId)
+	{
+		Check.assumeNotEmpty(selectionId, "selectionId is not empty");
+		Check.assume(isSingleIntKeySelection(), "selection shall have a single integer key: {}", getSqlViewKeyColumnNamesMap());
+
+		final String keyColumnName = getSqlViewKeyColumnNamesMap().getSingleWebuiSelectionColumnName();
+		return SqlAndParams.of(
+				"SELECT " + I_T_WEBUI_ViewSelection.COLUMNNAME_Line + ", " + keyColumnName
+						+ " FROM " + I_T_WEBUI_ViewSelection.Table_Name
+						+ " WHERE " + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?"
+						+ " ORDER BY " + I_T_WEBUI_ViewSelection.COLUMNNAME_Line,
+				selectionId);
+	}
+
+	/**
+	 * @return SQL which is selecting those of the given rowIds which still have a record in the view's table
+	 * @see #isSingleIntKeySelection()
+	 */
+	public SqlAndParams buildSqlRetrieveExistingRowIds(@NonNull final DocumentIdsSelection rowIds)
+	{
+		Check.assume(!rowIds.isEmpty() && !rowIds.isAll(), "rowIds shall be a not empty, explicit list of rowIds: {}", rowIds);
+		Check.assume(isSingleIntKeySelection(), "selection shall have a single integer key: {}", getSqlViewKeyColumnNamesMap());
+
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+		final SqlAndParams sqlFilterByRowIds = keyColumnNamesMap.prepareSqlFilterByRowIds()
+				.useKeyColumnName(true)
+				.rowIds(rowIds) // NOTE: the selection's IntKeys are the record IDs already
+				.build();
+
+		return SqlAndParams.of(
+				"SELECT " + keyColumnNamesMap.getSingleKeyColumnName()
+						+ " FROM " + getTableName()
+						+ " WHERE " + sqlFilterByRowIds.getSql(),
+				sqlFilterByRowIds.getSqlParams());
+	}
+
 	public SqlAndParams buildSqlCount(final String selectionId, final DocumentIdsSelection rowIds)
 	{
 		Check.assumeNotEmpty(selectionId, "selectionId is not empty");
@@ -0,0 +1,161 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.adempiere.service.ClientId;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.security.RoleId;
+import de.metas.security.UserRolePermissionsKey;
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.document.filter.DocumentFilterList;
+import de.metas.ui.web.document.filter.DocumentFilterParam;
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
+import de.metas.ui.web.view.descriptor.SqlAndParams;
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
+import de.metas.ui.web.view.descriptor.SqlViewSelectionQueryBuilder;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.SqlSelectValue;
+import de.metas.ui.web.window.model.DocumentQueryOrderByList;
+import de.metas.user.UserId;
+
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowIdsOrderedIndexTest
+
+/**
+ * Tests the SQLs with which {@link SqlViewDataRepository#updateSelectionForChangedRowIds(ViewEvaluationCtx, ViewRowIdsOrderedSelection, DocumentFilterList, boolean, java.util.Set)}
+ * is updating a selection in place.
+ */
+public class SqlViewDataRepositoryTest
+{
+	private static final DocumentId ROW_ID_NO_LONGER_MATCHING = DocumentId.of(10);
+	private static final DocumentId ROW_ID_NEWLY_MATCHING = DocumentId.of(20);
+
+	private SqlViewBinding viewBinding;
+	private SqlViewDataRepository viewDataRepository;
+	private ViewEvaluationCtx viewEvalCtx;
+	private ViewId viewId;
+	private DocumentFilterList filters;
+
+	@BeforeEach
+	public void beforeEach()
+	{
+		AdempiereTestHelper.get().init();
+
+		viewBinding = SqlViewBinding.builder()
+				.tableName("C_Order")
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName("C_Order_ID")
+						.columnName("C_Order_ID")
+						.keyColumn(true)
+						.widgetType(DocumentFieldWidgetType.Integer)
+						.sqlValueClass(Integer.class)
+						.sqlSelectValue(SqlSelectValue.builder()
+								.columnName("C_Order_ID")
+								.columnNameAlias("C_Order_ID")
+								.build())
+						.fieldLoader((rs, adLanguage) -> null)
+						.build())
+				.displayFieldNames("C_Order_ID")
+				.build();
+		viewDataRepository = new SqlViewDataRepository(viewBinding);
+
+		viewEvalCtx = ViewEvaluationCtx._builder()
+				.loggedUserId(Optional.of(UserId.METASFRESH))
+				.adLanguage("de_DE")
+				.timeZone(ZoneId.of("Europe/Berlin"))
+				.permissionsKey(UserRolePermissionsKey.of(RoleId.SYSTEM, UserId.METASFRESH, ClientId.METASFRESH, LocalDate.parse("2020-10-01")))
+				.build();
+
+		viewId = ViewId.random(WindowId.of(123));
+
+		filters = DocumentFilterList.of(DocumentFilter.builder()
+				.setFilterId("completed")
+				.addParameter(DocumentFilterParam.ofSqlWhereClause(true, "C_Order.DocStatus='CO'"))
+				.build());
+	}
+
+	@Test
+	public void changedRowNoLongerMatchingFilters_isRemovedFromSelection()
+	{
+		// the changed rows of the selection which still match the filters are retrieved...
+		final SqlAndParams sqlMatching = viewDataRepository.buildSqlRetrieveRowIdsMatchingFilters(
+				viewId,
+				filters,
+				ImmutableSet.of(ROW_ID_NO_LONGER_MATCHING, ROW_ID_NEWLY_MATCHING));
+		assertThat(sqlMatching.getSql())
+				.startsWith("SELECT C_Order_ID\n FROM C_Order\n WHERE ")
+				.contains("exists (select 1 from T_WEBUI_ViewSelection sel ")
+				.contains("UUID='" + viewId.getViewId() + "' and C_Order.C_Order_ID=sel.IntKey1)")
+				.contains("C_Order.C_Order_ID IN (10,20)")
+				.contains("C_Order.DocStatus='CO'");
+
+		// ...and the one which was not retrieved is deleted from the selection
+		final SqlAndParams sqlDelete = SqlViewSelectionQueryBuilder.newInstance(viewBinding)
+				.buildSqlDeleteRowIdsFromSelection(viewId.getViewId(), DocumentIdsSelection.of(ImmutableList.of(ROW_ID_NO_LONGER_MATCHING)));
+		assertThat(sqlDelete.getSql()).isEqualToIgnoringWhitespace("DELETE FROM T_WEBUI_ViewSelection WHERE UUID=? AND (IntKey1 IN (?))");
+		assertThat(sqlDelete.getSqlParams()).containsExactly(viewId.getViewId(), 10);
+	}
+
+	@Test
+	public void changedRowNewlyMatchingFilters_isAppendedToSelection()
+	{
+		final SqlAndParams sqlAdd = SqlViewSelectionQueryBuilder.newInstance(viewBinding)
+				.applySecurityRestrictions(false)
+				.buildSqlAddRowIdsMatchingFilters(
+						viewEvalCtx,
+						viewId.getViewId(),
+						DocumentQueryOrderByList.EMPTY,
+						filters,
+						DocumentIdsSelection.of(ImmutableList.of(ROW_ID_NEWLY_MATCHING)),
+						SqlDocumentFilterConverterContext.EMPTY);
+
+		assertThat(sqlAdd.getSql())
+				// appended after the rows which are already in the selection
+				.startsWith("INSERT INTO T_WEBUI_ViewSelection ( UUID, Line, IntKey1)")
+				.contains("(select coalesce(max(z.Line), 0) from T_WEBUI_ViewSelection z where z.UUID=?) + row_number() OVER (ORDER BY C_Order.C_Order_ID)")
+				.contains("FROM C_Order C_Order")
+				// only if it's matching the filters...
+				.contains("C_Order.DocStatus='CO'")
+				// ...and only the changed row...
+				.contains("C_Order.C_Order_ID IN (20)")
+				// ...and only if it's not already in the selection
+				.contains("NOT EXISTS (select 1 from T_WEBUI_ViewSelection sel where sel.UUID='" + viewId.getViewId() + "' and C_Order.C_Order_ID=sel.IntKey1)");
+		assertThat(sqlAdd.getSqlParams()).containsExactly(viewId.getViewId(), viewId.getViewId());
+	}
+}
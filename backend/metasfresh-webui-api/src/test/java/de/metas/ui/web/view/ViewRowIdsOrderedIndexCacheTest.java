@@ -0,0 +1,115 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowIdsOrderedIndexCacheTest
+{
+	private static ViewRowIdsOrderedIndex index(final int size)
+	{
+		final int[] lines = new int[size];
+		final int[] rowIds = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			lines[i] = i + 1;
+			rowIds[i] = 1000 + i;
+		}
+		return ViewRowIdsOrderedIndex.ofOrderedArrays(lines, rowIds);
+	}
+
+	private static Supplier<ViewRowIdsOrderedIndex> countingLoader(final int size, final AtomicInteger loadCount)
+	{
+		return () -> {
+			loadCount.incrementAndGet();
+			return index(size);
+		};
+	}
+
+	@Test
+	public void getOrLoad_loadsOnce()
+	{
+		final ViewRowIdsOrderedIndexCache cache = new ViewRowIdsOrderedIndexCache(100, 30);
+		final AtomicInteger loadCount = new AtomicInteger();
+
+		final ViewRowIdsOrderedIndex index = cache.getOrLoad("selection1", countingLoader(10, loadCount));
+		assertThat(cache.getOrLoad("selection1", countingLoader(10, loadCount))).isSameAs(index);
+		assertThat(cache.getIfPresent("selection1")).isSameAs(index);
+		assertThat(loadCount).hasValue(1);
+	}
+
+	@Test
+	public void invalidate()
+	{
+		final ViewRowIdsOrderedIndexCache cache = new ViewRowIdsOrderedIndexCache(100, 30);
+		final AtomicInteger loadCount = new AtomicInteger();
+		cache.getOrLoad("selection1", countingLoader(10, loadCount));
+		cache.getOrLoad("selection2", countingLoader(10, loadCount));
+
+		cache.invalidate("selection1");
+		assertThat(cache.getIfPresent("selection1")).isNull();
+		assertThat(cache.getIfPresent("selection2")).isNotNull();
+
+		// the selection's rows changed => the index is loaded again
+		cache.getOrLoad("selection1", countingLoader(10, loadCount));
+		assertThat(loadCount).hasValue(3);
+	}
+
+	@Test
+	public void invalidateAll()
+	{
+		final ViewRowIdsOrderedIndexCache cache = new ViewRowIdsOrderedIndexCache(100, 30);
+		final AtomicInteger loadCount = new AtomicInteger();
+		cache.getOrLoad("selection1", countingLoader(10, loadCount));
+		cache.getOrLoad("selection2", countingLoader(10, loadCount));
+		cache.getOrLoad("selection3", countingLoader(10, loadCount));
+
+		cache.invalidateAll(ImmutableSet.of("selection1", "selection2"));
+		assertThat(cache.getIfPresent("selection1")).isNull();
+		assertThat(cache.getIfPresent("selection2")).isNull();
+		assertThat(cache.getIfPresent("selection3")).isNotNull();
+	}
+
+	@Test
+	public void boundedByTotalRows()
+	{
+		final ViewRowIdsOrderedIndexCache cache = new ViewRowIdsOrderedIndexCache(100, 30);
+		final AtomicInteger loadCount = new AtomicInteger();
+
+		cache.getOrLoad("selection1", countingLoader(40, loadCount));
+		cache.getOrLoad("selection2", countingLoader(40, loadCount));
+		assertThat(cache.getTotalRows()).isEqualTo(80);
+
+		cache.getOrLoad("selection3", countingLoader(40, loadCount));
+		assertThat(cache.getTotalRows()).isLessThanOrEqualTo(100);
+		assertThat(cache.getIfPresent("selection1")).isNull(); // least recently used
+		assertThat(cache.getIfPresent("selection3")).isNotNull();
+	}
+}
@@ -0,0 +1,73 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowIdsOrderedIndexTest
+{
+	@Test
+	public void getRowIdsByPage()
+	{
+		final ViewRowIdsOrderedIndex index = ViewRowIdsOrderedIndex.ofOrderedArrays(
+				new int[] { 1, 2, 3, 4, 5 },
+				new int[] { 50, 40, 30, 20, 10 });
+
+		assertThat(index.getRowIdsByPage(0, 2)).containsExactly(DocumentId.of(50), DocumentId.of(40));
+		assertThat(index.getRowIdsByPage(2, 2)).containsExactly(DocumentId.of(30), DocumentId.of(20));
+		assertThat(index.getRowIdsByPage(4, 2)).containsExactly(DocumentId.of(10));
+		assertThat(index.getRowIdsByPage(5, 2)).isEmpty();
+	}
+
+	@Test
+	public void getRowIdsByPage_linesWithGaps()
+	{
+		// lines 2 and 4 were removed from selection
+		final ViewRowIdsOrderedIndex index = ViewRowIdsOrderedIndex.ofOrderedArrays(
+				new int[] { 1, 3, 5 },
+				new int[] { 50, 30, 10 });
+
+		// same as SQL: Line BETWEEN firstRow+1 AND firstRow+pageLength
+		assertThat(index.getRowIdsByPage(0, 2)).containsExactly(DocumentId.of(50));
+		assertThat(index.getRowIdsByPage(1, 2)).containsExactly(DocumentId.of(30));
+		assertThat(index.getRowIdsByPage(2, 3)).containsExactly(DocumentId.of(30), DocumentId.of(10));
+	}
+
+	@Test
+	public void containsAnyOf()
+	{
+		final ViewRowIdsOrderedIndex index = ViewRowIdsOrderedIndex.ofOrderedArrays(
+				new int[] { 1, 2, 3 },
+				new int[] { 30, 10, 20 });
+
+		assertThat(index.containsAnyOf(ImmutableList.of(DocumentId.of(99), DocumentId.of(10)))).isTrue();
+		assertThat(index.containsAnyOf(ImmutableList.of(DocumentId.of(99)))).isFalse();
+		assertThat(index.containsAnyOf(ImmutableList.of(DocumentId.ofComposedKeyParts(ImmutableList.<Object> of(10, 20))))).isFalse();
+	}
+}
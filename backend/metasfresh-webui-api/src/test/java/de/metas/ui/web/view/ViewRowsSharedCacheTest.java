@@ -0,0 +1,112 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.adempiere.service.ClientId;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.security.RoleId;
+import de.metas.security.UserRolePermissionsKey;
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.user.UserId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowsSharedCacheTest
+{
+	private static final WindowId WINDOW_ID = WindowId.of(123);
+	private static final DocumentId ROW_ID = DocumentId.of(1);
+
+	private final ViewRowsSharedCache cache = ViewRowsSharedCache.instance;
+	private ViewEvaluationCtx viewEvalCtx;
+
+	@BeforeEach
+	public void beforeEach()
+	{
+		AdempiereTestHelper.get().init();
+
+		viewEvalCtx = ViewEvaluationCtx._builder()
+				.loggedUserId(Optional.of(UserId.METASFRESH))
+				.adLanguage("de_DE")
+				.timeZone(ZoneId.of("Europe/Berlin"))
+				.permissionsKey(UserRolePermissionsKey.of(RoleId.SYSTEM, UserId.METASFRESH, ClientId.METASFRESH, LocalDate.parse("2020-10-01")))
+				.build();
+	}
+
+	private static SqlViewDataRepository viewDataRepository(final String tableName, final boolean rowIdIsRecordId)
+	{
+		final SqlViewDataRepository viewDataRepository = Mockito.mock(SqlViewDataRepository.class);
+		Mockito.doReturn(tableName).when(viewDataRepository).getTableName();
+		Mockito.doReturn(rowIdIsRecordId).when(viewDataRepository).isRowIdSameAsRecordId();
+		Mockito.doReturn(Mockito.mock(SqlViewBinding.class)).when(viewDataRepository).getViewBinding();
+		return viewDataRepository;
+	}
+
+	private static IViewRow row()
+	{
+		final IViewRow row = Mockito.mock(IViewRow.class);
+		Mockito.doReturn(ROW_ID).when(row).getId();
+		return row;
+	}
+
+	@Test
+	public void rowIdIsRecordId_rowsAreSharedBetweenViews()
+	{
+		final SqlViewDataRepository viewDataRepository = viewDataRepository("Test_Plain", true);
+		final ViewId viewId1 = ViewId.random(WINDOW_ID);
+		final ViewId viewId2 = ViewId.random(WINDOW_ID);
+
+		final IViewRow row = row();
+		cache.putAll(viewDataRepository, viewId1, viewEvalCtx, ImmutableList.of(row));
+
+		assertThat(cache.getOrLoad(viewDataRepository, viewId2, viewEvalCtx, ROW_ID, ViewRowsSharedCacheTest::row)).isSameAs(row);
+	}
+
+	@Test
+	public void groupedRows_differentlyFilteredViews_rowsAreNotShared()
+	{
+		final SqlViewDataRepository viewDataRepository = viewDataRepository("Test_Grouped", false);
+		final ViewId viewId1 = ViewId.random(WINDOW_ID); // e.g. filtered by one warehouse
+		final ViewId viewId2 = ViewId.random(WINDOW_ID); // e.g. filtered by another warehouse
+
+		final IViewRow aggregatedRowOfView1 = row();
+		cache.putAll(viewDataRepository, viewId1, viewEvalCtx, ImmutableList.of(aggregatedRowOfView1));
+
+		final IViewRow aggregatedRowOfView2 = row();
+		assertThat(cache.getOrLoad(viewDataRepository, viewId2, viewEvalCtx, ROW_ID, () -> aggregatedRowOfView2)).isSameAs(aggregatedRowOfView2);
+
+		assertThat(cache.getOrLoad(viewDataRepository, viewId1, viewEvalCtx, ROW_ID, ViewRowsSharedCacheTest::row)).isSameAs(aggregatedRowOfView1);
+		assertThat(cache.getOrLoad(viewDataRepository, viewId2, viewEvalCtx, ROW_ID, ViewRowsSharedCacheTest::row)).isSameAs(aggregatedRowOfView2);
+	}
+}
@@ -0,0 +1,103 @@
+package de.metas.ui.web.view.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.SqlSelectValue;
+
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowIdsOrderedIndexTest
+
+public class SqlViewSelectionQueryBuilderTest
+{
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	private static SqlViewRowFieldBinding field(final String columnName, final Class<?> sqlValueClass, final boolean keyColumn)
+	{
+		return SqlViewRowFieldBinding.builder()
+				.fieldName(columnName)
+				.columnName(columnName)
+				.keyColumn(keyColumn)
+				.widgetType(Integer.class.equals(sqlValueClass) ? DocumentFieldWidgetType.Integer : DocumentFieldWidgetType.Text)
+				.sqlValueClass(sqlValueClass)
+				.sqlSelectValue(SqlSelectValue.builder()
+						.columnName(columnName)
+						.columnNameAlias(columnName)
+						.build())
+				.fieldLoader((rs, adLanguage) -> null)
+				.build();
+	}
+
+	private static SqlViewSelectionQueryBuilder newQueryBuilder(final SqlViewRowFieldBinding keyField)
+	{
+		final SqlViewBinding viewBinding = SqlViewBinding.builder()
+				.tableName("C_Order")
+				.field(keyField)
+				.field(field("DocumentNo", String.class, false))
+				.displayFieldNames("DocumentNo")
+				.build();
+		return SqlViewSelectionQueryBuilder.newInstance(viewBinding);
+	}
+
+	@Test
+	public void isSingleIntKeySelection()
+	{
+		assertThat(newQueryBuilder(field("C_Order_ID", Integer.class, true)).isSingleIntKeySelection()).isTrue();
+		assertThat(newQueryBuilder(field("Value", String.class, true)).isSingleIntKeySelection()).isFalse();
+	}
+
+	@Test
+	public void buildSqlRetrieveLinesAndIntKeys()
+	{
+		final SqlAndParams sql = newQueryBuilder(field("C_Order_ID", Integer.class, true))
+				.buildSqlRetrieveLinesAndIntKeys("selection1");
+
+		assertThat(sql.getSql()).isEqualTo("SELECT Line, IntKey1 FROM T_WEBUI_ViewSelection WHERE UUID=? ORDER BY Line");
+		assertThat(sql.getSqlParams()).containsExactly("selection1");
+	}
+
+	@Test
+	public void buildSqlRetrieveExistingRowIds()
+	{
+		final SqlAndParams sql = newQueryBuilder(field("C_Order_ID", Integer.class, true))
+				.buildSqlRetrieveExistingRowIds(DocumentIdsSelection.of(ImmutableList.of(DocumentId.of(10), DocumentId.of(20))));
+
+		// checking the view's table and not the selection, like the SQL which is loading the rows by page
+		assertThat(sql.getSql()).isEqualToIgnoringWhitespace("SELECT C_Order_ID FROM C_Order WHERE C_Order_ID IN (?,?)");
+		assertThat(sql.getSqlParams()).containsExactlyInAnyOrder(10, 20);
+	}
+}